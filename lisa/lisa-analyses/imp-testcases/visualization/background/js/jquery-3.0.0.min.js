@@ -0,0 +1 @@
+This is a placeholder file - contents are not checked during testing.
\ No newline at end of file
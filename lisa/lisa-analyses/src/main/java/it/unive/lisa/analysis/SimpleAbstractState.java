@@ -107,11 +107,8 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 			T tmp = type.assign(id, expr, pp);
 
 			Set<Type> rt = tmp.getRuntimeTypesOf(expr, pp);
-			id.setRuntimeTypes(rt);
-			expr.setRuntimeTypes(rt);
-
 			typeRes = typeRes.lub(tmp);
-			valueRes = valueRes.lub(value.assign(id, expr, pp));
+			valueRes = valueRes.lub(value.assign(id.withRuntimeTypes(rt), expr.withRuntimeTypes(rt), pp));
 		}
 
 		return new SimpleAbstractState<>(heap, valueRes, typeRes);
@@ -132,16 +129,15 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 		for (ValueExpression expr : exprs) {
 			T tmp = type.smallStepSemantics(expr, pp);
 
-			Set<Type> rt = tmp.getRuntimeTypesOf(expr, pp);
-			expr.setRuntimeTypes(rt);
+			ValueExpression typed = expr.withRuntimeTypes(tmp.getRuntimeTypesOf(expr, pp));
 
 			// if the expression is a memory allocation, its type is registered
 			// in the type domain
-			if (expression instanceof MemoryAllocation && expr instanceof Identifier)
-				tmp = tmp.assign((Identifier) expr, expr, pp);
+			if (expression instanceof MemoryAllocation && typed instanceof Identifier)
+				tmp = tmp.assign((Identifier) typed, typed, pp);
 
 			typeRes = typeRes.lub(tmp);
-			valueRes = valueRes.lub(value.smallStepSemantics(expr, pp));
+			valueRes = valueRes.lub(value.smallStepSemantics(typed, pp));
 		}
 
 		return new SimpleAbstractState<>(heap, valueRes, typeRes);
@@ -150,17 +146,20 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 	private SimpleAbstractState<H, V, T> applySubstitution(H heap, V value, T type, ProgramPoint pp)
 			throws SemanticException {
 		if (heap.getSubstitution() != null && !heap.getSubstitution().isEmpty()) {
-			for (HeapReplacement repl : heap.getSubstitution()) {
+			for (HeapReplacement original : heap.getSubstitution()) {
+				// the replacement is shared with the heap domain: typed copies
+				// of its identifiers are used instead
+				HeapReplacement repl = new HeapReplacement();
 				Set<Type> runtimeTypes;
 				Set<Type> allTypes = new HashSet<Type>();
-				for (Identifier source : repl.getSources()) {
+				for (Identifier source : original.getSources()) {
 					runtimeTypes = type.smallStepSemantics(source, pp).getRuntimeTypesOf(source, pp);
-					source.setRuntimeTypes(runtimeTypes);
+					repl.addSource(source.withRuntimeTypes(runtimeTypes));
 					allTypes.addAll(runtimeTypes);
 				}
 
-				for (Identifier target : repl.getTargets())
-					target.setRuntimeTypes(allTypes);
+				for (Identifier target : original.getTargets())
+					repl.addTarget(target.withRuntimeTypes(allTypes));
 
 				if (repl.getSources().isEmpty())
 					continue;
@@ -195,11 +194,10 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 		V valueRes = value.bottom();
 		for (ValueExpression expr : exprs) {
 			T tmp = type.smallStepSemantics(expr, src);
-			Set<Type> rt = tmp.getRuntimeTypesOf(expr, src);
-			expr.setRuntimeTypes(rt);
+			ValueExpression typed = expr.withRuntimeTypes(tmp.getRuntimeTypesOf(expr, src));
 
-			typeRes = typeRes.lub(type.assume(expr, src, dest));
-			valueRes = valueRes.lub(value.assume(expr, src, dest));
+			typeRes = typeRes.lub(type.assume(typed, src, dest));
+			valueRes = valueRes.lub(value.assume(typed, src, dest));
 		}
 
 		if (typeRes.isBottom() || valueRes.isBottom())
@@ -219,15 +217,14 @@ public class SimpleAbstractState<H extends HeapDomain<H>,
 		Satisfiability valuesat = Satisfiability.BOTTOM;
 		for (ValueExpression expr : rewritten) {
 			T tmp = typeState.smallStepSemantics(expr, pp);
-			Set<Type> rt = tmp.getRuntimeTypesOf(expr, pp);
-			expr.setRuntimeTypes(rt);
+			ValueExpression typed = expr.withRuntimeTypes(tmp.getRuntimeTypesOf(expr, pp));
 
-			Satisfiability sat = typeState.satisfies(expr, pp);
+			Satisfiability sat = typeState.satisfies(typed, pp);
 			if (sat == Satisfiability.BOTTOM)
 				return sat;
 			typesat = typesat.lub(sat);
 
-			sat = valueState.satisfies(expr, pp);
+			sat = valueState.satisfies(typed, pp);
 			if (sat == Satisfiability.BOTTOM)
 				return sat;
 			valuesat = valuesat.lub(sat);
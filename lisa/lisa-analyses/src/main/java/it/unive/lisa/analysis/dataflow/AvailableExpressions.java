@@ -117,16 +117,7 @@ public class AvailableExpressions
 	@Override
 	public Collection<AvailableExpressions> kill(Identifier id, ValueExpression expression, ProgramPoint pp,
 			DefiniteForwardDataflowDomain<AvailableExpressions> domain) {
-		Collection<AvailableExpressions> result = new HashSet<>();
-
-		for (AvailableExpressions ae : domain.getDataflowElements()) {
-			Collection<Identifier> ids = getIdentifierOperands(ae.expression);
-
-			if (ids.contains(id))
-				result.add(ae);
-		}
-
-		return result;
+		return domain.getDataflowElementsInvolving(id);
 	}
 
 	@Override
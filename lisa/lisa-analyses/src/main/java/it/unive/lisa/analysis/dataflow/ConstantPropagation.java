@@ -134,13 +134,7 @@ public class ConstantPropagation
 	@Override
 	public Collection<ConstantPropagation> kill(Identifier id, ValueExpression expression, ProgramPoint pp,
 			DefiniteForwardDataflowDomain<ConstantPropagation> domain) {
-		Collection<ConstantPropagation> result = new HashSet<>();
-
-		for (ConstantPropagation cp : domain.getDataflowElements())
-			if (cp.id.equals(id))
-				result.add(cp);
-
-		return result;
+		return domain.getDataflowElementsInvolving(id);
 	}
 
 	@Override
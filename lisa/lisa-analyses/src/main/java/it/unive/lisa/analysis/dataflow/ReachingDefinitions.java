@@ -11,7 +11,6 @@ import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 
 /**
  * An implementation of the reaching definition dataflow analysis.
@@ -99,13 +98,7 @@ public class ReachingDefinitions
 	@Override
 	public Collection<ReachingDefinitions> kill(Identifier id, ValueExpression expression, ProgramPoint pp,
 			PossibleForwardDataflowDomain<ReachingDefinitions> domain) {
-		Collection<ReachingDefinitions> result = new HashSet<>();
-
-		for (ReachingDefinitions rd : domain.getDataflowElements())
-			if (rd.variable.equals(id))
-				result.add(rd);
-
-		return result;
+		return domain.getDataflowElementsInvolving(id);
 	}
 
 	@Override
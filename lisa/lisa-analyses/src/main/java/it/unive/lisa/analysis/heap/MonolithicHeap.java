@@ -156,10 +156,10 @@ public class MonolithicHeap implements BaseHeapDomain<MonolithicHeap> {
 			child.forEach(e -> acc.add(e.getStaticType()));
 			Type refType = Type.commonSupertype(acc, Untyped.INSTANCE);
 
-			HeapLocation e = new HeapLocation(refType, MONOLITH_NAME, true,
+			Identifier e = new HeapLocation(refType, MONOLITH_NAME, true,
 					expression.getCodeLocation());
 			if (expression.hasRuntimeTypes())
-				e.setRuntimeTypes(expression.getRuntimeTypes(null));
+				e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 			return new ExpressionSet<>(e);
 		}
 
@@ -168,10 +168,10 @@ public class MonolithicHeap implements BaseHeapDomain<MonolithicHeap> {
 				throws SemanticException {
 			// any expression accessing an area of the heap or instantiating a
 			// new one is modeled through the monolith
-			HeapLocation e = new HeapLocation(expression.getStaticType(), MONOLITH_NAME, true,
+			Identifier e = new HeapLocation(expression.getStaticType(), MONOLITH_NAME, true,
 					expression.getCodeLocation());
 			if (expression.hasRuntimeTypes())
-				e.setRuntimeTypes(expression.getRuntimeTypes(null));
+				e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 			return new ExpressionSet<>(e);
 		}
 
@@ -187,9 +187,9 @@ public class MonolithicHeap implements BaseHeapDomain<MonolithicHeap> {
 
 			HeapLocation loc = new HeapLocation(refType, MONOLITH_NAME, true,
 					expression.getCodeLocation());
-			MemoryPointer e = new MemoryPointer(new ReferenceType(refType), loc, expression.getCodeLocation());
+			Identifier e = new MemoryPointer(new ReferenceType(refType), loc, expression.getCodeLocation());
 			if (expression.hasRuntimeTypes())
-				e.setRuntimeTypes(expression.getRuntimeTypes(null));
+				e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 			return new ExpressionSet<>(e);
 		}
 
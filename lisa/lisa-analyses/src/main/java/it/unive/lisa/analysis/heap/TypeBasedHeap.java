@@ -218,8 +218,7 @@ public class TypeBasedHeap implements BaseHeapDomain<TypeBasedHeap> {
 							Type inner = t.asPointerType().getInnerType();
 							HeapLocation e = new HeapLocation(inner, inner.toString(), true,
 									expression.getCodeLocation());
-							e.setRuntimeTypes(Collections.singleton(inner));
-							result.add(e);
+							result.add(e.withRuntimeTypes(Collections.singleton(inner)));
 						}
 				}
 			return new ExpressionSet<>(result);
@@ -235,8 +234,7 @@ public class TypeBasedHeap implements BaseHeapDomain<TypeBasedHeap> {
 			for (Type t : expression.getRuntimeTypes(types))
 				if (t.isInMemoryType()) {
 					HeapLocation e = new HeapLocation(t, t.toString(), true, expression.getCodeLocation());
-					e.setRuntimeTypes(Collections.singleton(t));
-					result.add(e);
+					result.add(e.withRuntimeTypes(Collections.singleton(t)));
 				}
 			return new ExpressionSet<>(result);
 		}
@@ -254,12 +252,12 @@ public class TypeBasedHeap implements BaseHeapDomain<TypeBasedHeap> {
 				if (refExp instanceof HeapLocation) {
 					Set<Type> rt = refExp.getRuntimeTypes(types);
 					Type sup = Type.commonSupertype(rt, Untyped.INSTANCE);
-					MemoryPointer e = new MemoryPointer(
+					Identifier e = new MemoryPointer(
 							new ReferenceType(refExp.hasRuntimeTypes() ? sup : Untyped.INSTANCE),
 							(HeapLocation) refExp,
 							refExp.getCodeLocation());
 					if (expression.hasRuntimeTypes())
-						e.setRuntimeTypes(expression.getRuntimeTypes(null));
+						e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 					result.add(e);
 				}
 
@@ -280,9 +278,8 @@ public class TypeBasedHeap implements BaseHeapDomain<TypeBasedHeap> {
 					for (Type t : var.getRuntimeTypes(types))
 						if (t.isPointerType()) {
 							Type inner = t.asPointerType().getInnerType();
-							HeapLocation loc = new HeapLocation(inner, inner.toString(), true,
-									var.getCodeLocation());
-							loc.setRuntimeTypes(Collections.singleton(inner));
+							HeapLocation loc = (HeapLocation) new HeapLocation(inner, inner.toString(), true,
+									var.getCodeLocation()).withRuntimeTypes(Collections.singleton(inner));
 
 							MemoryPointer pointer = new MemoryPointer(t, loc, var.getCodeLocation());
 							result.add(pointer);
@@ -216,7 +216,7 @@ public class FieldSensitivePointBasedHeap extends PointBasedHeap {
 		private void populate(AccessChild expression, ExpressionSet<ValueExpression> child,
 				Set<ValueExpression> result, AllocationSite site) {
 			for (SymbolicExpression target : child) {
-				AllocationSite e;
+				Identifier e;
 
 				if (site instanceof StackAllocationSite)
 					e = new StackAllocationSite(
@@ -234,7 +234,7 @@ public class FieldSensitivePointBasedHeap extends PointBasedHeap {
 							site.getCodeLocation());
 
 				if (expression.hasRuntimeTypes())
-					e.setRuntimeTypes(expression.getRuntimeTypes(null));
+					e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 				result.add(e);
 			}
 		}
@@ -250,14 +250,14 @@ public class FieldSensitivePointBasedHeap extends PointBasedHeap {
 			else
 				weak = false;
 
-			AllocationSite e;
+			Identifier e;
 			if (expression.isStackAllocation())
 				e = new StackAllocationSite(expression.getStaticType(), pp, weak, expression.getCodeLocation());
 			else
 				e = new HeapAllocationSite(expression.getStaticType(), pp, weak, expression.getCodeLocation());
 
 			if (expression.hasRuntimeTypes())
-				e.setRuntimeTypes(expression.getRuntimeTypes(null));
+				e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 			return new ExpressionSet<>(e);
 		}
 	}
@@ -190,11 +190,11 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 			throws SemanticException {
 		// no aliasing: star_y must be cloned and the clone must
 		// be assigned to id
-		StackAllocationSite clone = new StackAllocationSite(site.getStaticType(),
+		Identifier clone = new StackAllocationSite(site.getStaticType(),
 				id.getCodeLocation().toString(), site.isWeak(), id.getCodeLocation());
 		// also runtime types are inherited, if already inferred
 		if (site.hasRuntimeTypes())
-			clone.setRuntimeTypes(site.getRuntimeTypes(null));
+			clone = clone.withRuntimeTypes(site.getRuntimeTypes(null));
 
 		HeapEnvironment<AllocationSites> tmp = pb.heapEnv.assign(id, clone, pp);
 
@@ -346,7 +346,7 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 				if (rec instanceof MemoryPointer) {
 					MemoryPointer pid = (MemoryPointer) rec;
 					AllocationSite site = (AllocationSite) pid.getReferencedLocation();
-					AllocationSite e;
+					Identifier e;
 					if (site instanceof StackAllocationSite)
 						e = new StackAllocationSite(
 								expression.getStaticType(),
@@ -368,7 +368,7 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 						types.addAll(rec.getRuntimeTypes(null));
 
 					if (!types.isEmpty())
-						e.setRuntimeTypes(types);
+						e = e.withRuntimeTypes(types);
 
 					result.add(e);
 				} else if (rec instanceof AllocationSite)
@@ -380,7 +380,7 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 		@Override
 		public ExpressionSet<ValueExpression> visit(MemoryAllocation expression, Object... params)
 				throws SemanticException {
-			AllocationSite id;
+			Identifier id;
 			if (expression.isStackAllocation())
 				id = new StackAllocationSite(
 						expression.getStaticType(),
@@ -395,7 +395,7 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 						expression.getCodeLocation());
 
 			if (expression.hasRuntimeTypes())
-				id.setRuntimeTypes(expression.getRuntimeTypes(null));
+				id = id.withRuntimeTypes(expression.getRuntimeTypes(null));
 			return new ExpressionSet<>(id);
 		}
 
@@ -407,12 +407,12 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 
 			for (ValueExpression loc : arg)
 				if (loc instanceof AllocationSite) {
-					MemoryPointer e = new MemoryPointer(
+					Identifier e = new MemoryPointer(
 							new ReferenceType(loc.getStaticType()),
 							(AllocationSite) loc,
 							loc.getCodeLocation());
 					if (expression.hasRuntimeTypes())
-						e.setRuntimeTypes(expression.getRuntimeTypes(null));
+						e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 					result.add(e);
 				} else
 					result.add(loc);
@@ -465,12 +465,12 @@ public class PointBasedHeap implements BaseHeapDomain<PointBasedHeap> {
 		private Set<ValueExpression> resolveIdentifier(Identifier v) {
 			Set<ValueExpression> result = new HashSet<>();
 			for (AllocationSite site : heapEnv.getState(v)) {
-				MemoryPointer e = new MemoryPointer(
+				Identifier e = new MemoryPointer(
 						new ReferenceType(site.getStaticType()),
 						site,
 						site.getCodeLocation());
 				if (v.hasRuntimeTypes())
-					e.setRuntimeTypes(v.getRuntimeTypes(null));
+					e = e.withRuntimeTypes(v.getRuntimeTypes(null));
 				result.add(e);
 			}
 
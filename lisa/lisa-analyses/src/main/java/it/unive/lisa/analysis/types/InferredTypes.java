@@ -31,6 +31,7 @@ import it.unive.lisa.type.NullType;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeSystem;
 import it.unive.lisa.type.TypeTokenType;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -80,7 +81,8 @@ public class InferredTypes implements BaseNonRelationalTypeDomain<InferredTypes>
 	 * @param types      the types to be included in the set of inferred types
 	 */
 	public InferredTypes(TypeSystem typeSystem, Set<Type> types) {
-		this(typeSystem != null && types.equals(typeSystem.getTypes()), types);
+		this(typeSystem != null && typeSystem.isAllTypes(types),
+				typeSystem == null ? types : typeSystem.mkTypeSet(types));
 	}
 
 	/**
@@ -294,6 +296,13 @@ public class InferredTypes implements BaseNonRelationalTypeDomain<InferredTypes>
 
 	@Override
 	public InferredTypes lubAux(InferredTypes other) throws SemanticException {
+		if (elements instanceof ExternalSet && other.elements instanceof ExternalSet) {
+			ExternalSet<Type> l = (ExternalSet<Type>) elements;
+			ExternalSet<Type> r = (ExternalSet<Type>) other.elements;
+			if (l.getCache() == r.getCache())
+				// types from the same type system: word-wise union
+				return new InferredTypes(null, l.union(r));
+		}
 		Set<Type> lub = new HashSet<>(elements);
 		lub.addAll(other.elements);
 		return new InferredTypes(null, lub);
@@ -2,6 +2,7 @@ package it.unive.lisa.interprocedural;
 
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
@@ -14,14 +15,17 @@ import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.PushAny;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
 import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * An interprocedural analysis based on a call graph.
@@ -80,7 +84,11 @@ public abstract class CallGraphBasedAnalysis<A extends AbstractState<A, H, V, T>
 	@Override
 	public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
 			throws CallResolutionException {
-		return callgraph.resolve(call, types, aliasing);
+		// the call graph is built while resolving calls: we serialize the
+		// accesses to it in case fixpoints are running concurrently
+		synchronized (callgraph) {
+			return callgraph.resolve(call, types, aliasing);
+		}
 	}
 
 	/**
@@ -108,6 +116,56 @@ public abstract class CallGraphBasedAnalysis<A extends AbstractState<A, H, V, T>
 		return new AnalysisState<>(prepared.getState(), new ExpressionSet<>(), new SymbolAliasing());
 	}
 
+	/**
+	 * Prepares the entry state for the analysis of {@code cfg} when invoked by
+	 * {@code call}, by (i) pushing the scope introduced by the call (see
+	 * {@link #scope(AnalysisState, ScopeToken, ExpressionSet[])}) and (ii)
+	 * assigning the actual parameters to the formal ones through the
+	 * {@link ParameterAssigningStrategy} of the program.
+	 * 
+	 * @param call        the call invoking {@code cfg}
+	 * @param entryState  the state before the call
+	 * @param parameters  the expressions representing the actual parameters
+	 * @param expressions the cache where the results of the actual parameters
+	 *                        are stored
+	 * @param scope       the scope corresponding to the call
+	 * @param cfg         the invoked cfg
+	 * 
+	 * @return the entry state for {@code cfg}, together with the expressions
+	 *             representing the formal parameters
+	 * 
+	 * @throws SemanticException if the analysis fails
+	 */
+	protected Pair<AnalysisState<A, H, V, T>, ExpressionSet<SymbolicExpression>[]> prepareEntryState(
+			CFGCall call,
+			AnalysisState<A, H, V, T> entryState,
+			ExpressionSet<SymbolicExpression>[] parameters,
+			StatementStore<A, H, V, T> expressions,
+			ScopeToken scope,
+			CFG cfg)
+			throws SemanticException {
+		Parameter[] formals = cfg.getDescriptor().getFormals();
+
+		// prepare the state for the call: hide the visible variables
+		Pair<AnalysisState<A, H, V, T>, ExpressionSet<SymbolicExpression>[]> scoped = scope(
+				entryState,
+				scope,
+				parameters);
+		AnalysisState<A, H, V, T> callState = scoped.getLeft();
+		ExpressionSet<SymbolicExpression>[] locals = scoped.getRight();
+
+		// assign parameters between the caller and the callee contexts
+		ParameterAssigningStrategy strategy = call.getProgram().getFeatures().getAssigningStrategy();
+		Pair<AnalysisState<A, H, V, T>, ExpressionSet<SymbolicExpression>[]> prepared = strategy.prepare(
+				call,
+				callState,
+				this,
+				expressions,
+				formals,
+				locals);
+		return prepared;
+	}
+
 	@Override
 	public AnalysisState<A, H, V, T> getAbstractResultOf(
 			OpenCall call,
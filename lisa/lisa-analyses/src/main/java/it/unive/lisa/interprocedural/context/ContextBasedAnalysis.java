@@ -18,6 +18,7 @@ import it.unive.lisa.conf.FixpointConfiguration;
 import it.unive.lisa.interprocedural.CFGResults;
 import it.unive.lisa.interprocedural.CallGraphBasedAnalysis;
 import it.unive.lisa.interprocedural.FixpointResults;
+import it.unive.lisa.interprocedural.FixpointSnapshot;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
 import it.unive.lisa.interprocedural.NoEntryPointException;
 import it.unive.lisa.interprocedural.OpenCallPolicy;
@@ -26,29 +27,43 @@ import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.context.recursion.Recursion;
 import it.unive.lisa.interprocedural.context.recursion.RecursionSolver;
 import it.unive.lisa.logging.IterationLogger;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeMember;
-import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint.CompoundState;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
-import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
+import it.unive.lisa.program.cfg.statement.call.ResolvedCall;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.util.StringUtilities;
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -79,7 +94,7 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 	 * current one, as their approximation for at least one context changed
 	 * during the iteration.
 	 */
-	private final Collection<CodeMember> triggers;
+	private Collection<CodeMember> triggers;
 
 	/**
 	 * Whether or not a new recursion has been discovered in the latest fixpoint
@@ -107,6 +122,39 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 	 */
 	protected FixpointConfiguration conf;
 
+	/**
+	 * The cfgs whose results have been read or written by this analysis, used
+	 * to detect interferences between entrypoints processed concurrently. This
+	 * is {@code null} when such tracking is not needed.
+	 */
+	private Set<CFG> touched;
+
+	/**
+	 * The cfgs whose results have been restored from {@link #snapshot} and do
+	 * not need to be verified. Entrypoints in this set are not processed,
+	 * unless their results are forgotten since the ones of a cfg they reach
+	 * changed.
+	 */
+	private Set<CFG> reused;
+
+	/**
+	 * The results restored from {@link #snapshot} that must be verified (see
+	 * {@link FixpointSnapshot}). Each of them is used only if a call reaches
+	 * it with the same entry state it has been computed for, and it is
+	 * discarded otherwise. Results that have not been reached at the end of a
+	 * fixpoint iteration are discarded as well.
+	 */
+	private Set<Pair<CFG, ScopeId>> unverified;
+
+	/**
+	 * The snapshot of the results of the latest fixpoint, taken if
+	 * {@link FixpointConfiguration#incremental} is set and used by the next
+	 * fixpoint to avoid re-analyzing unchanged code. Differently from the
+	 * other fields, this is not reset by
+	 * {@link #init(Application, CallGraph, OpenCallPolicy)}.
+	 */
+	private FixpointSnapshot<A, H, V, T> snapshot;
+
 	/**
 	 * Builds the analysis, using {@link LastCallToken}s.
 	 */
@@ -122,7 +170,10 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 	 */
 	public ContextBasedAnalysis(ContextSensitivityToken token) {
 		this.token = token;
-		triggers = new HashSet<>();
+		// recursions solved concurrently share the same triggers
+		triggers = ConcurrentHashMap.newKeySet();
+		reused = Collections.emptySet();
+		unverified = ConcurrentHashMap.newKeySet();
 	}
 
 	/**
@@ -138,6 +189,9 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 		this.triggers = other.triggers;
 		this.workingSet = other.workingSet;
 		this.pendingRecursions = false;
+		this.touched = null;
+		this.reused = other.reused;
+		this.unverified = other.unverified;
 	}
 
 	@Override
@@ -153,6 +207,8 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 		this.workingSet = null;
 		this.pendingRecursions = false;
 		this.triggers.clear();
+		this.reused = Collections.emptySet();
+		this.unverified.clear();
 	}
 
 	@Override
@@ -169,44 +225,146 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 		if (app.getEntryPoints().isEmpty())
 			throw new NoEntryPointException();
 
+		if (conf.incremental && snapshot == null && conf.snapshotFile != null && Files.exists(conf.snapshotFile))
+			try {
+				snapshot = FixpointSnapshot.read(conf.snapshotFile);
+			} catch (IOException e) {
+				LOG.warn("Unable to read the snapshot stored in " + conf.snapshotFile
+						+ ": the whole program will be analyzed", e);
+			}
+
 		TimerLogger.execAction(LOG, "Computing fixpoint over the whole program", () -> this.fixpointAux(entryState));
+
+		if (conf.incremental) {
+			snapshot = new FixpointSnapshot<>(app, callgraph, results, entryState, conf);
+			if (conf.snapshotFile != null)
+				try {
+					snapshot.write(conf.snapshotFile);
+				} catch (IOException e) {
+					LOG.warn("Unable to write the snapshot to " + conf.snapshotFile, e);
+				}
+		}
+	}
+
+	/**
+	 * Yields the snapshot of the results of the latest fixpoint executed by
+	 * this analysis. A snapshot is taken only if
+	 * {@link FixpointConfiguration#incremental} is set, and it is also written
+	 * to {@link FixpointConfiguration#snapshotFile} if that is set.
+	 * 
+	 * @return the snapshot, or {@code null} if none has been taken
+	 */
+	public FixpointSnapshot<A, H, V, T> getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Sets the snapshot that the next fixpoint will use to avoid re-analyzing
+	 * the code that did not change since the analysis that produced it, if
+	 * {@link FixpointConfiguration#incremental} is set. This is useful for
+	 * reusing results between different instances of this analysis. If no
+	 * snapshot is set, the one stored in
+	 * {@link FixpointConfiguration#snapshotFile} is used, if any.
+	 * 
+	 * @param snapshot the snapshot to use, or {@code null} to analyze the whole
+	 *                     program
+	 */
+	public void setSnapshot(FixpointSnapshot<A, H, V, T> snapshot) {
+		this.snapshot = snapshot;
 	}
 
 	private void fixpointAux(AnalysisState<A, H, V, T> entryState) throws AnalysisExecutionException {
-		int iter = 0;
 		ContextSensitivityToken empty = (ContextSensitivityToken) token.startingId();
 
 		Collection<CFG> entryPoints = new TreeSet<>(
 				(c1, c2) -> c1.getDescriptor().getLocation().compareTo(c2.getDescriptor().getLocation()));
 		entryPoints.addAll(app.getEntryPoints());
 
+		if (results == null) {
+			CFG first = entryPoints.iterator().next();
+			AnalyzedCFG<A, H, V, T> graph = conf.optimize
+					? new OptimizedAnalyzedCFG<>(first, empty, entryState.bottom(), this)
+					: new AnalyzedCFG<>(first, empty, entryState);
+			CFGResults<A, H, V, T> value = new CFGResults<>(graph);
+			this.results = new FixpointResults<>(value.top());
+		}
+
+		restoreSnapshot(entryState);
+		iterate(entryState, entryPoints, empty);
+		reused = Collections.emptySet();
+		unverified.clear();
+	}
+
+	private void restoreSnapshot(AnalysisState<A, H, V, T> entryState) throws AnalysisExecutionException {
+		reused = Collections.emptySet();
+		unverified.clear();
+		if (!conf.incremental || snapshot == null)
+			return;
+
+		try {
+			reused = new HashSet<>(snapshot.restore(app, callgraph, this, entryState, conf, results));
+		} catch (SemanticException e) {
+			throw new AnalysisExecutionException("Unable to restore the results of the previous analysis", e);
+		}
+
+		for (CFG cfg : app.getAllCFGs())
+			if (!reused.contains(cfg) && results.contains(cfg))
+				for (Entry<ScopeId, AnalyzedCFG<A, H, V, T>> res : results.get(cfg))
+					unverified.add(Pair.of(cfg, res.getKey()));
+	}
+
+	/**
+	 * Iterates over the given entrypoints until no result changes. Entrypoints
+	 * in {@link #reused} are not processed, as their results (and the ones of
+	 * all the cfgs they reach) have been restored from {@link #snapshot}.
+	 * 
+	 * @param entryState  the entry state for the entrypoints
+	 * @param entryPoints the entrypoints of the program
+	 * @param empty       the empty context sensitivity token
+	 * 
+	 * @throws AnalysisExecutionException if the fixpoint over one of the
+	 *                                        entrypoints fails
+	 */
+	private void iterate(
+			AnalysisState<A, H, V, T> entryState,
+			Collection<CFG> entryPoints,
+			ContextSensitivityToken empty)
+			throws AnalysisExecutionException {
+		List<Pair<List<CFG>, Set<CodeMember>>> groups = null;
+		if (conf.entrypointParallelism > 1 && entryPoints.size() > 1) {
+			groups = partitionEntrypoints(entryPoints);
+			if (groups != null)
+				LOG.info("Entrypoints partitioned in {} independent groups", groups.size());
+		}
+
+		int iter = 0;
 		do {
 			LOG.info("Performing {} fixpoint iteration", StringUtilities.ordinal(iter + 1));
+			PerformanceMetrics.increment("interprocedural.iterations");
 			triggers.clear();
 			pendingRecursions = false;
 
-			for (CFG cfg : IterationLogger.iterate(LOG, entryPoints, "Processing entrypoints", "entries"))
-				try {
-					if (results == null) {
-						AnalyzedCFG<A, H, V, T> graph = conf.optimize
-								? new OptimizedAnalyzedCFG<>(cfg, empty, entryState.bottom(), this)
-								: new AnalyzedCFG<>(cfg, empty, entryState);
-						CFGResults<A, H, V, T> value = new CFGResults<>(graph);
-						this.results = new FixpointResults<>(value.top());
-					}
-
-					token = empty;
-					AnalysisState<A, H, V, T> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
-					results.putResult(cfg, empty,
-							cfg.fixpoint(entryStateCFG, this, WorkingSet.of(workingSet), conf, empty));
-				} catch (SemanticException | AnalysisSetupException e) {
-					throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
-				} catch (FixpointException e) {
-					throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
-				}
+			List<CFG> toProcess = entryPoints.stream()
+					.filter(cfg -> !reused.contains(cfg))
+					.collect(Collectors.toList());
+			List<Pair<List<CFG>, Set<CodeMember>>> pending = groups == null ? null
+					: groups.stream()
+							.map(group -> Pair.of(
+									group.getLeft().stream().filter(toProcess::contains).collect(Collectors.toList()),
+									group.getRight()))
+							.filter(group -> !group.getLeft().isEmpty())
+							.collect(Collectors.toList());
+
+			if (pending != null && pending.size() > 1)
+				processEntrypointsConcurrently(pending, entryState, empty);
+			else
+				processEntrypoints(
+						IterationLogger.iterate(LOG, toProcess, "Processing entrypoints", "entries"),
+						entryState,
+						empty);
 
 			if (pendingRecursions) {
-				Set<Recursion<A, H, V, T>> recursions = new HashSet<>();
+				Set<Recursion<A, H, V, T>> recursions = new LinkedHashSet<>();
 
 				for (Collection<CodeMember> rec : callgraph.getRecursions()) {
 					// these are the calls that start the recursion by invoking
@@ -252,42 +410,438 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 					}
 				}
 
-				List<Recursion<A, H, V, T>> orderedRecursions = new ArrayList<>(recursions.size());
-				for (Recursion<A, H, V, T> rec : recursions) {
-					int pos = 0;
-					for (; pos < orderedRecursions.size(); pos++)
-						if (orderedRecursions.get(pos).getMembers().contains(rec.getInvocation().getCFG()))
-							// as the recursion at pos contains the member
-							// invoking rec, rec must be solved before the
-							// recursion at pos
-							break;
-					// if no match is found, add() will place the element at the
-					// end (pos == size())
-					// otherwise, elements will be shifted
-					orderedRecursions.add(pos, rec);
-				}
-
-				try {
-					for (Recursion<A, H, V, T> rec : orderedRecursions) {
-						new RecursionSolver<>(this, rec).solve();
-						triggers.addAll(rec.getMembers());
-					}
-				} catch (SemanticException e) {
-					throw new AnalysisExecutionException("Unable to solve one or more recursions", e);
-				}
+				solveRecursions(recursions);
 			}
 
+			// restored results that have not been reached might have been
+			// computed by code that changed
+			for (Pair<CFG, ScopeId> result : unverified)
+				discard(result.getLeft(), result.getRight());
+			unverified.clear();
+
 			// starting from the callers of the cfgs that needed a lub,
 			// find out the complete set of cfgs that might need to be
 			// processed again
 			Collection<CodeMember> toRemove = callgraph.getCallersTransitively(triggers);
 			toRemove.removeAll(triggers);
-			toRemove.stream().filter(CFG.class::isInstance).map(CFG.class::cast).forEach(results::forget);
+			for (CFG cfg : cfgs(toRemove)) {
+				results.forget(cfg);
+				reused.remove(cfg);
+			}
 
 			iter++;
 		} while (!triggers.isEmpty());
 	}
 
+	/**
+	 * Discards a result restored from {@link #snapshot}, marking its cfg as a
+	 * trigger so that the code that used such result is processed again.
+	 * 
+	 * @param cfg   the cfg whose result is to be discarded
+	 * @param token the token of the result
+	 */
+	private void discard(CFG cfg, ScopeId token) {
+		CFGResults<A, H, V, T> res = results.get(cfg);
+		if (res != null)
+			res.forget(token);
+		triggers.add(cfg);
+	}
+
+	private void processEntrypoints(
+			Iterable<CFG> entryPoints,
+			AnalysisState<A, H, V, T> entryState,
+			ContextSensitivityToken empty)
+			throws AnalysisExecutionException {
+		for (CFG cfg : entryPoints)
+			try {
+				token = empty;
+				if (touched != null)
+					touched.add(cfg);
+				if (unverified.remove(Pair.of(cfg, empty)))
+					// the entrypoint is processed again
+					discard(cfg, empty);
+				AnalysisState<A, H, V, T> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
+				results.putResult(cfg, empty,
+						cfg.fixpoint(entryStateCFG, this, WorkingSet.of(workingSet), conf, empty));
+			} catch (SemanticException | AnalysisSetupException e) {
+				throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
+			} catch (FixpointException e) {
+				throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
+			}
+	}
+
+	/**
+	 * Processes the given groups of entrypoints concurrently. Groups are built
+	 * by {@link #partitionEntrypoints(Collection)} before the analysis starts,
+	 * such that entrypoints in different groups cannot reach the same cfgs.
+	 * Each group is processed on a {@link ForkJoinPool} by a copy of this
+	 * analysis that works on a private copy of the results of the cfgs it
+	 * can reach, and that processes its entrypoints sequentially, preserving
+	 * their order. Once all groups complete, their results, triggers and
+	 * discovered recursions are merged into this analysis following the order
+	 * of the groups. As no group can read what another group writes, this
+	 * yields the same results of processing all entrypoints sequentially.<br>
+	 * <br>
+	 * The groups are computed assuming that no symbol is aliased (see
+	 * {@link CallGraph#getPossibleTargets(UnresolvedCall)}). If aliasing makes
+	 * a group reach a cfg outside of the ones it was expected to reach, the
+	 * results of all groups are discarded and the entrypoints are processed
+	 * again sequentially.
+	 * 
+	 * @param groups     the groups of entrypoints to process, each paired with
+	 *                       the code members it can reach
+	 * @param entryState the entry state for the entrypoints
+	 * @param empty      the empty context sensitivity token
+	 * 
+	 * @throws AnalysisExecutionException if the fixpoint over one of the
+	 *                                        entrypoints fails
+	 */
+	private void processEntrypointsConcurrently(
+			List<Pair<List<CFG>, Set<CodeMember>>> groups,
+			AnalysisState<A, H, V, T> entryState,
+			ContextSensitivityToken empty)
+			throws AnalysisExecutionException {
+		LOG.info("Processing {} groups of entrypoints using up to {} threads",
+				groups.size(), conf.entrypointParallelism);
+
+		List<ContextBasedAnalysis<A, H, V, T>> tasks = new ArrayList<>(groups.size());
+		List<Future<?>> futures = new ArrayList<>(groups.size());
+		ForkJoinPool pool = new ForkJoinPool(conf.entrypointParallelism);
+		try {
+			for (Pair<List<CFG>, Set<CodeMember>> group : groups) {
+				ContextBasedAnalysis<A, H, V, T> task = new ContextBasedAnalysis<>(this);
+				task.results = results.copy(cfgs(group.getRight()));
+				task.triggers = new HashSet<>();
+				task.touched = new HashSet<>();
+				task.unverified = ConcurrentHashMap.newKeySet();
+				task.unverified.addAll(unverified);
+				tasks.add(task);
+				futures.add(pool.submit(() -> task.processEntrypoints(group.getLeft(), entryState, empty)));
+			}
+
+			// futures are inspected in order to always report the failure of
+			// the first failing entrypoint, as a sequential run would do
+			for (Future<?> future : futures)
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisExecutionException("Interrupted while processing entrypoints", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof AnalysisExecutionException)
+				throw (AnalysisExecutionException) e.getCause();
+			throw new AnalysisExecutionException("Error while processing entrypoints", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+
+		for (int i = 0; i < tasks.size(); i++)
+			if (!groups.get(i).getRight().containsAll(tasks.get(i).touched)) {
+				// the groups are disjoint, so a group can only interfere with
+				// the others by reaching cfgs outside of its own portion
+				LOG.warn("Aliasing made a group of entrypoints reach unexpected cfgs:"
+						+ " processing all entrypoints again sequentially");
+				processEntrypoints(
+						groups.stream().flatMap(group -> group.getLeft().stream()).collect(Collectors.toList()),
+						entryState,
+						empty);
+				return;
+			}
+
+		for (ContextBasedAnalysis<A, H, V, T> task : tasks) {
+			results.replace(task.results, task.touched);
+			triggers.addAll(task.triggers);
+			pendingRecursions |= task.pendingRecursions;
+			unverified.retainAll(task.unverified);
+		}
+	}
+
+	/**
+	 * Solves the given recursions. Recursions are scheduled following the
+	 * dependencies between the strongly connected components of the call
+	 * graph they belong to: a recursion is solved only after all the
+	 * recursions that are started by one of its members. Recursions whose
+	 * dependencies have all been solved form a layer, and the ones in the
+	 * same layer are solved concurrently if
+	 * {@link FixpointConfiguration#recursionParallelism} is greater than one.
+	 * Only the order in which recursions are solved is affected: each one is
+	 * still solved from scratch, and no result is shared between recursions
+	 * started by different calls, as reusing one computed for a larger entry
+	 * state would make the results less precise than the ones of a sequential
+	 * run.
+	 * 
+	 * @param recursions the recursions to solve
+	 * 
+	 * @throws AnalysisExecutionException if one of the recursions cannot be
+	 *                                        solved
+	 */
+	private void solveRecursions(Collection<Recursion<A, H, V, T>> recursions) throws AnalysisExecutionException {
+		for (List<Recursion<A, H, V, T>> layer : scheduleRecursions(new ArrayList<>(recursions)))
+			if (conf.recursionParallelism > 1 && layer.size() > 1)
+				solveRecursionsConcurrently(layer);
+			else
+				solveRecursionsSequentially(layer);
+	}
+
+	/**
+	 * Splits the given recursions into layers, such that each recursion comes
+	 * after all the ones that are started by one of its members. Layers are
+	 * built with Kahn's algorithm: the first one contains the recursions whose
+	 * members start no other recursion, and each of the following ones
+	 * contains the recursions whose dependencies are all in previous layers.
+	 * Recursions in each layer preserve the order they have in
+	 * {@code recursions}.
+	 * 
+	 * @param recursions the recursions to schedule
+	 * 
+	 * @return the layers, in the order they must be solved
+	 */
+	List<List<Recursion<A, H, V, T>>> scheduleRecursions(List<Recursion<A, H, V, T>> recursions) {
+		int size = recursions.size();
+		// recursions are indexed by the members of their component
+		Map<CodeMember, List<Integer>> byMember = new HashMap<>();
+		for (int i = 0; i < size; i++)
+			for (CodeMember member : recursions.get(i).getMembers())
+				byMember.computeIfAbsent(member, k -> new ArrayList<>()).add(i);
+
+		// a recursion must be solved before the ones containing the member
+		// that starts it
+		int[] pending = new int[size];
+		List<List<Integer>> dependants = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			List<Integer> deps = byMember.getOrDefault(recursions.get(i).getInvocation().getCFG(),
+					Collections.emptyList());
+			dependants.add(deps);
+			for (int j : deps)
+				pending[j]++;
+		}
+
+		List<List<Recursion<A, H, V, T>>> layers = new ArrayList<>();
+		List<Integer> ready = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+			if (pending[i] == 0)
+				ready.add(i);
+
+		int scheduled = 0;
+		while (!ready.isEmpty()) {
+			List<Recursion<A, H, V, T>> layer = new ArrayList<>(ready.size());
+			List<Integer> next = new ArrayList<>();
+			for (int i : ready) {
+				layer.add(recursions.get(i));
+				for (int j : dependants.get(i))
+					if (--pending[j] == 0)
+						next.add(j);
+			}
+			scheduled += layer.size();
+			layers.add(layer);
+			Collections.sort(next);
+			ready = next;
+		}
+
+		if (scheduled < size)
+			// components of the call graph cannot depend on each other: this
+			// only happens if the call graph changed while collecting the
+			// recursions, and we fall back to solving them one at a time
+			for (int i = 0; i < size; i++)
+				if (pending[i] > 0)
+					layers.add(Collections.singletonList(recursions.get(i)));
+
+		return layers;
+	}
+
+	private void solveRecursionsSequentially(Iterable<Recursion<A, H, V, T>> recursions)
+			throws AnalysisExecutionException {
+		try {
+			for (Recursion<A, H, V, T> rec : recursions) {
+				new RecursionSolver<>(this, rec).solve();
+				triggers.addAll(rec.getMembers());
+			}
+		} catch (SemanticException e) {
+			throw new AnalysisExecutionException("Unable to solve one or more recursions", e);
+		}
+	}
+
+	/**
+	 * Solves the given recursions, that do not depend on each other,
+	 * concurrently. Recursions are partitioned in groups that reach disjoint
+	 * portions of the call graph (including the members of the recursions),
+	 * and each group is solved sequentially on a {@link ForkJoinPool}. Since
+	 * groups work on disjoint portions of {@link #results}, the final results
+	 * are the same as the ones of a sequential run.
+	 * 
+	 * @param recursions the recursions to solve
+	 * 
+	 * @throws AnalysisExecutionException if one of the recursions cannot be
+	 *                                        solved
+	 */
+	private void solveRecursionsConcurrently(List<Recursion<A, H, V, T>> recursions)
+			throws AnalysisExecutionException {
+		List<List<Recursion<A, H, V, T>>> groups = partition(recursions, rec -> reachable(rec.getMembers()))
+				.stream()
+				.map(Pair::getLeft)
+				.collect(Collectors.toList());
+		if (groups.size() == 1) {
+			solveRecursionsSequentially(recursions);
+			return;
+		}
+
+		LOG.info("Solving {} recursions in {} independent groups using up to {} threads",
+				recursions.size(), groups.size(), conf.recursionParallelism);
+		List<Future<?>> futures = new ArrayList<>(groups.size());
+		ForkJoinPool pool = new ForkJoinPool(conf.recursionParallelism);
+		try {
+			for (List<Recursion<A, H, V, T>> group : groups)
+				futures.add(pool.submit(() -> {
+					solveRecursionsSequentially(group);
+					return null;
+				}));
+
+			// futures are inspected in order to always report the failure of
+			// the first failing group
+			for (Future<?> future : futures)
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisExecutionException("Interrupted while solving recursions", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof AnalysisExecutionException)
+				throw (AnalysisExecutionException) e.getCause();
+			throw new AnalysisExecutionException("Unable to solve one or more recursions", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Partitions the given entrypoints into groups that cannot reach the same
+	 * cfgs. Since the call graph is built during the analysis, the code
+	 * members that each entrypoint can reach are over-approximated through
+	 * {@link CallGraph#getPossibleTargets(UnresolvedCall)}.
+	 * 
+	 * @param entryPoints the entrypoints to partition
+	 * 
+	 * @return the groups, each paired with the code members it can reach, or
+	 *             {@code null} if the targets of some call cannot be
+	 *             over-approximated
+	 */
+	List<Pair<List<CFG>, Set<CodeMember>>> partitionEntrypoints(Collection<CFG> entryPoints) {
+		Map<CFG, Set<CodeMember>> reach = new HashMap<>();
+		for (CFG entry : entryPoints) {
+			Set<CodeMember> reached = possiblyReachable(entry);
+			if (reached == null)
+				return null;
+			reach.put(entry, reached);
+		}
+		return partition(entryPoints, reach::get);
+	}
+
+	/**
+	 * Yields the code members that might be reached from the given cfg,
+	 * including the cfg itself, following the possible targets of each call
+	 * (see {@link CallGraph#getPossibleTargets(UnresolvedCall)}).
+	 * 
+	 * @param entry the cfg where the traversal starts
+	 * 
+	 * @return the reachable code members, or {@code null} if the targets of
+	 *             some call cannot be over-approximated
+	 */
+	private Set<CodeMember> possiblyReachable(CFG entry) {
+		Set<CodeMember> reached = new HashSet<>();
+		reached.add(entry);
+		WorkingSet<CFG> ws = FIFOWorkingSet.mk();
+		ws.push(entry);
+		while (!ws.isEmpty()) {
+			Collection<Call> calls = new ArrayList<>();
+			ws.pop().accept(new CallCollector(), calls);
+			for (Call call : calls) {
+				Collection<CodeMember> targets = call instanceof UnresolvedCall
+						? callgraph.getPossibleTargets((UnresolvedCall) call)
+						: ((ResolvedCall) call).getTargets();
+				if (targets == null)
+					return null;
+				for (CodeMember target : targets)
+					if (reached.add(target) && target instanceof CFG)
+						ws.push((CFG) target);
+			}
+		}
+		return reached;
+	}
+
+	private static Collection<CFG> cfgs(Collection<CodeMember> members) {
+		return members.stream().filter(CFG.class::isInstance).map(CFG.class::cast).collect(Collectors.toList());
+	}
+
+	private Set<CodeMember> reachable(Collection<CodeMember> roots) {
+		Set<CodeMember> reach;
+		synchronized (callgraph) {
+			reach = new HashSet<>(callgraph.getCalleesTransitively(roots));
+		}
+		reach.addAll(roots);
+		return reach;
+	}
+
+	/**
+	 * Partitions the given elements into groups that reach disjoint portions
+	 * of the program, where the portion reached by an element is the one
+	 * yielded by {@code reach}. Groups are sorted by their first element, and
+	 * each group preserves the order of the elements in {@code elements}.
+	 * 
+	 * @param <X>      the type of the elements
+	 * @param elements the elements to partition
+	 * @param reach    the function yielding the code members that each
+	 *                     element reaches
+	 * 
+	 * @return the groups, each paired with the code members it reaches
+	 */
+	private <X> List<Pair<List<X>, Set<CodeMember>>> partition(Collection<X> elements,
+			Function<X, Set<CodeMember>> reach) {
+		List<List<X>> groups = new ArrayList<>();
+		List<Set<CodeMember>> reached = new ArrayList<>();
+		List<X> order = new ArrayList<>(elements);
+		for (X element : elements) {
+			Set<CodeMember> members = new HashSet<>(reach.apply(element));
+			List<X> group = new ArrayList<>();
+			group.add(element);
+			// we merge all the groups that share at least one member with the
+			// current element, keeping the position of the first one
+			int pos = -1;
+			for (int i = groups.size() - 1; i >= 0; i--)
+				if (!Collections.disjoint(reached.get(i), members)) {
+					group.addAll(0, groups.remove(i));
+					members.addAll(reached.remove(i));
+					pos = i;
+				}
+
+			if (pos == -1) {
+				groups.add(group);
+				reached.add(members);
+			} else {
+				// restore the original order of the elements
+				group.sort((c1, c2) -> Integer.compare(order.indexOf(c1), order.indexOf(c2)));
+				groups.add(pos, group);
+				reached.add(pos, members);
+			}
+		}
+
+		List<Pair<List<X>, Set<CodeMember>>> result = new ArrayList<>(groups.size());
+		for (int i = 0; i < groups.size(); i++)
+			result.add(Pair.of(groups.get(i), reached.get(i)));
+		return result;
+	}
+
+	/**
+	 * A visitor collecting all the {@link Call}s of a cfg, including the ones
+	 * nested in other expressions.
+	 */
+	private static class CallCollector implements GraphVisitor<CFG, Statement, Edge, Collection<Call>> {
+
+		@Override
+		public boolean visit(Collection<Call> tool, CFG graph, Statement node) {
+			if (node instanceof Call)
+				tool.add((Call) node);
+			return true;
+		}
+	}
+
 	@Override
 	public Collection<AnalyzedCFG<A, H, V, T>> getAnalysisResultsOf(CFG cfg) {
 		if (results.contains(cfg))
@@ -316,6 +870,7 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 			ContextSensitivityToken token,
 			AnalysisState<A, H, V, T> entryState)
 			throws FixpointException, SemanticException, AnalysisSetupException {
+		PerformanceMetrics.increment("interprocedural.fixpoints");
 		AnalyzedCFG<A, H, V, T> fixpointResult = cfg.fixpoint(
 				entryState,
 				this,
@@ -370,36 +925,6 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 		return results;
 	}
 
-	private Pair<AnalysisState<A, H, V, T>, ExpressionSet<SymbolicExpression>[]> prepareEntryState(
-			CFGCall call,
-			AnalysisState<A, H, V, T> entryState,
-			ExpressionSet<SymbolicExpression>[] parameters,
-			StatementStore<A, H, V, T> expressions,
-			ScopeToken scope,
-			CFG cfg)
-			throws SemanticException {
-		Parameter[] formals = cfg.getDescriptor().getFormals();
-
-		// prepare the state for the call: hide the visible variables
-		Pair<AnalysisState<A, H, V, T>, ExpressionSet<SymbolicExpression>[]> scoped = scope(
-				entryState,
-				scope,
-				parameters);
-		AnalysisState<A, H, V, T> callState = scoped.getLeft();
-		ExpressionSet<SymbolicExpression>[] locals = scoped.getRight();
-
-		// assign parameters between the caller and the callee contexts
-		ParameterAssigningStrategy strategy = call.getProgram().getFeatures().getAssigningStrategy();
-		Pair<AnalysisState<A, H, V, T>, ExpressionSet<SymbolicExpression>[]> prepared = strategy.prepare(
-				call,
-				callState,
-				this,
-				expressions,
-				formals,
-				locals);
-		return prepared;
-	}
-
 	@Override
 	public AnalysisState<A, H, V, T> getAbstractResultOf(
 			CFGCall call,
@@ -407,15 +932,20 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 			ExpressionSet<SymbolicExpression>[] parameters,
 			StatementStore<A, H, V, T> expressions)
 			throws SemanticException {
-		callgraph.registerCall(call);
+		PerformanceMetrics.increment("interprocedural.calls");
+		boolean recursive;
+		synchronized (callgraph) {
+			callgraph.registerCall(call);
+			recursive = shouldCheckForRecursions() && callgraph.isRecursive(call);
+		}
 
-		if (shouldCheckForRecursions() && (call.getTargetedCFGs().stream().anyMatch(call.getCFG()::equals)
-				|| callgraph.getCalleesTransitively(call.getTargets()).contains(call.getCFG()))) {
+		if (recursive) {
 			// this calls introduces a loop in the call graph -> recursion
 			// we need a special fixpoint to compute its result
 			// we compute that at the end of each fixpoint iteration
 			pendingRecursions = true;
 			LOG.info("Found recursion at " + call.getLocation());
+			PerformanceMetrics.increment("interprocedural.recursions");
 
 			// we return bottom for now
 			if (returnsVoid(call, null))
@@ -435,6 +965,8 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 		// compute the result over all possible targets, and take the lub of
 		// the results
 		for (CFG cfg : call.getTargetedCFGs()) {
+			if (touched != null)
+				touched.add(cfg);
 			CFGResults<A, H, V, T> localResults = results.get(cfg);
 			AnalyzedCFG<A, H, V, T> states = localResults == null ? null : localResults.get(token);
 			Pair<AnalysisState<A, H, V, T>, ExpressionSet<SymbolicExpression>[]> prepared = prepareEntryState(
@@ -445,13 +977,22 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 					scope,
 					cfg);
 
+			if (states != null && unverified.remove(Pair.of(cfg, token))
+					&& !prepared.getLeft().equals(states.getEntryState())) {
+				// the restored result has been computed for a different entry
+				// state, possibly coming from code that changed
+				discard(cfg, token);
+				states = null;
+			}
+
 			AnalysisState<A, H, V, T> exitState;
-			if (canShortcut(cfg) && states != null && prepared.getLeft().lessOrEqual(states.getEntryState()))
+			if (canShortcut(cfg) && states != null && prepared.getLeft().lessOrEqual(states.getEntryState())) {
 				// no need to compute the fixpoint: we already have an
 				// (over-)approximation of the result computed starting from
 				// an over-approximation of the entry state
 				exitState = states.getExitState();
-			else {
+				PerformanceMetrics.increment("interprocedural.shortcuts");
+			} else {
 				// compute the result with a fixpoint iteration
 				AnalyzedCFG<A, H, V, T> fixpointResult = null;
 				try {
@@ -147,7 +147,7 @@ public class BaseCasesFinder<A extends AbstractState<A, H, V, T>,
 		@SuppressWarnings("unchecked")
 		ExpressionSet<SymbolicExpression>[] params = new ExpressionSet[actuals.length];
 		for (int i = 0; i < params.length; i++)
-			params[i] = entryState.intermediateStates.getState(actuals[i]).getComputedExpressions();
+			params[i] = entryState.intermediateStates.getState(actuals[i]).getTypedComputedExpressions(actuals[i]);
 		return start.expressionSemantics(this, entryState.postState.top(), params, entryState.intermediateStates);
 	}
 }
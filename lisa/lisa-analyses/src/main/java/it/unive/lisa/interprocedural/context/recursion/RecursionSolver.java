@@ -16,6 +16,7 @@ import it.unive.lisa.interprocedural.OpenCallPolicy;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.context.ContextBasedAnalysis;
 import it.unive.lisa.interprocedural.context.ContextSensitivityToken;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint.CompoundState;
@@ -154,7 +155,8 @@ public class RecursionSolver<A extends AbstractState<A, H, V, T>,
 	 * @throws SemanticException if an exception happens during the computation
 	 */
 	public void solve() throws SemanticException {
-		int recursionCount = 0;
+		long time = PerformanceMetrics.start();
+		int recursionCount = 0, rounds = 0;
 		Call start = recursion.getInvocation();
 		Collection<CFGCall> ends = finalEntryStates.keySet();
 		CompoundState<A, H, V, T> entryState = recursion.getEntryState();
@@ -169,7 +171,7 @@ public class RecursionSolver<A extends AbstractState<A, H, V, T>,
 		@SuppressWarnings("unchecked")
 		ExpressionSet<SymbolicExpression>[] params = new ExpressionSet[actuals.length];
 		for (int i = 0; i < params.length; i++)
-			params[i] = entryState.intermediateStates.getState(actuals[i]).getComputedExpressions();
+			params[i] = entryState.intermediateStates.getState(actuals[i]).getTypedComputedExpressions(actuals[i]);
 
 		do {
 			LOG.debug(StringUtilities.ordinal(recursionCount + 1)
@@ -177,6 +179,7 @@ public class RecursionSolver<A extends AbstractState<A, H, V, T>,
 					+ start.getLocation());
 
 			previousApprox = recursiveApprox;
+			rounds++;
 
 			// we reset the analysis at the point where the starting call can be
 			// evaluated
@@ -200,6 +203,13 @@ public class RecursionSolver<A extends AbstractState<A, H, V, T>,
 			}
 		} while (!recursiveApprox.lessOrEqual(previousApprox));
 
+		if (PerformanceMetrics.isEnabled()) {
+			PerformanceMetrics.increment("recursions.solved");
+			PerformanceMetrics.add("recursions.rounds", rounds);
+			PerformanceMetrics.add(PerformanceMetrics.key("recursions.rounds", start.getLocation()), rounds);
+			PerformanceMetrics.stop("recursions.time", time);
+		}
+
 		if (conf.optimize)
 			// as the fixpoint results do not contain an explicit entry for the
 			// recursive call, we need to store the approximation for the
@@ -0,0 +1,109 @@
+package it.unive.lisa.interprocedural.summary;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.CFG;
+
+/**
+ * An input/output summary of a {@link CFG}, relating an entry state to the
+ * exit state that the cfg produces when executed starting from it. Entry and
+ * exit states of a summary are canonical, that is, they do not contain
+ * information about the callers of the cfg (see
+ * {@link SummaryBasedAnalysis}): a summary can thus be applied to any call
+ * whose canonical entry state is covered by (i.e., is less or equal than) the
+ * one of the summary.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the type of {@link AbstractState} contained into the analysis
+ *                state
+ * @param <H> the type of {@link HeapDomain} contained into the computed
+ *                abstract state
+ * @param <V> the type of {@link ValueDomain} contained into the computed
+ *                abstract state
+ * @param <T> the type of {@link TypeDomain} contained into the computed
+ *                abstract state
+ */
+public class Summary<A extends AbstractState<A, H, V, T>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>,
+		T extends TypeDomain<T>> {
+
+	private final AnalysisState<A, H, V, T> entryState;
+
+	private final AnalysisState<A, H, V, T> exitState;
+
+	private final AnalyzedCFG<A, H, V, T> result;
+
+	/**
+	 * Builds the summary.
+	 *
+	 * @param entryState the canonical entry state
+	 * @param exitState  the canonical exit state
+	 * @param result     the result of the fixpoint that produced
+	 *                       {@code exitState}, or {@code null} if the summary
+	 *                       is an approximation that has not been computed
+	 *                       through a fixpoint yet
+	 */
+	public Summary(
+			AnalysisState<A, H, V, T> entryState,
+			AnalysisState<A, H, V, T> exitState,
+			AnalyzedCFG<A, H, V, T> result) {
+		this.entryState = entryState;
+		this.exitState = exitState;
+		this.result = result;
+	}
+
+	/**
+	 * Yields the canonical entry state of this summary.
+	 *
+	 * @return the entry state
+	 */
+	public AnalysisState<A, H, V, T> getEntryState() {
+		return entryState;
+	}
+
+	/**
+	 * Yields the canonical exit state of this summary.
+	 *
+	 * @return the exit state
+	 */
+	public AnalysisState<A, H, V, T> getExitState() {
+		return exitState;
+	}
+
+	/**
+	 * Yields the result of the fixpoint that produced this summary.
+	 *
+	 * @return the result, or {@code null} if this summary has not been
+	 *             computed through a fixpoint yet
+	 */
+	public AnalyzedCFG<A, H, V, T> getResult() {
+		return result;
+	}
+
+	/**
+	 * Yields whether or not this summary can be applied to a call whose
+	 * canonical entry state is {@code entryState}.
+	 *
+	 * @param entryState the canonical entry state
+	 *
+	 * @return {@code true} if {@code entryState} is less or equal than the
+	 *             entry state of this summary
+	 *
+	 * @throws SemanticException if the comparison fails
+	 */
+	public boolean covers(AnalysisState<A, H, V, T> entryState) throws SemanticException {
+		return entryState.lessOrEqual(this.entryState);
+	}
+
+	@Override
+	public String toString() {
+		return entryState + " -> " + exitState;
+	}
+}
@@ -0,0 +1,597 @@
+package it.unive.lisa.interprocedural.summary;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.OptimizedAnalyzedCFG;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.StatementStore;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.conf.FixpointConfiguration;
+import it.unive.lisa.interprocedural.CFGResults;
+import it.unive.lisa.interprocedural.CallGraphBasedAnalysis;
+import it.unive.lisa.interprocedural.FixpointResults;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.OpenCallPolicy;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.logging.IterationLogger;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.OpenCall;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.SCCs;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A modular interprocedural analysis that computes input/output
+ * {@link Summary}s of cfgs bottom-up, reusing them across calls. The analysis
+ * works in two phases:
+ * <ol>
+ * <li>the call graph of the program is built through a worst-case analysis of
+ * each cfg, where calls are evaluated through the {@link OpenCallPolicy};</li>
+ * <li>the strongly connected components of the call graph are processed in
+ * reverse topological order (that is, callees before callers), computing a
+ * summary for each cfg starting from its generic entry state (see
+ * {@link #prepareEntryStateOfEntryPoint(AnalysisState, CFG)}).</li>
+ * </ol>
+ * Summaries are cached per-cfg and keyed by a canonical version of the entry
+ * state, obtained by removing the identifiers that belong to the callers
+ * (i.e., the ones that are scoped by a call, see
+ * {@link Identifier#isScopedByCall()}), that are instead kept aside as the
+ * frame of the call. Whenever a call is evaluated, the first summary of the
+ * target whose entry state covers the canonical entry state of the call is
+ * reused, and its exit state is recombined with the frame through a lub,
+ * meaning that no fixpoint over the target is computed. If no such summary
+ * exists, a new one is computed and cached.<br>
+ * <br>
+ * Members of a recursion (i.e., of a non-trivial component of the call graph)
+ * are solved together: calls between them are evaluated using an
+ * approximation of their summaries, whose entry and exit states are joined
+ * with the ones needed by the calls, and all the members are analyzed again
+ * until no approximation changes. Approximations are joined using lubs, and
+ * widenings after {@link FixpointConfiguration#recursionWideningThreshold}
+ * rounds. Calls that form a recursion not found during the first phase are
+ * evaluated through the {@link OpenCallPolicy}.<br>
+ * <br>
+ * As summaries are computed for generic entry states and the recombination
+ * with the frame is performed through a lub, the precision of this analysis is
+ * lower than the one of context-sensitive analyses, especially with relational
+ * domains, but each cfg is analyzed only a few times regardless of the number
+ * of calls targeting it.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the abstract state of the analysis
+ * @param <H> the heap domain
+ * @param <V> the value domain
+ * @param <T> the type domain
+ */
+public class SummaryBasedAnalysis<A extends AbstractState<A, H, V, T>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>,
+		T extends TypeDomain<T>>
+		extends CallGraphBasedAnalysis<A, H, V, T> {
+
+	private static final Logger LOG = LogManager.getLogger(SummaryBasedAnalysis.class);
+
+	private static final Comparator<CodeMember> BY_LOCATION = (c1, c2) -> c1.getDescriptor().getLocation()
+			.compareTo(c2.getDescriptor().getLocation());
+
+	/**
+	 * The results computed by this analysis.
+	 */
+	private FixpointResults<A, H, V, T> results;
+
+	/**
+	 * The kind of {@link WorkingSet} to use during this analysis.
+	 */
+	private Class<? extends WorkingSet<Statement>> workingSet;
+
+	/**
+	 * The fixpoint configuration.
+	 */
+	private FixpointConfiguration conf;
+
+	/**
+	 * The summaries computed for each cfg, in the order they have been
+	 * computed.
+	 */
+	private final Map<CFG, List<Summary<A, H, V, T>>> summaries;
+
+	/**
+	 * The recursion that each code member belongs to, if any.
+	 */
+	private final Map<CodeMember, Collection<CodeMember>> recursions;
+
+	/**
+	 * The cfgs whose summaries are being computed.
+	 */
+	private final Set<CFG> inProgress;
+
+	/**
+	 * The members of the recursion being solved, or {@code null} if no
+	 * recursion is being solved.
+	 */
+	private Collection<CodeMember> solving;
+
+	/**
+	 * The current approximations of the summaries of the members of
+	 * {@link #solving}.
+	 */
+	private Map<CFG, Summary<A, H, V, T>> approximations;
+
+	/**
+	 * The number of rounds performed while solving the current recursion.
+	 */
+	private int round;
+
+	/**
+	 * Whether or not one of the {@link #approximations} changed in the current
+	 * round.
+	 */
+	private boolean unstable;
+
+	/**
+	 * Whether or not the call graph is being built, that is, if calls have to
+	 * be evaluated in the worst-case scenario.
+	 */
+	private boolean building;
+
+	/**
+	 * The results of the calls evaluated by the fixpoints that are being
+	 * computed, grouped by the cfg containing them. These are only recorded
+	 * if {@link FixpointConfiguration#optimize} is set, since the optimized
+	 * results need them to be unwound.
+	 */
+	private final Map<CFG, Map<Call, AnalysisState<A, H, V, T>>> callResults;
+
+	/**
+	 * The number of summaries that have been computed.
+	 */
+	private int computed;
+
+	/**
+	 * The number of times a summary has been reused.
+	 */
+	private int reused;
+
+	/**
+	 * Builds the analysis.
+	 */
+	public SummaryBasedAnalysis() {
+		summaries = new HashMap<>();
+		recursions = new HashMap<>();
+		inProgress = new HashSet<>();
+		callResults = new HashMap<>();
+	}
+
+	@Override
+	public void init(
+			Application app,
+			CallGraph callgraph,
+			OpenCallPolicy policy)
+			throws InterproceduralAnalysisException {
+		super.init(app, callgraph, policy);
+		this.conf = null;
+		this.results = null;
+		this.workingSet = null;
+		reset();
+	}
+
+	private void reset() {
+		summaries.clear();
+		recursions.clear();
+		inProgress.clear();
+		callResults.clear();
+		solving = null;
+		approximations = null;
+		building = false;
+		computed = 0;
+		reused = 0;
+	}
+
+	@Override
+	public void fixpoint(
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		this.workingSet = fixpointWorkingSet;
+		this.conf = conf;
+		// new fixpoint execution: reset
+		this.results = null;
+		reset();
+
+		List<CFG> all = new ArrayList<>(app.getAllCFGs());
+		all.sort(BY_LOCATION);
+
+		buildCallGraph(entryState, all);
+
+		for (Collection<CFG> component : IterationLogger.iterate(LOG, bottomUp(all),
+				"Computing summaries bottom-up", "components"))
+			for (CFG cfg : component)
+				try {
+					summarize(cfg, prepareEntryStateOfEntryPoint(entryState, cfg));
+				} catch (SemanticException e) {
+					throw new FixpointException("Error while computing the summary of " + cfg, e);
+				}
+
+		LOG.info("{} summaries computed, {} summaries reused", computed, reused);
+	}
+
+	private void buildCallGraph(AnalysisState<A, H, V, T> entryState, Collection<CFG> all)
+			throws FixpointException {
+		building = true;
+		try {
+			for (CFG cfg : IterationLogger.iterate(LOG, all, "Building the call graph", "cfgs"))
+				try {
+					cfg.fixpoint(
+							prepareEntryStateOfEntryPoint(entryState, cfg),
+							this,
+							WorkingSet.of(workingSet),
+							conf,
+							new SummaryId(0));
+				} catch (SemanticException | AnalysisSetupException e) {
+					throw new FixpointException("Error while building the call graph through " + cfg, e);
+				}
+		} finally {
+			building = false;
+		}
+	}
+
+	/**
+	 * Yields the strongly connected components of the call graph that contain
+	 * at least one of the given cfgs, in reverse topological order. This also
+	 * populates {@link #recursions}. The order is made deterministic by
+	 * visiting cfgs and callees by their location.
+	 *
+	 * @param all the cfgs of the program
+	 *
+	 * @return the ordered components
+	 */
+	private List<Collection<CFG>> bottomUp(Collection<CFG> all) {
+		Map<CodeMember, Collection<CodeMember>> components = new HashMap<>();
+		for (Collection<CallGraphNode> scc : new SCCs<CallGraph, CallGraphNode, CallGraphEdge>().build(callgraph)) {
+			Collection<CodeMember> members = scc.stream()
+					.map(CallGraphNode::getCodeMember)
+					.collect(Collectors.toSet());
+			CallGraphNode first = scc.iterator().next();
+			boolean recursive = scc.size() > 1 || callgraph.followersOf(first).contains(first);
+			for (CodeMember cm : members) {
+				components.put(cm, members);
+				if (recursive)
+					recursions.put(cm, members);
+			}
+		}
+
+		List<Collection<CFG>> order = new ArrayList<>();
+		Set<Collection<CodeMember>> visited = new HashSet<>();
+		for (CFG cfg : all)
+			visit(cfg, components, visited, order);
+		return order;
+	}
+
+	private void visit(
+			CodeMember cm,
+			Map<CodeMember, Collection<CodeMember>> components,
+			Set<Collection<CodeMember>> visited,
+			List<Collection<CFG>> order) {
+		Collection<CodeMember> component = components.getOrDefault(cm, Collections.singleton(cm));
+		if (!visited.add(component))
+			return;
+
+		List<CodeMember> members = new ArrayList<>(component);
+		members.sort(BY_LOCATION);
+		if (components.containsKey(cm))
+			for (CodeMember member : members) {
+				List<CodeMember> callees = new ArrayList<>(callgraph.getCallees(member));
+				callees.sort(BY_LOCATION);
+				for (CodeMember callee : callees)
+					visit(callee, components, visited, order);
+			}
+
+		List<CFG> cfgs = members.stream()
+				.filter(CFG.class::isInstance)
+				.map(CFG.class::cast)
+				.collect(Collectors.toList());
+		if (!cfgs.isEmpty())
+			order.add(cfgs);
+	}
+
+	/**
+	 * Yields the exit state of {@code cfg} when executed starting from the
+	 * given canonical entry state, reusing a cached summary if possible.
+	 *
+	 * @param cfg        the cfg
+	 * @param entryState the canonical entry state
+	 *
+	 * @return the canonical exit state, or {@code null} if {@code cfg} is part
+	 *             of a recursion that was not known when the call graph was
+	 *             built
+	 *
+	 * @throws SemanticException if the computation of the summary fails
+	 */
+	private AnalysisState<A, H, V, T> summarize(CFG cfg, AnalysisState<A, H, V, T> entryState)
+			throws SemanticException {
+		for (Summary<A, H, V, T> summary : summaries.getOrDefault(cfg, Collections.emptyList()))
+			if (summary.covers(entryState)) {
+				reused++;
+				return summary.getExitState();
+			}
+
+		if (solving != null && solving.contains(cfg))
+			return approximate(cfg, entryState);
+
+		if (!inProgress.add(cfg))
+			return null;
+
+		try {
+			Collection<CodeMember> recursion = recursions.get(cfg);
+			if (recursion != null)
+				return solve(cfg, entryState, recursion);
+
+			AnalyzedCFG<A, H, V, T> result = computeFixpoint(cfg, entryState);
+			Summary<A, H, V, T> summary = new Summary<>(entryState, result.getExitState(), result);
+			store(cfg, summary);
+			return summary.getExitState();
+		} finally {
+			inProgress.remove(cfg);
+		}
+	}
+
+	private AnalysisState<A, H, V, T> approximate(CFG cfg, AnalysisState<A, H, V, T> entryState)
+			throws SemanticException {
+		Summary<A, H, V, T> approx = approximations.get(cfg);
+		if (approx == null) {
+			approximations.put(cfg, new Summary<>(entryState, entryState.bottom(), null));
+			unstable = true;
+			return entryState.bottom();
+		}
+
+		if (!approx.covers(entryState)) {
+			approximations.put(cfg, new Summary<>(
+					join(approx.getEntryState(), entryState),
+					approx.getExitState(),
+					approx.getResult()));
+			unstable = true;
+		}
+		return approx.getExitState();
+	}
+
+	private AnalysisState<A, H, V, T> solve(
+			CFG head,
+			AnalysisState<A, H, V, T> entryState,
+			Collection<CodeMember> recursion)
+			throws SemanticException {
+		// recursions might be nested if the current one invokes another one
+		Collection<CodeMember> outerSolving = solving;
+		Map<CFG, Summary<A, H, V, T>> outerApproximations = approximations;
+		int outerRound = round;
+		boolean outerUnstable = unstable;
+
+		solving = recursion;
+		approximations = new LinkedHashMap<>();
+		approximations.put(head, new Summary<>(entryState, entryState.bottom(), null));
+		round = 0;
+		try {
+			do {
+				unstable = false;
+				for (CFG cfg : new ArrayList<>(approximations.keySet())) {
+					AnalyzedCFG<A, H, V, T> result = computeFixpoint(cfg, approximations.get(cfg).getEntryState());
+					AnalysisState<A, H, V, T> exit = result.getExitState();
+					// the entry state might have grown during the fixpoint
+					Summary<A, H, V, T> current = approximations.get(cfg);
+					AnalysisState<A, H, V, T> approx = current.getExitState();
+					if (!exit.lessOrEqual(approx)) {
+						approx = join(approx, exit);
+						unstable = true;
+					}
+					approximations.put(cfg, new Summary<>(current.getEntryState(), approx, result));
+				}
+				round++;
+			} while (unstable);
+
+			// in the last round no approximation changed: all results have
+			// been computed with the final approximations
+			for (Entry<CFG, Summary<A, H, V, T>> approx : approximations.entrySet())
+				store(approx.getKey(), approx.getValue());
+			return approximations.get(head).getExitState();
+		} finally {
+			solving = outerSolving;
+			approximations = outerApproximations;
+			round = outerRound;
+			unstable = outerUnstable;
+		}
+	}
+
+	private AnalysisState<A, H, V, T> join(AnalysisState<A, H, V, T> approx, AnalysisState<A, H, V, T> state)
+			throws SemanticException {
+		if (conf.recursionWideningThreshold < 0 || round < conf.recursionWideningThreshold)
+			return approx.lub(state);
+		return approx.widening(state);
+	}
+
+	private AnalyzedCFG<A, H, V, T> computeFixpoint(CFG cfg, AnalysisState<A, H, V, T> entryState)
+			throws SemanticException {
+		// no summary of cfg can be stored while computing its fixpoint, as
+		// that would require cfg to be recursive
+		SummaryId id = new SummaryId(summaries.getOrDefault(cfg, Collections.emptyList()).size());
+		if (!conf.optimize)
+			try {
+				return cfg.fixpoint(entryState, this, WorkingSet.of(workingSet), conf, id);
+			} catch (FixpointException | AnalysisSetupException e) {
+				throw new SemanticException("Exception during the interprocedural analysis", e);
+			}
+
+		Map<Call, AnalysisState<A, H, V, T>> calls = new HashMap<>();
+		callResults.put(cfg, calls);
+		AnalyzedCFG<A, H, V, T> result;
+		try {
+			result = cfg.fixpoint(entryState, this, WorkingSet.of(workingSet), conf, id);
+		} catch (FixpointException | AnalysisSetupException e) {
+			throw new SemanticException("Exception during the interprocedural analysis", e);
+		} finally {
+			callResults.remove(cfg);
+		}
+
+		// the unwinding of optimized results would look for the results of
+		// the callees under the same id of the caller, but these are
+		// canonical and they do not contain the frame of the call: we store
+		// the results of the calls explicitly, as the ones of the last
+		// evaluation of each call have been computed from its final entry
+		// state
+		OptimizedAnalyzedCFG<A, H, V, T> optimized = (OptimizedAnalyzedCFG<A, H, V, T>) result;
+		for (Entry<Call, AnalysisState<A, H, V, T>> entry : calls.entrySet()) {
+			Call call = entry.getKey();
+			if (optimized.hasPostStateOf(call))
+				continue;
+			AnalysisState<A, H, V, T> post = entry.getValue();
+			if (call.getRootStatement() == call)
+				// the fixpoint pops the returned value of top-level calls
+				post = post.forgetIdentifiers(call.getMetaVariables());
+			optimized.storePostStateOf(call, post);
+		}
+		return result;
+	}
+
+	private void store(CFG cfg, Summary<A, H, V, T> summary) throws SemanticException {
+		summaries.computeIfAbsent(cfg, k -> new ArrayList<>()).add(summary);
+		computed++;
+
+		AnalyzedCFG<A, H, V, T> result = summary.getResult();
+		if (results == null) {
+			AnalysisState<A, H, V, T> bottom = summary.getEntryState().bottom();
+			AnalyzedCFG<A, H, V, T> graph = conf.optimize
+					? new OptimizedAnalyzedCFG<>(cfg, result.getId(), bottom, this)
+					: new AnalyzedCFG<>(cfg, result.getId(), bottom);
+			CFGResults<A, H, V, T> value = new CFGResults<>(graph);
+			this.results = new FixpointResults<>(value.top());
+		}
+		results.putResult(cfg, result.getId(), result);
+	}
+
+	/**
+	 * Yields the summaries computed for the given cfg, in the order they have
+	 * been computed.
+	 *
+	 * @param cfg the cfg
+	 *
+	 * @return the summaries of {@code cfg}
+	 */
+	public List<Summary<A, H, V, T>> getSummariesOf(CFG cfg) {
+		return Collections.unmodifiableList(summaries.getOrDefault(cfg, Collections.emptyList()));
+	}
+
+	@Override
+	public Collection<AnalyzedCFG<A, H, V, T>> getAnalysisResultsOf(CFG cfg) {
+		if (results != null && results.contains(cfg))
+			return results.getState(cfg).getAll();
+		else
+			return Collections.emptySet();
+	}
+
+	@Override
+	public FixpointResults<A, H, V, T> getFixpointResults() {
+		return results;
+	}
+
+	private static <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> AnalysisState<A, H, V, T> withEmptyStack(AnalysisState<A, H, V, T> state) {
+		return new AnalysisState<>(state.getState(), new ExpressionSet<>(), state.getAliasing());
+	}
+
+	private AnalysisState<A, H, V, T> worstCase(
+			CFGCall call,
+			AnalysisState<A, H, V, T> entryState,
+			ExpressionSet<SymbolicExpression>[] parameters,
+			StatementStore<A, H, V, T> expressions)
+			throws SemanticException {
+		OpenCall open = new OpenCall(call.getCFG(), call.getLocation(), call.getCallType(), call.getQualifier(),
+				call.getTargetName(), call.getStaticType(), call.getParameters());
+		return getAbstractResultOf(open, entryState, parameters, expressions);
+	}
+
+	@Override
+	public AnalysisState<A, H, V, T> getAbstractResultOf(
+			CFGCall call,
+			AnalysisState<A, H, V, T> entryState,
+			ExpressionSet<SymbolicExpression>[] parameters,
+			StatementStore<A, H, V, T> expressions)
+			throws SemanticException {
+		callgraph.registerCall(call);
+		if (building)
+			return worstCase(call, entryState, parameters, expressions);
+
+		ScopeToken scope = new ScopeToken(call);
+		AnalysisState<A, H, V, T> result = entryState.bottom();
+
+		// compute the result over all possible targets, and take the lub of
+		// the results
+		for (CFG cfg : call.getTargetedCFGs()) {
+			AnalysisState<A, H, V, T> callState = prepareEntryState(
+					call,
+					entryState,
+					parameters,
+					expressions,
+					scope,
+					cfg).getLeft();
+
+			// the frame contains the information about the callers, that the
+			// callee cannot access
+			AnalysisState<A, H, V, T> frame = withEmptyStack(
+					callState.forgetIdentifiersIf(id -> !id.isScopedByCall()));
+			AnalysisState<A, H, V, T> exitState = summarize(
+					cfg,
+					withEmptyStack(callState.forgetIdentifiersIf(Identifier::isScopedByCall)));
+
+			if (exitState == null) {
+				LOG.info("Found recursion at " + call.getLocation() + ", evaluating it in the worst-case scenario");
+				result = result.lub(worstCase(call, entryState, parameters, expressions));
+			} else if (exitState.isBottom())
+				// the callee does not return
+				if (returnsVoid(call, null))
+					result = result.lub(entryState.bottom());
+				else
+					result = result.lub(new AnalysisState<>(
+							entryState.getState().bottom(),
+							call.getMetaVariable(),
+							entryState.getAliasing().bottom()));
+			else
+				result = result.lub(unscope(call, scope, frame.lub(exitState)));
+		}
+
+		Map<Call, AnalysisState<A, H, V, T>> calls = callResults.get(call.getCFG());
+		if (calls != null)
+			calls.put(call.getSource() == null ? call : call.getSource(), result);
+		return result;
+	}
+}
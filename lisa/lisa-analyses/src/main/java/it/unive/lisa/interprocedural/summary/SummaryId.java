@@ -0,0 +1,79 @@
+package it.unive.lisa.interprocedural.summary;
+
+import it.unive.lisa.interprocedural.ScopeId;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+
+/**
+ * A {@link ScopeId} identifying one of the {@link Summary}s computed for a
+ * cfg by a {@link SummaryBasedAnalysis}. Summaries of the same cfg are
+ * numbered in the order they are computed: the first one is always the one
+ * computed for the generic entry state of the cfg, and it is thus considered
+ * the starting id.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class SummaryId implements ScopeId {
+
+	private static final SummaryId GENERIC = new SummaryId(0);
+
+	private final int index;
+
+	/**
+	 * Builds the id.
+	 *
+	 * @param index the position of the identified summary among the ones of
+	 *                  the same cfg
+	 */
+	public SummaryId(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * Yields the position of the identified summary among the ones of the
+	 * same cfg.
+	 *
+	 * @return the position
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public ScopeId startingId() {
+		return GENERIC;
+	}
+
+	@Override
+	public boolean isStartingId() {
+		return index == 0;
+	}
+
+	@Override
+	public ScopeId push(CFGCall c) {
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		// we provide a deterministic hashcode as it is used for generating
+		// filenames of the output files
+		return 31 + index;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SummaryId other = (SummaryId) obj;
+		return index == other.index;
+	}
+
+	@Override
+	public String toString() {
+		return "<summary " + index + ">";
+	}
+}
@@ -0,0 +1,97 @@
+package it.unive.lisa.analysis.dataflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeLocation;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.type.Int32Type;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class ReachingDefinitionsTest {
+
+	private static ProgramPoint mkPoint(int line) {
+		return new ProgramPoint() {
+
+			@Override
+			public CodeLocation getLocation() {
+				return new SourceCodeLocation("fake", line, 0);
+			}
+
+			@Override
+			public CFG getCFG() {
+				return null;
+			}
+		};
+	}
+
+	private final ProgramPoint pp1 = mkPoint(1);
+	private final ProgramPoint pp2 = mkPoint(2);
+	private final Variable x = new Variable(Int32Type.INSTANCE, "x", pp1.getLocation());
+	private final Variable y = new Variable(Int32Type.INSTANCE, "y", pp1.getLocation());
+	private final Constant one = new Constant(Int32Type.INSTANCE, 1, pp1.getLocation());
+
+	@Test
+	public void testAssignKillsPreviousDefinitions() throws SemanticException {
+		PossibleForwardDataflowDomain<ReachingDefinitions> domain = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions());
+		domain = domain.assign(x, one, pp1).assign(y, one, pp1).assign(x, one, pp2);
+
+		assertEquals(Set.of(new ReachingDefinitions(x, pp2), new ReachingDefinitions(y, pp1)),
+				domain.getDataflowElements());
+		assertEquals(Set.of(new ReachingDefinitions(x, pp2)), domain.getDataflowElementsInvolving(x));
+	}
+
+	@Test
+	public void testForget() throws SemanticException {
+		PossibleForwardDataflowDomain<ReachingDefinitions> domain = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions());
+		domain = domain.assign(x, one, pp1).assign(y, one, pp2);
+
+		assertEquals(Set.of(new ReachingDefinitions(y, pp2)), domain.forgetIdentifier(x).getDataflowElements());
+		assertEquals(Set.of(new ReachingDefinitions(x, pp1)),
+				domain.forgetIdentifiersIf(id -> id.getName().equals("y")).getDataflowElements());
+		assertTrue(domain.forgetIdentifiersIf(id -> true).getDataflowElements().isEmpty());
+
+		PossibleForwardDataflowDomain<ReachingDefinitions> onlyY = domain.forgetIdentifier(x);
+		assertSame(onlyY, onlyY.forgetIdentifier(x));
+	}
+
+	@Test
+	public void testIndependentInstances() throws SemanticException {
+		// the two instances do not share the same cache
+		PossibleForwardDataflowDomain<ReachingDefinitions> first = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions()).assign(x, one, pp1);
+		PossibleForwardDataflowDomain<ReachingDefinitions> second = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions()).assign(y, one, pp2);
+
+		PossibleForwardDataflowDomain<ReachingDefinitions> lub = first.lub(second);
+		assertEquals(Set.of(new ReachingDefinitions(x, pp1), new ReachingDefinitions(y, pp2)),
+				lub.getDataflowElements());
+		assertTrue(first.lessOrEqual(lub));
+		assertTrue(second.lessOrEqual(lub));
+		assertTrue(first.glb(second).getDataflowElements().isEmpty());
+	}
+
+	@Test
+	public void testForgetTestsOnlyInvolvedIdentifiers() throws SemanticException {
+		PossibleForwardDataflowDomain<ReachingDefinitions> domain = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions());
+		// y is interned in the shared cache, but it is not part of onlyX
+		PossibleForwardDataflowDomain<ReachingDefinitions> onlyX = domain.assign(x, one, pp1).assign(y, one, pp2)
+				.forgetIdentifier(y);
+
+		Set<Identifier> tested = new HashSet<>();
+		assertSame(onlyX, onlyX.forgetIdentifiersIf(id -> tested.add(id) && false));
+		assertEquals("identifiers outside of the state have been tested", Set.of(x), tested);
+	}
+}
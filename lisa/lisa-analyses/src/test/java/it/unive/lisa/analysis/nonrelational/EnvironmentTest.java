@@ -15,6 +15,8 @@ import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Untyped;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.Test;
 
@@ -42,6 +44,17 @@ public class EnvironmentTest {
 		assertEquals(Set.of(heapA, heapB), env.lubKeys(Set.of(heapA), Set.of(heapB)));
 	}
 
+	@Test
+	public void testLubKeysIgnoresIterationOrder() throws SemanticException {
+		Set<Identifier> strongFirst = new LinkedHashSet<>(List.of(heapA, heapAweak, varB));
+		Set<Identifier> weakFirst = new LinkedHashSet<>(List.of(heapAweak, heapA, varB));
+		Set<Identifier> other = Set.of(heapAweak);
+		assertEquals("lub of same-named identifiers depends on iteration order",
+				env.lubKeys(strongFirst, other), env.lubKeys(weakFirst, other));
+		assertEquals(Set.of(heapAweak, varB), env.lubKeys(weakFirst, other));
+		assertEquals(Set.of(heapAweak, varB), env.lubKeys(other, strongFirst));
+	}
+
 	@Test
 	public void testForgetIdentifier() throws SemanticException {
 		ValueEnvironment<Sign> tmp = env.top();
@@ -1,14 +1,24 @@
 package it.unive.lisa.checks;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.CronConfiguration;
 import it.unive.lisa.checks.syntactic.CheckTool;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
+import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.VariableRef;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.junit.Test;
 
 public class ChecksExecutorTest extends AnalysisTestExecutor {
@@ -31,4 +41,20 @@ public class ChecksExecutorTest extends AnalysisTestExecutor {
 		conf.programFile = "expressions.imp";
 		perform(conf);
 	}
+
+	@Test
+	public void testParallelExecution() throws ParsingException {
+		Application app = new Application(
+				IMPFrontend.processFile("imp-testcases/syntactic/expressions.imp", false));
+		LiSAConfiguration conf = new LiSAConfiguration();
+
+		CheckTool sequential = new CheckTool(conf, null);
+		ChecksExecutor.executeAll(sequential, app, List.of(new VariableI()), 1);
+		CheckTool parallel = new CheckTool(conf, null);
+		ChecksExecutor.executeAll(parallel, app, List.of(new VariableI()), 4);
+
+		Set<Warning> expected = new HashSet<>(sequential.getWarnings());
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, new HashSet<>(parallel.getWarnings()));
+	}
 }
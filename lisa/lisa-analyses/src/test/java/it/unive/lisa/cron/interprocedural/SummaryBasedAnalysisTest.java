@@ -0,0 +1,66 @@
+package it.unive.lisa.cron.interprocedural;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.AnalysisTestExecutor;
+import it.unive.lisa.CronConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.interprocedural.summary.SummaryBasedAnalysis;
+import org.junit.Test;
+
+public class SummaryBasedAnalysisTest extends AnalysisTestExecutor {
+
+	@Test
+	public void testRTACallGraph() throws AnalysisSetupException {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new SummaryBasedAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.testDir = "interprocedural";
+		conf.testSubDir = "RTASummary";
+		conf.programFile = "program.imp";
+		perform(conf);
+	}
+
+	@Test
+	public void testFactorial() throws AnalysisSetupException {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Interval(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new SummaryBasedAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.testDir = "interprocedural";
+		conf.testSubDir = "factorial/summary";
+		conf.programFile = "factorial.imp";
+		perform(conf);
+	}
+
+	@Test
+	public void testNestedRecursions() throws AnalysisSetupException {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Interval(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new SummaryBasedAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.testDir = "interprocedural";
+		conf.testSubDir = "nestedRecursions/summary";
+		conf.programFile = "nestedRecursions.imp";
+		perform(conf);
+	}
+}
@@ -33,4 +33,22 @@ public class NonRedundantSetTest extends AnalysisTestExecutor {
 		conf.compareWithOptimization = false;
 		perform(conf);
 	}
+
+	@Test
+	public void testNonRedundantSetOfIntervalWithPostStateConvergence() throws AnalysisSetupException {
+		CronConfiguration conf = new CronConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class),
+				new NonRedundantPowersetOfInterval(),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.descendingPhaseType = DescendingPhaseType.GLB;
+		conf.glbThreshold = 5;
+		conf.postStateConvergence = true;
+		conf.testDir = "non-redundant-set-interval";
+		conf.testSubDir = "post-state-convergence";
+		conf.programFile = "program.imp";
+		// same as above
+		conf.compareWithOptimization = false;
+		perform(conf);
+	}
 }
@@ -108,4 +108,16 @@ public class VisualizationTest extends AnalysisTestExecutor {
 		conf.programFile = "program.imp";
 		perform(conf);
 	}
+
+	@Test
+	public void testBackgroundDumping() throws AnalysisSetupException {
+		CronConfiguration conf = config();
+		conf.serializeInputs = true;
+		conf.analysisGraphs = GraphType.HTML_WITH_SUBNODES;
+		conf.dumpParallelism = 4;
+		conf.testDir = "visualization";
+		conf.testSubDir = "background";
+		conf.programFile = "program.imp";
+		perform(conf);
+	}
 }
@@ -0,0 +1,50 @@
+package it.unive.lisa.interprocedural;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class InterproceduralTestUtils {
+
+	private InterproceduralTestUtils() {
+	}
+
+	public static CFG cfg(Program program, String name) {
+		for (CFG cfg : program.getAllCFGs())
+			if (cfg.getDescriptor().getName().equals(name))
+				return cfg;
+		throw new IllegalArgumentException("No cfg named " + name);
+	}
+
+	public static Map<String, AnalyzedCFG<?, ?, ?, ?>> resultsOf(InterproceduralAnalysis<?, ?, ?, ?> analysis,
+			CFG cfg) {
+		Map<String, AnalyzedCFG<?, ?, ?, ?>> results = new HashMap<>();
+		for (AnalyzedCFG<?, ?, ?, ?> result : analysis.getAnalysisResultsOf(cfg))
+			// tokens of different parsings are never equal, as they refer to
+			// different cfgs: we index results by their textual representation
+			results.put(String.valueOf(result.getId()), result);
+		return results;
+	}
+
+	public static void checkSameResults(InterproceduralAnalysis<?, ?, ?, ?> expected, Program expectedProgram,
+			InterproceduralAnalysis<?, ?, ?, ?> actual, Program actualProgram) {
+		for (CFG cfg : expectedProgram.getAllCFGs()) {
+			CFG other = cfg(actualProgram, cfg.getDescriptor().getName());
+			Map<String, AnalyzedCFG<?, ?, ?, ?>> exp = resultsOf(expected, cfg);
+			Map<String, AnalyzedCFG<?, ?, ?, ?>> act = resultsOf(actual, other);
+			assertEquals("Different contexts for " + cfg, exp.keySet(), act.keySet());
+			for (String id : exp.keySet())
+				for (Statement st : cfg.getNodes())
+					// states of different parsings are compared through their
+					// representation, as they contain program-specific objects
+					assertEquals("Different results for " + st + " in " + cfg,
+							exp.get(id).getAnalysisStateAfter(st).representation().toString(),
+							act.get(id).getAnalysisStateAfter(st).representation().toString());
+		}
+	}
+}
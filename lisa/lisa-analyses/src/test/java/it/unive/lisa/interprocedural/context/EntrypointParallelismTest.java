@@ -0,0 +1,95 @@
+package it.unive.lisa.interprocedural.context;
+
+import static it.unive.lisa.interprocedural.InterproceduralTestUtils.cfg;
+import static it.unive.lisa.interprocedural.InterproceduralTestUtils.checkSameResults;
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.ReturnTopPolicy;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+public class EntrypointParallelismTest {
+
+	// {first, third} and {second, loop} reach disjoint code, and are
+	// processed concurrently: inc is reached by first and third with
+	// different parameters, and being context insensitive this requires more
+	// than one fixpoint iteration
+	private static final String PROGRAM = "class tests { "
+			+ "first() { def x = this.inc(1); } "
+			+ "inc(a) { return a + 1; } "
+			+ "second() { def y = this.dec(5); } "
+			+ "dec(b) { return b - 1; } "
+			+ "third() { def z = this.inc(10); } "
+			+ "loop() { def i = 0; while (i < 100) { def j = i + 2; i = this.dec(j); } } }";
+
+	private static ContextBasedAnalysis<?, ?, ?, ?> run(Program program, int parallelism) throws AnalysisException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new ValueEnvironment<>(new Interval()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.callGraph = new RTACallGraph();
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>(
+						ContextInsensitiveToken.getSingleton());
+		conf.interproceduralAnalysis = analysis;
+		conf.optimize = false;
+		conf.entrypointParallelism = parallelism;
+		new LiSA(conf).run(program);
+		return analysis;
+	}
+
+	@Test
+	public void testEntrypointsArePartitionedBeforeTheAnalysis()
+			throws ParsingException, CallGraphConstructionException, InterproceduralAnalysisException {
+		Program program = IMPFrontend.processText(PROGRAM);
+		Application app = new Application(program);
+		RTACallGraph callgraph = new RTACallGraph();
+		callgraph.init(app);
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>();
+		analysis.init(app, callgraph, ReturnTopPolicy.INSTANCE);
+
+		CFG first = cfg(program, "first"), second = cfg(program, "second");
+		CFG third = cfg(program, "third"), loop = cfg(program, "loop");
+		// the call graph is still empty: groups only depend on the code
+		List<List<CFG>> groups = analysis.partitionEntrypoints(List.of(first, second, third, loop)).stream()
+				.map(Pair::getLeft)
+				.collect(Collectors.toList());
+		assertEquals(List.of(List.of(first, third), List.of(second, loop)), groups);
+	}
+
+	@Test
+	public void testSameResultsAsSequentialRun() throws ParsingException, AnalysisException {
+		Program sequential = IMPFrontend.processText(PROGRAM);
+		Program concurrent = IMPFrontend.processText(PROGRAM);
+		ContextBasedAnalysis<?, ?, ?, ?> expected = run(sequential, 1);
+		ContextBasedAnalysis<?, ?, ?, ?> actual = run(concurrent, 4);
+		checkSameResults(expected, sequential, actual, concurrent);
+	}
+}
@@ -0,0 +1,196 @@
+package it.unive.lisa.interprocedural.context;
+
+import static it.unive.lisa.interprocedural.InterproceduralTestUtils.checkSameResults;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.StatementStore;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+public class IncrementalAnalysisTest {
+
+	private static final String ORIGINAL = "class tests { "
+			+ "first() { def x = this.inc(1); } "
+			+ "inc(a) { return a + 1; } "
+			+ "second() { def y = this.dec(5); } "
+			+ "dec(b) { return b - 1; } }";
+
+	private static final String EDITED = ORIGINAL.replace("this.dec(5)", "this.dec(7)");
+
+	private static final String CONFLICTING = ORIGINAL.replace("this.dec(5)", "this.inc(5)");
+
+	private static final String UNCALLED = ORIGINAL.replace("this.dec(5)", "5");
+
+	// all the code is moved, but no cfg changes
+	private static final String SHIFTED = "\n\n" + ORIGINAL.replace("{ ", "{\n  ");
+
+	private static final String WORKDIR = "test-outputs/incremental";
+
+	private static final String SNAPSHOT = "snapshot.bin";
+
+	/**
+	 * An analysis recording the cfgs whose calls have been evaluated, that
+	 * are the ones that have been analyzed.
+	 */
+	private static class RecordingAnalysis extends ContextBasedAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> {
+
+		private final Set<String> callers = ConcurrentHashMap.newKeySet();
+
+		private RecordingAnalysis() {
+			this(LastCallToken.getSingleton());
+		}
+
+		private RecordingAnalysis(ContextSensitivityToken token) {
+			super(token);
+		}
+
+		@Override
+		public AnalysisState<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> getAbstractResultOf(
+						CFGCall call,
+						AnalysisState<
+								SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+										TypeEnvironment<InferredTypes>>,
+								MonolithicHeap,
+								ValueEnvironment<Interval>,
+								TypeEnvironment<InferredTypes>> entryState,
+						ExpressionSet<SymbolicExpression>[] parameters,
+						StatementStore<
+								SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>,
+										TypeEnvironment<InferredTypes>>,
+								MonolithicHeap,
+								ValueEnvironment<Interval>,
+								TypeEnvironment<InferredTypes>> expressions)
+						throws SemanticException {
+			callers.add(call.getCFG().getDescriptor().getName());
+			return super.getAbstractResultOf(call, entryState, parameters, expressions);
+		}
+	}
+
+	private static RecordingAnalysis run(RecordingAnalysis analysis, boolean incremental, boolean optimize,
+			String snapshotFile, Program program) throws AnalysisException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new ValueEnvironment<>(new Interval()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = analysis;
+		conf.workdir = WORKDIR;
+		conf.optimize = optimize;
+		conf.incremental = incremental;
+		conf.snapshotFile = snapshotFile;
+		analysis.callers.clear();
+		new LiSA(conf).run(program);
+		return analysis;
+	}
+
+	private static RecordingAnalysis run(RecordingAnalysis analysis, boolean incremental, Program program)
+			throws AnalysisException {
+		return run(analysis, incremental, false, null, program);
+	}
+
+	private static void checkIncremental(ContextSensitivityToken token, String original, String edited,
+			Set<String> analyzed) throws ParsingException, AnalysisException {
+		RecordingAnalysis analysis = run(new RecordingAnalysis(token), true, IMPFrontend.processText(original));
+		assertNotNull(analysis.getSnapshot());
+
+		Program program = IMPFrontend.processText(edited);
+		run(analysis, true, program);
+		assertEquals(analyzed, analysis.callers);
+
+		Program fresh = IMPFrontend.processText(edited);
+		checkSameResults(run(new RecordingAnalysis(token), false, fresh), fresh, analysis, program);
+	}
+
+	@Test
+	public void testUnchangedCodeIsNotAnalyzedAgain() throws ParsingException, AnalysisException {
+		checkIncremental(LastCallToken.getSingleton(), ORIGINAL, EDITED, Set.of("second"));
+	}
+
+	@Test
+	public void testMovedCodeIsNotAnalyzedAgain() throws ParsingException, AnalysisException {
+		checkIncremental(LastCallToken.getSingleton(), ORIGINAL, SHIFTED, Collections.emptySet());
+	}
+
+	@Test
+	public void testReachingRestoredCodeOnlyAnalyzesChangedCode() throws ParsingException, AnalysisException {
+		// inc is reached with a new context, and its other results are reused
+		checkIncremental(LastCallToken.getSingleton(), ORIGINAL, CONFLICTING, Set.of("second"));
+	}
+
+	@Test
+	public void testResultsMergedWithChangedCodeAreAnalyzedAgain() throws ParsingException, AnalysisException {
+		// the result of inc, shared by all callers, changes: first must be
+		// analyzed again
+		checkIncremental(ContextInsensitiveToken.getSingleton(), ORIGINAL, CONFLICTING,
+				Set.of("first", "second"));
+	}
+
+	@Test
+	public void testResultsOfCodeNoLongerReachedAreDiscarded() throws ParsingException, AnalysisException {
+		checkIncremental(ContextInsensitiveToken.getSingleton(), ORIGINAL, UNCALLED,
+				Collections.emptySet());
+	}
+
+	@Test
+	public void testOptimizedResultsAreRestored() throws ParsingException, AnalysisException {
+		RecordingAnalysis analysis = run(new RecordingAnalysis(), true, true, null,
+				IMPFrontend.processText(ORIGINAL));
+		Program program = IMPFrontend.processText(EDITED);
+		run(analysis, true, true, null, program);
+		assertEquals(Set.of("second"), analysis.callers);
+
+		Program fresh = IMPFrontend.processText(EDITED);
+		checkSameResults(run(new RecordingAnalysis(), false, true, null, fresh), fresh, analysis, program);
+	}
+
+	@Test
+	public void testSnapshotsAreReadFromDisk() throws ParsingException, AnalysisException, IOException {
+		Path file = Paths.get(WORKDIR, SNAPSHOT);
+		Files.deleteIfExists(file);
+		run(new RecordingAnalysis(), true, false, SNAPSHOT, IMPFrontend.processText(ORIGINAL));
+		assertTrue(Files.exists(file));
+
+		// a new analysis, as if the program had been run again
+		Program program = IMPFrontend.processText(EDITED);
+		RecordingAnalysis analysis = run(new RecordingAnalysis(), true, false, SNAPSHOT, program);
+		assertEquals(Set.of("second"), analysis.callers);
+
+		Program fresh = IMPFrontend.processText(EDITED);
+		checkSameResults(run(new RecordingAnalysis(), false, fresh), fresh, analysis, program);
+	}
+}
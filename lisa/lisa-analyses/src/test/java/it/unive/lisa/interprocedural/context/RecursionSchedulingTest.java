@@ -0,0 +1,136 @@
+package it.unive.lisa.interprocedural.context;
+
+import static it.unive.lisa.interprocedural.InterproceduralTestUtils.cfg;
+import static it.unive.lisa.interprocedural.InterproceduralTestUtils.checkSameResults;
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.interprocedural.context.recursion.Recursion;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.NaryExpression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class RecursionSchedulingTest {
+
+	// inner is started by outer, and must be solved before it, while fact
+	// does not depend on the other recursions
+	private static final String PROGRAM = "class tests { "
+			+ "inner(n) { if (n <= 1) return 1; else { def x = n - 1; return this.inner(x) - n; } } "
+			+ "outer(n) { if (n <= 0) return 1; else { def x = this.inner(n) - 1; return this.outer(x) * n; } } "
+			+ "fact(n) { if (n <= 1) return 1; else { def x = n - 1; return this.fact(x) * n; } } "
+			+ "main(a) { def x = this.outer(a); def y = this.fact(a); } }";
+
+	private static ContextBasedAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> run(Program program, int parallelism) throws AnalysisException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new ValueEnvironment<>(new Interval()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.callGraph = new RTACallGraph();
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>();
+		conf.interproceduralAnalysis = analysis;
+		conf.optimize = false;
+		conf.recursionParallelism = parallelism;
+		new LiSA(conf).run(program);
+		return analysis;
+	}
+
+	private static Call call(Program program, String caller, String target) {
+		for (Statement st : cfg(program, caller).getNodes()) {
+			Call call = find(st, target);
+			if (call != null)
+				return call;
+		}
+		throw new IllegalArgumentException("No call to " + target + " in " + caller);
+	}
+
+	private static Call find(Statement st, String target) {
+		if (st instanceof Call && ((Call) st).getTargetName().equals(target))
+			return (Call) st;
+		if (st instanceof NaryExpression)
+			// calls are usually nested inside other expressions
+			for (Expression sub : ((NaryExpression) st).getSubExpressions()) {
+				Call call = find(sub, target);
+				if (call != null)
+					return call;
+			}
+		return null;
+	}
+
+	private static Recursion<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> recursion(Program program, String caller, String head) {
+		CFG target = cfg(program, head);
+		return new Recursion<>(call(program, caller, head), null, null, target,
+				Collections.<CodeMember>singleton(target));
+	}
+
+	@Test
+	public void testRecursionsAreSolvedAfterTheOnesTheyStart() throws ParsingException {
+		Program program = IMPFrontend.processText(PROGRAM, true);
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>();
+
+		Recursion<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> outer = recursion(program, "main", "outer");
+		Recursion<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> inner = recursion(program, "outer", "inner");
+		Recursion<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> fact = recursion(program, "main", "fact");
+
+		// the order of the input is preserved inside each layer
+		assertEquals(Arrays.asList(Arrays.asList(inner, fact), Collections.singletonList(outer)),
+				analysis.scheduleRecursions(Arrays.asList(outer, inner, fact)));
+		assertEquals(Arrays.asList(Arrays.asList(fact, inner), Collections.singletonList(outer)),
+				analysis.scheduleRecursions(Arrays.asList(fact, outer, inner)));
+	}
+
+	@Test
+	public void testSameResultsAsSequentialRun() throws ParsingException, AnalysisException {
+		Program sequential = IMPFrontend.processText(PROGRAM, true);
+		Program concurrent = IMPFrontend.processText(PROGRAM, true);
+		ContextBasedAnalysis<?, ?, ?, ?> expected = run(sequential, 1);
+		ContextBasedAnalysis<?, ?, ?, ?> actual = run(concurrent, 4);
+		checkSameResults(expected, sequential, actual, concurrent);
+	}
+}
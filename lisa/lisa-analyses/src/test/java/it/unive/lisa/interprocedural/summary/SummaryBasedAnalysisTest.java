@@ -0,0 +1,96 @@
+package it.unive.lisa.interprocedural.summary;
+
+import static it.unive.lisa.interprocedural.InterproceduralTestUtils.cfg;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import java.util.Collection;
+import org.junit.Test;
+
+public class SummaryBasedAnalysisTest {
+
+	private static SummaryBasedAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Interval>,
+			TypeEnvironment<InferredTypes>> run(Program program) throws AnalysisException {
+		SummaryBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Interval>,
+				TypeEnvironment<InferredTypes>> analysis = new SummaryBasedAnalysis<>();
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new ValueEnvironment<>(new Interval()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = analysis;
+		new LiSA(conf).run(program);
+		return analysis;
+	}
+
+	@Test
+	public void testSummariesAreReusedAcrossCalls() throws ParsingException, AnalysisException {
+		Program program = IMPFrontend.processText("class tests { "
+				+ "first() { def x = this.inc(1); def y = this.inc(2); } "
+				+ "second() { def z = this.inc(3); } "
+				+ "inc(a) { return a + 1; } }");
+		SummaryBasedAnalysis<?, ?, ?, ?> analysis = run(program);
+
+		// the calls are covered by the summary computed for the generic entry
+		// state of inc
+		CFG inc = cfg(program, "inc");
+		assertEquals(1, analysis.getSummariesOf(inc).size());
+		assertEquals(1, analysis.getAnalysisResultsOf(inc).size());
+		for (String caller : new String[] { "first", "second" })
+			assertEquals(1, analysis.getAnalysisResultsOf(cfg(program, caller)).size());
+	}
+
+	@Test
+	public void testFrameIsPreservedAcrossCalls() throws ParsingException, AnalysisException, SemanticException {
+		Program program = IMPFrontend.processText("class tests { "
+				+ "main() { def x = 5; def y = this.id(1); return x; } "
+				+ "id(a) { def x = 7; return a; } }");
+		SummaryBasedAnalysis<?, ?, ?, ?> analysis = run(program);
+
+		Collection<? extends AnalyzedCFG<?, ?, ?, ?>> results = analysis.getAnalysisResultsOf(cfg(program, "main"));
+		assertEquals(1, results.size());
+		// the local x of main is not affected by the one of id
+		String exit = results.iterator().next().getExitState().representation().toString();
+		assertTrue(exit, exit.contains("[5, 5]"));
+		assertFalse(exit, exit.contains("[7, 7]"));
+	}
+
+	@Test
+	public void testRecursionsAreSolved() throws ParsingException, AnalysisException, SemanticException {
+		Program program = IMPFrontend.processText("class tests { "
+				+ "factorial(n) { if (n <= 1) return 1; else { def x = n - 1; return this.factorial(x) * n; } } "
+				+ "main() { def x = this.factorial(5); } }");
+		SummaryBasedAnalysis<?, ?, ?, ?> analysis = run(program);
+
+		CFG factorial = cfg(program, "factorial");
+		assertFalse(analysis.getSummariesOf(factorial).isEmpty());
+		for (Summary<?, ?, ?, ?> summary : analysis.getSummariesOf(factorial))
+			assertFalse(summary.getExitState().isBottom());
+		for (AnalyzedCFG<?, ?, ?, ?> result : analysis.getAnalysisResultsOf(cfg(program, "main")))
+			assertFalse(result.getExitState().isBottom());
+	}
+}
@@ -1,10 +1,14 @@
 package it.unive.lisa.program.cfg;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.OptimizedAnalyzedCFG;
+import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.SimpleAbstractState;
 import it.unive.lisa.analysis.heap.MonolithicHeap;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
@@ -26,13 +30,19 @@ import it.unive.lisa.interprocedural.UniqueScope;
 import it.unive.lisa.interprocedural.WorstCasePolicy;
 import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
 import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.Call.CallType;
 import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.util.Collection;
+import java.util.LinkedList;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -142,4 +152,258 @@ public class CFGFixpointTest {
 
 		assertTrue(result.getAnalysisStateAfter(call).getState().getValueState().getKeys().isEmpty());
 	}
+
+	@Test
+	public void testPostStateConvergence()
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException,
+			FixpointException, SemanticException {
+		Program p = IMPFrontend.processText(
+				"class lazy { foo() { def x = 0; while (x < 10) { x = x + 1 + 2 + 3; } def y = -x - 1; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+
+		LiSAConfiguration base = new LiSAConfiguration();
+		base.descendingPhaseType = DescendingPhaseType.NONE;
+		base.wideningThreshold = 5;
+		base.optimize = false;
+		base.postStateConvergence = true;
+		FixpointConfiguration lazyConf = new FixpointConfiguration(base);
+
+		AnalyzedCFG<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> full = cfg.fixpoint(mkState(), mkAnalysis(p), FIFOWorkingSet.mk(),
+						conf, new UniqueScope());
+		AnalyzedCFG<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> lazy = cfg.fixpoint(mkState(), mkAnalysis(p), FIFOWorkingSet.mk(),
+						lazyConf, new UniqueScope());
+
+		for (Statement node : cfg.getNodes()) {
+			assertEquals("Different post-state for " + node, full.getAnalysisStateAfter(node),
+					lazy.getAnalysisStateAfter(node));
+
+			Collection<Statement> inners = new LinkedList<>();
+			node.accept(new GraphVisitor<CFG, Statement, Edge, Collection<Statement>>() {
+
+				@Override
+				public boolean visit(Collection<Statement> tool, CFG graph, Statement node) {
+					tool.add(node);
+					return true;
+				}
+			}, inners);
+			for (Statement inner : inners)
+				if (inner != node) {
+					// intermediate states are not joined across iterations
+					assertFalse("Missing intermediate state for " + inner,
+							lazy.getAnalysisStateAfter(inner).isBottom());
+					assertTrue("Less precise intermediate state for " + inner,
+							lazy.getAnalysisStateAfter(inner).lessOrEqual(full.getAnalysisStateAfter(inner)));
+				}
+		}
+	}
+
+	@Test
+	public void testPostStateConvergenceWithOptimizedDescendingPhase()
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException,
+			FixpointException {
+		Program p = IMPFrontend.processText(
+				"class lazy { foo() { def x = 0; while (x < 10) { x = x + 1 + 2 + 3; } def y = -x - 1; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		cfg.computeBasicBlocks();
+
+		LiSAConfiguration base = new LiSAConfiguration();
+		base.descendingPhaseType = DescendingPhaseType.GLB;
+		base.glbThreshold = 5;
+		base.wideningThreshold = 5;
+		base.optimize = true;
+		FixpointConfiguration eagerConf = new FixpointConfiguration(base);
+		// the ascending phase is not optimized, and thus discards
+		// intermediate states
+		base.postStateConvergence = true;
+		FixpointConfiguration lazyConf = new FixpointConfiguration(base);
+
+		OptimizedAnalyzedCFG<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> eager = (OptimizedAnalyzedCFG<
+						SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+						MonolithicHeap,
+						ValueEnvironment<Sign>,
+						TypeEnvironment<InferredTypes>>) cfg.fixpoint(mkState(), mkAnalysis(p),
+								FIFOWorkingSet.mk(), eagerConf, new UniqueScope());
+		OptimizedAnalyzedCFG<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> lazy = (OptimizedAnalyzedCFG<
+						SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+						MonolithicHeap,
+						ValueEnvironment<Sign>,
+						TypeEnvironment<InferredTypes>>) cfg.fixpoint(mkState(), mkAnalysis(p),
+								FIFOWorkingSet.mk(), lazyConf, new UniqueScope());
+
+		for (Statement node : cfg.getNodes())
+			assertEquals("Different post-state for " + node, eager.getUnwindedAnalysisStateAfter(node),
+					lazy.getUnwindedAnalysisStateAfter(node));
+	}
+
+	@Test
+	public void testUnwindingCycleWithoutWideningPoints()
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException,
+			FixpointException {
+		Program p = IMPFrontend.processText(
+				"class unregistered { foo() { def x = 0; while (x < 10) { x = x + 1; } def y = x - 1; } }");
+		CFG cfg = p.getAllCFGs().iterator().next();
+		cfg.computeBasicBlocks();
+		// the loop is then unregistered, as it would happen with a goto-based
+		// back-edge: no widening point (and thus no stored post-state) is
+		// part of the cycle
+		cfg.getControlFlowStructures().clear();
+
+		LiSAConfiguration base = new LiSAConfiguration();
+		base.descendingPhaseType = DescendingPhaseType.NONE;
+		base.wideningThreshold = 5;
+		base.optimize = true;
+		FixpointConfiguration optConf = new FixpointConfiguration(base);
+
+		AnalyzedCFG<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> full = cfg.fixpoint(mkState(), mkAnalysis(p), FIFOWorkingSet.mk(),
+						conf, new UniqueScope());
+		OptimizedAnalyzedCFG<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> optimized = (OptimizedAnalyzedCFG<
+						SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+						MonolithicHeap,
+						ValueEnvironment<Sign>,
+						TypeEnvironment<InferredTypes>>) cfg.fixpoint(mkState(), mkAnalysis(p),
+								FIFOWorkingSet.mk(), optConf, new UniqueScope());
+
+		for (Statement node : cfg.getNodes()) {
+			Collection<Statement> inners = new LinkedList<>();
+			node.accept(new GraphVisitor<CFG, Statement, Edge, Collection<Statement>>() {
+
+				@Override
+				public boolean visit(Collection<Statement> tool, CFG graph, Statement node) {
+					tool.add(node);
+					return true;
+				}
+			}, inners);
+			for (Statement inner : inners) {
+				assertFalse("Missing state for " + inner, optimized.getUnwindedAnalysisStateAfter(inner).isBottom());
+				assertEquals("Different state for " + inner, full.getAnalysisStateAfter(inner),
+						optimized.getUnwindedAnalysisStateAfter(inner));
+			}
+		}
+	}
+
+	// values flow through a, b, c and d one iteration at a time, and each
+	// change of the states in the loops reaches the statements after them
+	private static final String LOOPS = "class wto { foo() { def a = 0; def b = 0; def c = 0; def d = -1; "
+			+ "while (a < 10) { def i = 0; while (i < a) { i = i + 1; } a = b; b = c; c = d; d = 1; } "
+			+ "def t1 = a + b; def t2 = c + d; def t3 = t1 - t2; def t4 = t3 * t3; def t5 = t4 - a; } }";
+
+	@Test
+	public void testWeakTopologicalOrder()
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException,
+			FixpointException {
+		Program p = IMPFrontend.processText(LOOPS);
+		CFG cfg = p.getAllCFGs().iterator().next();
+
+		LiSAConfiguration base = new LiSAConfiguration();
+		base.descendingPhaseType = DescendingPhaseType.NONE;
+		base.wideningThreshold = 5;
+		base.optimize = false;
+		base.useWeakTopologicalOrder = true;
+		FixpointConfiguration wtoConf = new FixpointConfiguration(base);
+
+		PerformanceMetrics.setEnabled(true);
+		try {
+			AnalyzedCFG<
+					SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+					MonolithicHeap,
+					ValueEnvironment<Sign>,
+					TypeEnvironment<InferredTypes>> fifo = cfg.fixpoint(mkState(), mkAnalysis(p),
+							FIFOWorkingSet.mk(), conf, new UniqueScope());
+			long fifoEvaluations = PerformanceMetrics.getCounter("fixpoint.iterations");
+			AnalyzedCFG<
+					SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+					MonolithicHeap,
+					ValueEnvironment<Sign>,
+					TypeEnvironment<InferredTypes>> wto = cfg.fixpoint(mkState(), mkAnalysis(p),
+							FIFOWorkingSet.mk(), wtoConf, new UniqueScope());
+			long wtoEvaluations = PerformanceMetrics.getCounter("fixpoint.iterations") - fifoEvaluations;
+
+			assertTrue("The weak topological order evaluated " + wtoEvaluations
+					+ " statements, while the working set evaluated " + fifoEvaluations,
+					wtoEvaluations < fifoEvaluations);
+			for (Statement node : cfg.getNodes())
+				assertEquals("Different post-state for " + node, fifo.getAnalysisStateAfter(node),
+						wto.getAnalysisStateAfter(node));
+		} finally {
+			PerformanceMetrics.setEnabled(false);
+		}
+	}
+
+	@Test
+	public void testWeakTopologicalOrderOfBasicBlocks()
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException,
+			FixpointException {
+		Program p = IMPFrontend.processText(LOOPS);
+		CFG cfg = p.getAllCFGs().iterator().next();
+		cfg.computeBasicBlocks();
+
+		LiSAConfiguration base = new LiSAConfiguration();
+		base.descendingPhaseType = DescendingPhaseType.NONE;
+		base.wideningThreshold = 5;
+		base.optimize = true;
+		FixpointConfiguration fifoConf = new FixpointConfiguration(base);
+		base.useWeakTopologicalOrder = true;
+		FixpointConfiguration wtoConf = new FixpointConfiguration(base);
+
+		PerformanceMetrics.setEnabled(true);
+		try {
+			OptimizedAnalyzedCFG<
+					SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+					MonolithicHeap,
+					ValueEnvironment<Sign>,
+					TypeEnvironment<InferredTypes>> fifo = (OptimizedAnalyzedCFG<
+							SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>,
+									TypeEnvironment<InferredTypes>>,
+							MonolithicHeap,
+							ValueEnvironment<Sign>,
+							TypeEnvironment<InferredTypes>>) cfg.fixpoint(mkState(), mkAnalysis(p),
+									FIFOWorkingSet.mk(), fifoConf, new UniqueScope());
+			long fifoEvaluations = PerformanceMetrics.getCounter("fixpoint.iterations");
+			OptimizedAnalyzedCFG<
+					SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+					MonolithicHeap,
+					ValueEnvironment<Sign>,
+					TypeEnvironment<InferredTypes>> wto = (OptimizedAnalyzedCFG<
+							SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>,
+									TypeEnvironment<InferredTypes>>,
+							MonolithicHeap,
+							ValueEnvironment<Sign>,
+							TypeEnvironment<InferredTypes>>) cfg.fixpoint(mkState(), mkAnalysis(p),
+									FIFOWorkingSet.mk(), wtoConf, new UniqueScope());
+			long wtoEvaluations = PerformanceMetrics.getCounter("fixpoint.iterations") - fifoEvaluations;
+
+			assertTrue("The weak topological order evaluated " + wtoEvaluations
+					+ " basic blocks, while the working set evaluated " + fifoEvaluations,
+					wtoEvaluations < fifoEvaluations);
+			for (Statement node : cfg.getNodes())
+				assertEquals("Different post-state for " + node, fifo.getUnwindedAnalysisStateAfter(node),
+						wto.getUnwindedAnalysisStateAfter(node));
+		} finally {
+			PerformanceMetrics.setEnabled(false);
+		}
+	}
 }
@@ -0,0 +1,154 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAReport;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.interprocedural.context.ContextBasedAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.util.file.FileManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks of whole analyses of synthetic IMP programs (see
+ * {@link SyntheticPrograms#chain(int, int)}), executed through
+ * {@link LiSA#run(Program...)} with an interval analysis. Each configuration
+ * is executed both with and without {@link LiSAConfiguration#optimize}, thus
+ * comparing the plain fixpoint with the optimized one.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AnalysisBenchmark {
+
+	/**
+	 * The number of methods of the analyzed program.
+	 */
+	@Param({ "10", "50" })
+	public int methods;
+
+	/**
+	 * The number of loops and conditionals in each method.
+	 */
+	@Param({ "5", "20" })
+	public int blocks;
+
+	/**
+	 * Whether or not optimized fixpoints should be used.
+	 */
+	@Param({ "false", "true" })
+	public boolean optimize;
+
+	private String text;
+
+	private String workdir;
+
+	/**
+	 * Generates the program to analyze.
+	 * 
+	 * @throws IOException if the working directory cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void generate() throws IOException {
+		text = SyntheticPrograms.chain(methods, blocks);
+		workdir = Files.createTempDirectory("lisa-benchmarks").toString();
+	}
+
+	/**
+	 * Deletes the working directory of the analyses.
+	 * 
+	 * @throws IOException if the working directory cannot be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void cleanup() throws IOException {
+		FileManager.forceDeleteFolder(workdir);
+	}
+
+	/**
+	 * A program parsed before each invocation, so that parsing is not part of
+	 * the measurement.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	@State(Scope.Thread)
+	public static class ParsedProgram {
+
+		private Program program;
+
+		/**
+		 * Parses the program.
+		 * 
+		 * @param benchmark the benchmark holding the program's text
+		 * 
+		 * @throws ParsingException if the program cannot be parsed
+		 */
+		@Setup(Level.Invocation)
+		public void parse(AnalysisBenchmark benchmark) throws ParsingException {
+			program = IMPFrontend.processText(benchmark.text, true);
+		}
+	}
+
+	private LiSAConfiguration configuration() {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.workdir = workdir;
+		conf.jsonOutput = false;
+		conf.optimize = optimize;
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new ValueEnvironment<>(new Interval()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		return conf;
+	}
+
+	/**
+	 * Analyzes an already parsed program.
+	 * 
+	 * @param parsed the parsed program
+	 * 
+	 * @return the report of the analysis
+	 * 
+	 * @throws AnalysisException if the analysis fails
+	 */
+	@Benchmark
+	public LiSAReport analysis(ParsedProgram parsed) throws AnalysisException {
+		return new LiSA(configuration()).run(parsed.program);
+	}
+
+	/**
+	 * Parses and analyzes the program.
+	 * 
+	 * @return the report of the analysis
+	 * 
+	 * @throws ParsingException  if the program cannot be parsed
+	 * @throws AnalysisException if the analysis fails
+	 */
+	@Benchmark
+	public LiSAReport endToEnd() throws ParsingException, AnalysisException {
+		return new LiSA(configuration()).run(IMPFrontend.processText(text, true));
+	}
+}
@@ -0,0 +1,80 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.string.fsa.SimpleAutomaton;
+import it.unive.lisa.util.datastructures.automaton.Automaton;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of {@link Automaton#determinize()} and
+ * {@link Automaton#minimize()}, applied to the non-deterministic automaton
+ * recognizing the union of a set of random words over a small alphabet.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AutomatonBenchmark {
+
+	/**
+	 * The number of words recognized by the automaton.
+	 */
+	@Param({ "10", "50" })
+	public int words;
+
+	/**
+	 * The length of each word.
+	 */
+	@Param({ "5", "20" })
+	public int length;
+
+	private SimpleAutomaton union;
+
+	private SimpleAutomaton deterministic;
+
+	/**
+	 * Builds the automata.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		union = null;
+		for (int i = 0; i < words; i++) {
+			StringBuilder word = new StringBuilder();
+			for (int j = 0; j < length; j++)
+				word.append((char) ('a' + random.nextInt(4)));
+			SimpleAutomaton a = new SimpleAutomaton(word.toString());
+			union = union == null ? a : union.union(a);
+		}
+		deterministic = union.determinize();
+	}
+
+	/**
+	 * Determinizes the union automaton.
+	 * 
+	 * @return the result
+	 */
+	@Benchmark
+	public SimpleAutomaton determinize() {
+		return union.determinize();
+	}
+
+	/**
+	 * Minimizes the union automaton, after it has been determinized.
+	 * 
+	 * @return the result
+	 */
+	@Benchmark
+	public SimpleAutomaton minimize() {
+		return deterministic.minimize();
+	}
+}
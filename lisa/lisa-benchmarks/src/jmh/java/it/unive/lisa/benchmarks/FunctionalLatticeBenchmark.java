@@ -0,0 +1,109 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.lattices.FunctionalLattice;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of the lattice operations of {@link FunctionalLattice}s, using
+ * {@link ValueEnvironment}s of {@link Interval}s of different sizes. Two
+ * shapes of operands are used: {@code disjoint} environments, built
+ * independently, and {@code shared} environments, where the second operand is
+ * obtained by updating a single variable of the first one (as it happens
+ * between consecutive iterations of a fixpoint).
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class FunctionalLatticeBenchmark {
+
+	/**
+	 * The number of variables in the environments.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	/**
+	 * How the second operand is built.
+	 */
+	@Param({ "disjoint", "shared" })
+	public String shape;
+
+	private ValueEnvironment<Interval> first;
+
+	private ValueEnvironment<Interval> second;
+
+	/**
+	 * Builds the operands.
+	 */
+	@Setup
+	public void setup() {
+		first = new ValueEnvironment<>(new Interval());
+		for (int i = 0; i < size; i++)
+			first = first.putState(variable(i), new Interval(0, i));
+
+		if (shape.equals("shared"))
+			second = first.putState(variable(size / 2), new Interval(-1, size));
+		else {
+			second = new ValueEnvironment<>(new Interval());
+			for (int i = 0; i < size; i++)
+				second = second.putState(variable(i), new Interval(i, 2 * i));
+		}
+	}
+
+	private static Identifier variable(int i) {
+		return new Variable(Untyped.INSTANCE, "x" + i, SyntheticLocation.INSTANCE);
+	}
+
+	/**
+	 * Computes the least upper bound of the operands.
+	 * 
+	 * @return the result
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> lub() throws SemanticException {
+		return first.lub(second);
+	}
+
+	/**
+	 * Computes the widening of the operands.
+	 * 
+	 * @return the result
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> widening() throws SemanticException {
+		return first.widening(second);
+	}
+
+	/**
+	 * Checks if the first operand is less or equal than the second one.
+	 * 
+	 * @return the result
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public boolean lessOrEqual() throws SemanticException {
+		return first.lessOrEqual(second);
+	}
+}
@@ -0,0 +1,106 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.util.numeric.IntInterval;
+import it.unive.lisa.util.numeric.MathNumber;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the arithmetic of {@link MathNumber}s and {@link IntInterval}s,
+ * and of the lattice operations of {@link Interval}s. Operands include
+ * infinite bounds, so that all the code paths are exercised.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NumericBenchmark {
+
+	private static final int OPERANDS = 1000;
+
+	private MathNumber[] numbers;
+
+	private IntInterval[] intervals;
+
+	private Interval[] elements;
+
+	/**
+	 * Generates the operands.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		numbers = new MathNumber[OPERANDS];
+		intervals = new IntInterval[OPERANDS];
+		elements = new Interval[OPERANDS];
+		for (int i = 0; i < OPERANDS; i++) {
+			numbers[i] = i % 100 == 0 ? MathNumber.PLUS_INFINITY : new MathNumber(random.nextInt(2000) - 1000);
+			MathNumber low = i % 50 == 0 ? MathNumber.MINUS_INFINITY : new MathNumber(random.nextInt(100) - 50);
+			MathNumber high = low.add(new MathNumber(random.nextInt(100)));
+			intervals[i] = new IntInterval(low, high);
+			elements[i] = new Interval(intervals[i]);
+		}
+	}
+
+	/**
+	 * Applies the four arithmetic operations to consecutive numbers.
+	 * 
+	 * @param bh the blackhole consuming the results
+	 */
+	@Benchmark
+	public void mathNumberArithmetic(Blackhole bh) {
+		for (int i = 1; i < OPERANDS; i++) {
+			MathNumber l = numbers[i - 1], r = numbers[i];
+			bh.consume(l.add(r));
+			bh.consume(l.subtract(r));
+			bh.consume(l.multiply(r));
+			if (!r.isZero())
+				bh.consume(l.divide(r));
+		}
+	}
+
+	/**
+	 * Applies the arithmetic operations to consecutive intervals.
+	 * 
+	 * @param bh the blackhole consuming the results
+	 */
+	@Benchmark
+	public void intIntervalArithmetic(Blackhole bh) {
+		for (int i = 1; i < OPERANDS; i++) {
+			IntInterval l = intervals[i - 1], r = intervals[i];
+			bh.consume(l.plus(r));
+			bh.consume(l.diff(r));
+			bh.consume(l.mul(r));
+			bh.consume(l.div(r, false, false));
+		}
+	}
+
+	/**
+	 * Applies the lattice operations to consecutive intervals.
+	 * 
+	 * @param bh the blackhole consuming the results
+	 * 
+	 * @throws SemanticException if an operation fails
+	 */
+	@Benchmark
+	public void intervalLattice(Blackhole bh) throws SemanticException {
+		for (int i = 1; i < OPERANDS; i++) {
+			Interval l = elements[i - 1], r = elements[i];
+			bh.consume(l.lub(r));
+			bh.consume(l.glb(r));
+			bh.consume(l.widening(r));
+			bh.consume(l.lessOrEqual(r));
+		}
+	}
+}
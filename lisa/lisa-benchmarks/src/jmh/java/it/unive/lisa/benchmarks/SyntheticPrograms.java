@@ -0,0 +1,53 @@
+package it.unive.lisa.benchmarks;
+
+/**
+ * Generator of synthetic IMP programs of parameterized size, used by the
+ * benchmarks that execute whole analyses.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class SyntheticPrograms {
+
+	private SyntheticPrograms() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Generates the text of an IMP program containing a {@code main} method
+	 * and a chain of {@code methods} methods, where each method calls the next
+	 * one. Each method contains {@code blocks} repetitions of a block made of
+	 * a loop followed by a conditional, so that fixpoints require several
+	 * iterations and widenings.
+	 * 
+	 * @param methods the number of methods in the chain
+	 * @param blocks  the number of blocks in each method
+	 * 
+	 * @return the text of the program
+	 */
+	static String chain(int methods, int blocks) {
+		StringBuilder program = new StringBuilder("class bench {\n");
+		program.append("\tmain() {\n\t\tdef r = this.m0(1);\n\t\treturn r;\n\t}\n");
+		for (int m = 0; m < methods; m++) {
+			program.append("\tm").append(m).append("(a) {\n");
+			program.append("\t\tdef x = a;\n");
+			for (int b = 0; b < blocks; b++) {
+				String i = "i" + b;
+				program.append("\t\tdef ").append(i).append(" = 0;\n");
+				program.append("\t\twhile (").append(i).append(" < ").append(10 + b).append(") {\n");
+				program.append("\t\t\tx = x + ").append(i).append(";\n");
+				program.append("\t\t\t").append(i).append(" = ").append(i).append(" + 1;\n");
+				program.append("\t\t}\n");
+				program.append("\t\tif (x > ").append(b).append(")\n");
+				program.append("\t\t\tx = x - 1;\n");
+				program.append("\t\telse\n");
+				program.append("\t\t\tx = x + 1;\n");
+			}
+			if (m < methods - 1)
+				program.append("\t\tdef r = this.m").append(m + 1).append("(x);\n\t\treturn r + x;\n");
+			else
+				program.append("\t\treturn x;\n");
+			program.append("\t}\n");
+		}
+		return program.append("}\n").toString();
+	}
+}
@@ -0,0 +1,92 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the {@link WorkingSet} implementations, simulating the access
+ * pattern of a fixpoint: elements (possibly already contained in the working
+ * set) are pushed and popped in an interleaved fashion.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class WorkingSetBenchmark {
+
+	/**
+	 * The simple name of the working set implementation to use.
+	 */
+	@Param({
+			"FIFOWorkingSet",
+			"LIFOWorkingSet",
+			"DuplicateFreeFIFOWorkingSet",
+			"DuplicateFreeLIFOWorkingSet",
+			"VisitOnceFIFOWorkingSet",
+			"VisitOnceLIFOWorkingSet",
+			"ConcurrentFIFOWorkingSet",
+			"ConcurrentLIFOWorkingSet" })
+	public String implementation;
+
+	/**
+	 * The number of distinct elements pushed in the working set.
+	 */
+	@Param({ "100", "10000" })
+	public int elements;
+
+	private Class<? extends WorkingSet<Integer>> clazz;
+
+	private Integer[] pushes;
+
+	/**
+	 * Resolves the implementation and generates the elements to push.
+	 * 
+	 * @throws ClassNotFoundException if the implementation does not exist
+	 */
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() throws ClassNotFoundException {
+		clazz = (Class<? extends WorkingSet<Integer>>) Class
+				.forName(WorkingSet.class.getPackageName() + "." + implementation);
+		// each element is pushed twice on average, like nodes with more than
+		// one predecessor in a fixpoint
+		Random random = new Random(42);
+		pushes = new Integer[elements * 2];
+		for (int i = 0; i < pushes.length; i++)
+			pushes[i] = random.nextInt(elements);
+	}
+
+	/**
+	 * Pushes all elements, popping one element (if any) every two pushes, and
+	 * then empties the working set.
+	 * 
+	 * @param bh the blackhole consuming popped elements
+	 * 
+	 * @throws AnalysisSetupException if the working set cannot be created
+	 */
+	@Benchmark
+	public void pushAndPop(Blackhole bh) throws AnalysisSetupException {
+		WorkingSet<Integer> ws = WorkingSet.of(clazz);
+		for (int i = 0; i < pushes.length; i++) {
+			ws.push(pushes[i]);
+			// visit-once working sets ignore elements that were already
+			// pushed, and might thus be empty
+			if (i % 2 == 1 && !ws.isEmpty())
+				bh.consume(ws.pop());
+		}
+		while (!ws.isEmpty())
+			bh.consume(ws.pop());
+	}
+}
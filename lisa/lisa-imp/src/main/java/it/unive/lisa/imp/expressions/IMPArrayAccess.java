@@ -66,8 +66,8 @@ public class IMPArrayAccess extends BinaryExpression {
 			return state.bottom();
 
 		ArrayType arraytype = Type.commonSupertype(arraytypes, getStaticType()).asArrayType();
-		HeapDereference container = new HeapDereference(arraytype, left, getLocation());
-		container.setRuntimeTypes(arraytypes);
+		SymbolicExpression container = new HeapDereference(arraytype, left, getLocation())
+				.withRuntimeTypes(arraytypes);
 
 		return state.smallStepSemantics(new AccessChild(arraytype.getInnerType(), container, right, getLocation()),
 				this);
@@ -74,10 +74,10 @@ public class IMPNewObj extends NaryExpression {
 					throws SemanticException {
 		Type type = getStaticType();
 		ReferenceType reftype = new ReferenceType(type);
-		MemoryAllocation created = new MemoryAllocation(type, getLocation(), staticallyAllocated);
-		HeapReference ref = new HeapReference(reftype, created, getLocation());
-		created.setRuntimeTypes(Collections.singleton(type));
-		ref.setRuntimeTypes(Collections.singleton(reftype));
+		SymbolicExpression created = new MemoryAllocation(type, getLocation(), staticallyAllocated)
+				.withRuntimeTypes(Collections.singleton(type));
+		SymbolicExpression ref = new HeapReference(reftype, created, getLocation())
+				.withRuntimeTypes(Collections.singleton(reftype));
 
 		// we need to add the receiver to the parameters
 		VariableRef paramThis = new VariableRef(getCFG(), getLocation(), "$lisareceiver", type);
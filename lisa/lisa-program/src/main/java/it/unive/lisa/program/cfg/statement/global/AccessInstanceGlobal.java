@@ -126,8 +126,8 @@ public class AccessInstanceGlobal extends UnaryExpression {
 				if (!inner.isUnitType())
 					continue;
 
-				HeapDereference container = new HeapDereference(inner, expr, loc);
-				container.setRuntimeTypes(Collections.singleton(inner));
+				SymbolicExpression container = new HeapDereference(inner, expr, loc)
+						.withRuntimeTypes(Collections.singleton(inner));
 				CompilationUnit unit = inner.asUnitType().getUnit();
 
 				Set<CompilationUnit> seen = new HashSet<>();
@@ -158,8 +158,8 @@ public class AccessInstanceGlobal extends UnaryExpression {
 
 		Type rectype = Type.commonSupertype(rectypes, Untyped.INSTANCE);
 		Variable var = new Variable(Untyped.INSTANCE, target, new Annotations(), getLocation());
-		HeapDereference container = new HeapDereference(rectype, expr, getLocation());
-		container.setRuntimeTypes(rectypes);
+		SymbolicExpression container = new HeapDereference(rectype, expr, getLocation())
+				.withRuntimeTypes(rectypes);
 		AccessChild access = new AccessChild(Untyped.INSTANCE, container, var, getLocation());
 		return state.smallStepSemantics(access, this);
 	}
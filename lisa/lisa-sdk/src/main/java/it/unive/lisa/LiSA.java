@@ -6,13 +6,17 @@ import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.conf.LiSAConfiguration;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.outputs.json.JsonReport;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.Program;
+import it.unive.lisa.util.collections.HashConsing;
 import it.unive.lisa.util.file.FileManager;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.joda.time.DateTime;
@@ -52,7 +56,7 @@ public class LiSA {
 	 */
 	public LiSA(LiSAConfiguration conf) {
 		this.conf = conf;
-		this.fileManager = new FileManager(conf.workdir);
+		this.fileManager = new FileManager(conf.workdir, conf.compressJsonOutputs, conf.packOutputs);
 	}
 
 	/**
@@ -95,14 +99,35 @@ public class LiSA {
 		Application app = new Application(programs);
 		Collection<Warning> warnings;
 
+		if (conf.hashConsing)
+			HashConsing.setEnabled(true);
+		if (conf.collectMetrics)
+			PerformanceMetrics.setEnabled(true);
+		Map<String, String> metrics = Map.of();
 		try {
 			warnings = TimerLogger.execSupplier(LOG, "Analysis time", () -> runner.run(app, fileManager));
 		} catch (AnalysisExecutionException e) {
 			throw new AnalysisException("LiSA has encountered an exception while executing the analysis", e);
+		} finally {
+			// the store is finalized even if the analysis failed, so that the
+			// entries produced until then can still be read
+			try {
+				fileManager.closeResultStore();
+			} catch (IOException e) {
+				LOG.error("Unable to finalize the result store", e);
+			}
+			if (conf.hashConsing)
+				HashConsing.setEnabled(false);
+			if (conf.collectMetrics) {
+				metrics = PerformanceMetrics.snapshot();
+				PerformanceMetrics.setEnabled(false);
+			}
 		}
 
-		LiSARunInfo stats = new LiSARunInfo(warnings, fileManager.createdFiles(), app, start, new DateTime());
+		LiSARunInfo stats = new LiSARunInfo(warnings, fileManager.createdFiles(), app, start, new DateTime(), metrics);
 		LOG.info("LiSA statistics:\n" + stats);
+		if (conf.collectMetrics)
+			LOG.info("Performance metrics:\n" + StringUtils.join(metrics.entrySet(), "\n"));
 
 		LiSAReport report = new LiSAReport(conf, stats, warnings, fileManager.createdFiles());
 		if (conf.jsonOutput) {
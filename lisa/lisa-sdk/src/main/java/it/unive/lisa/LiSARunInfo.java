@@ -3,6 +3,8 @@ package it.unive.lisa;
 import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
 import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.conf.LiSAConfiguration;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.Global;
 import it.unive.lisa.program.Program;
@@ -17,6 +19,7 @@ import it.unive.lisa.util.file.FileManager;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
@@ -140,6 +143,12 @@ public class LiSARunInfo {
 	 */
 	public final String duration;
 
+	/**
+	 * The performance metrics collected during the analysis. This is not a
+	 * public field as it is not part of {@link #toPropertyBag()}.
+	 */
+	private final Map<String, String> metrics;
+
 	/**
 	 * Builds the run info.
 	 * 
@@ -151,6 +160,23 @@ public class LiSARunInfo {
 	 */
 	public LiSARunInfo(Collection<Warning> warnings, Collection<String> files, Application app, DateTime start,
 			DateTime end) {
+		this(warnings, files, app, start, end, Map.of());
+	}
+
+	/**
+	 * Builds the run info.
+	 * 
+	 * @param warnings the warnings generated by the analysis
+	 * @param files    the files generated by the analysis
+	 * @param app      the {@link Application} under analysis
+	 * @param start    the start time
+	 * @param end      the end time
+	 * @param metrics  the performance metrics collected during the analysis
+	 *                     (see {@link PerformanceMetrics#snapshot()})
+	 */
+	public LiSARunInfo(Collection<Warning> warnings, Collection<String> files, Application app, DateTime start,
+			DateTime end, Map<String, String> metrics) {
+		this.metrics = Collections.unmodifiableMap(new TreeMap<>(metrics));
 		this.version = VersionInfo.VERSION;
 		this.warnings = warnings.size();
 		this.files = files.size();
@@ -174,6 +200,17 @@ public class LiSARunInfo {
 		this.expressions = counter.expressions;
 	}
 
+	/**
+	 * Yields the performance metrics collected during the analysis, mapping
+	 * the name of each metric to its value. The returned map is empty if
+	 * {@link LiSAConfiguration#collectMetrics} was not set.
+	 * 
+	 * @return the metrics
+	 */
+	public Map<String, String> getMetrics() {
+		return metrics;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -182,6 +219,7 @@ public class LiSARunInfo {
 			for (Field field : LiSARunInfo.class.getFields())
 				if (!Modifier.isStatic(field.getModifiers()))
 					result = prime * result + Objects.hashCode(field.get(this));
+			result = prime * result + metrics.hashCode();
 		} catch (IllegalArgumentException | IllegalAccessException e) {
 			throw new IllegalStateException("Cannot access one of this class' public fields", e);
 		}
@@ -205,6 +243,8 @@ public class LiSARunInfo {
 					if (!Objects.equals(value, ovalue))
 						return false;
 				}
+			if (!metrics.equals(other.metrics))
+				return false;
 		} catch (IllegalArgumentException | IllegalAccessException e) {
 			throw new IllegalStateException("Cannot access one of this class' public fields", e);
 		}
@@ -215,7 +255,8 @@ public class LiSARunInfo {
 	 * Checks whether the given run information match this one in terms of
 	 * analyzed code and analysis results. This corresponds to calling
 	 * {@link #equals(Object)}, but ignoring {@link #version},
-	 * {@link #duration}, {@link #end}, and {@link #start}.
+	 * {@link #duration}, {@link #end}, {@link #start}, and
+	 * {@link #getMetrics()}.
 	 * 
 	 * @param other the other run info
 	 * 
@@ -34,15 +34,24 @@ import it.unive.lisa.symbolic.value.Skip;
 import it.unive.lisa.type.ReferenceType;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeSystem;
+import it.unive.lisa.util.ConcurrencyUtilities;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
 import it.unive.lisa.util.file.FileManager;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -93,7 +102,12 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 	}
 
 	/**
-	 * Executes the runner on the target program.
+	 * Executes the runner on the target program. If
+	 * {@link LiSAConfiguration#dumpParallelism} is greater than {@code 1},
+	 * dumping happens in background: input cfgs are dumped while checks and
+	 * the fixpoint are executed, and analysis results are dumped while
+	 * semantic checks are executed. This method returns only when all files
+	 * have been dumped.
 	 * 
 	 * @param app         the application to analyze
 	 * @param fileManager the file manager for the analysis
@@ -101,6 +115,16 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 	 * @return the warnings generated by the analysis
 	 */
 	Collection<Warning> run(Application app, FileManager fileManager) {
+		ExecutorService dumper = conf.dumpParallelism > 1 ? Executors.newSingleThreadExecutor() : null;
+		try {
+			return run(app, fileManager, dumper);
+		} finally {
+			if (dumper != null)
+				dumper.shutdownNow();
+		}
+	}
+
+	private Collection<Warning> run(Application app, FileManager fileManager, ExecutorService dumper) {
 		finalizeApp(app);
 
 		Collection<CFG> allCFGs = app.getAllCFGs();
@@ -108,26 +132,14 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 		if (conf.optimize)
 			allCFGs.forEach(CFG::computeBasicBlocks);
 
+		List<Future<?>> dumps = new ArrayList<>(2);
 		AtomicBoolean htmlViewer = new AtomicBoolean(false), subnodes = new AtomicBoolean(false);
 		if (conf.serializeInputs)
-			for (CFG cfg : IterationLogger.iterate(LOG, allCFGs, "Dumping input cfgs", "cfgs")) {
-				SerializableGraph graph = cfg.toSerializableGraph();
-				String filename = cfg.getDescriptor().getFullSignatureWithParNames() + "_cfg";
-
-				try {
-					fileManager.mkJsonFile(filename, writer -> graph.dump(writer));
-
-					dump(fileManager, filename, conf.analysisGraphs, graph, htmlViewer, subnodes);
-				} catch (IOException e) {
-					LOG.error("Exception while dumping the analysis results on {}",
-							cfg.getDescriptor().getFullSignature());
-					LOG.error(e);
-				}
-			}
+			dumps.add(schedule(dumper, () -> dumpInputs(allCFGs, fileManager, htmlViewer, subnodes)));
 
 		CheckTool tool = new CheckTool(conf, fileManager);
 		if (!conf.syntacticChecks.isEmpty())
-			ChecksExecutor.executeAll(tool, app, conf.syntacticChecks);
+			ChecksExecutor.executeAll(tool, app, conf.syntacticChecks, conf.checksParallelism);
 		else
 			LOG.warn("Skipping syntactic checks execution since none have been provided");
 
@@ -147,7 +159,10 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 		}
 
 		if (state != null) {
-			analyze(allCFGs, fileManager, htmlViewer, subnodes);
+			analyze();
+			if (conf.serializeResults || conf.analysisGraphs != GraphType.NONE)
+				dumps.add(schedule(dumper, () -> dumpResults(allCFGs, fileManager, htmlViewer, subnodes)));
+
 			Map<CFG, Collection<AnalyzedCFG<A, H, V, T>>> results = new IdentityHashMap<>(allCFGs.size());
 			for (CFG cfg : allCFGs)
 				results.put(cfg, interproc.getAnalysisResultsOf(cfg));
@@ -160,18 +175,36 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 						results,
 						callGraph);
 				tool = tool2;
-				ChecksExecutor.executeAll(tool2, app, semanticChecks);
+				ChecksExecutor.executeAll(tool2, app, semanticChecks, conf.checksParallelism);
 			} else
 				LOG.warn("Skipping semantic checks execution since none have been provided");
 		} else
 			LOG.warn("Skipping analysis execution since no abstract sate has been provided");
 
+		awaitAll(dumps);
 		return tool.getWarnings();
 	}
 
-	@SuppressWarnings("unchecked")
-	private void analyze(Collection<CFG> allCFGs, FileManager fileManager, AtomicBoolean htmlViewer,
+	private void dumpInputs(Collection<CFG> allCFGs, FileManager fileManager, AtomicBoolean htmlViewer,
 			AtomicBoolean subnodes) {
+		dumpAll(IterationLogger.iterate(LOG, allCFGs, "Dumping input cfgs", "cfgs"), cfg -> {
+			SerializableGraph graph = cfg.toSerializableGraph();
+			String filename = cfg.getDescriptor().getFullSignatureWithParNames() + "_cfg";
+
+			try {
+				fileManager.mkJsonFile(filename, writer -> graph.dump(writer));
+
+				dump(fileManager, filename, conf.analysisGraphs, graph, htmlViewer, subnodes);
+			} catch (IOException e) {
+				LOG.error("Exception while dumping the analysis results on {}",
+						cfg.getDescriptor().getFullSignature());
+				LOG.error(e);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private void analyze() {
 		A state = this.state.top();
 		TimerLogger.execAction(LOG, "Computing fixpoint over the whole program",
 				() -> {
@@ -185,51 +218,109 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 						throw new AnalysisExecutionException(FIXPOINT_EXCEPTION_MESSAGE, e);
 					}
 				});
+	}
 
+	@SuppressWarnings("unchecked")
+	private void dumpResults(Collection<CFG> allCFGs, FileManager fileManager, AtomicBoolean htmlViewer,
+			AtomicBoolean subnodes) {
 		GraphType type = conf.analysisGraphs;
-		if (conf.serializeResults || type != GraphType.NONE) {
-			int nfiles = fileManager.createdFiles().size();
-
-			BiFunction<CFG,
-					Statement,
-					SerializableValue> labeler = conf.optimize && conf.dumpForcesUnwinding
-							? (cfg, st) -> ((OptimizedAnalyzedCFG<A, H, V, T>) cfg)
-									.getUnwindedAnalysisStateAfter(st)
-									.representation()
-									.toSerializableValue()
-							: (cfg, st) -> ((AnalyzedCFG<A, H, V, T>) cfg)
-									.getAnalysisStateAfter(st)
-									.representation()
-									.toSerializableValue();
-
-			for (CFG cfg : IterationLogger.iterate(LOG, allCFGs, "Dumping analysis results", "cfgs"))
-				for (AnalyzedCFG<A, H, V, T> result : interproc.getAnalysisResultsOf(cfg)) {
-					SerializableGraph graph = result.toSerializableGraph(labeler);
-					String filename = cfg.getDescriptor().getFullSignatureWithParNames();
-					if (!result.getId().isStartingId())
-						filename += "_" + result.getId().hashCode();
+		AtomicBoolean dumped = new AtomicBoolean(false);
 
-					try {
-						if (conf.serializeResults)
-							fileManager.mkJsonFile(filename, writer -> graph.dump(writer));
-
-						dump(fileManager, filename, type, graph, htmlViewer, subnodes);
-					} catch (IOException e) {
-						LOG.error("Exception while dumping the analysis results on {}",
-								cfg.getDescriptor().getFullSignature());
-						LOG.error(e);
-					}
-				}
+		BiFunction<CFG,
+				Statement,
+				SerializableValue> labeler = conf.optimize && conf.dumpForcesUnwinding
+						? (cfg, st) -> ((OptimizedAnalyzedCFG<A, H, V, T>) cfg)
+								.getUnwindedAnalysisStateAfter(st)
+								.representation()
+								.toSerializableValue()
+						: (cfg, st) -> ((AnalyzedCFG<A, H, V, T>) cfg)
+								.getAnalysisStateAfter(st)
+								.representation()
+								.toSerializableValue();
+
+		dumpAll(IterationLogger.iterate(LOG, allCFGs, "Dumping analysis results", "cfgs"), cfg -> {
+			for (AnalyzedCFG<A, H, V, T> result : interproc.getAnalysisResultsOf(cfg)) {
+				SerializableGraph graph = result.toSerializableGraph(labeler);
+				String filename = cfg.getDescriptor().getFullSignatureWithParNames();
+				if (!result.getId().isStartingId())
+					filename += "_" + result.getId().hashCode();
 
-			if (htmlViewer.get() && fileManager.createdFiles().size() != nfiles)
 				try {
-					// we dumped at least one file: need to copy the
-					// javascript files
-					fileManager.generateHtmlViewerSupportFiles(subnodes.get());
+					if (conf.serializeResults)
+						fileManager.mkJsonFile(filename, writer -> graph.dump(writer));
+
+					dump(fileManager, filename, type, graph, htmlViewer, subnodes);
+					dumped.set(true);
 				} catch (IOException e) {
-					LOG.error("Exception while generating supporting files for the html viwer");
+					LOG.error("Exception while dumping the analysis results on {}",
+							cfg.getDescriptor().getFullSignature());
 					LOG.error(e);
 				}
+			}
+		});
+
+		if (htmlViewer.get() && dumped.get())
+			try {
+				// we dumped at least one file: need to copy the
+				// javascript files
+				fileManager.generateHtmlViewerSupportFiles(subnodes.get());
+			} catch (IOException e) {
+				LOG.error("Exception while generating supporting files for the html viwer");
+				LOG.error(e);
+			}
+	}
+
+	/**
+	 * Executes {@code action} on each of the given cfgs. If
+	 * {@link LiSAConfiguration#dumpParallelism} is greater than {@code 1}, the
+	 * actions are executed on a bounded pool of threads, and the calling
+	 * thread executes them itself whenever the pool is saturated. This method
+	 * returns only when all actions have completed.
+	 * 
+	 * @param cfgs   the cfgs to process
+	 * @param action the dumping action to execute on each cfg
+	 */
+	private void dumpAll(Iterable<CFG> cfgs, Consumer<CFG> action) {
+		ConcurrencyUtilities.forEach(cfgs, action, conf.dumpParallelism, "dumping files");
+	}
+
+	/**
+	 * Executes {@code dumping} on {@code dumper}, or on the calling thread if
+	 * {@code dumper} is {@code null}. Tasks submitted to the same dumper are
+	 * executed one after the other, in submission order.
+	 * 
+	 * @param dumper  the executor running dumping tasks in background, if any
+	 * @param dumping the dumping task
+	 * 
+	 * @return a future that completes when {@code dumping} has been executed
+	 */
+	private static Future<?> schedule(ExecutorService dumper, Runnable dumping) {
+		if (dumper != null)
+			return dumper.submit(dumping);
+		dumping.run();
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Waits for the completion of the given dumping tasks. Runtime exceptions
+	 * and errors thrown by a task are rethrown as-is, while other failures and
+	 * interruptions are wrapped into an {@link AnalysisExecutionException}.
+	 * 
+	 * @param dumps the futures of the dumping tasks
+	 */
+	private static void awaitAll(List<Future<?>> dumps) {
+		try {
+			for (Future<?> dump : dumps)
+				dump.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisExecutionException("Interrupted while dumping files", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new AnalysisExecutionException("Error while dumping files", e.getCause());
 		}
 	}
 
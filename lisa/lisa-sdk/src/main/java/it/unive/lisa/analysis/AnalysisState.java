@@ -12,6 +12,7 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.type.Type;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -118,6 +119,39 @@ public class AnalysisState<A extends AbstractState<A, H, V, T>,
 		return computedExpressions;
 	}
 
+	/**
+	 * Yields copies of the expressions returned by
+	 * {@link #getComputedExpressions()}, each annotated with the runtime types
+	 * (see {@link SymbolicExpression#withRuntimeTypes(java.util.Set)}) that the
+	 * computed expressions can have in this state. The runtime types are the
+	 * ones inferred by the {@link TypeDomain} contained in this state for the
+	 * rewritten (see {@link #rewrite(ExpressionSet, ProgramPoint)}) computed
+	 * expressions, and are shared by all the returned expressions.
+	 * 
+	 * @param pp the program point where the computed expressions have been
+	 *               produced
+	 * 
+	 * @return the annotated computed expressions
+	 * 
+	 * @throws SemanticException if something goes wrong while rewriting or
+	 *                               typing the expressions
+	 */
+	public ExpressionSet<SymbolicExpression> getTypedComputedExpressions(ProgramPoint pp) throws SemanticException {
+		if (computedExpressions.isTop())
+			return computedExpressions;
+
+		@SuppressWarnings("unchecked")
+		T typedom = (T) getDomainInstance(TypeDomain.class);
+		Set<Type> types = new HashSet<>();
+		for (SymbolicExpression e : rewrite(computedExpressions, pp))
+			types.addAll(typedom.getRuntimeTypesOf((ValueExpression) e, pp));
+
+		Set<SymbolicExpression> typed = new HashSet<>();
+		for (SymbolicExpression e : computedExpressions)
+			typed.add(e.withRuntimeTypes(types));
+		return new ExpressionSet<>(typed);
+	}
+
 	/**
 	 * Registers an alias for the given symbol. Any previous aliases will be
 	 * deleted.
@@ -3,11 +3,17 @@ package it.unive.lisa.analysis;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.interprocedural.FixpointSnapshot;
 import it.unive.lisa.interprocedural.ScopeId;
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.CodeMemberDescriptor;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -340,4 +346,106 @@ public class AnalyzedCFG<A extends AbstractState<A, H, V, T>,
 			return false;
 		return true;
 	}
+
+	/**
+	 * Replaces this result with a {@link SerializedForm} when it is
+	 * serialized, as the structure of the cfg must not be written.
+	 * 
+	 * @return the serialized form of this result
+	 * 
+	 * @throws ObjectStreamException never
+	 */
+	protected Object writeReplace() throws ObjectStreamException {
+		return new SerializedForm<>(getDescriptor(), id, entryStates, results);
+	}
+
+	/**
+	 * The serialized form of an {@link AnalyzedCFG}. Only the states computed
+	 * by the analysis are written, while the cfg is identified by its
+	 * {@link CodeMemberDescriptor}, that is not serializable: these objects
+	 * can only be written by streams that replace program elements with
+	 * references that they can resolve when reading (see
+	 * {@link FixpointSnapshot}). Deserialization binds the states to the cfg
+	 * with the resolved descriptor.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 * 
+	 * @param <A> the type of {@link AbstractState} contained into the analysis
+	 *                state
+	 * @param <H> the type of {@link HeapDomain} contained into the computed
+	 *                abstract state
+	 * @param <V> the type of {@link ValueDomain} contained into the computed
+	 *                abstract state
+	 * @param <T> the type of {@link TypeDomain} embedded into the computed
+	 *                abstract state
+	 */
+	protected static class SerializedForm<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> implements Serializable {
+
+		/**
+		 * The descriptor of the cfg.
+		 */
+		protected final CodeMemberDescriptor descriptor;
+
+		/**
+		 * The id of the result.
+		 */
+		protected final ScopeId id;
+
+		/**
+		 * The entry state of each entry point of the cfg.
+		 */
+		protected final StatementStore<A, H, V, T> entryStates;
+
+		/**
+		 * The results of the fixpoint computation.
+		 */
+		protected final StatementStore<A, H, V, T> results;
+
+		/**
+		 * Builds the serialized form.
+		 * 
+		 * @param descriptor  the descriptor of the cfg
+		 * @param id          the id of the result
+		 * @param entryStates the entry state of each entry point of the cfg
+		 * @param results     the results of the fixpoint computation
+		 */
+		protected SerializedForm(CodeMemberDescriptor descriptor,
+				ScopeId id,
+				StatementStore<A, H, V, T> entryStates,
+				StatementStore<A, H, V, T> results) {
+			this.descriptor = descriptor;
+			this.id = id;
+			this.entryStates = entryStates;
+			this.results = results;
+		}
+
+		/**
+		 * Yields the cfg identified by {@link #descriptor}.
+		 * 
+		 * @return the cfg
+		 * 
+		 * @throws InvalidObjectException if the descriptor does not identify a
+		 *                                    cfg
+		 */
+		protected CFG cfg() throws InvalidObjectException {
+			for (CodeMember cm : descriptor.getUnit().getCodeMembersRecursively())
+				if (cm.getDescriptor() == descriptor && cm instanceof CFG)
+					return (CFG) cm;
+			throw new InvalidObjectException("No cfg matching " + descriptor);
+		}
+
+		/**
+		 * Yields the result that this object represents.
+		 * 
+		 * @return the result
+		 * 
+		 * @throws ObjectStreamException if the cfg cannot be found
+		 */
+		protected Object readResolve() throws ObjectStreamException {
+			return new AnalyzedCFG<>(cfg(), id, entryStates, results);
+		}
+	}
 }
@@ -2,6 +2,7 @@ package it.unive.lisa.analysis;
 
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
+import java.io.Serializable;
 
 /**
  * An interface for elements that follow a lattice structure. Implementers of
@@ -12,7 +13,7 @@ import it.unive.lisa.analysis.representation.StringRepresentation;
  * 
  * @param <L> the concrete {@link Lattice} instance
  */
-public interface Lattice<L extends Lattice<L>> {
+public interface Lattice<L extends Lattice<L>> extends Serializable {
 
 	/**
 	 * A string constant that can be used to represent top values.
@@ -1,5 +1,6 @@
 package it.unive.lisa.analysis;
 
+import it.unive.lisa.AnalysisExecutionException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
@@ -17,6 +18,8 @@ import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
 import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMemberDescriptor;
+import it.unive.lisa.program.cfg.controlFlow.Loop;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.fixpoints.AscendingFixpoint;
 import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint.CompoundState;
@@ -31,10 +34,17 @@ import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.io.ObjectStreamException;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -49,8 +59,10 @@ import org.apache.logging.log4j.Logger;
  * such that {@link Statement#stopsExecution()} holds), and hotspots (that is,
  * {@link Statement}s such that {@link LiSAConfiguration#hotspots} holds).
  * Approximations for other statements can be retrieved through
- * {@link #getUnwindedAnalysisStateAfter(Statement)}, that will first expand the
- * results using {@link #unwind()}.
+ * {@link #getUnwindedAnalysisStateAfter(Statement)}, that recomputes on demand
+ * only the statements between the requested one and the closest stored
+ * post-states, keeping a bounded number of recomputed states, or through a
+ * full expansion of the results using {@link #unwind()}.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -74,7 +86,34 @@ public class OptimizedAnalyzedCFG<
 
 	private final InterproceduralAnalysis<A, H, V, T> interprocedural;
 
-	private StatementStore<A, H, V, T> expanded;
+	private volatile StatementStore<A, H, V, T> expanded;
+
+	/**
+	 * The maximum number of states recomputed by
+	 * {@link #getUnwindedAnalysisStateAfter(Statement)} that are kept in
+	 * memory.
+	 */
+	private static final int MAX_UNWOUND = 1024;
+
+	/**
+	 * The root statement of each expression of this cfg, lazily computed.
+	 */
+	private Map<Statement, Statement> roots;
+
+	/**
+	 * The states recomputed by
+	 * {@link #getUnwindedAnalysisStateAfter(Statement)} for root statements,
+	 * in least-recently-used order.
+	 */
+	private final Map<Statement, CompoundState<A, H, V, T>> unwound = new LinkedHashMap<>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<Statement, CompoundState<A, H, V, T>> eldest) {
+			return size() > MAX_UNWOUND;
+		}
+	};
 
 	/**
 	 * Builds the control flow graph, storing the given mapping between nodes
@@ -162,12 +201,23 @@ public class OptimizedAnalyzedCFG<
 	/**
 	 * Yields the computed result at a given statement (exit state). If such a
 	 * state is not available as it was discarded due to optimization, and
-	 * fixpoint's results have not been unwinded yet, a fixpoint iteration is
-	 * executed in-place through {@link #unwind()}.
+	 * fixpoint's results have not been unwinded yet through {@link #unwind()},
+	 * the state is recomputed starting from the closest post-states that are
+	 * available (either since they have been stored by the fixpoint, or since
+	 * they have been recomputed by a previous call to this method). Since all
+	 * loops of the cfg contain at least one widening point, whose post-state is
+	 * always stored, this requires a single pass over the statements that
+	 * precede the given one up to such post-states. If the statements between
+	 * those post-states and the given one form a cycle that does not contain a
+	 * widening point (e.g., one that is not registered as a {@link Loop} of the
+	 * cfg), results are instead fully unwinded through {@link #unwind()}.
 	 *
 	 * @param st the statement
 	 *
 	 * @return the result computed at the given statement
+	 * 
+	 * @throws AnalysisExecutionException if an error happens while recomputing
+	 *                                        the result
 	 */
 	public AnalysisState<A, H, V, T> getUnwindedAnalysisStateAfter(Statement st) {
 		if (results.getKeys().contains(st))
@@ -176,17 +226,152 @@ public class OptimizedAnalyzedCFG<
 		if (expanded != null)
 			return expanded.getState(st);
 
-		unwind();
+		Statement root;
+		CompoundState<A, H, V, T> state;
+		// results might be requested concurrently (e.g., by checks running in
+		// parallel)
+		synchronized (this) {
+			root = rootOf(st);
+			if (expanded == null && (root == null || !unwindUpTo(root)))
+				// either not an expression of this cfg, or one that cannot be
+				// reached without going through a cycle whose post-states are
+				// not stored: we rely on a full expansion
+				unwind();
+			if (expanded != null)
+				return expanded.getState(st);
+			state = unwound.get(root);
+		}
+
+		if (state == null)
+			// unreachable statement
+			return results.lattice.bottom();
+		return root == st ? state.postState : state.intermediateStates.getState(st);
+	}
+
+	private Statement rootOf(Statement st) {
+		if (containsNode(st))
+			return st;
+
+		if (roots == null) {
+			// resolved calls take ownership of the parameters of the original
+			// ones, making Expression.getRootStatement() unreliable: we map
+			// sub-expressions to their root by visiting the nodes instead
+			roots = new IdentityHashMap<>();
+			for (Statement node : getNodes()) {
+				Collection<Statement> inners = new LinkedList<>();
+				node.accept(new GraphVisitor<CFG, Statement, Edge, Collection<Statement>>() {
+
+					@Override
+					public boolean visit(Collection<Statement> tool, CFG graph, Statement node) {
+						tool.add(node);
+						return true;
+					}
+				}, inners);
+				for (Statement inner : inners)
+					roots.put(inner, node);
+			}
+		}
 
-		return expanded.getState(st);
+		return roots.get(st);
+	}
+
+	/**
+	 * Recomputes the post-states of the statements that {@code root} depends
+	 * on, storing them in {@link #unwound}. Returns {@code false} if this is
+	 * not possible since such statements are part of a cycle whose post-states
+	 * are not stored.
+	 */
+	private boolean unwindUpTo(Statement root) {
+		if (unwound.containsKey(root))
+			return true;
+
+		// the statements whose post-state is unknown and that root depends on:
+		// the loops they are part of are usually closed by stored widening
+		// points, so they form an acyclic region that can be processed in
+		// topological order (if root is stored, the region starts after it)
+		Set<Statement> region = new HashSet<>();
+		Deque<Statement> ws = new LinkedList<>();
+		region.add(root);
+		ws.push(root);
+		while (!ws.isEmpty())
+			for (Statement pred : predecessorsOf(ws.pop()))
+				if (!hasPostStateOf(pred) && !unwound.containsKey(pred) && region.add(pred))
+					ws.push(pred);
+
+		Map<Statement, Integer> pending = new HashMap<>();
+		Deque<Statement> ready = new LinkedList<>();
+		for (Statement st : region) {
+			int deps = 0;
+			for (Statement pred : predecessorsOf(st))
+				if (region.contains(pred) && !hasPostStateOf(pred))
+					deps++;
+			if (deps == 0)
+				ready.add(st);
+			else
+				pending.put(st, deps);
+		}
+
+		AnalysisState<A, H, V, T> bottom = results.lattice.bottom();
+		StatementStore<A, H, V, T> bot = new StatementStore<>(bottom);
+		AscendingFixpoint<A, H, V, T> asc = new AscendingFixpoint<>(this, 0, new PrecomputedAnalysis());
+		Map<Statement, CompoundState<A, H, V, T>> computed = new HashMap<>();
+		try {
+			while (!ready.isEmpty()) {
+				Statement current = ready.poll();
+				CompoundState<A, H, V, T> entry = null;
+				if (entryStates.getKeys().contains(current))
+					entry = CompoundState.of(entryStates.getState(current), bot);
+				for (Statement pred : predecessorsOf(current)) {
+					CompoundState<A, H, V, T> post;
+					if (hasPostStateOf(pred))
+						post = CompoundState.of(results.getState(pred), bot);
+					else if (computed.containsKey(pred))
+						post = computed.get(pred);
+					else
+						// either cached or not reachable
+						post = unwound.get(pred);
+					if (post == null)
+						continue;
+
+					CompoundState<A, H, V, T> s = asc.traverse(getEdgeConnecting(pred, current), post);
+					entry = entry == null ? s : asc.union(current, entry, s);
+				}
+
+				if (entry != null)
+					computed.put(current, asc.semantics(current, entry));
+
+				for (Statement follower : followersOf(current))
+					if (pending.containsKey(follower) && !hasPostStateOf(current))
+						if (pending.merge(follower, -1, Integer::sum) == 0) {
+							pending.remove(follower);
+							ready.add(follower);
+						}
+			}
+		} catch (SemanticException e) {
+			throw new AnalysisExecutionException("Unable to unwind optimized results of " + this + " up to " + root,
+					e);
+		}
+
+		unwound.putAll(computed);
+		CompoundState<A, H, V, T> result = computed.get(root);
+		if (result != null)
+			// inserted last, so that it is not evicted by the other ones
+			unwound.put(root, result);
+		// statements still pending are part of a cycle without stored
+		// post-states (e.g., an irreducible one, or one that is not
+		// registered as a loop)
+		return pending.isEmpty();
 	}
 
 	/**
 	 * Runs an ascending fixpoint computation starting with the results
 	 * available in this graph, with the purpose of propagating the
 	 * approximations held in this result to all the missing nodes.
+	 * 
+	 * @throws AnalysisExecutionException if an error happens during the
+	 *                                        fixpoint computation
 	 */
-	public void unwind() {
+	public synchronized void unwind() {
 		AnalysisState<A, H, V, T> bottom = results.lattice.bottom();
 		StatementStore<A, H, V, T> bot = new StatementStore<>(bottom);
 		Map<Statement, CompoundState<A, H, V, T>> starting = new HashMap<>();
@@ -219,14 +404,17 @@ public class OptimizedAnalyzedCFG<
 						FIFOWorkingSet.mk(),
 						asc,
 						existing);
-				expanded = new StatementStore<>(bottom);
+				StatementStore<A, H, V, T> store = new StatementStore<>(bottom);
 				for (Entry<Statement, CompoundState<A, H, V, T>> e : res.entrySet()) {
-					expanded.put(e.getKey(), e.getValue().postState);
+					store.put(e.getKey(), e.getValue().postState);
 					for (Entry<Statement, AnalysisState<A, H, V, T>> ee : e.getValue().intermediateStates)
-						expanded.put(ee.getKey(), ee.getValue());
+						store.put(ee.getKey(), ee.getValue());
 				}
+				// published only once complete
+				expanded = store;
+				unwound.clear();
 			} catch (FixpointException e) {
-				LOG.error("Unable to unwind optimized results of " + this, e);
+				throw new AnalysisExecutionException("Unable to unwind optimized results of " + this, e);
 			}
 		});
 	}
@@ -254,6 +442,68 @@ public class OptimizedAnalyzedCFG<
 		results.put(st, postState);
 	}
 
+	/**
+	 * {@inheritDoc} Results that have been unwound are not written, as they
+	 * can be recomputed.
+	 */
+	@Override
+	protected Object writeReplace() throws ObjectStreamException {
+		return new SerializedForm<>(getDescriptor(), id, entryStates, results, interprocedural);
+	}
+
+	/**
+	 * The serialized form of an {@link OptimizedAnalyzedCFG}. Besides the
+	 * elements of {@link AnalyzedCFG.SerializedForm}, this also refers to the
+	 * {@link InterproceduralAnalysis} used for unwinding the results, that is
+	 * not serializable and must be replaced by the stream: when reading, the
+	 * results will be unwound by the analysis that the stream resolves.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 * 
+	 * @param <A> the type of {@link AbstractState} contained into the analysis
+	 *                state
+	 * @param <H> the type of {@link HeapDomain} contained into the computed
+	 *                abstract state
+	 * @param <V> the type of {@link ValueDomain} contained into the computed
+	 *                abstract state
+	 * @param <T> the type of {@link TypeDomain} embedded into the computed
+	 *                abstract state
+	 */
+	protected static class SerializedForm<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> extends AnalyzedCFG.SerializedForm<A, H, V, T> {
+
+		/**
+		 * The analysis used to unwind the results.
+		 */
+		protected final InterproceduralAnalysis<A, H, V, T> interprocedural;
+
+		/**
+		 * Builds the serialized form.
+		 * 
+		 * @param descriptor      the descriptor of the cfg
+		 * @param id              the id of the result
+		 * @param entryStates     the entry state of each entry point of the
+		 *                            cfg
+		 * @param results         the results of the fixpoint computation
+		 * @param interprocedural the analysis used to unwind the results
+		 */
+		protected SerializedForm(CodeMemberDescriptor descriptor,
+				ScopeId id,
+				StatementStore<A, H, V, T> entryStates,
+				StatementStore<A, H, V, T> results,
+				InterproceduralAnalysis<A, H, V, T> interprocedural) {
+			super(descriptor, id, entryStates, results);
+			this.interprocedural = interprocedural;
+		}
+
+		@Override
+		protected Object readResolve() throws ObjectStreamException {
+			return new OptimizedAnalyzedCFG<>(cfg(), id, entryStates, results, interprocedural);
+		}
+	}
+
 	private class PrecomputedAnalysis implements InterproceduralAnalysis<A, H, V, T> {
 
 		@Override
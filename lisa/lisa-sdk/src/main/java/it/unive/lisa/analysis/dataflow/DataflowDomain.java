@@ -9,9 +9,10 @@ import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
@@ -19,7 +20,16 @@ import java.util.function.Predicate;
 /**
  * A dataflow domain that collects instances of {@link DataflowElement}. A
  * dataflow domain is a value domain that is represented as a set of elements,
- * that can be retrieved through {@link #getDataflowElements()}.
+ * that can be retrieved through {@link #getDataflowElements()}.<br>
+ * <br>
+ * Elements are interned into a cache shared by all the instances derived from
+ * the same initial one (e.g., through {@link #mk(DataflowElement, Set, boolean,
+ * boolean)} or through the semantic operations), and sets of elements are
+ * represented as bit vectors over the indexes assigned by the cache. Kill sets
+ * yielded by {@link #getDataflowElementsInvolving(Identifier)} and the
+ * elements to forget when an identifier goes out of scope are retrieved from
+ * an index of the elements by the identifiers they involve, so that they can
+ * be removed through bitwise operations.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -34,7 +44,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	private final boolean isBottom;
 
-	private final Set<E> elements;
+	private final ExternalSet<E> elements;
 
 	/**
 	 * The underlying domain.
@@ -52,12 +62,42 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 	 * @param isBottom whether or not this domain is the bottom of the lattice
 	 */
 	public DataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
-		this.elements = elements;
+		this.elements = intern(elements);
 		this.domain = domain;
 		this.isTop = isTop;
 		this.isBottom = isBottom;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static <E extends DataflowElement<?, E>> ExternalSet<E> intern(Set<E> elements) {
+		if (elements instanceof ExternalSet
+				&& ((ExternalSet<E>) elements).getCache() instanceof DataflowElementCache)
+			return (ExternalSet<E>) elements;
+		// not derived from an existing instance: a new cache is needed
+		return new DataflowElementCache<E>().mkSet(elements);
+	}
+
+	private DataflowElementCache<E> cache() {
+		return (DataflowElementCache<E>) elements.getCache();
+	}
+
+	/**
+	 * Yields the elements of the given instance as a set backed by the same
+	 * cache of the elements of this instance, so that the two can be combined
+	 * through bitwise operations.
+	 * 
+	 * @param other the other instance
+	 * 
+	 * @return the elements of {@code other}
+	 */
+	protected final ExternalSet<E> elementsOf(D other) {
+		ExternalSet<E> elems = ((DataflowDomain<D, E>) other).elements;
+		if (elems.getCache() == elements.getCache())
+			return elems;
+		// the two instances have been built independently
+		return elements.getCache().mkSet(elems);
+	}
+
 	/**
 	 * Utility for creating a concrete instance of {@link DataflowDomain} given
 	 * its core fields.
@@ -105,9 +145,19 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (guard.getAsBoolean())
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(getDataflowElements());
-		for (E killed : kill.get())
-			updated.remove(killed);
+		ExternalSet<E> updated;
+		Collection<E> killed = kill.get();
+		if (killed instanceof ExternalSet && ((ExternalSet<E>) killed).getCache() == elements.getCache())
+			updated = elements.difference((ExternalSet<E>) killed);
+		else {
+			updated = elements.copy();
+			for (E k : killed)
+				updated.remove(k);
+		}
+
+		if (updated == elements)
+			// the difference might yield the original set
+			updated = elements.copy();
 		for (E generated : gen.get())
 			updated.add(generated);
 
@@ -127,17 +177,11 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (isTop())
 			return (D) this;
 
-		Collection<E> toRemove = new LinkedList<>();
-		for (E e : elements)
-			if (e.getInvolvedIdentifiers().contains(id))
-				toRemove.add(e);
-
-		if (toRemove.isEmpty())
+		ExternalSet<E> toRemove = cache().getElementsInvolving(id);
+		if (toRemove == null || !elements.intersects(toRemove))
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(elements);
-		updated.removeAll(toRemove);
-		return mk(domain, updated, false, false);
+		return mk(domain, elements.difference(toRemove), false, false);
 	}
 
 	@Override
@@ -146,17 +190,23 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (isTop())
 			return (D) this;
 
-		Collection<E> toRemove = new LinkedList<>();
-		for (E e : elements)
-			if (e.getInvolvedIdentifiers().stream().anyMatch(test::test))
-				toRemove.add(e);
-
-		if (toRemove.isEmpty())
+		// the cache is shared by the whole analysis: only the identifiers
+		// involved by the elements of this instance are tested
+		Map<Identifier, Boolean> tested = new HashMap<>();
+		ExternalSet<E> toRemove = null;
+		for (E element : elements)
+			for (Identifier id : element.getInvolvedIdentifiers())
+				if (tested.computeIfAbsent(id, test::test)) {
+					if (toRemove == null)
+						toRemove = cache().mkEmptySet();
+					toRemove.add(element);
+					break;
+				}
+
+		if (toRemove == null)
 			return (D) this;
 
-		Set<E> updated = new HashSet<>(elements);
-		updated.removeAll(toRemove);
-		return mk(domain, updated, false, false);
+		return mk(domain, elements.difference(toRemove), false, false);
 	}
 
 	@Override
@@ -209,7 +259,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	@Override
 	public D top() {
-		return mk(domain, new HashSet<>(), true, false);
+		return mk(domain, cache().mkEmptySet(), true, false);
 	}
 
 	@Override
@@ -219,7 +269,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 
 	@Override
 	public D bottom() {
-		return mk(domain, new HashSet<>(), false, true);
+		return mk(domain, cache().mkEmptySet(), false, true);
 	}
 
 	@Override
@@ -232,17 +282,35 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 	 * 
 	 * @return the elements
 	 */
-	public final Set<E> getDataflowElements() {
+	public final ExternalSet<E> getDataflowElements() {
 		return elements;
 	}
 
+	/**
+	 * Yields the {@link DataflowElement}s contained in this domain instance
+	 * that involve the given identifier (see
+	 * {@link DataflowElement#getInvolvedIdentifiers()}). The returned set can
+	 * be used as the result of a <i>kill</i> operation, and it will be removed
+	 * from this instance through bitwise operations.
+	 * 
+	 * @param id the identifier
+	 * 
+	 * @return the elements involving {@code id}
+	 */
+	public ExternalSet<E> getDataflowElementsInvolving(Identifier id) {
+		ExternalSet<E> involving = cache().getElementsInvolving(id);
+		if (involving == null)
+			return cache().mkEmptySet();
+		return elements.intersection(involving);
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public D pushScope(ScopeToken scope) throws SemanticException {
 		if (isTop() || isBottom())
 			return (D) this;
 
-		Set<E> result = new HashSet<>();
+		ExternalSet<E> result = cache().mkEmptySet();
 		E pushed;
 		for (E element : this.elements)
 			if ((pushed = element.pushScope(scope)) != null)
@@ -257,7 +325,7 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (isTop() || isBottom())
 			return (D) this;
 
-		Set<E> result = new HashSet<>();
+		ExternalSet<E> result = cache().mkEmptySet();
 		E popped;
 		for (E element : this.elements)
 			if ((popped = element.popScope(scope)) != null)
@@ -0,0 +1,82 @@
+package it.unive.lisa.analysis.dataflow;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link ExternalSetCache} for {@link DataflowElement}s, that assigns a
+ * dense index to each element so that the contents of {@link DataflowDomain}s
+ * can be stored as bit vectors. The cache additionally indexes the elements by
+ * the identifiers they involve (see
+ * {@link DataflowElement#getInvolvedIdentifiers()}), so that the elements to
+ * remove when an identifier is killed or forgotten can be retrieved as a
+ * single bit vector. The identifier index is updated lazily, and the sets it
+ * yields are never modified afterwards.<br>
+ * <br>
+ * A cache is shared by all the instances derived from the same initial one,
+ * and thus by all the cfgs analyzed with it. States flow between cfgs (e.g.,
+ * when parameters are assigned at calls, or when results are returned), and
+ * a cache for each cfg would require re-interning the elements of every state
+ * crossing a call boundary. Queries that depend on the contents of a state
+ * should thus iterate over the elements of the state instead of over the
+ * whole index.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <E> the type of {@link DataflowElement} stored in this cache
+ */
+final class DataflowElementCache<E extends DataflowElement<?, E>> extends ExternalSetCache<E> {
+
+	private final Map<Identifier, ExternalSet<E>> involving = new HashMap<>();
+
+	/**
+	 * The number of elements of this cache that have been added to
+	 * {@link #involving}.
+	 */
+	private int indexed = 0;
+
+	/**
+	 * Yields the set of all elements of this cache that involve the given
+	 * identifier.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the elements involving {@code id}, or {@code null} if no element
+	 *             involves it
+	 */
+	synchronized ExternalSet<E> getElementsInvolving(Identifier id) {
+		update();
+		return involving.get(id);
+	}
+
+	private void update() {
+		int size = size();
+		if (indexed == size)
+			return;
+
+		// sets that have been published by previous queries are copied before
+		// being modified, while the ones created during this update are not
+		Set<Identifier> fresh = new HashSet<>();
+		for (; indexed < size; indexed++) {
+			E element = get(indexed);
+			if (element == null)
+				continue;
+
+			for (Identifier id : element.getInvolvedIdentifiers()) {
+				ExternalSet<E> current = involving.get(id);
+				if (current == null) {
+					current = mkEmptySet();
+					fresh.add(id);
+				} else if (fresh.add(id))
+					current = current.copy();
+				current.add(element);
+				involving.put(id, current);
+			}
+		}
+	}
+}
@@ -2,9 +2,9 @@ package it.unive.lisa.analysis.dataflow;
 
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.InverseSetLattice;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.HashSet;
 import java.util.Set;
-import org.apache.commons.collections4.SetUtils;
 
 /**
  * A {@link DataflowDomain} for <b>forward</b> and <b>definite</b> dataflow
@@ -40,18 +40,18 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> lubAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
-		Set<E> intersection = SetUtils.intersection(this.getDataflowElements(), other.getDataflowElements());
+		ExternalSet<E> intersection = getDataflowElements().intersection(elementsOf(other));
 		return new DefiniteForwardDataflowDomain<>(domain, intersection, false, false);
 	}
 
 	@Override
 	public boolean lessOrEqualAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
-		return this.getDataflowElements().containsAll(other.getDataflowElements());
+		return getDataflowElements().contains(elementsOf(other));
 	}
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> glbAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
-		Set<E> intersection = SetUtils.union(this.getDataflowElements(), other.getDataflowElements());
+		ExternalSet<E> intersection = getDataflowElements().union(elementsOf(other));
 		return new DefiniteForwardDataflowDomain<>(domain, intersection, false, false);
 	}
 }
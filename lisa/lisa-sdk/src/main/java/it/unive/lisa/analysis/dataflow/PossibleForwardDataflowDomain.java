@@ -2,9 +2,9 @@ package it.unive.lisa.analysis.dataflow;
 
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.lattices.SetLattice;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.HashSet;
 import java.util.Set;
-import org.apache.commons.collections4.SetUtils;
 
 /**
  * A {@link DataflowDomain} for <b>forward</b> and <b>possible</b> dataflow
@@ -39,18 +39,18 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	public PossibleForwardDataflowDomain<E> lubAux(PossibleForwardDataflowDomain<E> other) throws SemanticException {
-		Set<E> union = SetUtils.union(this.getDataflowElements(), other.getDataflowElements());
+		ExternalSet<E> union = getDataflowElements().union(elementsOf(other));
 		return new PossibleForwardDataflowDomain<>(domain, union, false, false);
 	}
 
 	@Override
 	public boolean lessOrEqualAux(PossibleForwardDataflowDomain<E> other) throws SemanticException {
-		return other.getDataflowElements().containsAll(this.getDataflowElements());
+		return elementsOf(other).contains(getDataflowElements());
 	}
 
 	@Override
 	public PossibleForwardDataflowDomain<E> glbAux(PossibleForwardDataflowDomain<E> other) throws SemanticException {
-		Set<E> intersection = SetUtils.intersection(this.getDataflowElements(), other.getDataflowElements());
+		ExternalSet<E> intersection = getDataflowElements().intersection(elementsOf(other));
 		return new PossibleForwardDataflowDomain<>(domain, intersection, false, false);
 	}
 }
@@ -120,10 +120,10 @@ public interface BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLattice
 				Object... params) throws SemanticException {
 			Set<ValueExpression> result = new HashSet<>();
 			for (ValueExpression expr : arg) {
-				UnaryExpression e = new UnaryExpression(expression.getStaticType(), expr, expression.getOperator(),
+				ValueExpression e = new UnaryExpression(expression.getStaticType(), expr, expression.getOperator(),
 						expression.getCodeLocation());
 				if (expr.hasRuntimeTypes())
-					e.setRuntimeTypes(expr.getRuntimeTypes(null));
+					e = e.withRuntimeTypes(expr.getRuntimeTypes(null));
 				result.add(e);
 			}
 			return new ExpressionSet<>(result);
@@ -136,11 +136,11 @@ public interface BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLattice
 			Set<ValueExpression> result = new HashSet<>();
 			for (ValueExpression l : left)
 				for (ValueExpression r : right) {
-					BinaryExpression e = new BinaryExpression(expression.getStaticType(), l, r,
+					ValueExpression e = new BinaryExpression(expression.getStaticType(), l, r,
 							expression.getOperator(),
 							expression.getCodeLocation());
 					if (expression.hasRuntimeTypes())
-						e.setRuntimeTypes(expression.getRuntimeTypes(null));
+						e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 					result.add(e);
 				}
 			return new ExpressionSet<>(result);
@@ -155,11 +155,11 @@ public interface BaseHeapDomain<H extends BaseHeapDomain<H>> extends BaseLattice
 			for (ValueExpression l : left)
 				for (ValueExpression m : middle)
 					for (ValueExpression r : right) {
-						TernaryExpression e = new TernaryExpression(expression.getStaticType(), l, m, r,
+						ValueExpression e = new TernaryExpression(expression.getStaticType(), l, m, r,
 								expression.getOperator(),
 								expression.getCodeLocation());
 						if (expression.hasRuntimeTypes())
-							e.setRuntimeTypes(expression.getRuntimeTypes(null));
+							e = e.withRuntimeTypes(expression.getRuntimeTypes(null));
 						result.add(e);
 					}
 			return new ExpressionSet<>(result);
@@ -3,9 +3,10 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.HashConsing;
+import it.unive.lisa.util.collections.PersistentHashMap;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -14,7 +15,13 @@ import java.util.Set;
 
 /**
  * A generic functional abstract domain that performs the functional lifting of
- * the lattice on the elements of the co-domain.
+ * the lattice on the elements of the co-domain.<br>
+ * <br>
+ * Functions created through {@link #mkNewFunction(Map, boolean)} are
+ * {@link PersistentHashMap}s: copying them is a constant time operation, and
+ * updating a copy only duplicates the part of the structure that is modified.
+ * When both operands of a lattice operation are backed by such maps, the
+ * entries that the two functions share by reference are not processed.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -58,7 +65,9 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	/**
 	 * Creates a new instance of the underlying function. The purpose of this
 	 * method is to provide a common function implementation to every subclass
-	 * that does not have implementation-specific requirements.
+	 * that does not have implementation-specific requirements. The returned
+	 * function is a {@link PersistentHashMap}, that shares its structure with
+	 * {@code other} if it is also a {@link PersistentHashMap}.
 	 * 
 	 * @param other        an optional function to copy, can be {@code null}
 	 * @param preserveNull whether a null {@code other} should cause a
@@ -68,8 +77,8 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	public Map<K, V> mkNewFunction(Map<K, V> other, boolean preserveNull) {
 		if (other == null)
-			return preserveNull ? null : new HashMap<>();
-		return new HashMap<>(other);
+			return preserveNull ? null : new PersistentHashMap<>();
+		return new PersistentHashMap<>(other);
 	}
 
 	/**
@@ -112,7 +121,7 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	public F putState(K key, V state) {
 		// we are only adding elements here, so it is fine to not preserve null
 		Map<K, V> result = mkNewFunction(function, false);
-		result.put(key, state);
+		result.put(key, HashConsing.intern(state));
 		return mk(lattice, result);
 	}
 
@@ -198,7 +207,12 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	}
 
 	/**
-	 * Yields the functional lift between {@code this} and {@code other}.
+	 * Yields the functional lift between {@code this} and {@code other}. The
+	 * value lifter is expected to yield {@code v} when invoked on two
+	 * occurrences of the same value {@code v}, as all lattice operators do: if
+	 * both functions are {@link PersistentHashMap}s, keys that are mapped to
+	 * the same value in both functions are not lifted, and their mapping is
+	 * preserved in the result.
 	 * 
 	 * @param other       the other functional lattice
 	 * @param keyLifter   the key lifter
@@ -211,11 +225,35 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	public F functionalLift(F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter)
 			throws SemanticException {
-		Map<K, V> function = mkNewFunction(null, false);
 		Set<K> keys = keyLifter.keyLift(this.getKeys(), other.getKeys());
-		for (K key : keys)
+		Map<K, V> function;
+		Iterable<K> toLift;
+		if (this.function instanceof PersistentHashMap && other.function instanceof PersistentHashMap) {
+			PersistentHashMap<K, V> mine = (PersistentHashMap<K, V>) this.function;
+			PersistentHashMap<K, V> theirs = (PersistentHashMap<K, V>) other.function;
+			// we start from the mappings of this function, dropping the keys
+			// that are not part of the result and lifting only the ones that
+			// are not shared with the other function
+			function = mkNewFunction(mine, false);
+			Set<K> unshared = new HashSet<>();
+			mine.unsharedKeys(theirs, unshared::add);
+			theirs.unsharedKeys(mine, unshared::add);
+			for (K key : mine.keySet())
+				if (!keys.contains(key))
+					function.remove(key);
+			unshared.retainAll(keys);
+			for (K key : keys)
+				if (!mine.containsKey(key))
+					unshared.add(key);
+			toLift = unshared;
+		} else {
+			function = mkNewFunction(null, false);
+			toLift = keys;
+		}
+
+		for (K key : toLift)
 			try {
-				function.put(key, valueLifter.lift(getState(key), other.getState(key)));
+				function.put(key, HashConsing.intern(valueLifter.lift(getState(key), other.getState(key))));
 			} catch (SemanticException e) {
 				throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
 			}
@@ -257,10 +295,22 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 
 	@Override
 	public boolean lessOrEqualAux(F other) throws SemanticException {
-		if (function != null)
-			for (K key : function.keySet())
-				if (getState(key) != null && (!getState(key).lessOrEqual(other.getState(key))))
-					return false;
+		if (function == null)
+			return true;
+
+		Iterable<K> keys = function.keySet();
+		if (function instanceof PersistentHashMap && other.function instanceof PersistentHashMap) {
+			// keys mapped to the same value in both functions cannot break
+			// the ordering
+			Set<K> unshared = new HashSet<>();
+			((PersistentHashMap<K, V>) function).unsharedKeys((PersistentHashMap<K, V>) other.function,
+					unshared::add);
+			keys = unshared;
+		}
+
+		for (K key : keys)
+			if (getState(key) != null && (!getState(key).lessOrEqual(other.getState(key))))
+				return false;
 
 		return true;
 	}
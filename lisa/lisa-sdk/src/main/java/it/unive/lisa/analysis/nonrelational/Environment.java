@@ -5,6 +5,7 @@ import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.HashConsing;
 import java.util.Map;
 
 /**
@@ -74,7 +75,7 @@ public abstract class Environment<M extends Environment<M, E, T>,
 			// if we have a weak identifier for which we already have
 			// information, we we perform a weak assignment
 			value = value.lub(getState(id));
-		func.put(id, value);
+		func.put(id, HashConsing.intern(value));
 		return mk(lattice, func);
 	}
 
@@ -11,16 +11,15 @@ import it.unive.lisa.analysis.representation.StringRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
-import it.unive.lisa.util.collections.CollectionsDiffBuilder;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A {@link SemanticDomain} implemented as a lift for a
@@ -175,18 +174,24 @@ public abstract class VariableLift<M extends VariableLift<M, E, T>,
 
 	@Override
 	public Set<Identifier> lubKeys(Set<Identifier> k1, Set<Identifier> k2) throws SemanticException {
-		Set<Identifier> keys = new HashSet<>();
-		CollectionsDiffBuilder<Identifier> builder = new CollectionsDiffBuilder<>(Identifier.class, k1,
-				k2);
-		builder.compute(Comparator.comparing(Identifier::getName));
-		keys.addAll(builder.getOnlyFirst());
-		keys.addAll(builder.getOnlySecond());
-		for (Pair<Identifier, Identifier> pair : builder.getCommons())
-			try {
-				keys.add(pair.getLeft().lub(pair.getRight()));
-			} catch (SemanticException e) {
-				throw new SemanticException("Unable to lub " + pair.getLeft() + " and " + pair.getRight(), e);
+		// identifiers with the same name (e.g., the strong and weak versions
+		// of a heap location) are merged into their lub, regardless of the
+		// set they come from: pairing them one-to-one would make the result
+		// depend on the iteration order of the two sets when one of them
+		// contains more than one identifier with the same name
+		Map<String, Identifier> keys = new HashMap<>();
+		for (Set<Identifier> ids : List.of(k1, k2))
+			for (Identifier id : ids) {
+				Identifier prev = keys.get(id.getName());
+				if (prev == null)
+					keys.put(id.getName(), id);
+				else
+					try {
+						keys.put(id.getName(), prev.lub(id));
+					} catch (SemanticException e) {
+						throw new SemanticException("Unable to lub " + prev + " and " + id, e);
+					}
 			}
-		return keys;
+		return new HashSet<>(keys.values());
 	}
 }
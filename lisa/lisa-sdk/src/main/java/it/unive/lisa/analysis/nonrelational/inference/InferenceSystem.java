@@ -9,6 +9,7 @@ import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.HashConsing;
 import java.util.Map;
 
 /**
@@ -93,7 +94,7 @@ public class InferenceSystem<T extends InferredValue<T>>
 			// if we have a weak identifier for which we already have
 			// information, we we perform a weak assignment
 			value = value.lub(getState(id));
-		func.put(id, value);
+		func.put(id, HashConsing.intern(value));
 		return new InferenceSystem<>(lattice, func, eval.getState());
 	}
 
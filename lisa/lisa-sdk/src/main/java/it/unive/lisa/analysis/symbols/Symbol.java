@@ -1,10 +1,12 @@
 package it.unive.lisa.analysis.symbols;
 
+import java.io.Serializable;
+
 /**
  * A symbol that can be aliased or used as an alias.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public interface Symbol {
+public interface Symbol extends Serializable {
 
 }
@@ -16,6 +16,19 @@ import it.unive.lisa.util.datastructures.graph.GraphVisitor;
  * between different callback calls <i>only</i> through thread-safe data
  * structures.<br>
  * <br>
+ * More precisely, when
+ * {@link it.unive.lisa.conf.LiSAConfiguration#checksParallelism} is greater
+ * than {@code 1}:
+ * <ul>
+ * <li>{@link #beforeExecution(Object)} and {@link #afterExecution(Object)} are
+ * invoked on the calling thread, before and after all other callbacks;</li>
+ * <li>the callbacks invoked while visiting a cfg (or a unit and its members)
+ * are all invoked by the same thread, in the usual order;</li>
+ * <li>visits of different cfgs and units can happen concurrently, both for the
+ * same check and for different checks, and they share the same tool
+ * instance.</li>
+ * </ul>
+ * <br>
  * The check is parametric to the type {@code T} of the tool that will be used
  * during the inspection.
  * 
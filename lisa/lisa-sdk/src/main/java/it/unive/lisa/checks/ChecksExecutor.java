@@ -9,6 +9,9 @@ import it.unive.lisa.program.Program;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.util.ConcurrencyUtilities;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -36,10 +39,36 @@ public final class ChecksExecutor {
 	 */
 	public static <C extends Check<T>, T> void executeAll(T tool, Application app,
 			Iterable<C> checks) {
+		executeAll(tool, app, checks, 1);
+	}
+
+	/**
+	 * Executes all the given checks on the given inputs cfgs, using at most
+	 * {@code parallelism} threads. If {@code parallelism} is greater than
+	 * {@code 1}, the visit of each cfg and of each unit is a separate task
+	 * executed on a bounded pool of threads, while globals,
+	 * {@link Check#beforeExecution(Object)} and
+	 * {@link Check#afterExecution(Object)} are still processed on the calling
+	 * thread. All the checks are executed on a given cfg (or unit) by the same
+	 * task, in iteration order.
+	 * 
+	 * @param <C>         the type of the checks to execute
+	 * @param <T>         the type of the auxiliary tool used by the check
+	 * @param tool        the auxiliary tool to be used during the checks
+	 *                        execution
+	 * @param app         the application to analyze
+	 * @param checks      the checks to execute
+	 * @param parallelism the maximum number of threads to use
+	 */
+	public static <C extends Check<T>, T> void executeAll(T tool, Application app,
+			Iterable<C> checks, int parallelism) {
 		checks.forEach(c -> c.beforeExecution(tool));
 
 		for (Program p : app.getPrograms())
-			visitProgram(tool, p, checks);
+			if (parallelism <= 1)
+				visitProgram(tool, p, checks);
+			else
+				visitProgram(tool, p, checks, parallelism);
 
 		checks.forEach(c -> c.afterExecution(tool));
 	}
@@ -56,6 +85,22 @@ public final class ChecksExecutor {
 			checks.forEach(c -> visitUnit(tool, unit, c));
 	}
 
+	private static <T, C extends Check<T>> void visitProgram(T tool, Program program, Iterable<C> checks,
+			int parallelism) {
+		for (Global global : iterate(LOG, program.getGlobals(), "Analyzing program globals...", "Globals"))
+			checks.forEach(c -> c.visitGlobal(tool, program, global, false));
+
+		List<Runnable> tasks = new ArrayList<>();
+		for (CodeMember cm : program.getCodeMembers())
+			if (cm instanceof CFG)
+				tasks.add(() -> checks.forEach(c -> ((CFG) cm).accept(c, tool)));
+		for (Unit unit : program.getUnits())
+			tasks.add(() -> checks.forEach(c -> visitUnit(tool, unit, c)));
+
+		LOG.info("Analyzing program cfgs and units on {} threads...", parallelism);
+		ConcurrencyUtilities.forEach(tasks, Runnable::run, parallelism, "executing checks");
+	}
+
 	private static <C extends Check<T>, T> void visitUnit(T tool, Unit unit, C c) {
 		if (!c.visitUnit(tool, unit))
 			return;
@@ -2,6 +2,8 @@ package it.unive.lisa.conf;
 
 import it.unive.lisa.conf.LiSAConfiguration.DescendingPhaseType;
 import it.unive.lisa.program.cfg.statement.Statement;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.function.Predicate;
 
 /**
@@ -41,6 +43,37 @@ public class FixpointConfiguration extends BaseConfiguration {
 	 */
 	public final Predicate<Statement> hotspots;
 
+	/**
+	 * Holder of {@link LiSAConfiguration#useWeakTopologicalOrder}.
+	 */
+	public final boolean useWeakTopologicalOrder;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#entrypointParallelism}.
+	 */
+	public final int entrypointParallelism;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#recursionParallelism}.
+	 */
+	public final int recursionParallelism;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#incremental}.
+	 */
+	public final boolean incremental;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#snapshotFile}, resolved against
+	 * {@link LiSAConfiguration#workdir}, or {@code null} if it is not set.
+	 */
+	public final Path snapshotFile;
+
+	/**
+	 * Holder of {@link LiSAConfiguration#postStateConvergence}.
+	 */
+	public final boolean postStateConvergence;
+
 	/**
 	 * Builds the configuration.
 	 * 
@@ -53,5 +86,11 @@ public class FixpointConfiguration extends BaseConfiguration {
 		this.descendingPhaseType = parent.descendingPhaseType;
 		this.optimize = parent.optimize;
 		this.hotspots = parent.hotspots;
+		this.useWeakTopologicalOrder = parent.useWeakTopologicalOrder;
+		this.entrypointParallelism = parent.entrypointParallelism;
+		this.recursionParallelism = parent.recursionParallelism;
+		this.incremental = parent.incremental;
+		this.snapshotFile = parent.snapshotFile == null ? null : Paths.get(parent.workdir).resolve(parent.snapshotFile);
+		this.postStateConvergence = parent.postStateConvergence;
 	}
 }
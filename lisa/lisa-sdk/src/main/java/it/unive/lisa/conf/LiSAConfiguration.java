@@ -2,22 +2,30 @@ package it.unive.lisa.conf;
 
 import it.unive.lisa.LiSA;
 import it.unive.lisa.LiSAFactory;
+import it.unive.lisa.LiSARunInfo;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
 import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.interprocedural.FixpointSnapshot;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.OpenCallPolicy;
 import it.unive.lisa.interprocedural.WorstCasePolicy;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.logging.PerformanceMetrics;
+import it.unive.lisa.outputs.compare.JsonReportComparer;
 import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.fixpoints.ReversePostorderWorkingSet;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.util.collections.CollectionUtilities;
+import it.unive.lisa.util.collections.HashConsing;
 import it.unive.lisa.util.collections.workset.DuplicateFreeFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import it.unive.lisa.util.file.FileManager;
+import it.unive.lisa.util.file.ResultStoreReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.nio.file.Paths;
@@ -138,6 +146,17 @@ public class LiSAConfiguration extends BaseConfiguration {
 	 */
 	public final Collection<SemanticCheck<?, ?, ?, ?>> semanticChecks = new HashSet<>();
 
+	/**
+	 * The maximum number of threads that can be used for executing
+	 * {@link #syntacticChecks} and {@link #semanticChecks}. If greater than
+	 * {@code 1}, the visits of the different cfgs and units of the program are
+	 * executed as separate tasks on a bounded pool of threads, and checks must
+	 * thus comply with the thread-safety contract of
+	 * {@link it.unive.lisa.checks.Check}. Defaults to {@code 1}, that is,
+	 * checks are executed sequentially on the analysis thread.
+	 */
+	public int checksParallelism = 1;
+
 	/**
 	 * The {@link CallGraph} instance to use during the analysis. Defaults to
 	 * {@code null}. Setting this field is optional: if an analysis is to be
@@ -198,6 +217,30 @@ public class LiSAConfiguration extends BaseConfiguration {
 	 */
 	public boolean serializeResults;
 
+	/**
+	 * Whether or not the json graph files produced when
+	 * {@link #serializeInputs} or {@link #serializeResults} are set should be
+	 * compressed with gzip. Compressed files have the {@code .json.gz}
+	 * extension, and are transparently decompressed when comparing reports
+	 * through {@link JsonReportComparer}. Defaults to {@code false}.
+	 */
+	public boolean compressJsonOutputs = false;
+
+	/**
+	 * Whether or not the json graphs produced by the analysis (that is, the
+	 * ones produced when {@link #serializeInputs} or {@link #serializeResults}
+	 * are set) should be packed in a single, indexed result store named
+	 * {@value FileManager#RESULT_STORE_NAME} instead of being written as
+	 * separate files. The report produced when {@link #jsonOutput} is set is
+	 * always written as a plain file, and it lists the packed entries. Entries
+	 * of the store are named after the files they replace, and can be read
+	 * through {@link ResultStoreReader}. Stores are transparently read when
+	 * comparing reports through {@link JsonReportComparer}. When this option
+	 * is set, {@link #compressJsonOutputs} is ignored. Defaults to
+	 * {@code false}.
+	 */
+	public boolean packOutputs = false;
+
 	/**
 	 * Sets whether or not a json report file, named {@value LiSA#REPORT_NAME},
 	 * should be created and dumped in the working directory at the end of the
@@ -250,11 +293,117 @@ public class LiSAConfiguration extends BaseConfiguration {
 	public DescendingPhaseType descendingPhaseType = DescendingPhaseType.NONE;
 
 	/**
-	 * The concrete class of {@link WorkingSet} to be used in fixpoints.
-	 * Defaults to {@link DuplicateFreeFIFOWorkingSet}.
+	 * The concrete class of {@link WorkingSet} to be used in fixpoints. Use
+	 * {@link ReversePostorderWorkingSet} for processing statements by their
+	 * position in the reverse postorder of their cfg instead of by insertion
+	 * order. Defaults to {@link DuplicateFreeFIFOWorkingSet}.
 	 */
 	public Class<?> fixpointWorkingSet = DuplicateFreeFIFOWorkingSet.class;
 
+	/**
+	 * If {@code true}, fixpoints will iterate over the statements (or basic
+	 * blocks, if {@link #optimize} is also {@code true}) of each cfg following
+	 * their {@link WeakTopologicalOrder}, stabilizing inner loops before outer
+	 * ones, instead of relying on a {@link WorkingSet}. When this is enabled,
+	 * {@link #fixpointWorkingSet} is ignored by cfg fixpoints. Defaults to
+	 * {@code false}.
+	 */
+	public boolean useWeakTopologicalOrder = false;
+
+	/**
+	 * The maximum number of threads that the {@link InterproceduralAnalysis}
+	 * can use for processing the entrypoints of the program concurrently.
+	 * Entrypoints are grouped before the analysis starts, over-approximating
+	 * the code that each one can reach, so that the ones that might reach
+	 * common code are still processed sequentially. Results are not affected
+	 * by this setting. Note that only some analyses support concurrent
+	 * processing of entrypoints, while others will ignore this setting.
+	 * Defaults to {@code 1}, that is, entrypoints are processed sequentially.
+	 */
+	public int entrypointParallelism = 1;
+
+	/**
+	 * The maximum number of threads that the {@link InterproceduralAnalysis}
+	 * can use for solving recursions concurrently. Recursions are solved
+	 * following the dependencies between the strongly connected components of
+	 * the call graph they belong to, and the ones that do not depend on each
+	 * other and that reach disjoint portions of the call graph can be solved
+	 * at the same time. Note that only some analyses support concurrent
+	 * solving of recursions, while others will ignore this setting. Defaults
+	 * to {@code 1}, that is, recursions are solved sequentially.
+	 */
+	public int recursionParallelism = 1;
+
+	/**
+	 * If {@code true}, the {@link InterproceduralAnalysis} will keep a
+	 * {@link FixpointSnapshot} of its results at the end of each analysis. When
+	 * the same instance is then used to analyze a new version of the program,
+	 * the snapshot is used to avoid re-analyzing the code that did not change
+	 * since the previous analysis. Snapshots are kept in memory, and they are
+	 * also written to {@link #snapshotFile} if it is set, so that they can be
+	 * reused by later executions. Note that only some analyses support
+	 * incremental analysis, while others will ignore this setting. Defaults to
+	 * {@code false}.
+	 */
+	public boolean incremental = false;
+
+	/**
+	 * The file, relative to {@link #workdir}, where the
+	 * {@link FixpointSnapshot} of the results is stored if {@link #incremental}
+	 * is set. If the file exists when the analysis starts and the
+	 * {@link InterproceduralAnalysis} does not hold a snapshot already, the one
+	 * stored in the file is used to avoid re-analyzing unchanged code. The file
+	 * is then overwritten with the snapshot of the new results. Defaults to
+	 * {@code null}, that is, snapshots are only kept in memory.
+	 */
+	public String snapshotFile = null;
+
+	/**
+	 * If {@code true}, fixpoints will decide convergence and join results by
+	 * only looking at the post-states of the statements of each cfg,
+	 * discarding the post-states of their intermediate expressions during the
+	 * iteration. The latter are recomputed once, after the fixpoint has
+	 * converged, by evaluating each statement starting from its final entry
+	 * state. This reduces the work performed at each iteration on statements
+	 * containing deep expression trees. The post-states of statements are not
+	 * affected, but the ones of intermediate (that is, non-root) expressions
+	 * can differ from the ones computed when this option is {@code false}: as
+	 * they are not joined across iterations, they might be more precise.
+	 * Optimized fixpoints (see {@link #optimize}) already discard intermediate
+	 * states and recompute them on demand, and ignore this setting: this does
+	 * not apply to the ascending phase of analyses with a descending phase
+	 * (see {@link #descendingPhaseType}), that is never optimized. Defaults to
+	 * {@code false}.
+	 */
+	public boolean postStateConvergence = false;
+
+	/**
+	 * If {@code true}, the abstract values stored inside functional lattices
+	 * (e.g., the values bound to each identifier by non-relational
+	 * environments) will be hash-consed through {@link HashConsing}: values
+	 * that are equal will be represented by the same instance, reducing memory
+	 * consumption and enabling reference-equality shortcuts when comparing
+	 * states. Keys of such lattices, and symbolic expressions in general, are
+	 * not hash-consed. Note that hash-consing is process-wide: while at least
+	 * one analysis with this option set is running, values produced by any
+	 * other analysis running in the same JVM are interned as well, and the
+	 * tables are emptied only once all of them have terminated. Defaults to
+	 * {@code false}.
+	 */
+	public boolean hashConsing = false;
+
+	/**
+	 * If {@code true}, performance metrics (e.g., fixpoint iterations and
+	 * times for each cfg, widening applications, recursion-solving rounds,
+	 * call resolution cache hits) will be collected during the analysis
+	 * through {@link PerformanceMetrics}, and will be
+	 * made available through {@link LiSARunInfo#getMetrics()}
+	 * and in the json report. Since the collection is global to the JVM, this
+	 * should not be enabled when running analyses concurrently. Defaults to
+	 * {@code false}.
+	 */
+	public boolean collectMetrics = false;
+
 	/**
 	 * The {@link OpenCallPolicy} to be used for computing the result of
 	 * {@link OpenCall}s. Defaults to {@link WorstCasePolicy}.
@@ -296,6 +445,25 @@ public class LiSAConfiguration extends BaseConfiguration {
 	 */
 	public boolean dumpForcesUnwinding = false;
 
+	/**
+	 * The maximum number of threads that can be used for dumping input cfgs
+	 * and analysis results to output files. If greater than {@code 1}, each
+	 * cfg, together with all its results, is serialized and dumped by a
+	 * separate task running on a bounded pool of threads: at most
+	 * {@code 2 * dumpParallelism} tasks can be pending at any time, after which
+	 * the thread producing tasks executes them itself, keeping the number of
+	 * graphs held in memory bounded. Dumping is also moved off the analysis
+	 * thread: input cfgs are dumped in background while checks and the
+	 * fixpoint are executed, and analysis results are dumped in background
+	 * while semantic checks are executed. Results are still dumped only after
+	 * the whole-program fixpoint has terminated, as the results of a cfg might
+	 * change until then, and each task builds the whole graph of a result
+	 * before writing it to the output files. Note that the order of the
+	 * produced files is not affected by this setting. Defaults to {@code 1},
+	 * that is, dumping happens sequentially on the analysis thread.
+	 */
+	public int dumpParallelism = 1;
+
 	@Override
 	public String toString() {
 		StringBuilder res = new StringBuilder();
@@ -8,6 +8,7 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -16,7 +17,9 @@ import org.apache.commons.lang3.tuple.Pair;
 /**
  * A {@link FunctionalLattice} from {@link ScopeId}s to {@link AnalyzedCFG}s.
  * This class is meant to store fixpoint results on each token generated during
- * the interprocedural analysis.
+ * the interprocedural analysis. Methods that access or modify the stored
+ * results are synchronized, so that the same instance can be shared among
+ * fixpoints running concurrently.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -76,7 +79,7 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @throws SemanticException if something goes wrong during the update
 	 */
-	public Pair<Boolean, AnalyzedCFG<A, H, V, T>> putResult(ScopeId token,
+	public synchronized Pair<Boolean, AnalyzedCFG<A, H, V, T>> putResult(ScopeId token,
 			AnalyzedCFG<A, H, V, T> result)
 			throws SemanticException {
 		if (function == null) {
@@ -119,7 +122,7 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
-	public boolean contains(ScopeId token) {
+	public synchronized boolean contains(ScopeId token) {
 		return function != null && function.containsKey(token);
 	}
 
@@ -133,7 +136,7 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return the result, or {@code null}
 	 */
-	public AnalyzedCFG<A, H, V, T> get(ScopeId token) {
+	public synchronized AnalyzedCFG<A, H, V, T> get(ScopeId token) {
 		return function == null ? null : function.get(token);
 	}
 
@@ -143,8 +146,31 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return the results
 	 */
-	public Collection<AnalyzedCFG<A, H, V, T>> getAll() {
-		return function == null ? Collections.emptySet() : function.values();
+	public synchronized Collection<AnalyzedCFG<A, H, V, T>> getAll() {
+		return function == null ? Collections.emptySet() : new ArrayList<>(function.values());
+	}
+
+	/**
+	 * Forgets the result stored for the given {@code token}, if any.
+	 *
+	 * @param token the {@link ScopeId} that identifying the result
+	 */
+	public synchronized void forget(ScopeId token) {
+		if (function == null)
+			return;
+		function.remove(token);
+		if (function.isEmpty())
+			function = null;
+	}
+
+	/**
+	 * Yields a copy of this object, that can be updated independently from
+	 * this one.
+	 * 
+	 * @return the copy
+	 */
+	public synchronized CFGResults<A, H, V, T> copy() {
+		return mk(lattice, mkNewFunction(function, true));
 	}
 
 	@Override
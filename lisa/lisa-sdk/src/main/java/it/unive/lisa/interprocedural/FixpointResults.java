@@ -9,13 +9,16 @@ import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.CFG;
+import java.util.Collection;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A {@link FunctionalLattice} from {@link CFG}s to {@link CFGResults}s. This
  * class is meant to store all fixpoint results on all token generated during
- * the interprocedural analysis for each cfg under analysis.
+ * the interprocedural analysis for each cfg under analysis. Methods that access
+ * or modify the stored results are synchronized, so that the same instance can
+ * be shared among fixpoints running concurrently.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -65,9 +68,14 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 	public Pair<Boolean, AnalyzedCFG<A, H, V, T>> putResult(CFG cfg, ScopeId token,
 			AnalyzedCFG<A, H, V, T> result)
 			throws SemanticException {
-		if (function == null)
-			function = mkNewFunction(null, false);
-		CFGResults<A, H, V, T> res = function.computeIfAbsent(cfg, c -> new CFGResults<>(result.top()));
+		CFGResults<A, H, V, T> res;
+		synchronized (this) {
+			if (function == null)
+				function = mkNewFunction(null, false);
+			res = function.computeIfAbsent(cfg, c -> new CFGResults<>(result.top()));
+		}
+		// the lock is released before storing the result as that requires
+		// lattice operations, and CFGResults is synchronized on its own
 		return res.putResult(token, result);
 	}
 
@@ -78,7 +86,7 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
-	public boolean contains(CFG cfg) {
+	public synchronized boolean contains(CFG cfg) {
 		return function != null && function.containsKey(cfg);
 	}
 
@@ -92,10 +100,53 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return the result, or {@code null}
 	 */
-	public CFGResults<A, H, V, T> get(CFG cfg) {
+	public synchronized CFGResults<A, H, V, T> get(CFG cfg) {
 		return function == null ? null : function.get(cfg);
 	}
 
+	/**
+	 * Yields a copy of the results of the given cfgs. The copy does not share
+	 * any {@link CFGResults} with this object, so that the two can be updated
+	 * independently.
+	 * 
+	 * @param cfgs the cfgs whose results are to be copied
+	 * 
+	 * @return the copy
+	 */
+	public synchronized FixpointResults<A, H, V, T> copy(Collection<CFG> cfgs) {
+		FixpointResults<A, H, V, T> copy = new FixpointResults<>(lattice);
+		if (function != null)
+			for (CFG cfg : cfgs) {
+				CFGResults<A, H, V, T> res = function.get(cfg);
+				if (res != null) {
+					if (copy.function == null)
+						copy.function = mkNewFunction(null, false);
+					copy.function.put(cfg, res.copy());
+				}
+			}
+		return copy;
+	}
+
+	/**
+	 * Replaces the results of the given cfgs with the ones stored in
+	 * {@code other}. Cfgs without results in {@code other} are forgotten.
+	 * 
+	 * @param other the results to store
+	 * @param cfgs  the cfgs whose results are to be replaced
+	 */
+	public synchronized void replace(FixpointResults<A, H, V, T> other, Collection<CFG> cfgs) {
+		for (CFG cfg : cfgs) {
+			CFGResults<A, H, V, T> res = other.get(cfg);
+			if (res == null)
+				forget(cfg);
+			else {
+				if (function == null)
+					function = mkNewFunction(null, false);
+				function.put(cfg, res);
+			}
+		}
+	}
+
 	@Override
 	public FixpointResults<A, H, V, T> top() {
 		return new FixpointResults<>(lattice.top());
@@ -111,7 +162,7 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @param cfg the cfg to forget
 	 */
-	public void forget(CFG cfg) {
+	public synchronized void forget(CFG cfg) {
 		if (function == null)
 			return;
 		function.remove(cfg);
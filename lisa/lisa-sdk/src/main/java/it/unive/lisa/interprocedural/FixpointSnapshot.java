@@ -0,0 +1,507 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.AnalyzedCFG;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.conf.FixpointConfiguration;
+import it.unive.lisa.interprocedural.SnapshotCodec.ExcludedCodeException;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A snapshot of the results of a whole-program fixpoint, that can be used to
+ * avoid re-analyzing unchanged code when analyzing a new version of the same
+ * program. The snapshot records, for each {@link CFG} of the analyzed
+ * {@link Application}, its {@link CFG#structuralHash()}, its results and its
+ * callees according to the {@link CallGraph}. Since the snapshot refers to
+ * code members through their signatures, it can be restored on a different
+ * {@link Application} obtained, for instance, by parsing the same sources
+ * after some edits. Snapshots can be written to a file through
+ * {@link #write(Path)} and read back through {@link #read(Path)}: results are
+ * stored in serialized form (see {@link SnapshotCodec}), and they are bound
+ * to the code of the new application only when the snapshot is restored.<br>
+ * <br>
+ * Restoring a snapshot (see
+ * {@link #restore(Application, CallGraph, InterproceduralAnalysis, AnalysisState, FixpointConfiguration, FixpointResults)})
+ * identifies the {@link CFG}s whose code changed, and invalidates them
+ * together with all their transitive callers according to the recorded call
+ * graph: the results of all other cfgs are restored. Among those, the results
+ * of cfgs that the invalidated code might reach are marked as unverified, as
+ * they might have been computed from (or merged with) the entry states
+ * produced by code that changed: it is up to the interprocedural analysis
+ * restoring the snapshot to use them only when the new analysis reaches them
+ * with the same entry states, and to discard them otherwise.<br>
+ * <br>
+ * Snapshots are never restored if the structure of the program (that is, its
+ * units, their hierarchy, its globals, its code members or its entrypoints)
+ * changed, as call resolution might be affected by such changes, or if the
+ * entry state or the {@link FixpointConfiguration} of the analysis differ.
+ * Configurations are compared through the textual representation of their
+ * fields, ignoring the ones that do not affect the results: hotspots
+ * predicates (see {@link FixpointConfiguration#hotspots}) that do not
+ * provide a meaningful representation will thus prevent snapshots from being
+ * restored.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the type of {@link AbstractState} contained into the analysis
+ *                state
+ * @param <H> the type of {@link HeapDomain} contained into the computed
+ *                abstract state
+ * @param <V> the type of {@link ValueDomain} contained into the computed
+ *                abstract state
+ * @param <T> the type of {@link TypeDomain} contained into the computed
+ *                abstract state
+ */
+public class FixpointSnapshot<A extends AbstractState<A, H, V, T>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>,
+		T extends TypeDomain<T>> implements Serializable {
+
+	private static final Logger LOG = LogManager.getLogger(FixpointSnapshot.class);
+
+	/**
+	 * The fields of {@link FixpointConfiguration} that do not affect the
+	 * results of the analysis.
+	 */
+	private static final Set<String> IGNORED_SETTINGS = Set.of(
+			"entrypointParallelism",
+			"recursionParallelism",
+			"incremental",
+			"snapshotFile");
+
+	/**
+	 * The textual representation of the settings of the fixpoint that
+	 * produced the results.
+	 */
+	private final Map<String, String> settings;
+
+	/**
+	 * The serialized entry state used for the entrypoints, or {@code null} if
+	 * it could not be serialized.
+	 */
+	private final byte[] entryState;
+
+	/**
+	 * A textual description of the structure of the analyzed program.
+	 */
+	private final Set<String> structure;
+
+	/**
+	 * The structural hash of each cfg, indexed by signature.
+	 */
+	private final Map<String, Long> hashes;
+
+	/**
+	 * The textual representations of the code locations of each cfg (see
+	 * {@link SnapshotCodec#locationsOf(CFG)}), indexed by signature.
+	 */
+	private final Map<String, List<String>> locations;
+
+	/**
+	 * The signatures of the callees of each code member, indexed by signature.
+	 */
+	private final Map<String, Set<String>> callees;
+
+	/**
+	 * The serialized results of each cfg, indexed by signature. Each element
+	 * is a {@link Pair} of a {@link ScopeId} and the {@link AnalyzedCFG}
+	 * computed for it.
+	 */
+	private final Map<String, List<byte[]>> results;
+
+	/**
+	 * The signatures of the cfgs whose results could not be serialized, that
+	 * are considered as changed when restoring the snapshot.
+	 */
+	private final Set<String> unsaved;
+
+	/**
+	 * Builds the snapshot.
+	 *
+	 * @param app        the application that has been analyzed
+	 * @param callgraph  the call graph built during the analysis
+	 * @param results    the results of the analysis
+	 * @param entryState the entry state used for the entrypoints of
+	 *                       {@code app}
+	 * @param conf       the configuration of the fixpoint that produced
+	 *                       {@code results}
+	 */
+	public FixpointSnapshot(
+			Application app,
+			CallGraph callgraph,
+			FixpointResults<A, H, V, T> results,
+			AnalysisState<A, H, V, T> entryState,
+			FixpointConfiguration conf) {
+		SnapshotCodec codec = new SnapshotCodec(app);
+		this.settings = settingsOf(conf);
+		this.entryState = serialize(codec, entryState);
+		if (this.entryState == null)
+			LOG.warn("The entry state of the analysis cannot be serialized: the snapshot will never be restored");
+		this.structure = structureOf(app);
+		this.hashes = new HashMap<>();
+		this.locations = new HashMap<>();
+		this.callees = new HashMap<>();
+		this.results = new HashMap<>();
+		this.unsaved = new HashSet<>();
+
+		for (CFG cfg : app.getAllCFGs()) {
+			String signature = signatureOf(cfg);
+			hashes.put(signature, cfg.structuralHash());
+			locations.put(signature, SnapshotCodec.locationsOf(cfg));
+			CFGResults<A, H, V, T> res = results.get(cfg);
+			if (res == null)
+				continue;
+
+			List<byte[]> records = new ArrayList<>();
+			for (Entry<ScopeId, AnalyzedCFG<A, H, V, T>> result : res) {
+				byte[] record = serialize(codec, Pair.of(result.getKey(), result.getValue()));
+				if (record == null) {
+					unsaved.add(signature);
+					break;
+				}
+				records.add(record);
+			}
+
+			if (!unsaved.contains(signature))
+				this.results.put(signature, records);
+		}
+
+		if (!unsaved.isEmpty())
+			LOG.warn("The results of {} cfgs cannot be serialized: they will be analyzed again", unsaved.size());
+
+		for (CodeMember cm : app.getAllCodeCodeMembers()) {
+			if (!callgraph.containsNode(new CallGraphNode(callgraph, cm)))
+				// never called, and never calling other members
+				continue;
+			Set<String> sigs = new HashSet<>();
+			for (CodeMember callee : callgraph.getCallees(cm))
+				sigs.add(signatureOf(callee));
+			if (!sigs.isEmpty())
+				callees.put(signatureOf(cm), sigs);
+		}
+	}
+
+	private static byte[] serialize(SnapshotCodec codec, Object obj) {
+		try {
+			return codec.write(obj);
+		} catch (IOException e) {
+			LOG.debug("Unable to serialize " + obj, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes this snapshot to the given file, that is overwritten if it
+	 * already exists.
+	 *
+	 * @param file the file
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		if (file.getParent() != null)
+			Files.createDirectories(file.getParent());
+		try (ObjectOutputStream out = new ObjectOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeObject(this);
+		}
+	}
+
+	/**
+	 * Reads a snapshot from the given file.
+	 *
+	 * @param <A>  the type of {@link AbstractState} contained into the
+	 *                 analysis state
+	 * @param <H>  the type of {@link HeapDomain} contained into the computed
+	 *                 abstract state
+	 * @param <V>  the type of {@link ValueDomain} contained into the computed
+	 *                 abstract state
+	 * @param <T>  the type of {@link TypeDomain} contained into the computed
+	 *                 abstract state
+	 * @param file the file
+	 *
+	 * @return the snapshot
+	 *
+	 * @throws IOException if the file cannot be read, or if it does not
+	 *                         contain a snapshot
+	 */
+	@SuppressWarnings("unchecked")
+	public static <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> FixpointSnapshot<A, H, V, T> read(Path file) throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			Object snapshot = in.readObject();
+			if (!(snapshot instanceof FixpointSnapshot))
+				throw new IOException(file + " does not contain a snapshot");
+			return (FixpointSnapshot<A, H, V, T>) snapshot;
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Unable to read the snapshot stored in " + file, e);
+		}
+	}
+
+	/**
+	 * Restores this snapshot on the given application, that is expected to be
+	 * a new version of the one that produced this snapshot. The results of all
+	 * the cfgs that can be reused are stored in {@code target}, bound to the
+	 * cfgs of {@code app}, and the calls between them are added to
+	 * {@code callgraph}, that must have already been initialized on
+	 * {@code app}. Results stored in {@code target} for cfgs that are not
+	 * part of the returned set are unverified, and must only be used if the
+	 * new analysis reaches them with the same entry states.
+	 *
+	 * @param app        the application to restore the snapshot on
+	 * @param callgraph  the call graph of the new analysis
+	 * @param analysis   the new analysis, used to unwind restored results of
+	 *                       optimized analyses (see
+	 *                       {@link FixpointConfiguration#optimize})
+	 * @param entryState the entry state for the entrypoints of {@code app}
+	 * @param conf       the configuration of the new fixpoint
+	 * @param target     the results of the new analysis, where restored
+	 *                       results will be stored
+	 *
+	 * @return the cfgs of {@code app} whose results have been restored and do
+	 *             not need to be verified (empty if the snapshot could not be
+	 *             restored)
+	 *
+	 * @throws SemanticException if storing the restored results fails
+	 */
+	public Set<CFG> restore(
+			Application app,
+			CallGraph callgraph,
+			InterproceduralAnalysis<A, H, V, T> analysis,
+			AnalysisState<A, H, V, T> entryState,
+			FixpointConfiguration conf,
+			FixpointResults<A, H, V, T> target)
+			throws SemanticException {
+		if (!settings.equals(settingsOf(conf)) || !entryState.equals(deserializeEntryState(app))) {
+			LOG.info("The configuration of the analysis changed: the whole program will be analyzed");
+			return Collections.emptySet();
+		}
+
+		Map<String, CodeMember> members = new HashMap<>();
+		for (CodeMember cm : app.getAllCodeCodeMembers())
+			members.put(signatureOf(cm), cm);
+		if (members.size() != app.getAllCodeCodeMembers().size() || !structure.equals(structureOf(app))) {
+			LOG.info("The structure of the program changed: the whole program will be analyzed");
+			return Collections.emptySet();
+		}
+
+		Set<String> changed = new HashSet<>(unsaved);
+		// code that has only been moved keeps its results, but the locations
+		// they contain must follow it
+		Map<String, String> renames = new HashMap<>();
+		for (CFG cfg : app.getAllCFGs()) {
+			String signature = signatureOf(cfg);
+			List<String> previous = locations.get(signature);
+			List<String> current = SnapshotCodec.locationsOf(cfg);
+			if (!Long.valueOf(cfg.structuralHash()).equals(hashes.get(signature))
+					|| previous == null || previous.size() != current.size())
+				changed.add(signature);
+			else
+				for (int i = 0; i < current.size(); i++)
+					if (!previous.get(i).equals(current.get(i)))
+						renames.put(previous.get(i), current.get(i));
+		}
+
+		Map<String, Set<String>> callers = new HashMap<>();
+		for (Entry<String, Set<String>> call : callees.entrySet())
+			for (String callee : call.getValue())
+				callers.computeIfAbsent(callee, k -> new HashSet<>()).add(call.getKey());
+
+		Set<String> invalid;
+		Set<String> partial;
+		Map<String, List<Pair<ScopeId, AnalyzedCFG<A, H, V, T>>>> restored;
+		do {
+			invalid = closure(changed, callers);
+			partial = new HashSet<>();
+			restored = read(app, analysis, invalid, renames, partial, changed);
+		} while (restored == null);
+
+		// results that invalidated code might reach can contain
+		// contributions of the code that changed
+		Set<String> unverified = closure(invalid, callees);
+		unverified.removeAll(invalid);
+		unverified.addAll(partial);
+
+		Set<CFG> reused = new HashSet<>();
+		for (Entry<String, List<Pair<ScopeId, AnalyzedCFG<A, H, V, T>>>> res : restored.entrySet()) {
+			CFG cfg = (CFG) members.get(res.getKey());
+			for (Pair<ScopeId, AnalyzedCFG<A, H, V, T>> result : res.getValue())
+				target.putResult(cfg, result.getKey(), result.getValue());
+			if (!unverified.contains(res.getKey()))
+				reused.add(cfg);
+		}
+
+		for (CFG cfg : app.getAllCFGs()) {
+			String signature = signatureOf(cfg);
+			if (!invalid.contains(signature))
+				for (String callee : callees.getOrDefault(signature, Collections.emptySet()))
+					addCall(callgraph, app, cfg, members.get(callee));
+		}
+
+		LOG.info("{} cfgs changed since the previous analysis, invalidating {} cfgs:"
+				+ " restored the results of {} cfgs, {} of which must be verified",
+				changed.size(), invalid.size(), restored.size(), restored.size() - reused.size());
+		return reused;
+	}
+
+	private AnalysisState<A, H, V, T> deserializeEntryState(Application app) {
+		if (entryState == null)
+			return null;
+		try {
+			@SuppressWarnings("unchecked")
+			AnalysisState<A, H, V, T> state = (AnalysisState<A, H, V, T>) new SnapshotCodec(app).read(entryState);
+			return state;
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			LOG.debug("Unable to deserialize the entry state", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Deserializes the results of all the cfgs that have not been
+	 * invalidated. If the results of a cfg cannot be deserialized, its
+	 * signature is added to {@code changed} and {@code null} is returned, as
+	 * the set of invalid cfgs has to be computed again.
+	 *
+	 * @param app      the application to bind the results to
+	 * @param analysis the analysis to bind optimized results to
+	 * @param invalid  the signatures of the invalidated cfgs
+	 * @param renames  the textual representations of the code locations that
+	 *                     moved, each mapped to its new representation
+	 * @param partial  the set where signatures of cfgs with results referring
+	 *                     to the code of invalidated cfgs (that are not
+	 *                     restored) will be stored
+	 * @param changed  the signatures of the cfgs whose code changed
+	 *
+	 * @return the deserialized results, indexed by signature, or {@code null}
+	 *             if the results of a cfg could not be deserialized
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, List<Pair<ScopeId, AnalyzedCFG<A, H, V, T>>>> read(
+			Application app,
+			InterproceduralAnalysis<A, H, V, T> analysis,
+			Set<String> invalid,
+			Map<String, String> renames,
+			Set<String> partial,
+			Set<String> changed) {
+		SnapshotCodec codec = new SnapshotCodec(app, analysis, invalid, renames);
+		Map<String, List<Pair<ScopeId, AnalyzedCFG<A, H, V, T>>>> restored = new HashMap<>();
+		for (Entry<String, List<byte[]>> res : results.entrySet()) {
+			if (invalid.contains(res.getKey()))
+				continue;
+
+			List<Pair<ScopeId, AnalyzedCFG<A, H, V, T>>> records = new ArrayList<>(res.getValue().size());
+			for (byte[] record : res.getValue())
+				try {
+					records.add((Pair<ScopeId, AnalyzedCFG<A, H, V, T>>) codec.read(record));
+				} catch (ExcludedCodeException e) {
+					// the context of this result only exists in code that
+					// has been invalidated
+					partial.add(res.getKey());
+				} catch (IOException | ClassNotFoundException | RuntimeException e) {
+					LOG.debug("Unable to deserialize the results of " + res.getKey(), e);
+					changed.add(res.getKey());
+					return null;
+				}
+			restored.put(res.getKey(), records);
+		}
+		return restored;
+	}
+
+	private static Set<String> closure(Set<String> roots, Map<String, Set<String>> edges) {
+		VisitOnceWorkingSet<String> ws = VisitOnceFIFOWorkingSet.mk();
+		roots.forEach(ws::push);
+		while (!ws.isEmpty())
+			edges.getOrDefault(ws.pop(), Collections.emptySet()).forEach(ws::push);
+		return new HashSet<>(ws.getSeen());
+	}
+
+	private static void addCall(CallGraph callgraph, Application app, CodeMember caller, CodeMember callee) {
+		CallGraphNode source = new CallGraphNode(callgraph, caller);
+		if (!callgraph.containsNode(source))
+			callgraph.addNode(source, app.getEntryPoints().contains(caller));
+
+		CallGraphNode dest = new CallGraphNode(callgraph, callee);
+		if (!callgraph.containsNode(dest))
+			callgraph.addNode(dest, app.getEntryPoints().contains(callee));
+
+		callgraph.addEdge(new CallGraphEdge(source, dest));
+	}
+
+	private static String signatureOf(CodeMember cm) {
+		return SnapshotCodec.signatureOf(cm.getDescriptor());
+	}
+
+	private static Map<String, String> settingsOf(FixpointConfiguration conf) {
+		Map<String, String> settings = new TreeMap<>();
+		for (Field field : FixpointConfiguration.class.getFields())
+			if (!IGNORED_SETTINGS.contains(field.getName()))
+				try {
+					settings.put(field.getName(), String.valueOf(field.get(conf)));
+				} catch (IllegalAccessException e) {
+					// public fields are always accessible
+					throw new IllegalStateException(e);
+				}
+		return settings;
+	}
+
+	private static Set<String> structureOf(Application app) {
+		Set<String> structure = new TreeSet<>();
+		for (Program program : app.getPrograms()) {
+			structure.add("program " + program.getName());
+			for (Unit unit : program.getUnits()) {
+				structure.add("unit " + unit.getClass().getName() + " " + unit.getName());
+				if (unit instanceof CompilationUnit)
+					for (CompilationUnit ancestor : ((CompilationUnit) unit).getImmediateAncestors())
+						structure.add("ancestor " + unit.getName() + " " + ancestor.getName());
+			}
+			for (Global global : program.getGlobalsRecursively())
+				structure.add("global " + global);
+		}
+
+		for (CodeMember cm : app.getAllCodeCodeMembers())
+			structure.add("member " + cm.getClass().getName() + " " + signatureOf(cm));
+		for (CFG entry : app.getEntryPoints())
+			structure.add("entry " + signatureOf(entry));
+		return structure;
+	}
+}
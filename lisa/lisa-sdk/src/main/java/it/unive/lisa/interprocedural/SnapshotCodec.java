@@ -0,0 +1,653 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeLocation;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.CodeMemberDescriptor;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.ReferenceType;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.TypeSystem;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.code.NodeList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The serialization of the objects stored in a {@link FixpointSnapshot}.
+ * Abstract states might refer to elements of the analyzed program (e.g.,
+ * statements used as keys of the results, calls stored inside context
+ * sensitivity tokens, types and code members), that cannot be serialized and
+ * that must be bound to the elements of the program that the snapshot is
+ * restored on. Such elements are thus written as references that only depend
+ * on the code, and that are resolved when reading:
+ * <ul>
+ * <li>code members and their descriptors are identified by their signature,
+ * units by their name, and types by their name (looking them up in the
+ * {@link TypeSystem} of the program defining them);</li>
+ * <li>statements are identified by the signature of their cfg and by their
+ * position among the statements of the cfg (including the expressions nested
+ * in them) sorted by their position in the {@link NodeList} of the cfg and by
+ * the order they are visited by
+ * {@link Statement#accept(GraphVisitor, Object)}, that do not depend on code
+ * locations;</li>
+ * <li>code locations of statements and cfgs are identified as the
+ * statements and cfgs they belong to, so that the ones stored in abstract
+ * states (e.g., inside identifiers) follow the code when it is moved;
+ * similarly, the textual representations of code locations that are part of
+ * strings (e.g., of the names of identifiers) are rewritten when reading,
+ * given the representations of the locations of each cfg when writing (see
+ * {@link #locationsOf(CFG)});</li>
+ * <li>calls that are not statements of a cfg, as they are built by the
+ * {@link it.unive.lisa.interprocedural.callgraph.CallGraph} when resolving an
+ * {@link UnresolvedCall}, are written through their source call and their
+ * targets;</li>
+ * <li>objects stored in a static final field of their class (e.g., top and
+ * bottom elements of a lattice) are identified by such field, so that they
+ * are not duplicated when reading;</li>
+ * <li>the {@link InterproceduralAnalysis} used to unwind optimized results is
+ * replaced with the one that restores the snapshot.</li>
+ * </ul>
+ * Reading fails with an {@link InvalidObjectException} if a reference cannot
+ * be resolved, or if it refers to a statement of an excluded cfg (e.g., one
+ * whose code changed).
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class SnapshotCodec {
+
+	/**
+	 * The application whose elements are written or read.
+	 */
+	private final Application app;
+
+	/**
+	 * The analysis that references to the interprocedural analysis resolve to.
+	 */
+	private final InterproceduralAnalysis<?, ?, ?, ?> analysis;
+
+	/**
+	 * The signatures of the cfgs whose statements cannot be referenced.
+	 */
+	private final Set<String> excluded;
+
+	/**
+	 * The textual representations of code locations to rewrite when reading
+	 * strings, each mapped to its replacement.
+	 */
+	private final Map<String, String> renames;
+
+	/**
+	 * The pattern matching the keys of {@link #renames}, or {@code null} if
+	 * no string has to be rewritten.
+	 */
+	private final Pattern renaming;
+
+	/**
+	 * The code members of {@link #app}, indexed by signature.
+	 */
+	private final Map<String, CodeMember> members = new HashMap<>();
+
+	/**
+	 * The statements of each cfg, lazily computed.
+	 */
+	private final Map<CFG, List<Statement>> statements = new IdentityHashMap<>();
+
+	/**
+	 * The position of each statement inside its cfg, lazily computed.
+	 */
+	private final Map<CFG, Map<Statement, Integer>> positions = new IdentityHashMap<>();
+
+	/**
+	 * The references to the code locations of the cfgs of {@link #app} and of
+	 * their statements, lazily computed.
+	 */
+	private Map<CodeLocation, LocationRef> locations;
+
+	/**
+	 * The name of the static final fields storing each object, indexed by
+	 * class.
+	 */
+	private final Map<Class<?>, Map<Object, String>> singletons = new HashMap<>();
+
+	/**
+	 * Builds a codec for writing objects referring to the given application.
+	 *
+	 * @param app the application
+	 */
+	SnapshotCodec(Application app) {
+		this(app, null, Collections.emptySet(), Collections.emptyMap());
+	}
+
+	/**
+	 * Builds a codec for reading objects on the given application.
+	 *
+	 * @param app      the application
+	 * @param analysis the analysis to use for unwinding optimized results
+	 * @param excluded the signatures of the cfgs whose statements cannot be
+	 *                     referenced
+	 * @param renames  the textual representations of code locations to
+	 *                     rewrite when reading strings, each mapped to its
+	 *                     replacement
+	 */
+	SnapshotCodec(Application app, InterproceduralAnalysis<?, ?, ?, ?> analysis, Set<String> excluded,
+			Map<String, String> renames) {
+		this.app = app;
+		this.analysis = analysis;
+		this.excluded = excluded;
+		this.renames = renames;
+		// longer representations first, as one might contain another
+		this.renaming = renames.isEmpty() ? null
+				: Pattern.compile(renames.keySet().stream()
+						.sorted(Comparator.comparingInt(String::length).reversed())
+						.map(Pattern::quote)
+						.collect(Collectors.joining("|")));
+		for (CodeMember cm : app.getAllCodeCodeMembers())
+			members.put(signatureOf(cm.getDescriptor()), cm);
+	}
+
+	/**
+	 * Serializes the given object.
+	 *
+	 * @param obj the object
+	 *
+	 * @return the bytes of the serialized object
+	 *
+	 * @throws IOException if some of the objects reachable from {@code obj}
+	 *                         cannot be serialized
+	 */
+	byte[] write(Object obj) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new Output(bytes)) {
+			out.writeObject(obj);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Deserializes an object.
+	 *
+	 * @param bytes the bytes of the serialized object
+	 *
+	 * @return the object
+	 *
+	 * @throws IOException            if the object cannot be read, or if one
+	 *                                    of the references it contains cannot
+	 *                                    be resolved
+	 * @throws ClassNotFoundException if the class of one of the objects cannot
+	 *                                    be found
+	 */
+	Object read(byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new Input(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		}
+	}
+
+	/**
+	 * Yields the textual representations of the code locations of the given
+	 * cfg: the first one is the location of the cfg itself, followed by the
+	 * ones of its statements in the order used to identify them.
+	 *
+	 * @param cfg the cfg
+	 *
+	 * @return the representations of the locations
+	 */
+	static List<String> locationsOf(CFG cfg) {
+		List<String> locations = new ArrayList<>();
+		locations.add(String.valueOf(cfg.getDescriptor().getLocation()));
+		for (Statement st : collectStatements(cfg))
+			locations.add(String.valueOf(st.getLocation()));
+		return locations;
+	}
+
+	/**
+	 * Yields the signature used to identify code members.
+	 *
+	 * @param descriptor the descriptor of the code member
+	 *
+	 * @return the signature
+	 */
+	static String signatureOf(CodeMemberDescriptor descriptor) {
+		return descriptor.getFullSignatureWithParNames();
+	}
+
+	private Object replace(Object obj) {
+		if (obj instanceof InterproceduralAnalysis)
+			return new AnalysisRef();
+		if (obj instanceof CodeMemberDescriptor)
+			return new DescriptorRef(signatureOf((CodeMemberDescriptor) obj));
+		if (obj instanceof CodeMember)
+			return new MemberRef(signatureOf(((CodeMember) obj).getDescriptor()));
+		if (obj instanceof Unit)
+			return new UnitRef(((Unit) obj).getName());
+
+		if (obj instanceof Statement) {
+			Statement st = (Statement) obj;
+			Integer pos = st.getCFG() == null ? null : positionsOf(st.getCFG()).get(st);
+			if (pos != null)
+				return new StatementRef(signatureOf(st.getCFG().getDescriptor()), pos, st.getClass().getName());
+			if (obj instanceof CFGCall && ((CFGCall) obj).getSource() != null)
+				return new CallRef(((CFGCall) obj).getSource(), ((CFGCall) obj).getTargetedCFGs());
+			// cannot be serialized
+			return obj;
+		}
+
+		if (obj instanceof CodeLocation) {
+			LocationRef ref = locationsOf().get(obj);
+			if (ref != null)
+				return ref;
+		}
+
+		String field = singletonField(obj);
+		if (field != null)
+			return new StaticRef(obj.getClass().getName(), field);
+
+		if (obj instanceof Type) {
+			Program[] programs = app.getPrograms();
+			for (int i = 0; i < programs.length; i++)
+				if (programs[i].getTypes().getType(obj.toString()) == obj)
+					return new TypeRef(i, obj.toString());
+			if (obj instanceof ReferenceType)
+				return new ReferenceTypeRef(((ReferenceType) obj).getInnerType());
+			// cannot be serialized
+			return obj;
+		}
+
+		if (obj instanceof ExternalSet) {
+			@SuppressWarnings("unchecked")
+			ExternalSet<Type> set = (ExternalSet<Type>) obj;
+			Program[] programs = app.getPrograms();
+			for (int i = 0; i < programs.length; i++)
+				if (programs[i].getTypes().mkTypeSet(set) == set)
+					return new TypeSetRef(i, new ArrayList<>(set));
+		}
+
+		return obj;
+	}
+
+	private Object resolve(Object obj) throws IOException {
+		if (obj instanceof Ref)
+			return ((Ref) obj).resolve(this);
+		if (obj instanceof String && renaming != null)
+			return renaming.matcher((String) obj).replaceAll(m -> Matcher.quoteReplacement(renames.get(m.group())));
+		return obj;
+	}
+
+	private CodeMember member(String signature) throws InvalidObjectException {
+		CodeMember cm = members.get(signature);
+		if (cm == null)
+			throw new InvalidObjectException("No code member with signature " + signature);
+		return cm;
+	}
+
+	private Statement statement(String signature, int position, String type) throws InvalidObjectException {
+		List<Statement> sts = statementsOf(cfg(signature));
+		if (position >= sts.size() || !sts.get(position).getClass().getName().equals(type))
+			throw new InvalidObjectException("The code of " + signature + " does not match the serialized one");
+		return sts.get(position);
+	}
+
+	private CFG cfg(String signature) throws InvalidObjectException {
+		if (excluded.contains(signature))
+			throw new ExcludedCodeException(signature);
+		CodeMember cm = member(signature);
+		if (!(cm instanceof CFG))
+			throw new InvalidObjectException(signature + " is not a cfg");
+		return (CFG) cm;
+	}
+
+	private TypeSystem types(int program) throws InvalidObjectException {
+		Program[] programs = app.getPrograms();
+		if (program >= programs.length)
+			throw new InvalidObjectException("No program at index " + program);
+		return programs[program].getTypes();
+	}
+
+	private List<Statement> statementsOf(CFG cfg) {
+		return statements.computeIfAbsent(cfg, SnapshotCodec::collectStatements);
+	}
+
+	private static List<Statement> collectStatements(CFG cfg) {
+		NodeList<CFG, Statement, Edge> list = cfg.getNodeList();
+		List<Statement> roots = new ArrayList<>(cfg.getNodes());
+		roots.sort(Comparator.comparingInt(list::indexOf));
+		List<Statement> result = new ArrayList<>();
+		GraphVisitor<CFG, Statement, Edge, List<Statement>> collector = new GraphVisitor<>() {
+
+			@Override
+			public boolean visit(List<Statement> tool, CFG graph, Statement node) {
+				tool.add(node);
+				return true;
+			}
+		};
+		for (Statement root : roots)
+			root.accept(collector, result);
+		return result;
+	}
+
+	private Map<CodeLocation, LocationRef> locationsOf() {
+		if (locations == null) {
+			locations = new HashMap<>();
+			for (CFG cfg : app.getAllCFGs()) {
+				String signature = signatureOf(cfg.getDescriptor());
+				locations.putIfAbsent(cfg.getDescriptor().getLocation(), new LocationRef(signature, -1, null));
+				List<Statement> sts = statementsOf(cfg);
+				for (int i = 0; i < sts.size(); i++)
+					locations.putIfAbsent(sts.get(i).getLocation(),
+							new LocationRef(signature, i, sts.get(i).getClass().getName()));
+			}
+		}
+		return locations;
+	}
+
+	private Map<Statement, Integer> positionsOf(CFG cfg) {
+		return positions.computeIfAbsent(cfg, graph -> {
+			// statements are compared by identity, as statements of different
+			// cfgs might be equal
+			Map<Statement, Integer> result = new IdentityHashMap<>();
+			for (Statement st : statementsOf(graph))
+				result.putIfAbsent(st, result.size());
+			return result;
+		});
+	}
+
+	private String singletonField(Object obj) {
+		Class<?> cl = obj.getClass();
+		if (cl.isArray() || cl.isEnum() || cl.isPrimitive() || obj instanceof String || obj instanceof Number
+				|| obj instanceof Boolean || obj instanceof Character)
+			return null;
+		return singletons.computeIfAbsent(cl, SnapshotCodec::staticFields).get(obj);
+	}
+
+	private static Map<Object, String> staticFields(Class<?> cl) {
+		Map<Object, String> result = new IdentityHashMap<>();
+		for (Field field : cl.getDeclaredFields()) {
+			int mods = field.getModifiers();
+			if (!Modifier.isStatic(mods) || !Modifier.isFinal(mods) || field.getType().isPrimitive())
+				continue;
+			try {
+				field.setAccessible(true);
+				Object value = field.get(null);
+				if (value != null && value.getClass() == cl)
+					result.putIfAbsent(value, field.getName());
+			} catch (RuntimeException | IllegalAccessException e) {
+				// not accessible: instances will be serialized as they are
+			}
+		}
+		return result;
+	}
+
+	private class Output extends ObjectOutputStream {
+
+		private Output(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			return replace(obj);
+		}
+	}
+
+	private class Input extends ObjectInputStream {
+
+		private Input(InputStream in) throws IOException {
+			super(in);
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			return resolve(obj);
+		}
+	}
+
+	/**
+	 * An exception signaling that an object refers to a statement of an
+	 * excluded cfg.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	static final class ExcludedCodeException extends InvalidObjectException {
+
+		private static final long serialVersionUID = -1398461046532287916L;
+
+		private ExcludedCodeException(String signature) {
+			super("Reference to the code of " + signature);
+		}
+	}
+
+	private interface Ref extends Serializable {
+
+		Object resolve(SnapshotCodec codec) throws IOException;
+	}
+
+	private static final class AnalysisRef implements Ref {
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			if (codec.analysis == null)
+				throw new InvalidObjectException("No analysis to bind the results to");
+			return codec.analysis;
+		}
+	}
+
+	private static final class MemberRef implements Ref {
+
+		private final String signature;
+
+		private MemberRef(String signature) {
+			this.signature = signature;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			return codec.member(signature);
+		}
+	}
+
+	private static final class DescriptorRef implements Ref {
+
+		private final String signature;
+
+		private DescriptorRef(String signature) {
+			this.signature = signature;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			return codec.member(signature).getDescriptor();
+		}
+	}
+
+	private static final class UnitRef implements Ref {
+
+		private final String name;
+
+		private UnitRef(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			for (Program program : codec.app.getPrograms()) {
+				if (program.getName().equals(name))
+					return program;
+				for (Unit unit : program.getUnits())
+					if (unit.getName().equals(name))
+						return unit;
+			}
+			throw new InvalidObjectException("No unit named " + name);
+		}
+	}
+
+	private static final class StatementRef implements Ref {
+
+		private final String signature;
+
+		private final int position;
+
+		private final String type;
+
+		private StatementRef(String signature, int position, String type) {
+			this.signature = signature;
+			this.position = position;
+			this.type = type;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			return codec.statement(signature, position, type);
+		}
+	}
+
+	private static final class LocationRef implements Ref {
+
+		private final String signature;
+
+		private final int position;
+
+		private final String type;
+
+		private LocationRef(String signature, int position, String type) {
+			this.signature = signature;
+			this.position = position;
+			this.type = type;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			if (position < 0)
+				return codec.cfg(signature).getDescriptor().getLocation();
+			return codec.statement(signature, position, type).getLocation();
+		}
+	}
+
+	private static final class CallRef implements Ref {
+
+		private final Statement source;
+
+		// kept as is, since calls compare their targets with equals
+		private final Collection<CFG> targets;
+
+		private CallRef(UnresolvedCall source, Collection<CFG> targets) {
+			this.source = source;
+			this.targets = targets;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			if (!(source instanceof UnresolvedCall))
+				throw new InvalidObjectException("The source of a call is not an unresolved call");
+			CFGCall call = new CFGCall((UnresolvedCall) source, targets);
+			call.setSource((UnresolvedCall) source);
+			return call;
+		}
+	}
+
+	private static final class StaticRef implements Ref {
+
+		private final String type;
+
+		private final String field;
+
+		private StaticRef(String type, String field) {
+			this.type = type;
+			this.field = field;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			try {
+				Field f = Class.forName(type).getDeclaredField(field);
+				f.setAccessible(true);
+				return f.get(null);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				InvalidObjectException ex = new InvalidObjectException("Cannot read field " + field + " of " + type);
+				ex.initCause(e);
+				throw ex;
+			}
+		}
+	}
+
+	private static final class TypeRef implements Ref {
+
+		private final int program;
+
+		private final String name;
+
+		private TypeRef(int program, String name) {
+			this.program = program;
+			this.name = name;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			Type type = codec.types(program).getType(name);
+			if (type == null)
+				throw new InvalidObjectException("No type named " + name);
+			return type;
+		}
+	}
+
+	private static final class ReferenceTypeRef implements Ref {
+
+		private final Type inner;
+
+		private ReferenceTypeRef(Type inner) {
+			this.inner = inner;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			return new ReferenceType(inner);
+		}
+	}
+
+	private static final class TypeSetRef implements Ref {
+
+		private final int program;
+
+		private final Collection<Type> types;
+
+		private TypeSetRef(int program, Collection<Type> types) {
+			this.program = program;
+			this.types = types;
+		}
+
+		@Override
+		public Object resolve(SnapshotCodec codec) throws IOException {
+			return codec.types(program).mkTypeSet(new HashSet<>(types));
+		}
+	}
+}
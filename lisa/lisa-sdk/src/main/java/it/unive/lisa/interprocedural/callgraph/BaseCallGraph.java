@@ -4,7 +4,9 @@ import it.unive.lisa.analysis.symbols.Aliases;
 import it.unive.lisa.analysis.symbols.NameSymbol;
 import it.unive.lisa.analysis.symbols.QualifiedNameSymbol;
 import it.unive.lisa.analysis.symbols.QualifierSymbol;
+import it.unive.lisa.analysis.symbols.Symbol;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.cfg.AbstractCodeMember;
@@ -26,12 +28,14 @@ import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.program.language.hierarchytraversal.HierarcyTraversalStrategy;
 import it.unive.lisa.program.language.resolution.ParameterMatchingStrategy;
 import it.unive.lisa.type.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,7 +49,21 @@ import org.apache.logging.log4j.Logger;
  * <br>
  * The graph underlying this call graph is built lazily through each call to
  * resolve: querying for information about the graph before the completion of
- * the analysis might lead to wrong results.
+ * the analysis might lead to wrong results.<br>
+ * <br>
+ * To avoid scanning all the code members of the program for each call, the
+ * candidate targets of non-instance calls are looked up in an index built at
+ * {@link #init(Application)}, while the ones of instance calls are looked up
+ * in an index of the members of each type hierarchy, built the first time
+ * that the hierarchy is traversed (only for
+ * {@link HierarcyTraversalStrategy}s that do not depend on the call, see
+ * {@link HierarcyTraversalStrategy#dependsOnStatement()}). Both indexes are
+ * keyed by name, and also account for the symbols that are aliased in the
+ * {@link SymbolAliasing} passed to
+ * {@link #resolve(UnresolvedCall, Set[], SymbolAliasing)}. Since the indexes
+ * rely on the default name matching rule, they are not used by subclasses
+ * that override {@link #matchCodeMemberName(UnresolvedCall, String, String)}:
+ * in that case, all members are filtered through that method.
  *
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a> and
  *             <a href="mailto:pietro.ferrara@unive.it">Pietro Ferrara</a>
@@ -60,12 +78,41 @@ public abstract class BaseCallGraph extends CallGraph {
 
 	private final Map<UnresolvedCall, Map<List<Set<Type>>, Call>> resolvedCache = new IdentityHashMap<>();
 
+	private MemberIndex members;
+
+	private final Map<HierarcyTraversalStrategy, Map<CompilationUnit, MemberIndex>> hierarchies = new HashMap<>();
+
+	/**
+	 * Whether or not
+	 * {@link #matchCodeMemberName(UnresolvedCall, String, String)} is the one
+	 * defined by this class, that can be answered through
+	 * {@link MemberIndex}es.
+	 */
+	private final boolean defaultNameMatching;
+
+	/**
+	 * Builds the call graph.
+	 */
+	protected BaseCallGraph() {
+		boolean defaultMatching;
+		try {
+			defaultMatching = getClass()
+					.getMethod("matchCodeMemberName", UnresolvedCall.class, String.class, String.class)
+					.getDeclaringClass() == BaseCallGraph.class;
+		} catch (NoSuchMethodException | SecurityException e) {
+			defaultMatching = false;
+		}
+		this.defaultNameMatching = defaultMatching;
+	}
+
 	@Override
 	public void init(Application app) throws CallGraphConstructionException {
 		super.init(app);
 		this.app = app;
 		this.callsites.clear();
 		this.resolvedCache.clear();
+		this.members = new MemberIndex(app.getAllCodeCodeMembers());
+		this.hierarchies.clear();
 	}
 
 	@Override
@@ -93,11 +140,15 @@ public abstract class BaseCallGraph extends CallGraph {
 	@SuppressWarnings("unchecked")
 	public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
 			throws CallResolutionException {
+		PerformanceMetrics.increment("callgraph.resolutions");
 		List<Set<Type>> typeList = Arrays.asList(types);
 		Call cached = resolvedCache.getOrDefault(call, Map.of()).get(typeList);
-		if (cached != null)
+		if (cached != null) {
+			PerformanceMetrics.increment("callgraph.cache.hits");
 			return cached;
+		}
 
+		long start = PerformanceMetrics.start();
 		if (types == null)
 			// we allow types to be null only for calls that we already resolved
 			throw new CallResolutionException("Cannot resolve call without runtime types");
@@ -205,9 +256,21 @@ public abstract class BaseCallGraph extends CallGraph {
 
 		LOG.trace(
 				call + " [" + call.getLocation() + "] has been resolved to: " + ((ResolvedCall) resolved).getTargets());
+		PerformanceMetrics.stop("callgraph.resolution.time", start);
 		return resolved;
 	}
 
+	@Override
+	public Collection<CodeMember> getPossibleTargets(UnresolvedCall call) {
+		// the members of each type hierarchy are also members of the
+		// application, so the index of the latter covers both kinds of calls
+		List<CodeMember> result = new ArrayList<>();
+		for (CodeMember cm : members.candidates(this, call, new SymbolAliasing()))
+			if (!(cm instanceof AbstractCodeMember))
+				result.add(cm);
+		return result;
+	}
+
 	private boolean onlyNativeCFGTargets(Collection<CFG> targets, Collection<NativeCFG> nativeTargets,
 			Collection<CFG> targetsNoRec,
 			Collection<NativeCFG> nativeTargetsNoRec) {
@@ -308,12 +371,16 @@ public abstract class BaseCallGraph extends CallGraph {
 	public void resolveNonInstance(UnresolvedCall call, Set<Type>[] types, Collection<CFG> targets,
 			Collection<NativeCFG> natives, SymbolAliasing aliasing)
 			throws CallResolutionException {
-		for (CodeMember cm : app.getAllCodeCodeMembers())
+		for (CodeMember cm : members.candidates(this, call, aliasing))
 			checkMember(call, types, targets, natives, aliasing, cm, false);
 	}
 
 	/**
-	 * Resolves the given call as an instance call.
+	 * Resolves the given call as an instance call. If the
+	 * {@link HierarcyTraversalStrategy} of the program does not depend on the
+	 * call (see {@link HierarcyTraversalStrategy#dependsOnStatement()}), the
+	 * members of the units visited when traversing the hierarchy of each
+	 * possible receiver type are indexed once per starting unit.
 	 * 
 	 * @param call     the call to resolve
 	 * @param types    the runtime types of the parameters of the call
@@ -344,16 +411,33 @@ public abstract class BaseCallGraph extends CallGraph {
 			else
 				continue;
 
-			Set<CompilationUnit> seen = new HashSet<>();
 			HierarcyTraversalStrategy strategy = call.getProgram().getFeatures().getTraversalStrategy();
-			for (CompilationUnit cu : strategy.traverse(call, unit))
-				if (seen.add(cu))
-					// we inspect only the ones of the current unit
-					for (CodeMember cm : cu.getInstanceCodeMembers(false))
-						checkMember(call, types, targets, natives, aliasing, cm, true);
+			if (strategy.dependsOnStatement()) {
+				// the visited units might change from call to call
+				for (CodeMember cm : hierarchyMembers(strategy, call, unit))
+					checkMember(call, types, targets, natives, aliasing, cm, true);
+				continue;
+			}
+
+			MemberIndex hierarchy = hierarchies
+					.computeIfAbsent(strategy, st -> new HashMap<>())
+					.computeIfAbsent(unit, u -> new MemberIndex(hierarchyMembers(strategy, call, u)));
+			for (CodeMember cm : hierarchy.candidates(this, call, aliasing))
+				checkMember(call, types, targets, natives, aliasing, cm, true);
 		}
 	}
 
+	private static List<CodeMember> hierarchyMembers(HierarcyTraversalStrategy strategy, UnresolvedCall call,
+			CompilationUnit unit) {
+		Set<CompilationUnit> seen = new HashSet<>();
+		List<CodeMember> found = new ArrayList<>();
+		for (CompilationUnit cu : strategy.traverse(call, unit))
+			if (seen.add(cu))
+				// we inspect only the ones of the current unit
+				found.addAll(cu.getInstanceCodeMembers(false));
+		return found;
+	}
+
 	/**
 	 * Checks if the given code member {@code cm} is a candidate target for the
 	 * given call, and proceeds to add it to the set of targets if it is.
@@ -471,4 +555,68 @@ public abstract class BaseCallGraph extends CallGraph {
 	public Collection<Call> getCallSites(CodeMember cm) {
 		return callsites.getOrDefault(cm, Collections.emptyList());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * An index of a set of code members, grouping them by name and by the name
+	 * of their defining unit.
+	 */
+	private static class MemberIndex {
+
+		private final Collection<? extends CodeMember> all;
+
+		private final Map<String, List<CodeMember>> byName = new HashMap<>();
+
+		private final Map<String, List<CodeMember>> byQualifier = new HashMap<>();
+
+		private MemberIndex(Collection<? extends CodeMember> members) {
+			this.all = members;
+			for (CodeMember cm : members) {
+				CodeMemberDescriptor descr = cm.getDescriptor();
+				byName.computeIfAbsent(descr.getName(), n -> new ArrayList<>()).add(cm);
+				byQualifier.computeIfAbsent(descr.getUnit().getName(), q -> new ArrayList<>()).add(cm);
+			}
+		}
+
+		/**
+		 * Yields the members that might be targeted by the given call, that
+		 * is, the ones named as the call's target and the ones whose name,
+		 * qualifier or qualified name is aliased in {@code aliasing}. The
+		 * result is a superset of the members that
+		 * {@link BaseCallGraph#checkMember(UnresolvedCall, Set[], Collection, Collection, SymbolAliasing, CodeMember, boolean)}
+		 * would accept. If {@code graph} overrides
+		 * {@link BaseCallGraph#matchCodeMemberName(UnresolvedCall, String, String)},
+		 * the index cannot be used: all members are returned if some symbol
+		 * is aliased, and only the ones accepted by that method otherwise.
+		 */
+		private Collection<CodeMember> candidates(BaseCallGraph graph, UnresolvedCall call,
+				SymbolAliasing aliasing) {
+			if (!graph.defaultNameMatching) {
+				List<CodeMember> result = new ArrayList<>();
+				boolean aliases = !aliasing.getKeys().isEmpty();
+				for (CodeMember cm : all) {
+					CodeMemberDescriptor descr = cm.getDescriptor();
+					if (aliases || graph.matchCodeMemberName(call, descr.getUnit().getName(), descr.getName()))
+						result.add(cm);
+				}
+				return result;
+			}
+
+			List<CodeMember> named = byName.getOrDefault(call.getTargetName(), Collections.emptyList());
+			Set<Symbol> aliased = aliasing.getKeys();
+			if (aliased.isEmpty())
+				return named;
+
+			Set<CodeMember> result = new LinkedHashSet<>(named);
+			for (Symbol symbol : aliased)
+				if (symbol instanceof NameSymbol)
+					result.addAll(byName.getOrDefault(((NameSymbol) symbol).getName(), Collections.emptyList()));
+				else if (symbol instanceof QualifiedNameSymbol)
+					result.addAll(byName.getOrDefault(((QualifiedNameSymbol) symbol).getName(),
+							Collections.emptyList()));
+				else if (symbol instanceof QualifierSymbol)
+					result.addAll(byQualifier.getOrDefault(((QualifierSymbol) symbol).getQualifier(),
+							Collections.emptyList()));
+			return result;
+		}
+	}
+}
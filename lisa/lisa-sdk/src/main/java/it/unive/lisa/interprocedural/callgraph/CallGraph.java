@@ -7,23 +7,28 @@ import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.type.Type;
-import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
-import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.datastructures.graph.BaseGraph;
-import it.unive.lisa.util.datastructures.graph.algorithms.SCCs;
+import it.unive.lisa.util.datastructures.graph.ReachabilityIndex;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * A callgraph of the program to analyze, that knows how to resolve dynamic
- * targets of {@link UnresolvedCall}s.
+ * targets of {@link UnresolvedCall}s. Transitive queries (e.g.,
+ * {@link #getCalleesTransitively(CodeMember)} or {@link #getRecursions()}) are
+ * answered through a {@link ReachabilityIndex} that is kept up-to-date as
+ * edges are added through {@link #addEdge(CallGraphEdge)}, and thus do not
+ * require to visit the graph.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
 public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, CallGraphEdge> {
 
+	private final ReachabilityIndex<CodeMember> reachability = new ReachabilityIndex<>();
+
 	/**
 	 * Initializes the call graph of the given program. A call to this method
 	 * should effectively re-initialize the call graph as if it is yet to be
@@ -37,6 +42,47 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	public void init(Application app) throws CallGraphConstructionException {
 		entrypoints.clear();
 		adjacencyMatrix.clear();
+		reachability.clear();
+	}
+
+	@Override
+	public void addEdge(CallGraphEdge edge) {
+		super.addEdge(edge);
+		reachability.addEdge(edge.getSource().getCodeMember(), edge.getDestination().getCodeMember());
+	}
+
+	/**
+	 * Yields whether or not {@code callee} can be reached from {@code caller}
+	 * through a chain of at least one call. The returned value might be
+	 * partial if this call graph is not fully built.
+	 * 
+	 * @param caller the code member where the chain of calls starts
+	 * @param callee the code member where the chain of calls ends
+	 * 
+	 * @return {@code true} if {@code callee} is transitively called by
+	 *             {@code caller}
+	 */
+	public boolean isReachable(CodeMember caller, CodeMember callee) {
+		return reachability.isReachable(caller, callee);
+	}
+
+	/**
+	 * Yields whether or not the given call is recursive, that is, if the
+	 * {@link CodeMember} containing it can be reached from at least one of its
+	 * targets (including the case where the call targets its own code
+	 * member). The returned value might be partial if this call graph is not
+	 * fully built.
+	 * 
+	 * @param call the call
+	 * 
+	 * @return {@code true} if the call is part of a recursion
+	 */
+	public boolean isRecursive(CFGCall call) {
+		CodeMember caller = call.getCFG();
+		for (CodeMember target : call.getTargets())
+			if (target.equals(caller) || isReachable(target, caller))
+				return true;
+		return false;
 	}
 
 	/**
@@ -55,6 +101,22 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	public abstract Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
 			throws CallResolutionException;
 
+	/**
+	 * Yields an over-approximation of the {@link CodeMember}s that the given
+	 * {@link UnresolvedCall} might target, computed without knowing the
+	 * runtime types of its parameters and assuming that no symbol is aliased.
+	 * This can be used to bound the portion of the program reachable from a
+	 * code member before analyzing it. The default implementation returns
+	 * {@code null}, meaning that no such over-approximation is available.
+	 * 
+	 * @param call the call
+	 * 
+	 * @return the possible targets of the call, or {@code null}
+	 */
+	public Collection<CodeMember> getPossibleTargets(UnresolvedCall call) {
+		return null;
+	}
+
 	/**
 	 * Registers an already resolved {@link CFGCall} in this {@link CallGraph}.
 	 * 
@@ -113,11 +175,7 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	 * @return the collection of callers code members computed transitively
 	 */
 	public Collection<CodeMember> getCallersTransitively(CodeMember cm) {
-		VisitOnceWorkingSet<CodeMember> ws = VisitOnceFIFOWorkingSet.mk();
-		getCallers(cm).stream().forEach(ws::push);
-		while (!ws.isEmpty())
-			getCallers(ws.pop()).stream().forEach(ws::push);
-		return ws.getSeen();
+		return reachability.getAncestors(Collections.singleton(cm));
 	}
 
 	/**
@@ -130,11 +188,7 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	 * @return the collection of callers code members computed transitively
 	 */
 	public Collection<CodeMember> getCallersTransitively(Collection<CodeMember> cms) {
-		VisitOnceWorkingSet<CodeMember> ws = VisitOnceFIFOWorkingSet.mk();
-		cms.forEach(cm -> getCallers(cm).stream().forEach(ws::push));
-		while (!ws.isEmpty())
-			getCallers(ws.pop()).stream().forEach(ws::push);
-		return ws.getSeen();
+		return reachability.getAncestors(cms);
 	}
 
 	/**
@@ -162,11 +216,7 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	 * @return the collection of callees code members computed transitively
 	 */
 	public Collection<CodeMember> getCalleesTransitively(CodeMember cm) {
-		VisitOnceWorkingSet<CodeMember> ws = VisitOnceFIFOWorkingSet.mk();
-		getCallees(cm).stream().forEach(ws::push);
-		while (!ws.isEmpty())
-			getCallees(ws.pop()).stream().forEach(ws::push);
-		return ws.getSeen();
+		return reachability.getDescendants(Collections.singleton(cm));
 	}
 
 	/**
@@ -179,11 +229,7 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	 * @return the collection of callees code members computed transitively
 	 */
 	public Collection<CodeMember> getCalleesTransitively(Collection<CodeMember> cms) {
-		VisitOnceWorkingSet<CodeMember> ws = VisitOnceFIFOWorkingSet.mk();
-		cms.forEach(cm -> getCallees(cm).stream().forEach(ws::push));
-		while (!ws.isEmpty())
-			getCallees(ws.pop()).stream().forEach(ws::push);
-		return ws.getSeen();
+		return reachability.getDescendants(cms);
 	}
 
 	/**
@@ -223,15 +269,7 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	 * @return the recursions
 	 */
 	public Collection<Collection<CodeMember>> getRecursions() {
-		Collection<Collection<CallGraphNode>> sccs = new SCCs<
-				CallGraph,
-				CallGraphNode,
-				CallGraphEdge>().buildNonTrivial(this);
-		return sccs.stream()
-				.map(nodes -> nodes.stream()
-						.map(node -> node.getCodeMember())
-						.collect(Collectors.toSet()))
-				.collect(Collectors.toSet());
+		return Collections.unmodifiableCollection(reachability.getNonTrivialComponents());
 	}
 
 	/**
@@ -244,14 +282,7 @@ public abstract class CallGraph extends BaseGraph<CallGraph, CallGraphNode, Call
 	 * @return the recursions
 	 */
 	public Collection<Collection<CodeMember>> getRecursionsContaining(CodeMember cm) {
-		Collection<Collection<CallGraphNode>> sccs = new SCCs<
-				CallGraph,
-				CallGraphNode,
-				CallGraphEdge>().buildNonTrivial(this);
-		return sccs.stream()
-				.map(nodes -> nodes.stream()
-						.map(node -> node.getCodeMember())
-						.collect(Collectors.toSet()))
+		return reachability.getNonTrivialComponents().stream()
 				.filter(members -> members.contains(cm))
 				.collect(Collectors.toSet());
 	}
@@ -0,0 +1,143 @@
+package it.unive.lisa.logging;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Global, opt-in collection of performance metrics of the analysis, in the
+ * form of named counters and timers. When disabled (the default), all methods
+ * of this class return immediately, so that instrumented code pays only the
+ * cost of reading a volatile flag. Code that needs to build the name of a
+ * metric (e.g., through {@link #key(String, Object)}) should check
+ * {@link #isEnabled()} first to avoid unnecessary string concatenations.<br>
+ * <br>
+ * Counters and timers can be safely updated concurrently. Timers accumulate
+ * wall-clock time: when the measured computations are nested (e.g., the
+ * fixpoint of a callee is computed during the one of its caller), the time of
+ * the inner ones is also accounted for in the outer ones. Since metrics are
+ * global, enabling them affects all the analyses running in the same JVM.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class PerformanceMetrics {
+
+	private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongAdder> TIMERS = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled = false;
+
+	private PerformanceMetrics() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Yields whether or not metrics are being collected.
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables the collection of metrics. Enabling the collection
+	 * also discards all the metrics collected so far.
+	 *
+	 * @param enabled whether or not metrics should be collected
+	 */
+	public static void setEnabled(boolean enabled) {
+		if (enabled) {
+			COUNTERS.clear();
+			TIMERS.clear();
+		}
+		PerformanceMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Builds the name of a metric that refers to a specific subject (e.g., a
+	 * cfg), in the form {@code metric[subject]}.
+	 *
+	 * @param metric  the name of the metric
+	 * @param subject the subject of the metric
+	 *
+	 * @return the name of the metric for the given subject
+	 */
+	public static String key(String metric, Object subject) {
+		return metric + "[" + subject + "]";
+	}
+
+	/**
+	 * Increments the counter with the given name by one.
+	 *
+	 * @param counter the name of the counter
+	 */
+	public static void increment(String counter) {
+		add(counter, 1);
+	}
+
+	/**
+	 * Increments the counter with the given name by the given amount.
+	 *
+	 * @param counter the name of the counter
+	 * @param amount  the amount to add
+	 */
+	public static void add(String counter, long amount) {
+		if (enabled)
+			COUNTERS.computeIfAbsent(counter, k -> new LongAdder()).add(amount);
+	}
+
+	/**
+	 * Starts a measurement, yielding the value to pass to
+	 * {@link #stop(String, long)} to conclude it.
+	 *
+	 * @return the starting time of the measurement, or {@code 0} if metrics
+	 *             are not being collected
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Concludes a measurement, adding the time elapsed since {@code start} to
+	 * the timer with the given name.
+	 *
+	 * @param timer the name of the timer
+	 * @param start the starting time, as returned by {@link #start()}
+	 */
+	public static void stop(String timer, long start) {
+		if (enabled)
+			TIMERS.computeIfAbsent(timer, k -> new LongAdder()).add(System.nanoTime() - start);
+	}
+
+	/**
+	 * Yields the current value of the counter with the given name.
+	 *
+	 * @param counter the name of the counter
+	 *
+	 * @return the value of the counter, or {@code 0} if it does not exist
+	 */
+	public static long getCounter(String counter) {
+		LongAdder adder = COUNTERS.get(counter);
+		return adder == null ? 0 : adder.sum();
+	}
+
+	/**
+	 * Yields a snapshot of all the metrics collected so far, in the form of a
+	 * property bag mapping the name of each metric to its value. Counters are
+	 * reported as integers, while timers are reported in milliseconds with
+	 * three decimal digits.
+	 *
+	 * @return the property bag
+	 */
+	public static SortedMap<String, String> snapshot() {
+		SortedMap<String, String> bag = new TreeMap<>();
+		COUNTERS.forEach((k, v) -> bag.put(k, String.valueOf(v.sum())));
+		TIMERS.forEach((k, v) -> bag.put(k, String.format(Locale.ROOT, "%.3f", v.sum() / 1_000_000.0)));
+		return bag;
+	}
+}
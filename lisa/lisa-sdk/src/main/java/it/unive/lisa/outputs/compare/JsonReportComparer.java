@@ -2,9 +2,12 @@ package it.unive.lisa.outputs.compare;
 
 import static java.lang.String.format;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import it.unive.lisa.LiSA;
 import it.unive.lisa.outputs.json.JsonReport;
 import it.unive.lisa.outputs.json.JsonReport.JsonWarning;
+import it.unive.lisa.outputs.json.JsonUtilities;
 import it.unive.lisa.outputs.serializableGraph.SerializableArray;
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import it.unive.lisa.outputs.serializableGraph.SerializableNodeDescription;
@@ -12,13 +15,13 @@ import it.unive.lisa.outputs.serializableGraph.SerializableObject;
 import it.unive.lisa.outputs.serializableGraph.SerializableString;
 import it.unive.lisa.outputs.serializableGraph.SerializableValue;
 import it.unive.lisa.util.collections.CollectionsDiffBuilder;
+import it.unive.lisa.util.file.FileManager;
+import it.unive.lisa.util.file.ResultStoreReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -43,13 +46,17 @@ import org.apache.logging.log4j.util.TriConsumer;
  * <li>run information ({@link JsonReport#getInfo()}) are then compared,
  * treating each field as a string but ignoring timestamps (duration, start,
  * end) and LiSA's version</li>
+ * <li>performance metrics ({@link JsonReport#getMetrics()}) are then compared,
+ * treating each metric as a string, only if
+ * {@link DiffAlgorithm#shouldCompareMetrics()} is {@code true}</li>
  * <li>warnings ({@link JsonReport#getWarnings()}) are then compared, using
  * {@link JsonWarning#compareTo(JsonWarning)} method</li>
  * <li>the set of files produced during the analysis
  * ({@link JsonReport#getFiles()}) is then compared, matching their paths</li>
  * <li>finally, the contents of every file produced by both analyses are
  * compared, excluding the report itself ({@link LiSA#REPORT_NAME}) and
- * visualization-only files</li>
+ * visualization-only files; json graphs are first streamed token by token,
+ * and they are loaded in memory only if their tokens differ</li>
  * </ol>
  * Comparison can be customized providing an implementation of
  * {@link DiffAlgorithm}.
@@ -131,7 +138,13 @@ public class JsonReportComparer {
 		 * Indicates that the difference was found in the collection of
 		 * generated files.
 		 */
-		FILES;
+		FILES,
+
+		/**
+		 * Indicates that the difference was found in the performance metrics
+		 * collected during the analysis.
+		 */
+		METRICS;
 	}
 
 	/**
@@ -185,6 +198,19 @@ public class JsonReportComparer {
 		 */
 		void configurationDiff(String key, String first, String second);
 
+		/**
+		 * Callback invoked by a {@link JsonReportComparer} whenever a
+		 * performance metric is mapped to two different values. This is only
+		 * invoked if {@link #shouldCompareMetrics()} yields {@code true}, and
+		 * defaults to doing nothing.
+		 * 
+		 * @param key    the name of the metric
+		 * @param first  the value in the first report
+		 * @param second the value in the second report
+		 */
+		default void metricDiff(String key, String first, String second) {
+		}
+
 		/**
 		 * If {@code true}, analysis configurations
 		 * ({@link JsonReport#getConfiguration()}) will be compared.
@@ -205,6 +231,18 @@ public class JsonReportComparer {
 			return true;
 		}
 
+		/**
+		 * If {@code true}, performance metrics
+		 * ({@link JsonReport#getMetrics()}) will be compared. Since metrics
+		 * depend on the machine and on the load at the time of the analysis,
+		 * they are not compared by default.
+		 * 
+		 * @return whether or not performance metrics should be compared
+		 */
+		default boolean shouldCompareMetrics() {
+			return false;
+		}
+
 		/**
 		 * If {@code true}, warnings ({@link JsonReport#getWarnings()}) will be
 		 * compared.
@@ -247,13 +285,17 @@ public class JsonReportComparer {
 
 		/**
 		 * Yields whether or not the file pointed by the given path should be
-		 * considered a json graph.
+		 * considered a json graph. Graphs compressed with gzip (see
+		 * {@link JsonUtilities#isCompressed(String)}) are also considered json
+		 * graphs.
 		 * 
 		 * @param path the path pointing to the file
 		 * 
 		 * @return {@code true} if that condition holds
 		 */
 		default boolean isJsonGraph(String path) {
+			if (JsonUtilities.isCompressed(path))
+				path = FilenameUtils.removeExtension(path);
 			return FilenameUtils.getExtension(path).equals("json");
 		}
 
@@ -370,6 +412,10 @@ public class JsonReportComparer {
 		if (diff.shouldFailFast() && !sameInfos)
 			return false;
 
+		boolean sameMetrics = !diff.shouldCompareMetrics() || compareMetrics(first, second, diff);
+		if (diff.shouldFailFast() && !sameMetrics)
+			return false;
+
 		boolean sameWarnings = !diff.shouldCompareWarnings() || compareWarnings(first, second, diff);
 		if (diff.shouldFailFast() && !sameWarnings)
 			return false;
@@ -395,7 +441,7 @@ public class JsonReportComparer {
 				return false;
 		}
 
-		return sameConfs && sameInfos && sameWarnings && sameFiles && sameFileContents;
+		return sameConfs && sameInfos && sameMetrics && sameWarnings && sameFiles && sameFileContents;
 	}
 
 	private static boolean compareFileContents(
@@ -405,27 +451,88 @@ public class JsonReportComparer {
 			CollectionsDiffBuilder<String> files)
 			throws FileNotFoundException, IOException {
 		boolean diffFound = false;
-		for (Pair<String, String> pair : files.getCommons()) {
-			File left = new File(firstFileRoot, pair.getLeft());
-			if (!left.exists())
-				throw new FileNotFoundException(format(MISSING_FILE, pair.getLeft(), "first"));
+		try (ResultStoreReader firstStore = openStore(firstFileRoot);
+				ResultStoreReader secondStore = openStore(secondFileRoot)) {
+			for (Pair<String, String> pair : files.getCommons()) {
+				boolean leftPacked = firstStore != null && firstStore.contains(pair.getLeft());
+				File left = new File(firstFileRoot, pair.getLeft());
+				if (!leftPacked && !left.exists())
+					throw new FileNotFoundException(format(MISSING_FILE, pair.getLeft(), "first"));
+
+				boolean rightPacked = secondStore != null && secondStore.contains(pair.getRight());
+				File right = new File(secondFileRoot, pair.getRight());
+				if (!rightPacked && !right.exists())
+					throw new FileNotFoundException(format(MISSING_FILE, pair.getRight(), "second"));
+
+				String path = left.getName();
+				if (FilenameUtils.getName(path).equals(LiSA.REPORT_NAME))
+					continue;
 
-			File right = new File(secondFileRoot, pair.getRight());
-			if (!right.exists())
-				throw new FileNotFoundException(format(MISSING_FILE, pair.getRight(), "second"));
+				if (diff.isJsonGraph(path)) {
+					GraphSource l = () -> leftPacked ? firstStore.open(pair.getLeft()) : JsonUtilities.reader(left);
+					GraphSource r = () -> rightPacked ? secondStore.open(pair.getRight()) : JsonUtilities.reader(right);
+					if (!sameTokens(l, r))
+						try (Reader lr = l.open(); Reader rr = r.open()) {
+							diffFound |= matchJsonGraphs(diff, left.toString(), lr, right.toString(), rr);
+						}
+				} else if (diff.isVisualizationFile(path))
+					LOG.info(VIS_ONLY, left.toString(), right.toString());
+				else
+					diffFound |= diff.customFileCompare(left, right);
+			}
+		}
+		return !diffFound;
+	}
 
-			String path = left.getName();
-			if (FilenameUtils.getName(path).equals(LiSA.REPORT_NAME))
-				continue;
+	/**
+	 * A source of the content of a json graph file, that can be opened more
+	 * than once.
+	 */
+	@FunctionalInterface
+	private interface GraphSource {
 
-			if (diff.isJsonGraph(path))
-				diffFound |= matchJsonGraphs(diff, left, right);
-			else if (diff.isVisualizationFile(path))
-				LOG.info(VIS_ONLY, left.toString(), right.toString());
-			else
-				diffFound |= diff.customFileCompare(left, right);
+		Reader open() throws IOException;
+	}
+
+	/**
+	 * Yields whether or not the two json files contain exactly the same
+	 * sequence of tokens. The files are streamed through {@link JsonParser}s,
+	 * without building their trees, and the comparison stops at the first
+	 * different token. Files with the same tokens hold equal graphs, while
+	 * files that differ might still hold equal graphs (e.g., if their elements
+	 * appear in a different order) and need to be compared in full.
+	 * 
+	 * @param left  the source of the first file
+	 * @param right the source of the second file
+	 * 
+	 * @return {@code true} if that condition holds
+	 * 
+	 * @throws IOException if errors happen while reading the files
+	 */
+	private static boolean sameTokens(GraphSource left, GraphSource right) throws IOException {
+		try (Reader lr = left.open();
+				Reader rr = right.open();
+				JsonParser l = JsonUtilities.parser(lr);
+				JsonParser r = JsonUtilities.parser(rr)) {
+			JsonToken token;
+			do {
+				token = l.nextToken();
+				if (token != r.nextToken())
+					return false;
+				if (token != null && !Arrays.equals(
+						l.getTextCharacters(), l.getTextOffset(), l.getTextOffset() + l.getTextLength(),
+						r.getTextCharacters(), r.getTextOffset(), r.getTextOffset() + r.getTextLength()))
+					return false;
+			} while (token != null);
+			return true;
 		}
-		return !diffFound;
+	}
+
+	private static ResultStoreReader openStore(
+			File root)
+			throws IOException {
+		File store = new File(root, FileManager.RESULT_STORE_NAME);
+		return ResultStoreReader.isStore(store) ? new ResultStoreReader(store) : null;
 	}
 
 	private static CollectionsDiffBuilder<String> compareFiles(
@@ -479,6 +586,19 @@ public class JsonReportComparer {
 				key -> INFO_BLACKLIST.contains(key));
 	}
 
+	private static boolean compareMetrics(
+			JsonReport first,
+			JsonReport second,
+			DiffAlgorithm diff) {
+		return compareBags(
+				REPORTED_COMPONENT.METRICS,
+				first.getMetrics(),
+				second.getMetrics(),
+				diff,
+				(key, fvalue, svalue) -> diff.metricDiff(key, fvalue, svalue),
+				key -> false);
+	}
+
 	private static boolean compareBags(
 			REPORTED_COMPONENT component,
 			Map<String, String> first,
@@ -536,34 +656,30 @@ public class JsonReportComparer {
 
 	private static boolean matchJsonGraphs(
 			DiffAlgorithm diff,
-			File left,
-			File right)
-			throws IOException, FileNotFoundException {
+			String leftpath,
+			Reader left,
+			String rightpath,
+			Reader right)
+			throws IOException {
 		boolean diffFound = false;
-
-		try (Reader l = new InputStreamReader(new FileInputStream(left), StandardCharsets.UTF_8);
-				Reader r = new InputStreamReader(new FileInputStream(right), StandardCharsets.UTF_8)) {
-			SerializableGraph leftGraph = SerializableGraph.readGraph(l);
-			SerializableGraph rightGraph = SerializableGraph.readGraph(r);
-			if (!leftGraph.equals(rightGraph)) {
-				diffFound = true;
-				String leftpath = left.toString();
-				String rightpath = right.toString();
-
-				if (!leftGraph.sameStructure(rightGraph))
-					diff.fileDiff(leftpath, rightpath, GRAPH_DIFF);
-				else {
-					CollectionsDiffBuilder<SerializableNodeDescription> builder = new CollectionsDiffBuilder<>(
-							SerializableNodeDescription.class,
-							leftGraph.getDescriptions(),
-							rightGraph.getDescriptions());
-					builder.compute(SerializableNodeDescription::compareTo);
-
-					if (builder.sameContent())
-						diff.fileDiff(leftpath, rightpath, MALFORMED_GRAPH);
-					else
-						compareLabels(diff, leftGraph, rightGraph, leftpath, rightpath, builder);
-				}
+		SerializableGraph leftGraph = SerializableGraph.readGraph(left);
+		SerializableGraph rightGraph = SerializableGraph.readGraph(right);
+		if (!leftGraph.equals(rightGraph)) {
+			diffFound = true;
+
+			if (!leftGraph.sameStructure(rightGraph))
+				diff.fileDiff(leftpath, rightpath, GRAPH_DIFF);
+			else {
+				CollectionsDiffBuilder<SerializableNodeDescription> builder = new CollectionsDiffBuilder<>(
+						SerializableNodeDescription.class,
+						leftGraph.getDescriptions(),
+						rightGraph.getDescriptions());
+				builder.compute(SerializableNodeDescription::compareTo);
+
+				if (builder.sameContent())
+					diff.fileDiff(leftpath, rightpath, MALFORMED_GRAPH);
+				else
+					compareLabels(diff, leftGraph, rightGraph, leftpath, rightpath, builder);
 			}
 		}
 
@@ -666,6 +782,7 @@ public class JsonReportComparer {
 		private static final String WARNINGS_ONLY = "Warnings only in the {} report:";
 		private static final String INFOS_ONLY = "Run info keys only in the {} report:";
 		private static final String CONFS_ONLY = "Configuration keys only in the {} report:";
+		private static final String METRICS_ONLY = "Metrics only in the {} report:";
 		private static final String FILE_DIFF = "['{}', '{}'] {}";
 		private static final String VALUE_DIFF = "Different values for {} key '{}': '{}' and '{}'";
 
@@ -701,6 +818,12 @@ public class JsonReportComparer {
 				else
 					LOG.warn(CONFS_ONLY, "second");
 				break;
+			case METRICS:
+				if (isFirst)
+					LOG.warn(METRICS_ONLY, "first");
+				else
+					LOG.warn(METRICS_ONLY, "second");
+				break;
 			default:
 				break;
 			}
@@ -723,6 +846,11 @@ public class JsonReportComparer {
 		public void configurationDiff(String key, String first, String second) {
 			LOG.warn(VALUE_DIFF, "configuration", key, first, second);
 		}
+
+		@Override
+		public void metricDiff(String key, String first, String second) {
+			LOG.warn(VALUE_DIFF, "metric", key, first, second);
+		}
 	}
 
 	private static final String diff(SerializableValue first, SerializableValue second) {
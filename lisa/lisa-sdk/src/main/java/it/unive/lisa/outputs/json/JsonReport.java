@@ -1,7 +1,6 @@
 package it.unive.lisa.outputs.json;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.core.JsonGenerator;
 import it.unive.lisa.LiSAReport;
 import it.unive.lisa.LiSARunInfo;
 import it.unive.lisa.checks.warnings.Warning;
@@ -31,11 +30,13 @@ public class JsonReport {
 
 	private final Map<String, String> configuration;
 
+	private final Map<String, String> metrics;
+
 	/**
 	 * Builds an empty report.
 	 */
 	public JsonReport() {
-		this(Collections.emptyList(), Collections.emptyList(), Map.of(), Map.of());
+		this(Collections.emptyList(), Collections.emptyList(), Map.of(), Map.of(), Map.of());
 	}
 
 	/**
@@ -45,14 +46,15 @@ public class JsonReport {
 	 */
 	public JsonReport(LiSAReport report) {
 		this(report.getWarnings(), report.getCreatedFiles(), report.getInfo().toPropertyBag(),
-				report.getConfiguration().toPropertyBag());
+				report.getConfiguration().toPropertyBag(), report.getInfo().getMetrics());
 	}
 
 	private JsonReport(Collection<Warning> warnings, Collection<String> files, Map<String, String> info,
-			Map<String, String> configuration) {
+			Map<String, String> configuration, Map<String, String> metrics) {
 		this.files = new TreeSet<>(files);
 		this.info = info;
 		this.configuration = configuration;
+		this.metrics = metrics;
 		this.warnings = new TreeSet<>();
 		for (Warning warn : warnings)
 			this.warnings.add(new JsonWarning(warn));
@@ -102,6 +104,18 @@ public class JsonReport {
 		return info;
 	}
 
+	/**
+	 * Yields the performance metrics collected during the analysis, in the
+	 * form of a property bag. This corresponds to the object returned by
+	 * {@link LiSARunInfo#getMetrics()}, and it is empty if metrics were not
+	 * collected.
+	 * 
+	 * @return the metrics
+	 */
+	public Map<String, String> getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Dumps this report to the given {@link Writer} instance, serializing it as
 	 * a json object.
@@ -111,9 +125,9 @@ public class JsonReport {
 	 * @throws IOException if some I/O error happens while writing to the writer
 	 */
 	public void dump(Writer writer) throws IOException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
-		mapper.writeValue(writer, this);
+		try (JsonGenerator generator = JsonUtilities.generator(writer, true)) {
+			generator.writeObject(this);
+		}
 	}
 
 	/**
@@ -128,8 +142,7 @@ public class JsonReport {
 	 *                         reader
 	 */
 	public static JsonReport read(Reader reader) throws IOException {
-		ObjectMapper mapper = new ObjectMapper();
-		return mapper.readValue(reader, JsonReport.class);
+		return JsonUtilities.mapper().readValue(reader, JsonReport.class);
 	}
 
 	@Override
@@ -140,6 +153,7 @@ public class JsonReport {
 		result = prime * result + ((warnings == null) ? 0 : warnings.hashCode());
 		result = prime * result + ((info == null) ? 0 : info.hashCode());
 		result = prime * result + ((configuration == null) ? 0 : configuration.hashCode());
+		result = prime * result + ((metrics == null) ? 0 : metrics.hashCode());
 		return result;
 	}
 
@@ -172,13 +186,18 @@ public class JsonReport {
 				return false;
 		} else if (!configuration.equals(other.configuration))
 			return false;
+		if (metrics == null) {
+			if (other.metrics != null)
+				return false;
+		} else if (!metrics.equals(other.metrics))
+			return false;
 		return true;
 	}
 
 	@Override
 	public String toString() {
 		return "JsonReport [warnings=" + warnings + ", files=" + files + ", info=" + info + ", configuration="
-				+ configuration + "]";
+				+ configuration + ", metrics=" + metrics + "]";
 	}
 
 	/**
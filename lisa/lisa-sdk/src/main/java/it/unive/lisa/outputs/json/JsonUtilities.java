@@ -0,0 +1,121 @@
+package it.unive.lisa.outputs.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unive.lisa.util.file.FileManager;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Utility methods for streaming json serialization and deserialization of
+ * LiSA's outputs. All methods share a single, pre-configured
+ * {@link ObjectMapper}: since creating a mapper and warming up its serializer
+ * caches is expensive, instances should never be created for dumping or
+ * reading a single file.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class JsonUtilities {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			// writers and readers are owned by the callers
+			.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+			.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+			// objects written one at a time through a generator should not
+			// flush the underlying writer each time
+			.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+	private JsonUtilities() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Yields the shared {@link ObjectMapper}. The returned mapper is
+	 * thread-safe, and must not be reconfigured.
+	 *
+	 * @return the mapper
+	 */
+	public static ObjectMapper mapper() {
+		return MAPPER;
+	}
+
+	/**
+	 * Creates a {@link JsonGenerator} writing to the given writer, using the
+	 * shared mapper for serializing objects. Closing the generator flushes its
+	 * content but does not close {@code writer}.
+	 *
+	 * @param writer the writer to write to
+	 * @param indent whether or not the output should be indented
+	 *
+	 * @return the generator
+	 *
+	 * @throws IOException if the generator cannot be created
+	 */
+	public static JsonGenerator generator(Writer writer, boolean indent) throws IOException {
+		JsonGenerator generator = MAPPER.createGenerator(writer);
+		if (indent)
+			generator.useDefaultPrettyPrinter();
+		return generator;
+	}
+
+	/**
+	 * Creates a {@link JsonParser} reading from the given reader, using the
+	 * shared mapper for deserializing objects. Closing the parser does not
+	 * close {@code reader}.
+	 *
+	 * @param reader the reader to read from
+	 *
+	 * @return the parser
+	 *
+	 * @throws IOException if the parser cannot be created
+	 */
+	public static JsonParser parser(Reader reader) throws IOException {
+		return MAPPER.createParser(reader);
+	}
+
+	/**
+	 * Yields whether or not the file pointed by the given path is compressed,
+	 * that is, if its name ends with {@link FileManager#GZIP_EXTENSION}.
+	 *
+	 * @param path the path pointing to the file
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public static boolean isCompressed(String path) {
+		return path.endsWith(FileManager.GZIP_EXTENSION);
+	}
+
+	/**
+	 * Opens a buffered, UTF-8 reader for the given file, transparently
+	 * decompressing its content if the file is compressed (see
+	 * {@link #isCompressed(String)}).
+	 *
+	 * @param file the file to read
+	 *
+	 * @return the reader
+	 *
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static Reader reader(File file) throws IOException {
+		InputStream stream = new BufferedInputStream(new FileInputStream(file));
+		try {
+			if (isCompressed(file.getName()))
+				stream = new GZIPInputStream(stream);
+		} catch (IOException e) {
+			stream.close();
+			throw e;
+		}
+		return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+	}
+}
@@ -1,10 +1,10 @@
 package it.unive.lisa.outputs.serializableGraph;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.core.JsonGenerator;
 import it.unive.lisa.outputs.DotGraph;
 import it.unive.lisa.outputs.GraphmlGraph;
 import it.unive.lisa.outputs.HtmlGraph;
+import it.unive.lisa.outputs.json.JsonUtilities;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
@@ -175,16 +175,31 @@ public class SerializableGraph {
 	/**
 	 * Dumps this graph, in JSON format through the given {@link Writer}. If the
 	 * system property {@code lisa.json.indent} is set to any value, the json
-	 * will be formatted.
+	 * will be formatted. The graph is streamed to the writer one element at a
+	 * time, without building an intermediate representation of the whole
+	 * json document.
 	 * 
 	 * @param writer the writer to use for dumping the graph
 	 * 
 	 * @throws IOException if an I/O error occurs while writing
 	 */
 	public void dump(Writer writer) throws IOException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.configure(SerializationFeature.INDENT_OUTPUT, System.getProperty("lisa.json.indent") != null);
-		mapper.writeValue(writer, this);
+		try (JsonGenerator generator = JsonUtilities.generator(writer, System.getProperty("lisa.json.indent") != null)) {
+			generator.writeStartObject();
+			generator.writeStringField("name", name);
+			generator.writeStringField("description", description);
+			writeArray(generator, "nodes", nodes);
+			writeArray(generator, "edges", edges);
+			writeArray(generator, "descriptions", descriptions);
+			generator.writeEndObject();
+		}
+	}
+
+	private static void writeArray(JsonGenerator generator, String field, Iterable<?> elements) throws IOException {
+		generator.writeArrayFieldStart(field);
+		for (Object element : elements)
+			generator.writeObject(element);
+		generator.writeEndArray();
 	}
 
 	/**
@@ -346,8 +361,7 @@ public class SerializableGraph {
 	 * @throws IOException if an I/O error occurs while reading
 	 */
 	public static SerializableGraph readGraph(Reader reader) throws IOException {
-		ObjectMapper mapper = new ObjectMapper();
-		return mapper.readValue(reader, SerializableGraph.class);
+		return JsonUtilities.mapper().readValue(reader, SerializableGraph.class);
 	}
 
 	/**
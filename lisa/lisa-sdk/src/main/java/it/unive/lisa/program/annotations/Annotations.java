@@ -1,6 +1,7 @@
 package it.unive.lisa.program.annotations;
 
 import it.unive.lisa.program.annotations.matcher.AnnotationMatcher;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
@@ -13,7 +14,7 @@ import org.apache.commons.lang3.StringUtils;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Annotations implements Iterable<Annotation> {
+public class Annotations implements Iterable<Annotation>, Serializable {
 
 	private final Set<Annotation> annotations;
 
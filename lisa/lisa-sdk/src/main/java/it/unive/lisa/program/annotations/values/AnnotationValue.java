@@ -1,9 +1,11 @@
 package it.unive.lisa.program.annotations.values;
 
+import java.io.Serializable;
+
 /**
  * An annotation value.
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public interface AnnotationValue extends Comparable<AnnotationValue> {
+public interface AnnotationValue extends Comparable<AnnotationValue>, Serializable {
 }
@@ -5,6 +5,7 @@ import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.AnalyzedCFG;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.OptimizedAnalyzedCFG;
+import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
@@ -24,6 +25,7 @@ import it.unive.lisa.program.cfg.controlFlow.Loop;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.edge.SequentialEdge;
 import it.unive.lisa.program.cfg.fixpoints.AscendingFixpoint;
+import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint;
 import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint.CompoundState;
 import it.unive.lisa.program.cfg.fixpoints.DescendingGLBFixpoint;
 import it.unive.lisa.program.cfg.fixpoints.DescendingNarrowingFixpoint;
@@ -36,10 +38,15 @@ import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
+import it.unive.lisa.util.datastructures.graph.algorithms.DominatorTree;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.LoopNestingForest;
+import it.unive.lisa.util.datastructures.graph.algorithms.ReversePostorder;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import it.unive.lisa.util.datastructures.graph.code.CodeGraph;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -80,9 +87,43 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 
 	/**
 	 * The lazily computed basic blocks of this cfg, available only after
-	 * {@link #computeBasicBlocks()} has been invoked.
+	 * {@link #computeBasicBlocks()} has been invoked. This and the other
+	 * lazily computed fields are volatile, as the same cfg can be analyzed by
+	 * fixpoints running concurrently: each of them is read once into a local
+	 * variable, and threads computing it at the same time all publish
+	 * equivalent immutable values.
+	 */
+	private volatile Map<Statement, Statement[]> basicBlocks;
+
+	/**
+	 * The lazily computed weak topological order of the statements of this
+	 * cfg.
+	 */
+	private volatile WeakTopologicalOrder<Statement> wto;
+
+	/**
+	 * The lazily computed weak topological order of the basic blocks of this
+	 * cfg, available only after {@link #computeBasicBlocks()} has been
+	 * invoked.
+	 */
+	private volatile WeakTopologicalOrder<Statement> bbWto;
+
+	/**
+	 * The lazily computed reverse postorder of the statements of this cfg.
+	 */
+	private volatile ReversePostorder<Statement> rpo;
+
+	/**
+	 * The lazily computed loop-nesting forest of this cfg, that also holds its
+	 * dominator tree.
+	 */
+	private volatile LoopNestingForest<Statement> loops;
+
+	/**
+	 * The lazily computed metadata of this cfg, cached only after the cfg has
+	 * been validated.
 	 */
-	private Map<Statement, Statement[]> basicBlocks;
+	private volatile CFGMetadata metadata;
 
 	/**
 	 * Builds the control flow graph.
@@ -121,6 +162,11 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		this.descriptor = other.descriptor;
 		this.cfStructs = other.cfStructs;
 		this.basicBlocks = other.basicBlocks;
+		this.wto = other.wto;
+		this.bbWto = other.bbWto;
+		this.rpo = other.rpo;
+		this.loops = other.loops;
+		this.metadata = other.metadata;
 	}
 
 	/**
@@ -175,6 +221,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 					"Cannot have more than one conditional structure happening on the same condition: "
 							+ cf.getCondition());
 		cfStructs.add(cf);
+		metadata = null;
 	}
 
 	/**
@@ -202,6 +249,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	public void extractControlFlowStructures(ControlFlowExtractor extractor) {
 		LOG.debug("Extracting control flow structures from " + this);
 		extractor.extract(this).forEach(cfStructs::add);
+		metadata = null;
 	}
 
 	@Override
@@ -209,6 +257,38 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		return descriptor.toString();
 	}
 
+	/**
+	 * Yields a hash of the code of this cfg, computed through
+	 * {@link NodeList#structuralHash(java.util.function.ToLongFunction)} on
+	 * the textual representation and the class of each statement, and
+	 * combined with the signature, the return type, the variable table and the
+	 * entrypoints of this cfg. Differently from {@link #hashCode()}, that is
+	 * based on the identity of this object, the value returned by this method
+	 * is stable across different parsings of the same code, and can thus be
+	 * used to detect which cfgs changed between two versions of the same
+	 * program. Code locations do not contribute to the hash: a cfg that has
+	 * only been moved inside its source file (for instance, since code has
+	 * been added before it) is not considered changed.
+	 *
+	 * @return the structural hash of this cfg
+	 */
+	public long structuralHash() {
+		final long prime = 1099511628211L;
+		long result = list.structuralHash(CFG::statementHash);
+		result = prime * result + descriptor.getFullSignatureWithParNames().hashCode();
+		result = prime * result + String.valueOf(descriptor.getReturnType()).hashCode();
+		result = prime * result + descriptor.getVariables().toString().hashCode();
+		long entries = 0;
+		for (Statement entry : entrypoints)
+			// entrypoints are unordered: their contributions must commute
+			entries += statementHash(entry);
+		return prime * result + entries;
+	}
+
+	private static long statementHash(Statement st) {
+		return 31L * st.getClass().getName().hashCode() + st.toString().hashCode();
+	}
+
 	/**
 	 * Simplifies this cfg, removing all {@link NoOp}s and rewriting the edge
 	 * set accordingly. This method will throw an
@@ -223,6 +303,53 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	public void simplify() {
 		super.simplify(NoOp.class, new LinkedList<>(), new HashMap<>());
 		cfStructs.forEach(ControlFlowStructure::simplify);
+		discardOrderings();
+	}
+
+	@Override
+	public void addNode(Statement node, boolean entrypoint) {
+		super.addNode(node, entrypoint);
+		discardOrderings();
+	}
+
+	@Override
+	public void addEdge(Edge edge) {
+		super.addEdge(edge);
+		discardOrderings();
+	}
+
+	/**
+	 * Discards the cached orderings of the statements of this cfg, that will
+	 * be recomputed when needed.
+	 */
+	private void discardOrderings() {
+		wto = null;
+		rpo = null;
+		loops = null;
+		metadata = null;
+	}
+
+	/**
+	 * Yields the {@link CFGMetadata} of this cfg, indexing the information
+	 * that is queried during the analysis. Once this cfg has been validated
+	 * (see {@link #validate()}), the metadata is computed on the first
+	 * invocation of this method and then cached until this cfg is modified:
+	 * changes to the variable table of the descriptor of this cfg performed
+	 * after validation are not reflected by the cached metadata. Before
+	 * validation, the metadata is computed anew at each invocation.
+	 * 
+	 * @return the metadata of this cfg
+	 */
+	public CFGMetadata getMetadata() {
+		CFGMetadata md = metadata;
+		if (md != null)
+			return md;
+		md = new CFGMetadata(this);
+		if (list.isFrozen())
+			// the cfg has been validated: any modification to its structure
+			// will unfreeze the list or discard the metadata
+			metadata = md;
+		return md;
 	}
 
 	/**
@@ -411,15 +538,28 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		Fixpoint<CFG, Statement, Edge, CompoundState<A, H, V, T>> fix = isOptimized
 				? new OptimizedFixpoint<>(this, false, conf.hotspots)
 				: new Fixpoint<>(this, false);
-		AscendingFixpoint<A, H, V, T> asc = new AscendingFixpoint<>(this, conf.wideningThreshold, interprocedural);
+		// optimized fixpoints already discard intermediate states
+		boolean ascPostStatesOnly = conf.postStateConvergence && !isOptimized;
+		AscendingFixpoint<A, H, V, T> asc = new AscendingFixpoint<>(this, conf.wideningThreshold, interprocedural,
+				ascPostStatesOnly);
 
 		Map<Statement, CompoundState<A, H, V, T>> starting = new HashMap<>();
 		StatementStore<A, H, V, T> bot = new StatementStore<>(singleton.bottom());
 		startingPoints.forEach((st, state) -> starting.put(st, CompoundState.of(state, bot)));
-		Map<Statement, CompoundState<A, H, V, T>> ascending = fix.fixpoint(starting, ws, asc);
+		Map<Statement, CompoundState<A, H, V, T>> ascending = conf.useWeakTopologicalOrder
+				? fix.fixpoint(starting, weakTopologicalOrderFor(fix, starting.keySet()), asc, null)
+				: fix.fixpoint(starting, ws, asc);
 
-		if (conf.descendingPhaseType == DescendingPhaseType.NONE)
+		if (conf.descendingPhaseType == DescendingPhaseType.NONE) {
+			if (ascPostStatesOnly)
+				ascending = recomputeIntermediates(starting, asc, ascending);
 			return flatten(isOptimized, singleton, startingPoints, interprocedural, id, ascending);
+		}
+
+		boolean postStatesOnly = conf.postStateConvergence && !conf.optimize;
+		if (ascPostStatesOnly && !postStatesOnly)
+			// the optimized descending phase starts from full results
+			ascending = recomputeIntermediates(starting, asc, ascending);
 
 		fix = conf.optimize ? new OptimizedFixpoint<>(this, true, conf.hotspots) : new Fixpoint<>(this, true);
 		Map<Statement, CompoundState<A, H, V, T>> descending;
@@ -428,12 +568,18 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			DescendingGLBFixpoint<A, H, V, T> dg = new DescendingGLBFixpoint<>(
 					this,
 					conf.glbThreshold,
-					interprocedural);
-			descending = fix.fixpoint(starting, ws, dg, ascending);
+					interprocedural,
+					postStatesOnly);
+			descending = conf.useWeakTopologicalOrder
+					? fix.fixpoint(starting, weakTopologicalOrderFor(fix, starting.keySet()), dg, ascending)
+					: fix.fixpoint(starting, ws, dg, ascending);
 			break;
 		case NARROWING:
-			DescendingNarrowingFixpoint<A, H, V, T> dn = new DescendingNarrowingFixpoint<>(this, interprocedural);
-			descending = fix.fixpoint(starting, ws, dn, ascending);
+			DescendingNarrowingFixpoint<A, H, V, T> dn = new DescendingNarrowingFixpoint<>(this, interprocedural,
+					postStatesOnly);
+			descending = conf.useWeakTopologicalOrder
+					? fix.fixpoint(starting, weakTopologicalOrderFor(fix, starting.keySet()), dn, ascending)
+					: fix.fixpoint(starting, ws, dn, ascending);
 			break;
 		case NONE:
 		default:
@@ -442,9 +588,68 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			break;
 		}
 
+		if (postStatesOnly)
+			descending = recomputeIntermediates(starting, asc, descending);
 		return flatten(conf.optimize, singleton, startingPoints, interprocedural, id, descending);
 	}
 
+	/**
+	 * Recomputes the post-states of the intermediate expressions of each
+	 * statement, that have been discarded by a fixpoint deciding convergence
+	 * on post-states only. Each statement is evaluated once, starting from the
+	 * entry state obtained from the converged post-states of its predecessors
+	 * (and from its starting state, if any). The converged post-state of each
+	 * statement is preserved.
+	 */
+	private <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> Map<Statement, CompoundState<A, H, V, T>> recomputeIntermediates(
+					Map<Statement, CompoundState<A, H, V, T>> starting,
+					CFGFixpoint<A, H, V, T> implementation,
+					Map<Statement, CompoundState<A, H, V, T>> converged) throws FixpointException {
+		Map<Statement, CompoundState<A, H, V, T>> result = new HashMap<>(converged.size());
+		for (Entry<Statement, CompoundState<A, H, V, T>> e : converged.entrySet()) {
+			Statement node = e.getKey();
+			CompoundState<A, H, V, T> entrystate = starting.get(node);
+			try {
+				for (Statement pred : predecessorsOf(node)) {
+					CompoundState<A, H, V, T> post = converged.get(pred);
+					if (post == null)
+						// not reachable
+						continue;
+					CompoundState<A, H, V, T> s = implementation.traverse(getEdgeConnecting(pred, node), post);
+					entrystate = entrystate == null ? s : implementation.union(node, entrystate, s);
+				}
+
+				if (entrystate == null)
+					result.put(node, e.getValue());
+				else
+					result.put(node, CompoundState.of(
+							e.getValue().postState,
+							implementation.intermediates(node, entrystate).intermediateStates));
+			} catch (SemanticException ex) {
+				throw new FixpointException("Exception while recomputing the intermediate states of '" + node
+						+ "' in '" + this + "'", ex);
+			}
+		}
+		return result;
+	}
+
+	private WeakTopologicalOrder<Statement> weakTopologicalOrderFor(
+			Fixpoint<CFG, Statement, Edge, ?> fix,
+			Collection<Statement> startingPoints) {
+		// optimized fixpoints iterate over basic blocks
+		boolean basicBlocks = fix instanceof OptimizedFixpoint;
+		if (entrypoints.containsAll(startingPoints))
+			// the cached orders are built starting from the entrypoints
+			return basicBlocks ? getBasicBlocksWeakTopologicalOrder() : getWeakTopologicalOrder();
+
+		return basicBlocks
+				? WeakTopologicalOrder.of(startingPoints, this::basicBlockFollowers)
+				: WeakTopologicalOrder.of(startingPoints, list::followersOf);
+	}
+
 	private <V extends ValueDomain<V>,
 			T extends TypeDomain<T>,
 			A extends AbstractState<A, H, V, T>,
@@ -631,6 +836,8 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	 * execution (according to {@link Statement#stopsExecution()})</li>
 	 * <li>all entrypoints are effectively part of this cfg</li>
 	 * </ul>
+	 * If all checks pass, the underlying node list is frozen through
+	 * {@link NodeList#freeze()}.
 	 */
 	@Override
 	public void validate() throws ProgramValidationException {
@@ -664,6 +871,10 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		if (!list.getNodes().containsAll(entrypoints))
 			throw new ProgramValidationException(this + " has entrypoints that are not part of the graph: "
 					+ new HashSet<>(entrypoints).retainAll(list.getNodes()));
+
+		// the cfg is now complete: we build the compact representation of its
+		// edges to speed up the queries performed by the analysis
+		list.freeze();
 	}
 
 	private Collection<ControlFlowStructure> getControlFlowsContaining(ProgramPoint pp) {
@@ -682,12 +893,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		if (st instanceof Expression)
 			st = ((Expression) st).getRootStatement();
 
-		Collection<ControlFlowStructure> res = new LinkedList<>();
-		for (ControlFlowStructure cf : cfStructs)
-			if (cf.contains(st))
-				res.add(cf);
-
-		return res;
+		return getMetadata().getStructuresContaining(st);
 	}
 
 	/**
@@ -882,27 +1088,22 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	 * @return the control flow structure, or {@code null}
 	 */
 	public ControlFlowStructure getControlFlowStructureOf(ProgramPoint guard) {
-		for (ControlFlowStructure struct : getControlFlowStructures())
-			if (struct.getCondition().equals(guard))
-				return struct;
-		return null;
+		if (!(guard instanceof Statement))
+			// synthetic pp
+			return null;
+		return getMetadata().getStructureOf((Statement) guard);
 	}
 
 	/**
 	 * {@inheritDoc} <br>
 	 * <br>
 	 * In a CFG, the normal reasoning is replaced by taking all the {@link Loop}
-	 * conditions appearing in the cfg's control flow structures.
+	 * conditions appearing in the cfg's control flow structures. The returned
+	 * collection is taken from {@link #getMetadata()}, and it is unmodifiable.
 	 */
 	@Override
 	public Collection<Statement> getCycleEntries() {
-		Collection<Statement> result = new HashSet<>();
-
-		for (ControlFlowStructure cfs : cfStructs)
-			if (cfs instanceof Loop)
-				result.add(cfs.getCondition());
-
-		return result;
+		return getMetadata().getWideningPoints();
 	}
 
 	/**
@@ -922,7 +1123,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		for (ControlFlowStructure struct : cfStructs)
 			leaders.addAll(struct.getTargetedStatements());
 
-		basicBlocks = new IdentityHashMap<>(leaders.size());
+		Map<Statement, Statement[]> blocks = new IdentityHashMap<>(leaders.size());
 		for (Statement leader : leaders) {
 			VisitOnceWorkingSet<Statement> ws = VisitOnceFIFOWorkingSet.mk();
 			ws.push(leader);
@@ -944,8 +1145,99 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 					}
 			}
 
-			basicBlocks.put(leader, bb.toArray(Statement[]::new));
+			blocks.put(leader, bb.toArray(Statement[]::new));
 		}
+
+		// the blocks are published only once complete
+		basicBlocks = blocks;
+		bbWto = null;
+	}
+
+	/**
+	 * Yields the {@link WeakTopologicalOrder} of the statements of this cfg,
+	 * built starting from its entrypoints. The ordering is computed on the
+	 * first invocation of this method and then cached.
+	 * 
+	 * @return the weak topological order of this cfg
+	 */
+	public WeakTopologicalOrder<Statement> getWeakTopologicalOrder() {
+		WeakTopologicalOrder<Statement> order = wto;
+		if (order == null)
+			wto = order = WeakTopologicalOrder.of(entrypoints, list::followersOf);
+		return order;
+	}
+
+	/**
+	 * Yields the {@link WeakTopologicalOrder} of the basic blocks of this cfg,
+	 * where each block is represented by its leader and the successors of a
+	 * block are the followers of its last statement. The ordering is computed
+	 * on the first invocation of this method (after
+	 * {@link #computeBasicBlocks()} has been invoked) and then cached.
+	 * 
+	 * @return the weak topological order of the basic blocks of this cfg
+	 * 
+	 * @throws IllegalStateException if {@link #computeBasicBlocks()} has not
+	 *                                   been invoked first
+	 */
+	public WeakTopologicalOrder<Statement> getBasicBlocksWeakTopologicalOrder() {
+		WeakTopologicalOrder<Statement> order = bbWto;
+		if (order == null)
+			bbWto = order = WeakTopologicalOrder.of(entrypoints, this::basicBlockFollowers);
+		return order;
+	}
+
+	/**
+	 * Yields the {@link ReversePostorder} of the statements of this cfg, built
+	 * starting from its entrypoints. Statements that are not reachable from
+	 * the entrypoints are also part of the ordering, and are placed after the
+	 * reachable ones. The ordering is computed on the first invocation of this
+	 * method and then cached until the structure of this cfg changes.
+	 * 
+	 * @return the reverse postorder of this cfg
+	 */
+	public ReversePostorder<Statement> getReversePostorder() {
+		ReversePostorder<Statement> order = rpo;
+		if (order == null) {
+			List<Statement> roots = new ArrayList<>(entrypoints);
+			roots.addAll(list.getNodes());
+			rpo = order = ReversePostorder.of(roots, list::followersOf);
+		}
+		return order;
+	}
+
+	/**
+	 * Yields the {@link DominatorTree} of the statements of this cfg, built
+	 * starting from its entrypoints. The tree is computed on the first
+	 * invocation of this method (or of {@link #getLoopNestingForest()}) and
+	 * then cached until the structure of this cfg changes.
+	 * 
+	 * @return the dominator tree of this cfg
+	 */
+	public DominatorTree<Statement> getDominatorTree() {
+		return getLoopNestingForest().getDominatorTree();
+	}
+
+	/**
+	 * Yields the {@link LoopNestingForest} of the statements of this cfg,
+	 * containing its natural loops. The forest is computed on the first
+	 * invocation of this method (or of {@link #getDominatorTree()}) and then
+	 * cached until the structure of this cfg changes.
+	 * 
+	 * @return the loop-nesting forest of this cfg
+	 */
+	public LoopNestingForest<Statement> getLoopNestingForest() {
+		LoopNestingForest<Statement> forest = loops;
+		if (forest == null)
+			loops = forest = LoopNestingForest.of(
+					DominatorTree.of(entrypoints, list::followersOf, list::predecessorsOf),
+					list::followersOf,
+					list::predecessorsOf);
+		return forest;
+	}
+
+	private Collection<Statement> basicBlockFollowers(Statement leader) {
+		Statement[] bb = getBasicBlocks().get(leader);
+		return list.followersOf(bb[bb.length - 1]);
 	}
 
 	/**
@@ -959,8 +1251,9 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	 *                                   been invoked first
 	 */
 	public Map<Statement, Statement[]> getBasicBlocks() {
-		if (basicBlocks == null)
+		Map<Statement, Statement[]> blocks = basicBlocks;
+		if (blocks == null)
 			throw new IllegalStateException("Cannot retrieve basic blocks before computing them");
-		return basicBlocks;
+		return blocks;
 	}
 }
@@ -0,0 +1,129 @@
+package it.unive.lisa.program.cfg;
+
+import it.unive.lisa.program.cfg.controlFlow.ControlFlowStructure;
+import it.unive.lisa.program.cfg.controlFlow.Loop;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.algorithms.ReversePostorder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable index of the structural information about a {@link CFG} that
+ * is repeatedly queried during the analysis: the {@link ControlFlowStructure}s
+ * containing each statement, the structure controlled by each guard, the
+ * widening points, the variables whose scope ends at each statement, and the
+ * {@link ReversePostorder} of the statements. The index is built in one pass
+ * over the cfg, replacing the linear scans that each of those queries would
+ * otherwise perform.<br>
+ * <br>
+ * Instances are built by {@link CFG#getMetadata()}, and are only cached by
+ * cfgs that have been validated and that are not modified afterwards.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class CFGMetadata {
+
+	private final Map<Statement, List<ControlFlowStructure>> containing;
+
+	private final Map<Statement, ControlFlowStructure> guards;
+
+	private final Set<Statement> wideningPoints;
+
+	private final Map<Statement, List<VariableTableEntry>> scopeEnds;
+
+	private final ReversePostorder<Statement> order;
+
+	/**
+	 * Builds the index of the given cfg.
+	 *
+	 * @param cfg the cfg
+	 */
+	CFGMetadata(CFG cfg) {
+		Map<Statement, List<ControlFlowStructure>> containing = new HashMap<>();
+		Map<Statement, ControlFlowStructure> guards = new HashMap<>();
+		Set<Statement> wideningPoints = new HashSet<>();
+		for (ControlFlowStructure struct : cfg.getControlFlowStructures()) {
+			// the first structure for each guard wins, as in a linear scan
+			guards.putIfAbsent(struct.getCondition(), struct);
+			if (struct instanceof Loop)
+				wideningPoints.add(struct.getCondition());
+			for (Statement st : struct.allStatements())
+				if (st != null && struct.contains(st))
+					containing.computeIfAbsent(st, k -> new ArrayList<>(1)).add(struct);
+		}
+
+		// scopes are compared by identity, as in the rest of the analysis
+		Map<Statement, List<VariableTableEntry>> scopeEnds = new IdentityHashMap<>();
+		for (VariableTableEntry entry : cfg.getDescriptor().getVariables())
+			if (entry.getScopeEnd() != null)
+				scopeEnds.computeIfAbsent(entry.getScopeEnd(), k -> new ArrayList<>(1)).add(entry);
+
+		this.containing = containing;
+		this.guards = guards;
+		this.wideningPoints = Collections.unmodifiableSet(wideningPoints);
+		this.scopeEnds = scopeEnds;
+		this.order = cfg.getReversePostorder();
+	}
+
+	/**
+	 * Yields the {@link ControlFlowStructure}s whose body contains the given
+	 * statement, in the order they appear in the cfg.
+	 *
+	 * @param st the statement
+	 *
+	 * @return the structures containing the statement
+	 */
+	public List<ControlFlowStructure> getStructuresContaining(Statement st) {
+		List<ControlFlowStructure> res = containing.get(st);
+		return res == null ? Collections.emptyList() : Collections.unmodifiableList(res);
+	}
+
+	/**
+	 * Yields the {@link ControlFlowStructure} that uses the given statement as
+	 * condition, if any.
+	 *
+	 * @param guard the condition
+	 *
+	 * @return the structure, or {@code null}
+	 */
+	public ControlFlowStructure getStructureOf(Statement guard) {
+		return guards.get(guard);
+	}
+
+	/**
+	 * Yields the statements where widening should be applied, that is, the
+	 * conditions of all the {@link Loop}s of the cfg.
+	 *
+	 * @return the widening points
+	 */
+	public Set<Statement> getWideningPoints() {
+		return wideningPoints;
+	}
+
+	/**
+	 * Yields the variables whose scope ends at the given statement.
+	 *
+	 * @param st the statement
+	 *
+	 * @return the variables going out of scope after {@code st}
+	 */
+	public List<VariableTableEntry> getScopesEndingAt(Statement st) {
+		List<VariableTableEntry> res = scopeEnds.get(st);
+		return res == null ? Collections.emptyList() : Collections.unmodifiableList(res);
+	}
+
+	/**
+	 * Yields the {@link ReversePostorder} of the statements of the cfg.
+	 *
+	 * @return the ordering
+	 */
+	public ReversePostorder<Statement> getReversePostorder() {
+		return order;
+	}
+}
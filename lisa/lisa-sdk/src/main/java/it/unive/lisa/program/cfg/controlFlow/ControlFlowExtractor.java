@@ -7,10 +7,8 @@ import it.unive.lisa.program.cfg.edge.SequentialEdge;
 import it.unive.lisa.program.cfg.edge.TrueEdge;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
-import it.unive.lisa.util.collections.workset.VisitOnceFIFOWorkingSet;
-import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.GraphVisitor;
-import it.unive.lisa.util.datastructures.graph.algorithms.Dominators;
+import it.unive.lisa.util.datastructures.graph.algorithms.LoopNestingForest;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
 import java.util.Collection;
 import java.util.Collections;
@@ -18,12 +16,12 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * An extractor of {@link ControlFlowStructure}s from {@link CFG}s. It uses
- * {@link Dominators} to extract {@link Loop}s, and a graph visiting heuristics
- * to find {@link IfThenElse}s.<br>
+ * the {@link LoopNestingForest} of the cfg to extract {@link Loop}s, and a
+ * graph visiting heuristics to find {@link IfThenElse}s.<br>
  * <br>
  * Extracting control flows should be a last-resort: if the cfg contains
  * arbitrary jumps (like {@code goto, break, continue, ...}) the aforementioned
@@ -53,14 +51,12 @@ public class ControlFlowExtractor {
 		// https://www.cs.utexas.edu/~pingali/CS375/2010Sp/lectures/LoopOptimizations.pdf
 		// http://pages.cs.wisc.edu/~fischer/cs701.f14/finding.loops.html
 		Map<Statement, ControlFlowStructure> result = new HashMap<>();
-		Map<Statement, Set<Statement>> dominators = new Dominators<CFG, Statement, Edge>().build(target);
-		outer: for (Statement conditional : conditionals)
-			for (Statement pred : target.predecessorsOf(conditional))
-				if (dominators.get(pred).contains(conditional)) {
-					result.put(conditional, new LoopReconstructor(target, conditional, pred).build());
-					remaining.remove(conditional);
-					continue outer;
-				}
+		LoopNestingForest<Statement> loops = target.getLoopNestingForest();
+		for (Statement conditional : conditionals)
+			if (loops.isHeader(conditional)) {
+				result.put(conditional, buildLoop(target, conditional, loops));
+				remaining.remove(conditional);
+			}
 
 		// now we scan for if statements
 		for (Statement conditional : remaining)
@@ -69,54 +65,22 @@ public class ControlFlowExtractor {
 		return result.values();
 	}
 
-	private static class LoopReconstructor {
-		private final CFG target;
-		private final Statement conditional;
-		private final Statement tail;
-
-		private LoopReconstructor(CFG target, Statement conditional, Statement tail) {
-			this.target = target;
-			this.conditional = conditional;
-			this.tail = tail;
-		}
-
-		private Loop build() {
-			NodeList<CFG, Statement, Edge> body = new NodeList<>(new SequentialEdge(), false);
-
-			// with empty loops, we can skip the whole reasoning
-			if (tail != conditional) {
-				WorkingSet<Edge> ws = VisitOnceFIFOWorkingSet.mk();
-				target.getIngoingEdges(tail).forEach(ws::push);
-				body.addNode(tail);
-				while (!ws.isEmpty()) {
-					// TODO this does not take into account arbitrary jumps
-					// inside the loop body
-					Edge current = ws.pop();
-					if (current.getSource() != conditional) {
-						body.addNode(current.getSource());
-						body.addEdge(current);
-						target.getIngoingEdges(current.getSource()).forEach(ws::push);
-					}
-				}
+	private static Loop buildLoop(CFG target, Statement conditional, LoopNestingForest<Statement> loops) {
+		// the body of the natural loop includes the nodes of nested loops
+		Collection<Statement> body = new TreeSet<>(loops.getBody(conditional));
+		body.remove(conditional);
+
+		Statement exit = null;
+		for (Statement follower : target.followersOf(conditional))
+			// in empty loops, the conditional is a follower of itself and it
+			// is not in the body of the loop, so we have to manually exclude
+			// it
+			if (follower != conditional && !body.contains(follower)) {
+				exit = follower;
+				break;
 			}
 
-			Edge exit = findExitEdge(body);
-			return new Loop(target.getNodeList(), conditional, exit.getDestination(), body.getNodes());
-		}
-
-		private Edge findExitEdge(NodeList<CFG, Statement, Edge> body) {
-			Edge exit = null;
-			for (Edge out : target.getOutgoingEdges(conditional))
-				// in empty loops, the conditional is a follower of itself
-				// and it is not in the body of the loop, so we have to
-				// manually exclude it
-				if (out.getDestination() != conditional && !body.containsNode(out.getDestination())) {
-					exit = out;
-					break;
-				}
-
-			return exit;
-		}
+		return new Loop(target.getNodeList(), conditional, exit, body);
 	}
 
 	private static class IfReconstructor {
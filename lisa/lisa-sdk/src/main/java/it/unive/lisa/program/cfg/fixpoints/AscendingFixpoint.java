@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.statement.Statement;
 import java.util.Collection;
@@ -47,7 +48,24 @@ public class AscendingFixpoint<A extends AbstractState<A, H, V, T>,
 	 */
 	public AscendingFixpoint(CFG target, int widenAfter,
 			InterproceduralAnalysis<A, H, V, T> interprocedural) {
-		super(target, interprocedural);
+		this(target, widenAfter, interprocedural, false);
+	}
+
+	/**
+	 * Builds the fixpoint implementation.
+	 * 
+	 * @param target          the target of the implementation
+	 * @param widenAfter      the widening threshold
+	 * @param interprocedural the {@link InterproceduralAnalysis} to use for
+	 *                            semantics computations
+	 * @param postStatesOnly  whether or not the post-states of intermediate
+	 *                            expressions should be discarded (see
+	 *                            {@link CFGFixpoint#postStatesOnly})
+	 */
+	public AscendingFixpoint(CFG target, int widenAfter,
+			InterproceduralAnalysis<A, H, V, T> interprocedural,
+			boolean postStatesOnly) {
+		super(target, interprocedural, postStatesOnly);
 		this.widenAfter = widenAfter;
 		this.lubs = new HashMap<>(target.getNodesCount());
 		this.wideningPoints = target.getCycleEntries();
@@ -63,13 +81,18 @@ public class AscendingFixpoint<A extends AbstractState<A, H, V, T>,
 			return old.lub(approx);
 
 		int lub = lubs.computeIfAbsent(node, st -> widenAfter);
-		if (lub == 0)
+		if (lub == 0) {
+			if (PerformanceMetrics.isEnabled()) {
+				PerformanceMetrics.increment("fixpoint.widenings");
+				PerformanceMetrics.increment(PerformanceMetrics.key("fixpoint.widenings", graph));
+			}
 			return CompoundState.of(
 					old.postState.widening(approx.postState),
 					// no need to widen the intermediate expressions as
 					// well: we force convergence on the final post state
 					// only, to recover as much precision as possible
 					old.intermediateStates.lub(approx.intermediateStates));
+		}
 
 		lubs.put(node, --lub);
 		return old.lub(approx);
@@ -52,6 +52,12 @@ public abstract class CFGFixpoint<A extends AbstractState<A, H, V, T>,
 	 */
 	protected final InterproceduralAnalysis<A, H, V, T> interprocedural;
 
+	/**
+	 * Whether or not the post-states of the intermediate expressions of each
+	 * statement are discarded after computing its semantics.
+	 */
+	protected final boolean postStatesOnly;
+
 	/**
 	 * Builds the fixpoint implementation.
 	 * 
@@ -60,13 +66,59 @@ public abstract class CFGFixpoint<A extends AbstractState<A, H, V, T>,
 	 *                            semantics invocation
 	 */
 	public CFGFixpoint(CFG graph, InterproceduralAnalysis<A, H, V, T> interprocedural) {
+		this(graph, interprocedural, false);
+	}
+
+	/**
+	 * Builds the fixpoint implementation. If {@code postStatesOnly} is
+	 * {@code true}, the {@link CompoundState}s produced by
+	 * {@link #semantics(Statement, CompoundState)} will always have an empty
+	 * {@link CompoundState#intermediateStates}: comparisons and joins will
+	 * then only involve the post-states of the statements, and the
+	 * post-states of the intermediate expressions will have to be recomputed
+	 * once the fixpoint has converged (see
+	 * {@link #intermediates(Statement, CompoundState)}).
+	 * 
+	 * @param graph           the graph targeted by this implementation
+	 * @param interprocedural the {@link InterproceduralAnalysis} to use for
+	 *                            semantics invocation
+	 * @param postStatesOnly  whether or not the post-states of intermediate
+	 *                            expressions should be discarded
+	 */
+	public CFGFixpoint(CFG graph, InterproceduralAnalysis<A, H, V, T> interprocedural, boolean postStatesOnly) {
 		this.graph = graph;
 		this.interprocedural = interprocedural;
+		this.postStatesOnly = postStatesOnly;
 	}
 
 	@Override
 	public CompoundState<A, H, V, T> semantics(Statement node,
 			CompoundState<A, H, V, T> entrystate) throws SemanticException {
+		CompoundState<A, H, V, T> result = intermediates(node, entrystate);
+		if (postStatesOnly)
+			// the store will be recomputed after convergence
+			return CompoundState.of(result.postState, new StatementStore<>(result.postState.bottom()));
+		return result;
+	}
+
+	/**
+	 * Computes the semantics of the given statement, always yielding the
+	 * post-states of its intermediate expressions regardless of
+	 * {@link #postStatesOnly}. This can be used to recover the intermediate
+	 * states discarded during the fixpoint computation, starting from the
+	 * converged entry state of the statement.
+	 * 
+	 * @param node       the statement
+	 * @param entrystate the entry state of the statement
+	 * 
+	 * @return the post-state of the statement, together with the ones of its
+	 *             intermediate expressions
+	 * 
+	 * @throws SemanticException if something goes wrong during the
+	 *                               computation
+	 */
+	public CompoundState<A, H, V, T> intermediates(Statement node,
+			CompoundState<A, H, V, T> entrystate) throws SemanticException {
 		StatementStore<A, H, V, T> expressions = new StatementStore<>(entrystate.postState.bottom());
 		AnalysisState<A, H, V, T> approx = node.semantics(entrystate.postState, interprocedural, expressions);
 		if (node instanceof Expression)
@@ -82,11 +134,7 @@ public abstract class CFGFixpoint<A extends AbstractState<A, H, V, T>,
 		AnalysisState<A, H, V, T> approx = edge.traverse(entrystate.postState);
 
 		// we remove out of scope variables here
-		List<VariableTableEntry> toRemove = new LinkedList<>();
-		for (VariableTableEntry entry : graph.getDescriptor().getVariables())
-			if (entry.getScopeEnd() == edge.getSource())
-				toRemove.add(entry);
-
+		List<VariableTableEntry> toRemove = graph.getMetadata().getScopesEndingAt(edge.getSource());
 		Collection<Identifier> ids = new LinkedList<>();
 		for (VariableTableEntry entry : toRemove) {
 			SymbolicExpression v = entry.createReference(graph).getVariable();
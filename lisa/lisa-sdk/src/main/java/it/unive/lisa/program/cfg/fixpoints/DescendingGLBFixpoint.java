@@ -45,7 +45,24 @@ public class DescendingGLBFixpoint<A extends AbstractState<A, H, V, T>,
 	 */
 	public DescendingGLBFixpoint(CFG target, int maxGLBs,
 			InterproceduralAnalysis<A, H, V, T> interprocedural) {
-		super(target, interprocedural);
+		this(target, maxGLBs, interprocedural, false);
+	}
+
+	/**
+	 * Builds the fixpoint implementation.
+	 * 
+	 * @param target          the target of the implementation
+	 * @param maxGLBs         the maximum number of glbs
+	 * @param interprocedural the {@link InterproceduralAnalysis} to use for
+	 *                            semantics computations
+	 * @param postStatesOnly  whether or not the post-states of intermediate
+	 *                            expressions should be discarded (see
+	 *                            {@link CFGFixpoint#postStatesOnly})
+	 */
+	public DescendingGLBFixpoint(CFG target, int maxGLBs,
+			InterproceduralAnalysis<A, H, V, T> interprocedural,
+			boolean postStatesOnly) {
+		super(target, interprocedural, postStatesOnly);
 		this.maxGLBs = maxGLBs;
 		this.glbs = new HashMap<>(target.getNodesCount());
 	}
@@ -41,7 +41,23 @@ public class DescendingNarrowingFixpoint<A extends AbstractState<A, H, V, T>,
 	 */
 	public DescendingNarrowingFixpoint(CFG target,
 			InterproceduralAnalysis<A, H, V, T> interprocedural) {
-		super(target, interprocedural);
+		this(target, interprocedural, false);
+	}
+
+	/**
+	 * Builds the fixpoint implementation.
+	 * 
+	 * @param target          the target of the implementation
+	 * @param interprocedural the {@link InterproceduralAnalysis} to use for
+	 *                            semantics computations
+	 * @param postStatesOnly  whether or not the post-states of intermediate
+	 *                            expressions should be discarded (see
+	 *                            {@link CFGFixpoint#postStatesOnly})
+	 */
+	public DescendingNarrowingFixpoint(CFG target,
+			InterproceduralAnalysis<A, H, V, T> interprocedural,
+			boolean postStatesOnly) {
+		super(target, interprocedural, postStatesOnly);
 		this.wideningPoints = target.getCycleEntries();
 	}
 
@@ -8,6 +8,7 @@ import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.fixpoints.CFGFixpoint.CompoundState;
@@ -17,8 +18,8 @@ import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint.FixpointImplementation;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -74,66 +75,80 @@ public class OptimizedFixpoint<A extends AbstractState<A, H, V, T>,
 			FixpointImplementation<Statement, Edge, CompoundState<A, H, V, T>> implementation,
 			Map<Statement, CompoundState<A, H, V, T>> initialResult)
 			throws FixpointException {
-		Map<Statement, CompoundState<A, H, V, T>> result = initialResult == null
-				? new HashMap<>(graph.getNodesCount())
-				: new HashMap<>(initialResult);
-
-		Map<Statement, Statement[]> bbs = graph.getBasicBlocks();
-		startingPoints.keySet().forEach(ws::push);
-
-		Set<Statement> toProcess = null;
-		if (forceFullEvaluation)
-			toProcess = new HashSet<>(bbs.keySet());
-
-		CompoundState<A, H, V, T> newApprox;
-		while (!ws.isEmpty()) {
-			Statement current = ws.pop();
-
-			if (current == null)
-				throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
-			if (!graph.containsNode(current))
-				throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
-
-			Statement[] bb = bbs.get(current);
-			if (bb == null)
-				throw new FixpointException("'" + current + "' is not the leader of a basic block of '" + graph + "'");
-
-			CompoundState<A, H, V, T> entrystate = getEntryState(
-					current,
-					startingPoints.get(current),
-					implementation,
-					result);
-			if (entrystate == null)
-				throw new FixpointException("'" + current + "' does not have an entry state");
-
-			newApprox = analyze(result, implementation, entrystate, bb);
-
-			Statement closing = bb[bb.length - 1];
-			CompoundState<A, H, V, T> oldApprox = result.get(closing);
-			if (oldApprox != null)
-				try {
-					newApprox = implementation.operation(closing, newApprox, oldApprox);
-				} catch (Exception e) {
-					throw new FixpointException(format(ERROR, "joining states", closing, graph), e);
-				}
+		Map<Statement, CompoundState<A, H, V, T>> result = super.fixpoint(
+				startingPoints,
+				ws,
+				implementation,
+				initialResult);
+		cleanup(result);
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Since this fixpoint works on basic blocks, the given
+	 * {@link WeakTopologicalOrder} must be defined over the leaders of the
+	 * basic blocks of the target graph (see
+	 * {@link CFG#getBasicBlocksWeakTopologicalOrder()}).
+	 */
+	@Override
+	public Map<Statement, CompoundState<A, H, V, T>> fixpoint(
+			Map<Statement, CompoundState<A, H, V, T>> startingPoints,
+			WeakTopologicalOrder<Statement> wto,
+			FixpointImplementation<Statement, Edge, CompoundState<A, H, V, T>> implementation,
+			Map<Statement, CompoundState<A, H, V, T>> initialResult)
+			throws FixpointException {
+		Map<Statement, CompoundState<A, H, V, T>> result = super.fixpoint(
+				startingPoints,
+				wto,
+				implementation,
+				initialResult);
+		cleanup(result);
+		return result;
+	}
 
+	@Override
+	protected Statement process(Statement current,
+			CompoundState<A, H, V, T> entrystate,
+			FixpointImplementation<Statement, Edge, CompoundState<A, H, V, T>> implementation,
+			Map<Statement, CompoundState<A, H, V, T>> result,
+			Set<Statement> toProcess)
+			throws FixpointException {
+		Statement[] bb = graph.getBasicBlocks().get(current);
+		if (bb == null)
+			throw new FixpointException("'" + current + "' is not the leader of a basic block of '" + graph + "'");
+
+		CompoundState<A, H, V, T> newApprox = analyze(result, implementation, entrystate, bb);
+
+		Statement closing = bb[bb.length - 1];
+		CompoundState<A, H, V, T> oldApprox = result.get(closing);
+		if (oldApprox != null)
 			try {
-				// we go on if we were asked to analyze all nodes at least once
-				if ((forceFullEvaluation && toProcess.remove(current))
-						// or if this is the first time we analyze this node
-						|| oldApprox == null
-						// or if we got a result that should not be considered
-						// equal
-						|| !implementation.equality(closing, newApprox, oldApprox)) {
-					result.put(closing, newApprox);
-					for (Statement instr : graph.followersOf(closing))
-						ws.push(instr);
-				}
+				newApprox = implementation.operation(closing, newApprox, oldApprox);
 			} catch (Exception e) {
-				throw new FixpointException(format(ERROR, "updating result", closing, graph), e);
+				throw new FixpointException(format(ERROR, "joining states", closing, graph), e);
 			}
+
+		try {
+			// we go on if we were asked to analyze all nodes at least once
+			if ((forceFullEvaluation && toProcess.remove(current))
+					// or if this is the first time we analyze this node
+					|| oldApprox == null
+					// or if we got a result that should not be considered
+					// equal
+					|| !implementation.equality(closing, newApprox, oldApprox)) {
+				result.put(closing, newApprox);
+				return closing;
+			}
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "updating result", closing, graph), e);
 		}
 
+		return null;
+	}
+
+	private void cleanup(Map<Statement, CompoundState<A, H, V, T>> result) {
 		// cleanup: theoretically, we can reconstruct the full results by
 		// storing only the pre-states of the entrypoints and the post-states of
 		// the widening-points. we additionally store the post-states of
@@ -146,8 +161,10 @@ public class OptimizedFixpoint<A extends AbstractState<A, H, V, T>,
 			if (!wideningPoints.contains(st) && !st.stopsExecution() && (hotspots == null || !hotspots.test(st)))
 				cleanup.add(st);
 		cleanup.forEach(result::remove);
-
-		return result;
+		if (PerformanceMetrics.isEnabled()) {
+			PerformanceMetrics.add("fixpoint.optimized.discarded", cleanup.size());
+			PerformanceMetrics.add("fixpoint.optimized.stored", result.size());
+		}
 	}
 
 	private CompoundState<A, H, V, T> analyze(
@@ -0,0 +1,148 @@
+package it.unive.lisa.program.cfg.fixpoints;
+
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.ReversePostorder;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority working set for {@link Statement}s, where the next statement to
+ * be processed is always the one that comes first in the
+ * {@link ReversePostorder} of its {@link CFG} (see
+ * {@link CFG#getReversePostorder()}), regardless of the order of insertion.
+ * This lets statements that join several branches be processed only after all
+ * their (forward) predecessors, reducing the number of times they need to be
+ * evaluated. The same statement cannot appear more than once in the working
+ * set at any time.<br>
+ * <br>
+ * Pending statements are tracked through a bit set indexed by their position
+ * in the ordering, that is retrieved from the cfg of the first statement that
+ * is pushed. Since the ordering is only meaningful within a cfg, all the
+ * statements in the working set must belong to the same cfg. This
+ * implementation is <b>not</b> thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class ReversePostorderWorkingSet implements WorkingSet<Statement> {
+
+	private final BitSet pending;
+
+	private CFG cfg;
+
+	private ReversePostorder<Statement> order;
+
+	private int size;
+
+	/**
+	 * A lower bound to the smallest index in {@link #pending}, used to avoid
+	 * scanning the bit set from its beginning on each pop.
+	 */
+	private int first;
+
+	private ReversePostorderWorkingSet() {
+		pending = new BitSet();
+	}
+
+	/**
+	 * Yields a new, empty working set.
+	 *
+	 * @return the new working set
+	 */
+	public static ReversePostorderWorkingSet mk() {
+		return new ReversePostorderWorkingSet();
+	}
+
+	@Override
+	public void push(Statement e) {
+		CFG target = e.getCFG();
+		if (cfg != target) {
+			if (size > 0)
+				throw new IllegalArgumentException(
+						"Cannot push " + e + " since it belongs to a cfg different from the one of " + peek());
+			cfg = target;
+			order = target.getReversePostorder();
+			first = 0;
+		}
+
+		int idx = order.indexOf(e);
+		if (idx < 0)
+			throw new IllegalArgumentException(e + " is not part of " + cfg);
+		if (pending.get(idx))
+			return;
+
+		pending.set(idx);
+		size++;
+		if (idx < first)
+			first = idx;
+	}
+
+	@Override
+	public Statement pop() {
+		if (size == 0)
+			throw new NoSuchElementException();
+
+		int idx = pending.nextSetBit(first);
+		pending.clear(idx);
+		size--;
+		first = idx;
+		return order.get(idx);
+	}
+
+	@Override
+	public Statement peek() {
+		if (size == 0)
+			return null;
+
+		first = pending.nextSetBit(first);
+		return order.get(first);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Collection<Statement> getContents() {
+		List<Statement> contents = new ArrayList<>(size);
+		for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1))
+			contents.add(order.get(i));
+		return contents;
+	}
+
+	@Override
+	public String toString() {
+		return getContents().toString();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + System.identityHashCode(cfg);
+		result = prime * result + pending.hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ReversePostorderWorkingSet other = (ReversePostorderWorkingSet) obj;
+		return cfg == other.cfg && pending.equals(other.pending);
+	}
+}
@@ -29,4 +29,17 @@ public interface HierarcyTraversalStrategy {
 	 *             be visited
 	 */
 	Iterable<CompilationUnit> traverse(Statement st, CompilationUnit start);
+
+	/**
+	 * Yields whether or not the units returned by
+	 * {@link #traverse(Statement, CompilationUnit)} depend on the statement
+	 * for which the traversal is requested. If this method returns
+	 * {@code false}, the units visited starting from a given unit can be
+	 * computed once and reused for all statements. Defaults to {@code true}.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	default boolean dependsOnStatement() {
+		return true;
+	}
 }
@@ -36,6 +36,11 @@ public class SingleInheritanceTraversalStrategy implements HierarcyTraversalStra
 		};
 	}
 
+	@Override
+	public boolean dependsOnStatement() {
+		return false;
+	}
+
 	private class SingleInheritanceIterator implements Iterator<CompilationUnit> {
 
 		private CompilationUnit current;
@@ -9,15 +9,20 @@ import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeSystem;
+import java.io.Serializable;
 import java.util.Objects;
 import java.util.Set;
 
 /**
  * A symbolic expression that can be evaluated by {@link SemanticDomain}s.
+ * Symbolic expressions are immutable: runtime types can be attached to an
+ * expression only while building it, and annotating an existing expression
+ * through {@link #withRuntimeTypes(Set)} yields a new one. This makes it safe
+ * to share expressions between analysis states, and between threads.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public abstract class SymbolicExpression {
+public abstract class SymbolicExpression implements Cloneable, Serializable {
 
 	/**
 	 * The code location of the statement that has generated this symbolic
@@ -32,7 +37,9 @@ public abstract class SymbolicExpression {
 	private final Type staticType;
 
 	/**
-	 * The runtime types of this expression
+	 * The runtime types of this expression. This is not final only to enable
+	 * {@link #withRuntimeTypes(Set)} to annotate copies, and it must never be
+	 * modified after the expression has been built.
 	 */
 	private Set<Type> types;
 
@@ -60,9 +67,9 @@ public abstract class SymbolicExpression {
 	}
 
 	/**
-	 * Yields the runtime types of this expression. If
-	 * {@link #setRuntimeTypes(Set)} has never been called before, this method
-	 * will return all instances of the static type.
+	 * Yields the runtime types of this expression. If no runtime types have
+	 * been attached to this expression, this method will return all instances
+	 * of the static type.
 	 * 
 	 * @param types the type system that knows about the types of the program
 	 *                  point where this method is called. If
@@ -80,14 +87,36 @@ public abstract class SymbolicExpression {
 	}
 
 	/**
-	 * Sets the runtime types to the given set of types.
+	 * Sets the runtime types to the given set of types. This method must only
+	 * be invoked by subclasses while building the expression, that is, before
+	 * any other object can reference it: use {@link #withRuntimeTypes(Set)}
+	 * for annotating existing expressions.
 	 * 
 	 * @param types the runtime types
 	 */
-	public void setRuntimeTypes(Set<Type> types) {
+	protected void setRuntimeTypes(Set<Type> types) {
 		this.types = types;
 	}
 
+	/**
+	 * Yields a copy of this expression having the given runtime types. The
+	 * copy is equal to this expression, that is left untouched.
+	 * 
+	 * @param types the runtime types
+	 * 
+	 * @return the annotated copy of this expression
+	 */
+	public SymbolicExpression withRuntimeTypes(Set<Type> types) {
+		try {
+			SymbolicExpression copy = (SymbolicExpression) clone();
+			copy.types = types;
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			// cannot happen, as symbolic expressions are cloneable
+			throw new IllegalStateException("Unable to copy " + this, e);
+		}
+	}
+
 	/**
 	 * Yields {@code true} if this expression's runtime types have been set
 	 * (even to the empty set). If this method returns {@code false}, then
@@ -104,8 +133,8 @@ public abstract class SymbolicExpression {
 	/**
 	 * Yields the dynamic type of this expression, that is, the most specific
 	 * common supertype of all its runtime types (available through
-	 * {@link #getRuntimeTypes(TypeSystem)}. If {@link #setRuntimeTypes(Set)}
-	 * has never been called before, this method will return the static type.
+	 * {@link #getRuntimeTypes(TypeSystem)}. If no runtime types have been
+	 * attached to this expression, this method will return the static type.
 	 * 
 	 * @return the dynamic type of this expression
 	 */
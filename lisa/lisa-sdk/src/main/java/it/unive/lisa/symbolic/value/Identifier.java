@@ -6,6 +6,7 @@ import it.unive.lisa.program.annotations.Annotation;
 import it.unive.lisa.program.annotations.Annotations;
 import it.unive.lisa.program.cfg.CodeLocation;
 import it.unive.lisa.type.Type;
+import java.util.Set;
 
 /**
  * An identifier of a program variable, representing either a program variable
@@ -48,6 +49,11 @@ public abstract class Identifier extends ValueExpression {
 		this.annotations = annotations;
 	}
 
+	@Override
+	public Identifier withRuntimeTypes(Set<Type> types) {
+		return (Identifier) super.withRuntimeTypes(types);
+	}
+
 	/**
 	 * Yields the name of this identifier.
 	 * 
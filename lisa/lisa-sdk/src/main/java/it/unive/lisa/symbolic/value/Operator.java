@@ -1,6 +1,7 @@
 package it.unive.lisa.symbolic.value;
 
 import it.unive.lisa.symbolic.SymbolicExpression;
+import java.io.Serializable;
 
 /**
  * An operator that causes a transformation of one or more
@@ -8,6 +9,6 @@ import it.unive.lisa.symbolic.SymbolicExpression;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public interface Operator {
+public interface Operator extends Serializable {
 
 }
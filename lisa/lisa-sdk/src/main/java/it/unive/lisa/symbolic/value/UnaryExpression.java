@@ -78,7 +78,7 @@ public class UnaryExpression extends ValueExpression {
 					right.removeNegations(),
 					oppositeOp, getCodeLocation());
 			if (hasRuntimeTypes())
-				expr.setRuntimeTypes(getRuntimeTypes(null));
+				return expr.withRuntimeTypes(getRuntimeTypes(null));
 			return expr;
 		}
 
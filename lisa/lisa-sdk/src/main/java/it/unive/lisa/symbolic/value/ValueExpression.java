@@ -7,6 +7,7 @@ import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.heap.HeapExpression;
 import it.unive.lisa.symbolic.value.operator.unary.LogicalNegation;
 import it.unive.lisa.type.Type;
+import java.util.Set;
 
 /**
  * A symbolic expression that represents an operation on the program's state.
@@ -28,6 +29,11 @@ public abstract class ValueExpression extends SymbolicExpression {
 		super(staticType, location);
 	}
 
+	@Override
+	public ValueExpression withRuntimeTypes(Set<Type> types) {
+		return (ValueExpression) super.withRuntimeTypes(types);
+	}
+
 	/**
 	 * Yields the same value expression removing any negation, namely the
 	 * {@link LogicalNegation} operator, preserving its semantics, if possible.
@@ -1,18 +1,28 @@
 package it.unive.lisa.type;
 
 import it.unive.lisa.program.Program;
-import java.util.HashSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
 /**
  * A type system, knowing about the types that can appear in a {@link Program}.
  * Types have to be registered through {@link #registerType(Type)} before the
  * analysis begins for them to be known to the system, and consequently to the
- * rest of the analysis.
+ * rest of the analysis.<br>
+ * <br>
+ * Sets of types produced by a type system (e.g., through {@link #getTypes()},
+ * {@link #cast(Set, Set)} or {@link #mkTypeSet(Set)}) are {@link ExternalSet}s
+ * backed by a bitset over a cache that is private to the type system: set
+ * operations between them (e.g., unions and inclusion checks) are thus
+ * word-wise operations on the bitsets. Results of
+ * {@link Type#canBeAssignedTo(Type)} are also memoized, in the form of a
+ * matrix of bitsets that is filled lazily as casts and conversions are
+ * evaluated.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -23,12 +33,30 @@ public abstract class TypeSystem {
 	 */
 	private final Map<String, Type> types;
 
+	/**
+	 * The cache backing all the sets of types produced by this type system.
+	 */
+	private final ExternalSetCache<Type> cache;
+
+	/**
+	 * The registered types, as a set backed by {@link #cache}.
+	 */
+	private final ExternalSet<Type> all;
+
+	/**
+	 * The rows of the assignability matrix, indexed by target type.
+	 */
+	private final Map<Type, AssignabilityRow> assignability;
+
 	/**
 	 * Builds an empty type system, where only {@link #getBooleanType()},
 	 * {@link #getStringType()} and {@link #getIntegerType()} are registered.
 	 */
 	protected TypeSystem() {
 		this.types = new TreeMap<String, Type>();
+		this.cache = new ExternalSetCache<>();
+		this.all = cache.mkEmptySet();
+		this.assignability = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -38,7 +66,55 @@ public abstract class TypeSystem {
 	 * @return the collection of types
 	 */
 	public Set<Type> getTypes() {
-		return new HashSet<>(types.values());
+		synchronized (all) {
+			return all.copy();
+		}
+	}
+
+	/**
+	 * Yields a set of types backed by the cache of this type system,
+	 * containing the given types. If {@code types} is already backed by such
+	 * cache, it is returned as-is.
+	 * 
+	 * @param types the types
+	 * 
+	 * @return a set containing {@code types} that is backed by the cache of
+	 *             this type system
+	 */
+	public ExternalSet<Type> mkTypeSet(Set<Type> types) {
+		if (types instanceof ExternalSet && ((ExternalSet<Type>) types).getCache() == cache)
+			return (ExternalSet<Type>) types;
+		return cache.mkSet(types);
+	}
+
+	/**
+	 * Yields whether or not the given set of types contains exactly all the
+	 * types registered in this type system.
+	 * 
+	 * @param types the types
+	 * 
+	 * @return {@code true} if {@code types} are all the registered types
+	 */
+	public boolean isAllTypes(Set<Type> types) {
+		synchronized (all) {
+			return all.equals(mkTypeSet(types));
+		}
+	}
+
+	/**
+	 * Yields the subset of {@code types} containing the types that can be
+	 * assigned to {@code target}, according to
+	 * {@link Type#canBeAssignedTo(Type)}. Results of the assignability checks
+	 * are memoized.
+	 * 
+	 * @param types  the types to filter
+	 * @param target the target type
+	 * 
+	 * @return the types that can be assigned to {@code target}
+	 */
+	public ExternalSet<Type> assignableTo(Set<Type> types, Type target) {
+		ExternalSet<Type> set = mkTypeSet(types);
+		return assignability.computeIfAbsent(target, AssignabilityRow::new).filter(set);
 	}
 
 	/**
@@ -62,7 +138,12 @@ public abstract class TypeSystem {
 	 *             {@code false}, the given type is discarded.
 	 */
 	public final boolean registerType(Type type) {
-		return types.putIfAbsent(type.toString(), type) == null;
+		if (types.putIfAbsent(type.toString(), type) != null)
+			return false;
+		synchronized (all) {
+			all.add(type);
+		}
+		return true;
 	}
 
 	/**
@@ -109,16 +190,14 @@ public abstract class TypeSystem {
 		if (mightFail != null)
 			mightFail.set(false);
 
-		Set<Type> result = new HashSet<>();
-		Set<Type> filtered = tokens.stream().filter(Type::isTypeTokenType)
-				.flatMap(t -> t.asTypeTokenType().getTypes().stream())
-				.collect(Collectors.toSet());
-		for (Type token : filtered)
-			for (Type t : types)
-				if (t.canBeAssignedTo(token))
-					result.add(t);
-				else if (mightFail != null)
-					mightFail.set(true);
+		ExternalSet<Type> set = mkTypeSet(types);
+		ExternalSet<Type> result = cache.mkEmptySet();
+		for (Type token : tokenTypes(tokens)) {
+			ExternalSet<Type> assignable = assignableTo(set, token);
+			result.addAll(assignable);
+			if (mightFail != null && assignable.size() != set.size())
+				mightFail.set(true);
+		}
 
 		return result;
 	}
@@ -138,16 +217,20 @@ public abstract class TypeSystem {
 	 * @return the set of possible types after the type conversion
 	 */
 	public Set<Type> convert(Set<Type> types, Set<Type> tokens) {
-		Set<Type> result = new HashSet<>();
-		Set<Type> filtered = tokens.stream().filter(Type::isTypeTokenType)
-				.flatMap(t -> t.asTypeTokenType().getTypes().stream())
-				.collect(Collectors.toSet());
+		ExternalSet<Type> set = mkTypeSet(types);
+		ExternalSet<Type> result = cache.mkEmptySet();
+		for (Type token : tokenTypes(tokens))
+			if (!assignableTo(set, token).isEmpty())
+				result.add(token);
 
-		for (Type token : filtered)
-			for (Type t : types)
-				if (t.canBeAssignedTo(token))
-					result.add(token);
+		return result;
+	}
 
+	private ExternalSet<Type> tokenTypes(Set<Type> tokens) {
+		ExternalSet<Type> result = cache.mkEmptySet();
+		for (Type token : tokens)
+			if (token.isTypeTokenType())
+				result.addAll(token.asTypeTokenType().getTypes());
 		return result;
 	}
 
@@ -185,4 +268,39 @@ public abstract class TypeSystem {
 	 * @return {@code true} if and only if the given type can be referenced
 	 */
 	public abstract boolean canBeReferenced(Type type);
+
+	/**
+	 * A row of the assignability matrix, that lazily records which types can
+	 * be assigned to a given target type.
+	 */
+	private class AssignabilityRow {
+
+		private final Type target;
+
+		/**
+		 * The types whose assignability to {@link #target} has been computed.
+		 */
+		private final ExternalSet<Type> known;
+
+		/**
+		 * The types in {@link #known} that can be assigned to {@link #target}.
+		 */
+		private final ExternalSet<Type> assignable;
+
+		private AssignabilityRow(Type target) {
+			this.target = target;
+			this.known = cache.mkEmptySet();
+			this.assignable = cache.mkEmptySet();
+		}
+
+		private synchronized ExternalSet<Type> filter(ExternalSet<Type> types) {
+			if (!known.contains(types))
+				for (Type t : types.difference(known)) {
+					known.add(t);
+					if (t.canBeAssignedTo(target))
+						assignable.add(t);
+				}
+			return types.intersection(assignable);
+		}
+	}
 }
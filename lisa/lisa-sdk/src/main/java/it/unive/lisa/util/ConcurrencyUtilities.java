@@ -0,0 +1,83 @@
+package it.unive.lisa.util;
+
+import it.unive.lisa.AnalysisExecutionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Utility methods for executing independent tasks on multiple threads.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class ConcurrencyUtilities {
+
+	private ConcurrencyUtilities() {
+	}
+
+	/**
+	 * Executes {@code action} on each of the given elements. If
+	 * {@code parallelism} is not greater than {@code 1}, the actions are
+	 * executed sequentially on the calling thread, in iteration order.
+	 * Otherwise, each action is a separate task executed on a pool of
+	 * {@code parallelism} threads with a bounded queue: whenever the pool is
+	 * saturated, the calling thread executes the task itself. This also
+	 * throttles the iteration over {@code elements}, that is never consumed
+	 * far ahead of the running tasks. This method returns only when all
+	 * actions have completed.<br>
+	 * <br>
+	 * Runtime exceptions and errors thrown by an action are rethrown as-is,
+	 * while other failures and interruptions are wrapped into an
+	 * {@link AnalysisExecutionException} whose message is built from
+	 * {@code activity} (e.g., {@code "dumping files"}).
+	 * 
+	 * @param <T>         the type of the elements
+	 * @param elements    the elements to process
+	 * @param action      the action to execute on each element
+	 * @param parallelism the maximum number of threads to use
+	 * @param activity    a short description of what the actions do, used
+	 *                        in error messages
+	 * 
+	 * @throws AnalysisExecutionException if the calling thread is interrupted
+	 *                                        or an action fails with a
+	 *                                        checked exception
+	 */
+	public static <T> void forEach(Iterable<T> elements, Consumer<T> action, int parallelism, String activity) {
+		if (parallelism <= 1) {
+			for (T element : elements)
+				action.accept(element);
+			return;
+		}
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				parallelism,
+				parallelism,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(parallelism),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (T element : elements)
+				futures.add(executor.submit(() -> action.accept(element)));
+			for (Future<?> future : futures)
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisExecutionException("Interrupted while " + activity, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new AnalysisExecutionException("Error while " + activity, e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package it.unive.lisa.util.collections;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A hash-consing table, that maps each value to a canonical instance among
+ * the ones that are equal to it (according to {@link Object#equals(Object)}).
+ * Canonical instances are only weakly referenced, so that they can be garbage
+ * collected as soon as they are no longer used outside of the table. This
+ * class is thread-safe.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <T> the type of values stored in the table
+ */
+public class HashConsTable<T> {
+
+	private final Map<T, WeakReference<T>> table = new WeakHashMap<>();
+
+	/**
+	 * Yields the canonical instance of the given value, that is, the first
+	 * value equal to {@code value} that has been interned in this table and
+	 * that has not been garbage collected yet. If no such value exists,
+	 * {@code value} becomes the canonical instance and it is returned.
+	 * 
+	 * @param value the value to intern
+	 * 
+	 * @return the canonical instance of {@code value}
+	 */
+	public synchronized T intern(T value) {
+		WeakReference<T> ref = table.get(value);
+		T canonical = ref == null ? null : ref.get();
+		if (canonical != null)
+			return canonical;
+		table.put(value, new WeakReference<>(value));
+		return value;
+	}
+
+	/**
+	 * Yields the number of canonical instances currently in this table.
+	 * 
+	 * @return the number of instances
+	 */
+	public synchronized int size() {
+		return table.size();
+	}
+
+	/**
+	 * Removes all the canonical instances from this table.
+	 */
+	public synchronized void clear() {
+		table.clear();
+	}
+}
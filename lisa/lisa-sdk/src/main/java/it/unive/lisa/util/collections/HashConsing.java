@@ -0,0 +1,84 @@
+package it.unive.lisa.util.collections;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global, opt-in hash-consing of immutable values (e.g., abstract values).
+ * When enabled, {@link #intern(Object)} maps
+ * structurally equal values to the same instance, using a
+ * {@link HashConsTable} for each concrete class of values. This reduces the
+ * memory needed to store analysis results, and makes reference-equality
+ * checks (as the ones performed by lattice operators and by
+ * {@link PersistentHashMap#unsharedKeys(PersistentHashMap, java.util.function.Consumer)})
+ * succeed more often. When disabled (the default), {@link #intern(Object)}
+ * returns its argument.<br>
+ * <br>
+ * Only values that are never modified after their creation can be interned,
+ * and their {@link Object#equals(Object)} and {@link Object#hashCode()} must
+ * be consistent with their structure. Since the tables are global, enabling
+ * hash-consing affects all the analyses running in the same JVM. To let
+ * concurrent analyses enable and disable it independently, hash-consing is
+ * enabled as long as there are more calls to {@code setEnabled(true)} than to
+ * {@code setEnabled(false)}, and the tables are emptied only when the last
+ * user disables it.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class HashConsing {
+
+	private static final Map<Class<?>, HashConsTable<Object>> TABLES = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled = false;
+
+	private static int users = 0;
+
+	private HashConsing() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Yields whether or not hash-consing is enabled.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Registers ({@code enabled == true}) or unregisters
+	 * ({@code enabled == false}) a user of hash-consing. Hash-consing is
+	 * enabled while at least one user is registered, and the tables are
+	 * emptied when the last one is unregistered. Unregistering when no user
+	 * is registered has no effect.
+	 * 
+	 * @param enabled whether or not hash-consing should be enabled
+	 */
+	public static synchronized void setEnabled(boolean enabled) {
+		if (enabled)
+			users++;
+		else if (users > 0)
+			users--;
+		HashConsing.enabled = users > 0;
+		if (!HashConsing.enabled)
+			TABLES.clear();
+	}
+
+	/**
+	 * Yields the canonical instance of the given value if hash-consing is
+	 * enabled (see {@link HashConsTable#intern(Object)}), or the value itself
+	 * otherwise.
+	 * 
+	 * @param <T>   the type of the value
+	 * @param value the value to intern, can be {@code null}
+	 * 
+	 * @return the canonical instance of {@code value}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T intern(T value) {
+		if (!enabled || value == null)
+			return value;
+		return (T) TABLES.computeIfAbsent(value.getClass(), c -> new HashConsTable<>()).intern(value);
+	}
+}
@@ -0,0 +1,651 @@
+package it.unive.lisa.util.collections;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Map} backed by a persistent hash array mapped trie. Copying an
+ * instance through {@link #PersistentHashMap(Map)} takes constant time, as the
+ * copy shares the whole trie with the original map. Modifications performed on
+ * either map after the copy only duplicate the path of the trie leading to the
+ * modified entry, leaving the rest of the structure shared. Parts of the trie
+ * that are not shared (e.g., the ones created by a sequence of insertions in a
+ * fresh map) are instead modified in place, so that building a map from scratch
+ * costs as much as building a {@link java.util.HashMap}.<br>
+ * <br>
+ * Since maps derived from each other share the untouched parts of their tries,
+ * {@link #unsharedKeys(PersistentHashMap, Consumer)} can compare two such maps
+ * skipping shared subtrees by reference equality.<br>
+ * <br>
+ * Iteration happens on a snapshot of the map taken when the iterator is
+ * created. This class is not thread-safe: concurrent modifications of the same
+ * instance must be externally synchronized, while distinct instances sharing
+ * parts of their tries can be freely used by different threads.<br>
+ * <br>
+ * Serialization writes the mappings one by one, and deserialization inserts
+ * them in a fresh trie: the positions of the keys are computed again, as their
+ * hash codes might differ between the two executions.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @see <a href="https://infoscience.epfl.ch/record/64398">P. Bagwell, Ideal
+ *          Hash Trees</a>
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	/**
+	 * Placeholder used to store {@code null} keys inside the trie, as
+	 * {@code null} is used to mark slots containing child nodes.
+	 */
+	private static final Object NULL_KEY = new Object();
+
+	/**
+	 * Placeholder returned by lookups that do not find the key.
+	 */
+	private static final Object NOT_FOUND = new Object();
+
+	private transient Node root;
+
+	private transient int size;
+
+	/**
+	 * The token identifying the nodes of the trie that are exclusively owned
+	 * by this map, and that can thus be modified in place.
+	 */
+	private transient Object edit;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public PersistentHashMap() {
+		this.root = null;
+		this.size = 0;
+		this.edit = new Object();
+	}
+
+	/**
+	 * Builds a map containing the same mappings of the given one. If
+	 * {@code other} is a {@link PersistentHashMap}, this operation runs in
+	 * constant time and the two maps will share their tries.
+	 *
+	 * @param other the map to copy
+	 */
+	@SuppressWarnings("unchecked")
+	public PersistentHashMap(Map<? extends K, ? extends V> other) {
+		this();
+		if (other instanceof PersistentHashMap) {
+			PersistentHashMap<K, V> o = (PersistentHashMap<K, V>) other;
+			this.root = o.root;
+			this.size = o.size;
+			// nodes are now shared: none of the two maps can modify them in
+			// place anymore
+			o.edit = new Object();
+		} else
+			putAll(other);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return lookup(key) != NOT_FOUND;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		Object res = lookup(key);
+		return res == NOT_FOUND ? null : (V) res;
+	}
+
+	private Object lookup(Object key) {
+		if (root == null)
+			return NOT_FOUND;
+		Object k = mask(key);
+		return root.find(0, hash(k), k);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(K key, V value) {
+		Object k = mask(key);
+		Box box = new Box();
+		if (root == null)
+			root = new BitmapNode(edit, 0, new Object[0]);
+		root = root.put(edit, 0, hash(k), k, value, box);
+		if (box.resized)
+			size++;
+		return (V) box.previous;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		if (root == null)
+			return null;
+		Object k = mask(key);
+		Box box = new Box();
+		root = root.remove(edit, 0, hash(k), k, box);
+		if (box.resized)
+			size--;
+		return (V) box.previous;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (Entry<K, V> entry : entrySet()) {
+			out.writeObject(entry.getKey());
+			out.writeObject(entry.getValue());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		edit = new Object();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++)
+			put((K) in.readObject(), (V) in.readObject());
+	}
+
+	/**
+	 * Feeds {@code consumer} with the keys of this map that might not be mapped
+	 * to the same value (compared by reference) in {@code other}. Subtrees
+	 * shared by the two maps are skipped without being visited, making this
+	 * operation proportional to the number of differences between maps derived
+	 * from each other. The keys fed to the consumer are a superset of the ones
+	 * of this map that are not mapped to the same value in {@code other}.
+	 *
+	 * @param other    the other map
+	 * @param consumer the consumer of the keys
+	 */
+	@SuppressWarnings("unchecked")
+	public void unsharedKeys(PersistentHashMap<K, ?> other, Consumer<K> consumer) {
+		if (root != null)
+			unshared(root, other.root, 0, k -> consumer.accept((K) unmask(k)));
+	}
+
+	/**
+	 * Yields whether or not this map shares its whole trie with the given one,
+	 * thus being equal to it.
+	 *
+	 * @param other the other map
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean sharesStructureWith(PersistentHashMap<?, ?> other) {
+		return root == other.root;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof PersistentHashMap && sharesStructureWith((PersistentHashMap<?, ?>) o))
+			return true;
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	private static void unshared(Node a, Node b, int shift, Consumer<Object> consumer) {
+		if (a == b)
+			return;
+
+		if (a instanceof BitmapNode && b instanceof BitmapNode) {
+			BitmapNode left = (BitmapNode) a, right = (BitmapNode) b;
+			for (int i = 0; i < left.array.length; i += 2)
+				if (left.array[i] == null) {
+					Node child = (Node) left.array[i + 1];
+					int bit = child.hashAt(shift);
+					if ((right.bitmap & bit) != 0) {
+						int idx = 2 * right.index(bit);
+						if (right.array[idx] == null) {
+							unshared(child, (Node) right.array[idx + 1], shift + BITS, consumer);
+							continue;
+						}
+					}
+					child.forEach((k, v) -> notSame(k, v, b, shift, consumer));
+				} else
+					notSame(left.array[i], left.array[i + 1], b, shift, consumer);
+		} else
+			a.forEach((k, v) -> notSame(k, v, b, shift, consumer));
+	}
+
+	private static void notSame(Object key, Object value, Node other, int shift, Consumer<Object> consumer) {
+		if (other == null || other.find(shift, hash(key), key) != value)
+			consumer.accept(key);
+	}
+
+	private static Object mask(Object key) {
+		return key == null ? NULL_KEY : key;
+	}
+
+	private static Object unmask(Object key) {
+		return key == NULL_KEY ? null : key;
+	}
+
+	private static int hash(Object maskedKey) {
+		if (maskedKey == NULL_KEY)
+			return 0;
+		int h = maskedKey.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	private static Node pair(Object edit, int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+		int h1 = hash(k1);
+		if (h1 == h2)
+			return new CollisionNode(edit, h1, new Object[] { k1, v1, k2, v2 });
+		Box box = new Box();
+		return new BitmapNode(edit, 0, new Object[0])
+				.put(edit, shift, h1, k1, v1, box)
+				.put(edit, shift, h2, k2, v2, box);
+	}
+
+	private static Object[] insertPair(Object[] array, int index, Object key, Object value) {
+		Object[] res = new Object[array.length + 2];
+		System.arraycopy(array, 0, res, 0, index);
+		res[index] = key;
+		res[index + 1] = value;
+		System.arraycopy(array, index, res, index + 2, array.length - index);
+		return res;
+	}
+
+	private static Object[] removePair(Object[] array, int index) {
+		Object[] res = new Object[array.length - 2];
+		System.arraycopy(array, 0, res, 0, index);
+		System.arraycopy(array, index + 2, res, index, array.length - index - 2);
+		return res;
+	}
+
+	/**
+	 * Mutable holder for the side effects of trie operations.
+	 */
+	private static final class Box {
+		private boolean resized;
+		private Object previous;
+	}
+
+	/**
+	 * A visitor of the mappings contained in a node.
+	 */
+	@FunctionalInterface
+	private interface NodeVisitor {
+		void visit(Object key, Object value);
+	}
+
+	/**
+	 * A node of the trie. Each node stores its entries in an array of
+	 * alternating keys and values, where slots with a {@code null} key contain
+	 * a child node in place of the value.
+	 */
+	private abstract static class Node {
+
+		protected final Object edit;
+
+		protected Object[] array;
+
+		private Node(Object edit, Object[] array) {
+			this.edit = edit;
+			this.array = array;
+		}
+
+		protected abstract Object find(int shift, int hash, Object key);
+
+		protected abstract Node put(Object edit, int shift, int hash, Object key, Object value, Box box);
+
+		protected abstract Node remove(Object edit, int shift, int hash, Object key, Box box);
+
+		protected abstract int hashAt(int shift);
+
+		protected void forEach(NodeVisitor visitor) {
+			for (int i = 0; i < array.length; i += 2)
+				if (array[i] == null)
+					((Node) array[i + 1]).forEach(visitor);
+				else
+					visitor.visit(array[i], array[i + 1]);
+		}
+
+		protected Node withArray(Object edit, Object[] array) {
+			if (this.edit == edit) {
+				this.array = array;
+				return this;
+			}
+			return copy(edit, array);
+		}
+
+		protected Node set(Object edit, int index, Object value) {
+			if (this.edit == edit) {
+				array[index] = value;
+				return this;
+			}
+			Object[] copy = array.clone();
+			copy[index] = value;
+			return copy(edit, copy);
+		}
+
+		protected abstract Node copy(Object edit, Object[] array);
+	}
+
+	private static final class BitmapNode extends Node {
+
+		private int bitmap;
+
+		private BitmapNode(Object edit, int bitmap, Object[] array) {
+			super(edit, array);
+			this.bitmap = bitmap;
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		protected int hashAt(int shift) {
+			// only invoked on non-empty child nodes
+			Object k = array[0];
+			if (k == null)
+				return ((Node) array[1]).hashAt(shift);
+			return bit(hash(k), shift);
+		}
+
+		@Override
+		protected Object find(int shift, int hash, Object key) {
+			int bit = bit(hash, shift);
+			if ((bitmap & bit) == 0)
+				return NOT_FOUND;
+			int idx = 2 * index(bit);
+			Object k = array[idx];
+			if (k == null)
+				return ((Node) array[idx + 1]).find(shift + BITS, hash, key);
+			return k.equals(key) ? array[idx + 1] : NOT_FOUND;
+		}
+
+		@Override
+		protected Node put(Object edit, int shift, int hash, Object key, Object value, Box box) {
+			int bit = bit(hash, shift);
+			int idx = 2 * index(bit);
+			if ((bitmap & bit) == 0) {
+				box.resized = true;
+				Object[] res = insertPair(array, idx, key, value);
+				if (this.edit == edit) {
+					this.array = res;
+					this.bitmap |= bit;
+					return this;
+				}
+				return new BitmapNode(edit, bitmap | bit, res);
+			}
+
+			Object k = array[idx];
+			Object v = array[idx + 1];
+			if (k == null) {
+				Node child = (Node) v;
+				Node n = child.put(edit, shift + BITS, hash, key, value, box);
+				return n == child ? this : set(edit, idx + 1, n);
+			}
+
+			if (k.equals(key)) {
+				box.previous = v;
+				return v == value ? this : set(edit, idx + 1, value);
+			}
+
+			box.resized = true;
+			Node sub = pair(edit, shift + BITS, k, v, hash, key, value);
+			if (this.edit == edit) {
+				array[idx] = null;
+				array[idx + 1] = sub;
+				return this;
+			}
+			Object[] copy = array.clone();
+			copy[idx] = null;
+			copy[idx + 1] = sub;
+			return new BitmapNode(edit, bitmap, copy);
+		}
+
+		@Override
+		protected Node remove(Object edit, int shift, int hash, Object key, Box box) {
+			int bit = bit(hash, shift);
+			if ((bitmap & bit) == 0)
+				return this;
+			int idx = 2 * index(bit);
+			Object k = array[idx];
+			if (k == null) {
+				Node child = (Node) array[idx + 1];
+				Node n = child.remove(edit, shift + BITS, hash, key, box);
+				if (n == child)
+					return this;
+				if (n != null)
+					return set(edit, idx + 1, n);
+			} else if (k.equals(key))
+				box.previous = array[idx + 1];
+			else
+				return this;
+
+			if (k != null)
+				box.resized = true;
+			if (bitmap == bit)
+				return null;
+			Object[] res = removePair(array, idx);
+			if (this.edit == edit) {
+				this.array = res;
+				this.bitmap ^= bit;
+				return this;
+			}
+			return new BitmapNode(edit, bitmap ^ bit, res);
+		}
+
+		@Override
+		protected Node copy(Object edit, Object[] array) {
+			return new BitmapNode(edit, bitmap, array);
+		}
+	}
+
+	private static final class CollisionNode extends Node {
+
+		private final int hash;
+
+		private CollisionNode(Object edit, int hash, Object[] array) {
+			super(edit, array);
+			this.hash = hash;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < array.length; i += 2)
+				if (array[i].equals(key))
+					return i;
+			return -1;
+		}
+
+		@Override
+		protected int hashAt(int shift) {
+			return bit(hash, shift);
+		}
+
+		@Override
+		protected Object find(int shift, int hash, Object key) {
+			if (hash != this.hash)
+				return NOT_FOUND;
+			int idx = indexOf(key);
+			return idx < 0 ? NOT_FOUND : array[idx + 1];
+		}
+
+		@Override
+		protected Node put(Object edit, int shift, int hash, Object key, Object value, Box box) {
+			if (hash != this.hash)
+				// we nest this node into a bitmap one to discriminate between
+				// the two hashes
+				return new BitmapNode(edit, bit(this.hash, shift), new Object[] { null, this })
+						.put(edit, shift, hash, key, value, box);
+
+			int idx = indexOf(key);
+			if (idx >= 0) {
+				box.previous = array[idx + 1];
+				return array[idx + 1] == value ? this : set(edit, idx + 1, value);
+			}
+
+			box.resized = true;
+			return withArray(edit, insertPair(array, array.length, key, value));
+		}
+
+		@Override
+		protected Node remove(Object edit, int shift, int hash, Object key, Box box) {
+			if (hash != this.hash)
+				return this;
+			int idx = indexOf(key);
+			if (idx < 0)
+				return this;
+			box.resized = true;
+			box.previous = array[idx + 1];
+			if (array.length == 2)
+				return null;
+			return withArray(edit, removePair(array, idx));
+		}
+
+		@Override
+		protected Node copy(Object edit, Object[] array) {
+			return new CollisionNode(edit, hash, array);
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Entry))
+				return false;
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			Object v = lookup(e.getKey());
+			return v != NOT_FOUND && Objects.equals(v, e.getValue());
+		}
+
+		@Override
+		public void clear() {
+			PersistentHashMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<K, V>> {
+
+		// the trie has at most 7 levels of bitmap nodes, followed by a
+		// collision node
+		private final Object[][] arrays = new Object[8][];
+
+		private final int[] positions = new int[8];
+
+		private int depth;
+
+		private Entry<K, V> next;
+
+		private Entry<K, V> last;
+
+		private EntryIterator() {
+			// the nodes are frozen so that later modifications of the map do
+			// not affect this iterator
+			edit = new Object();
+			if (root == null)
+				depth = -1;
+			else {
+				depth = 0;
+				arrays[0] = root.array;
+				positions[0] = 0;
+			}
+			advance();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			while (depth >= 0) {
+				Object[] array = arrays[depth];
+				int pos = positions[depth];
+				if (pos >= array.length) {
+					depth--;
+					continue;
+				}
+				positions[depth] = pos + 2;
+				if (array[pos] == null) {
+					depth++;
+					arrays[depth] = ((Node) array[pos + 1]).array;
+					positions[depth] = 0;
+				} else {
+					next = new SimpleImmutableEntry<>((K) unmask(array[pos]), (V) array[pos + 1]);
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			last = next;
+			advance();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			PersistentHashMap.this.remove(last.getKey());
+			last = null;
+		}
+	}
+}
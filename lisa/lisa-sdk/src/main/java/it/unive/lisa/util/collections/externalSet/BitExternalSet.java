@@ -173,20 +173,9 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 
 	@Override
 	public int size() {
-		long bitvector;
 		int count = 0;
-		long[] localbits = this.bits;
-
-		for (int pos = localbits.length - 1; pos >= 0; pos--) {
-			bitvector = localbits[pos];
-			if (bitvector != 0L)
-				for (int i = 0; i < 64; i++) {
-					int n = 64 * pos + i;
-					if ((localbits[n >> 6] & 1L << (n % 64)) != 0L)
-						count++;
-				}
-		}
-
+		for (long bitvector : bits)
+			count += Long.bitCount(bitvector);
 		return count;
 	}
 
@@ -218,10 +207,11 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + (cache == null ? 1 : cache.hashCode());
-		result = prime * result + Arrays.hashCode(bits);
+		// as required by Set.hashCode(), so that this set can be mixed with
+		// other set implementations as keys of hash-based collections
+		int result = 0;
+		for (T e : this)
+			result += e == null ? 0 : e.hashCode();
 		return result;
 	}
 
@@ -539,7 +529,10 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public boolean containsAll(Collection<?> c) {
+		if (c instanceof BitExternalSet && ((BitExternalSet<?>) c).cache == cache)
+			return contains((BitExternalSet<T>) c);
 		for (Object o : c)
 			if (!contains(o))
 				return false;
@@ -547,7 +540,13 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public boolean addAll(Collection<? extends T> c) {
+		if (c instanceof BitExternalSet && ((BitExternalSet<?>) c).cache == cache) {
+			int size = size();
+			addAll((ExternalSet<T>) c);
+			return size != size();
+		}
 		boolean result = false;
 		for (T o : c)
 			result |= add(o);
@@ -45,9 +45,10 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	protected final SortedSet<State> states;
 
 	/**
-	 * The transitions of this automaton.
+	 * The transitions of this automaton, indexed by their source and
+	 * destination states.
 	 */
-	protected final SortedSet<Transition<T>> transitions;
+	protected final TransitionSet<T> transitions;
 
 	/**
 	 * Flag that tracks if this automaton is deterministic. If
@@ -68,13 +69,15 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	 */
 	protected Automaton() {
 		this.states = new TreeSet<>();
-		this.transitions = new TreeSet<>();
+		this.transitions = new TransitionSet<>();
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
 	}
 
 	/**
 	 * Builds a new automaton with given {@code states} and {@code transitions}.
+	 * Unless it is already a {@link TransitionSet}, {@code transitions} is
+	 * copied into a new one.
 	 *
 	 * @param states      the set of states of the new automaton
 	 * @param transitions the set of the transitions of the new automaton
@@ -86,7 +89,9 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 		if (states.size() != states.stream().map(State::getId).distinct().count())
 			throw new IllegalArgumentException("The automaton being created contains multiple states with the same id");
 		this.states = states;
-		this.transitions = transitions;
+		this.transitions = transitions instanceof TransitionSet
+				? (TransitionSet<T>) transitions
+				: new TransitionSet<>(transitions);
 		this.deterministic = Optional.empty();
 		this.minimized = Optional.empty();
 	}
@@ -199,26 +204,29 @@ public abstract class Automaton<A extends Automaton<A, T>, T extends TransitionS
 	}
 
 	/**
-	 * Yields the set of all outgoing transitions from the given state.
+	 * Yields the set of all outgoing transitions from the given state. The
+	 * returned set is a read-only view that must not be used after this
+	 * automaton has been modified.
 	 * 
 	 * @param s the state
 	 * 
 	 * @return the set of outgoing transitions
 	 */
 	public SortedSet<Transition<T>> getOutgoingTransitionsFrom(State s) {
-		return new TreeSet<>(transitions.stream().filter(t -> t.getSource().equals(s)).collect(Collectors.toSet()));
+		return transitions.getOutgoingTransitionsFrom(s);
 	}
 
 	/**
-	 * Yields the set of all ingoing transitions to the given state.
+	 * Yields the set of all ingoing transitions to the given state. The
+	 * returned set is a read-only view that must not be used after this
+	 * automaton has been modified.
 	 * 
 	 * @param s the state
 	 * 
 	 * @return the set of ingoing transitions
 	 */
 	public SortedSet<Transition<T>> getIngoingTransitionsFrom(State s) {
-		return new TreeSet<>(
-				transitions.stream().filter(t -> t.getDestination().equals(s)).collect(Collectors.toSet()));
+		return transitions.getIngoingTransitionsTo(s);
 	}
 
 	/**
@@ -0,0 +1,210 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A sorted set of {@link Transition}s that also indexes its elements by their
+ * source and destination {@link State}s, so that the outgoing and ingoing
+ * transitions of a state can be retrieved without scanning the whole set. The
+ * indexes are kept consistent by all mutating operations, including the ones
+ * performed through {@link #iterator()}. Views returned by
+ * {@link #subSet(Transition, Transition)}, {@link #headSet(Transition)} and
+ * {@link #tailSet(Transition)} are instead read-only.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the concrete type of {@link TransitionSymbol}s that the
+ *                transitions in this set recognize
+ */
+public class TransitionSet<T extends TransitionSymbol<T>> extends AbstractSet<Transition<T>>
+		implements SortedSet<Transition<T>> {
+
+	/**
+	 * The transitions in this set.
+	 */
+	private final TreeSet<Transition<T>> transitions;
+
+	/**
+	 * The transitions in this set, indexed by their source.
+	 */
+	private final Map<State, Bucket<T>> outgoing;
+
+	/**
+	 * The transitions in this set, indexed by their destination.
+	 */
+	private final Map<State, Bucket<T>> ingoing;
+
+	/**
+	 * Builds an empty set.
+	 */
+	public TransitionSet() {
+		this.transitions = new TreeSet<>();
+		this.outgoing = new HashMap<>();
+		this.ingoing = new HashMap<>();
+	}
+
+	/**
+	 * Builds a set containing the given transitions.
+	 *
+	 * @param transitions the transitions to add
+	 */
+	public TransitionSet(Collection<Transition<T>> transitions) {
+		this();
+		addAll(transitions);
+	}
+
+	/**
+	 * Yields the transitions in this set whose source is the given state. The
+	 * returned set is a read-only view that is not copied: it must not be used
+	 * after this set has been modified.
+	 *
+	 * @param s the state
+	 *
+	 * @return the outgoing transitions of {@code s}
+	 */
+	public SortedSet<Transition<T>> getOutgoingTransitionsFrom(State s) {
+		return view(outgoing.get(s));
+	}
+
+	/**
+	 * Yields the transitions in this set whose destination is the given state.
+	 * The returned set is a read-only view that is not copied: it must not be
+	 * used after this set has been modified.
+	 *
+	 * @param s the state
+	 *
+	 * @return the ingoing transitions of {@code s}
+	 */
+	public SortedSet<Transition<T>> getIngoingTransitionsTo(State s) {
+		return view(ingoing.get(s));
+	}
+
+	private static <T extends TransitionSymbol<T>> SortedSet<Transition<T>> view(Bucket<T> bucket) {
+		return bucket == null ? Collections.emptySortedSet() : bucket.view;
+	}
+
+	@Override
+	public boolean add(Transition<T> t) {
+		if (!transitions.add(t))
+			return false;
+		outgoing.computeIfAbsent(t.getSource(), st -> new Bucket<>()).elements.add(t);
+		ingoing.computeIfAbsent(t.getDestination(), st -> new Bucket<>()).elements.add(t);
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!transitions.remove(o))
+			return false;
+		@SuppressWarnings("unchecked")
+		Transition<T> t = (Transition<T>) o;
+		unindex(t);
+		return true;
+	}
+
+	private void unindex(Transition<T> t) {
+		unindex(outgoing, t.getSource(), t);
+		unindex(ingoing, t.getDestination(), t);
+	}
+
+	private void unindex(Map<State, Bucket<T>> index, State s, Transition<T> t) {
+		Bucket<T> bucket = index.get(s);
+		bucket.elements.remove(t);
+		if (bucket.elements.isEmpty())
+			index.remove(s);
+	}
+
+	@Override
+	public void clear() {
+		transitions.clear();
+		outgoing.clear();
+		ingoing.clear();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return transitions.contains(o);
+	}
+
+	@Override
+	public int size() {
+		return transitions.size();
+	}
+
+	@Override
+	public Iterator<Transition<T>> iterator() {
+		Iterator<Transition<T>> it = transitions.iterator();
+		return new Iterator<>() {
+
+			private Transition<T> last;
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public Transition<T> next() {
+				return last = it.next();
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+				unindex(last);
+			}
+		};
+	}
+
+	@Override
+	public Comparator<? super Transition<T>> comparator() {
+		return transitions.comparator();
+	}
+
+	@Override
+	public SortedSet<Transition<T>> subSet(Transition<T> fromElement, Transition<T> toElement) {
+		return Collections.unmodifiableSortedSet(transitions.subSet(fromElement, toElement));
+	}
+
+	@Override
+	public SortedSet<Transition<T>> headSet(Transition<T> toElement) {
+		return Collections.unmodifiableSortedSet(transitions.headSet(toElement));
+	}
+
+	@Override
+	public SortedSet<Transition<T>> tailSet(Transition<T> fromElement) {
+		return Collections.unmodifiableSortedSet(transitions.tailSet(fromElement));
+	}
+
+	@Override
+	public Transition<T> first() {
+		return transitions.first();
+	}
+
+	@Override
+	public Transition<T> last() {
+		return transitions.last();
+	}
+
+	/**
+	 * The transitions indexed under a single state, together with the
+	 * read-only view of them that is handed out to callers.
+	 *
+	 * @param <T> the concrete type of {@link TransitionSymbol}s that the
+	 *                transitions recognize
+	 */
+	private static final class Bucket<T extends TransitionSymbol<T>> {
+
+		private final TreeSet<Transition<T>> elements = new TreeSet<>();
+
+		private final SortedSet<Transition<T>> view = Collections.unmodifiableSortedSet(elements);
+	}
+}
@@ -3,11 +3,9 @@ package it.unive.lisa.util.datastructures.graph;
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import it.unive.lisa.outputs.serializableGraph.SerializableNodeDescription;
 import it.unive.lisa.outputs.serializableGraph.SerializableValue;
-import it.unive.lisa.util.datastructures.graph.algorithms.Dominators;
+import it.unive.lisa.util.datastructures.graph.algorithms.DominatorTree;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 import java.util.function.BiFunction;
 
 /**
@@ -250,7 +248,7 @@ public interface Graph<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exte
 		Collection<N> result = new HashSet<>();
 
 		@SuppressWarnings("unchecked")
-		Map<N, Set<N>> dominators = new Dominators<G, N, E>().build((G) this);
+		DominatorTree<N> dominators = DominatorTree.of((G) this);
 		Collection<N> entries = getEntrypoints();
 		for (N node : getNodes()) {
 			// a loop entry node will have at least two predecessors: a normal
@@ -258,7 +256,7 @@ public interface Graph<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exte
 			Collection<N> preds = predecessorsOf(node);
 			boolean normal = entries.contains(node), back = false;
 			for (N pred : preds)
-				if (dominators.get(pred).contains(node))
+				if (dominators.dominates(node, pred))
 					back = true;
 				else
 					normal = true;
@@ -0,0 +1,198 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the transitive closure of a graph that only grows, answering
+ * reachability queries and yielding the strongly connected components of the
+ * graph without visiting it. Elements are assigned dense ids as they are
+ * first seen, and each of them is associated with the bitsets of the elements
+ * that it can reach and that can reach it through at least one edge. The
+ * index is updated incrementally each time an edge is added through
+ * {@link #addEdge(Object, Object)}: adding an edge that does not introduce new
+ * reachability facts costs a single lookup, while any other edge costs time
+ * proportional to the number of elements whose reachability changes. Since
+ * the index is quadratic in the number of elements, it is meant for graphs
+ * with up to a few thousand nodes, such as call graphs.<br>
+ * <br>
+ * Removal of edges is not supported: the index can only be reset through
+ * {@link #clear()}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the type of the indexed elements
+ */
+public class ReachabilityIndex<T> {
+
+	private final Map<T, Integer> ids;
+
+	private final List<T> elements;
+
+	/**
+	 * For each id, the ids of the elements reachable from it.
+	 */
+	private final List<BitSet> descendants;
+
+	/**
+	 * For each id, the ids of the elements that can reach it.
+	 */
+	private final List<BitSet> ancestors;
+
+	/**
+	 * The non-trivial strongly connected components, lazily computed and
+	 * discarded whenever the closure changes.
+	 */
+	private Collection<Collection<T>> components;
+
+	/**
+	 * Builds an empty index.
+	 */
+	public ReachabilityIndex() {
+		ids = new HashMap<>();
+		elements = new ArrayList<>();
+		descendants = new ArrayList<>();
+		ancestors = new ArrayList<>();
+	}
+
+	/**
+	 * Records that an edge from {@code source} to {@code destination} exists,
+	 * updating the transitive closure accordingly.
+	 *
+	 * @param source      the source of the edge
+	 * @param destination the destination of the edge
+	 */
+	public synchronized void addEdge(T source, T destination) {
+		int src = idOf(source);
+		int dest = idOf(destination);
+		if (descendants.get(src).get(dest))
+			// everything reachable from dest is already reachable from src,
+			// and thus from all of its ancestors
+			return;
+
+		BitSet sources = (BitSet) ancestors.get(src).clone();
+		sources.set(src);
+		BitSet targets = (BitSet) descendants.get(dest).clone();
+		targets.set(dest);
+
+		for (int i = sources.nextSetBit(0); i >= 0; i = sources.nextSetBit(i + 1))
+			descendants.get(i).or(targets);
+		for (int i = targets.nextSetBit(0); i >= 0; i = targets.nextSetBit(i + 1))
+			ancestors.get(i).or(sources);
+		components = null;
+	}
+
+	/**
+	 * Yields whether or not {@code destination} can be reached from
+	 * {@code source} by traversing at least one edge. An element is thus
+	 * reachable from itself only if it is part of a cycle.
+	 *
+	 * @param source      the source element
+	 * @param destination the destination element
+	 *
+	 * @return {@code true} if {@code destination} is reachable from
+	 *             {@code source}
+	 */
+	public synchronized boolean isReachable(T source, T destination) {
+		Integer src = ids.get(source);
+		Integer dest = ids.get(destination);
+		return src != null && dest != null && descendants.get(src).get(dest);
+	}
+
+	/**
+	 * Yields the elements that are reachable from at least one of the given
+	 * ones by traversing at least one edge.
+	 *
+	 * @param sources the source elements
+	 *
+	 * @return the reachable elements
+	 */
+	public synchronized Set<T> getDescendants(Collection<T> sources) {
+		return collect(descendants, sources);
+	}
+
+	/**
+	 * Yields the elements that can reach at least one of the given ones by
+	 * traversing at least one edge.
+	 *
+	 * @param destinations the destination elements
+	 *
+	 * @return the elements that can reach the given ones
+	 */
+	public synchronized Set<T> getAncestors(Collection<T> destinations) {
+		return collect(ancestors, destinations);
+	}
+
+	/**
+	 * Yields the non-trivial strongly connected components of the indexed
+	 * graph, that is, the maximal sets of elements that can all reach each
+	 * other (including single elements that can reach themselves).
+	 *
+	 * @return the non-trivial strongly connected components
+	 */
+	public synchronized Collection<Collection<T>> getNonTrivialComponents() {
+		if (components != null)
+			return components;
+
+		Collection<Collection<T>> result = new HashSet<>();
+		BitSet assigned = new BitSet(elements.size());
+		for (int i = 0; i < elements.size(); i++) {
+			if (assigned.get(i) || !descendants.get(i).get(i))
+				continue;
+			// the component of a node on a cycle is made of the nodes that
+			// are both reachable from it and able to reach it
+			BitSet component = (BitSet) descendants.get(i).clone();
+			component.and(ancestors.get(i));
+			assigned.or(component);
+			result.add(toSet(component));
+		}
+
+		return components = result;
+	}
+
+	/**
+	 * Removes all the elements and edges from this index.
+	 */
+	public synchronized void clear() {
+		ids.clear();
+		elements.clear();
+		descendants.clear();
+		ancestors.clear();
+		components = null;
+	}
+
+	private int idOf(T element) {
+		Integer id = ids.get(element);
+		if (id != null)
+			return id;
+		int fresh = elements.size();
+		ids.put(element, fresh);
+		elements.add(element);
+		descendants.add(new BitSet());
+		ancestors.add(new BitSet());
+		return fresh;
+	}
+
+	private Set<T> collect(List<BitSet> closure, Collection<T> from) {
+		BitSet result = new BitSet(elements.size());
+		for (T element : from) {
+			Integer id = ids.get(element);
+			if (id != null)
+				result.or(closure.get(id));
+		}
+		return toSet(result);
+	}
+
+	private Set<T> toSet(BitSet bits) {
+		Set<T> result = new HashSet<>();
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1))
+			result.add(elements.get(i));
+		return result;
+	}
+}
@@ -0,0 +1,284 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The dominator tree of a graph, computed through the iterative algorithm by
+ * Cooper, Harvey and Kennedy. A node {@code d} dominates a node {@code n} if
+ * every path from a root to {@code n} must go through {@code d}, and the
+ * immediate dominator of {@code n} is its closest strict dominator. By
+ * definition, every node dominates itself, and the roots have no immediate
+ * dominator.<br>
+ * <br>
+ * Nodes are identified by their index in the {@link ReversePostorder} of the
+ * graph, so that the whole tree is stored in a few integer arrays. After the
+ * tree is built, it is visited once to assign to each node an interval such
+ * that {@code d} dominates {@code n} if and only if the interval of {@code n}
+ * is contained in the one of {@code d}: dominance queries thus take constant
+ * time. Only nodes reachable from the roots are part of the tree.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the nodes of the tree
+ *
+ * @see <a href="https://www.cs.rice.edu/~keith/EMBED/dom.pdf">K. D. Cooper, T.
+ *          J. Harvey, K. Kennedy, A Simple, Fast Dominance Algorithm</a>
+ */
+public class DominatorTree<N> {
+
+	/**
+	 * The immediate dominator of the roots, that is, a virtual node
+	 * dominating all of them.
+	 */
+	private static final int ROOT = -1;
+
+	/**
+	 * The marker for nodes whose immediate dominator has not been computed
+	 * yet.
+	 */
+	private static final int UNDEFINED = -2;
+
+	private final ReversePostorder<N> order;
+
+	private final int[] idoms;
+
+	private final int[] pre;
+
+	private final int[] post;
+
+	private DominatorTree(ReversePostorder<N> order, int[] idoms) {
+		this.order = order;
+		this.idoms = idoms;
+		this.pre = new int[idoms.length];
+		this.post = new int[idoms.length];
+		numberIntervals();
+	}
+
+	/**
+	 * Builds the dominator tree of the given graph, using its entrypoints as
+	 * roots.
+	 *
+	 * @param <G>   the type of the graph
+	 * @param <N>   the type of the {@link Node}s in the graph
+	 * @param <E>   the type of the {@link Edge}s in the graph
+	 * @param graph the graph
+	 *
+	 * @return the dominator tree
+	 */
+	public static <G extends Graph<G, N, E>,
+			N extends Node<G, N, E>,
+			E extends Edge<G, N, E>> DominatorTree<N> of(G graph) {
+		return of(graph.getEntrypoints(), graph::followersOf, graph::predecessorsOf);
+	}
+
+	/**
+	 * Builds the dominator tree of the nodes reachable from the given roots.
+	 *
+	 * @param <N>          the type of the nodes
+	 * @param roots        the roots of the tree
+	 * @param successors   the function yielding the successors of each node
+	 * @param predecessors the function yielding the predecessors of each node
+	 *
+	 * @return the dominator tree
+	 */
+	public static <N> DominatorTree<N> of(Collection<N> roots,
+			Function<N, ? extends Collection<N>> successors,
+			Function<N, ? extends Collection<N>> predecessors) {
+		ReversePostorder<N> order = ReversePostorder.of(roots, successors);
+		int size = order.size();
+
+		// predecessors are translated to indexes once, discarding the
+		// unreachable ones
+		int[][] preds = new int[size][];
+		for (int i = 0; i < size; i++) {
+			Collection<N> nodes = predecessors.apply(order.get(i));
+			int[] idx = new int[nodes.size()];
+			int count = 0;
+			for (N pred : nodes) {
+				int p = order.indexOf(pred);
+				if (p >= 0)
+					idx[count++] = p;
+			}
+			preds[i] = count == idx.length ? idx : Arrays.copyOf(idx, count);
+		}
+
+		int[] idoms = new int[size];
+		boolean[] isRoot = new boolean[size];
+		Arrays.fill(idoms, UNDEFINED);
+		for (N root : roots) {
+			int r = order.indexOf(root);
+			if (r >= 0) {
+				idoms[r] = ROOT;
+				isRoot[r] = true;
+			}
+		}
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = 0; i < size; i++) {
+				if (isRoot[i])
+					continue;
+
+				int idom = UNDEFINED;
+				for (int p : preds[i])
+					if (idoms[p] != UNDEFINED)
+						idom = idom == UNDEFINED ? p : intersect(idoms, idom, p);
+
+				if (idom != UNDEFINED && idoms[i] != idom) {
+					idoms[i] = idom;
+					changed = true;
+				}
+			}
+		}
+
+		return new DominatorTree<>(order, idoms);
+	}
+
+	private static int intersect(int[] idoms, int first, int second) {
+		// nodes closer to the roots have smaller indexes in the reverse
+		// postorder, and the virtual root has the smallest one
+		while (first != second) {
+			while (first > second)
+				first = idoms[first];
+			while (second > first)
+				second = idoms[second];
+		}
+		return first;
+	}
+
+	private void numberIntervals() {
+		int size = idoms.length;
+		// children lists, stored as linked lists inside arrays
+		int[] firstChild = new int[size + 1];
+		int[] nextSibling = new int[size];
+		Arrays.fill(firstChild, -1);
+		for (int i = size - 1; i >= 0; i--) {
+			int parent = idoms[i] == ROOT ? size : idoms[i];
+			nextSibling[i] = firstChild[parent];
+			firstChild[parent] = i;
+		}
+
+		int[] stack = new int[size + 1];
+		int[] cursor = new int[size + 1];
+		int top = 0, counter = 0;
+		stack[0] = size;
+		cursor[0] = firstChild[size];
+		while (top >= 0) {
+			int child = cursor[top];
+			if (child < 0) {
+				if (stack[top] != size)
+					post[stack[top]] = counter++;
+				top--;
+			} else {
+				cursor[top] = nextSibling[child];
+				pre[child] = counter++;
+				stack[++top] = child;
+				cursor[top] = firstChild[child];
+			}
+		}
+	}
+
+	/**
+	 * Yields the nodes that are part of this tree, sorted by their index in
+	 * the {@link ReversePostorder} used to build the tree.
+	 *
+	 * @return the nodes of this tree
+	 */
+	public List<N> getNodes() {
+		return order.getNodes();
+	}
+
+	/**
+	 * Yields the {@link ReversePostorder} of the nodes used to build this
+	 * tree.
+	 *
+	 * @return the ordering
+	 */
+	public ReversePostorder<N> getOrder() {
+		return order;
+	}
+
+	/**
+	 * Yields whether or not the given node is part of this tree, that is, if
+	 * it is reachable from the roots used to build it.
+	 *
+	 * @param node the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean contains(N node) {
+		return order.indexOf(node) >= 0;
+	}
+
+	/**
+	 * Yields the immediate dominator of the given node.
+	 *
+	 * @param node the node
+	 *
+	 * @return the immediate dominator, or {@code null} if the node is a root
+	 *             or if it is not part of this tree
+	 */
+	public N getImmediateDominator(N node) {
+		int idx = order.indexOf(node);
+		if (idx < 0 || idoms[idx] == ROOT)
+			return null;
+		return order.get(idoms[idx]);
+	}
+
+	/**
+	 * Yields whether or not {@code dominator} dominates {@code node}. Every
+	 * node dominates itself. This method returns {@code false} if any of the
+	 * two nodes is not part of this tree.
+	 *
+	 * @param dominator the candidate dominator
+	 * @param node      the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean dominates(N dominator, N node) {
+		int d = order.indexOf(dominator);
+		int n = order.indexOf(node);
+		return d >= 0 && n >= 0 && dominates(d, n);
+	}
+
+	/**
+	 * Yields whether or not the node with index {@code dominator} dominates
+	 * the one with index {@code node}, where indexes are the ones of
+	 * {@link #getOrder()}.
+	 *
+	 * @param dominator the index of the candidate dominator
+	 * @param node      the index of the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean dominates(int dominator, int node) {
+		return pre[dominator] <= pre[node] && post[node] <= post[dominator];
+	}
+
+	/**
+	 * Yields all the nodes that dominate the given one, including the node
+	 * itself. Note that this method allocates a new set each time, and that
+	 * {@link #dominates(Object, Object)} should be preferred for answering
+	 * single queries.
+	 *
+	 * @param node the node
+	 *
+	 * @return the dominators of the node, or an empty set if the node is not
+	 *             part of this tree
+	 */
+	public Set<N> getDominators(N node) {
+		Set<N> result = new HashSet<>();
+		for (int idx = order.indexOf(node); idx >= 0; idx = idoms[idx])
+			result.add(order.get(idx));
+		return result;
+	}
+}
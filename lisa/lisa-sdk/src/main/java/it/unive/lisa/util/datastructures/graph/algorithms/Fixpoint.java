@@ -2,10 +2,12 @@ package it.unive.lisa.util.datastructures.graph.algorithms;
 
 import static java.lang.String.format;
 
+import it.unive.lisa.logging.PerformanceMetrics;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Edge;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.Node;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Element;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -210,6 +212,7 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			FixpointImplementation<N, E, T> implementation,
 			Map<N, T> initialResult)
 			throws FixpointException {
+		long start = PerformanceMetrics.start();
 		Map<N, T> result = initialResult == null ? new HashMap<>(graph.getNodesCount()) : new HashMap<>(initialResult);
 		startingPoints.keySet().forEach(ws::push);
 
@@ -217,9 +220,10 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 		if (forceFullEvaluation)
 			toProcess = new HashSet<>(graph.getNodes());
 
-		T newApprox;
+		int iterations = 0;
 		while (!ws.isEmpty()) {
 			N current = ws.pop();
+			iterations++;
 
 			if (current == null)
 				throw new FixpointException("null node encountered during fixpoint in '" + graph + "'");
@@ -230,37 +234,215 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			if (entrystate == null)
 				throw new FixpointException("'" + current + "' does not have an entry state");
 
+			N updated = process(current, entrystate, implementation, result, toProcess);
+			if (updated != null)
+				for (N instr : graph.followersOf(updated))
+					ws.push(instr);
+		}
+
+		recordMetrics(start, iterations);
+		return result;
+	}
+
+	/**
+	 * Runs the fixpoint following the given {@link WeakTopologicalOrder}
+	 * instead of a {@link WorkingSet}. Invoking this method effectively
+	 * recomputes the result: no caching on previous runs is executed. It starts
+	 * with empty result.
+	 *
+	 * @param startingPoints a map containing all the nodes to start the
+	 *                           fixpoint at, each mapped to its entry state.
+	 *                           All of these must be part of {@code wto}
+	 * @param wto            the {@link WeakTopologicalOrder} to follow
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 *
+	 * @return a mapping from each (reachable) node of the source graph to the
+	 *             fixpoint result computed at that node
+	 *
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 *                               execution
+	 */
+	public Map<N, T> fixpoint(Map<N, T> startingPoints, WeakTopologicalOrder<N> wto,
+			FixpointImplementation<N, E, T> implementation)
+			throws FixpointException {
+		return fixpoint(startingPoints, wto, implementation, null);
+	}
+
+	/**
+	 * Runs the fixpoint following the given {@link WeakTopologicalOrder}
+	 * instead of a {@link WorkingSet}. Components of the ordering are
+	 * recursively stabilized, such that inner cycles converge before the outer
+	 * ones are iterated again. Invoking this method effectively recomputes the
+	 * result: no caching on previous runs is executed.
+	 * 
+	 * @param startingPoints a map containing all the nodes to start the
+	 *                           fixpoint at, each mapped to its entry state.
+	 *                           All of these must be part of {@code wto}
+	 * @param wto            the {@link WeakTopologicalOrder} to follow
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 * @param initialResult  the map of initial result to use for running the
+	 *                           fixpoint
+	 * 
+	 * @return a mapping from each (reachable) node of the source graph to the
+	 *             fixpoint result computed at that node
+	 * 
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 *                               execution
+	 */
+	public Map<N, T> fixpoint(Map<N, T> startingPoints,
+			WeakTopologicalOrder<N> wto,
+			FixpointImplementation<N, E, T> implementation,
+			Map<N, T> initialResult)
+			throws FixpointException {
+		long start = PerformanceMetrics.start();
+		Map<N, T> result = initialResult == null ? new HashMap<>(graph.getNodesCount()) : new HashMap<>(initialResult);
+		for (N node : startingPoints.keySet())
+			if (!wto.contains(node))
+				throw new FixpointException(
+						"'" + node + "' is not part of the weak topological order of '" + graph + "'");
+
+		Set<N> toProcess = null;
+		if (forceFullEvaluation)
+			toProcess = new HashSet<>(graph.getNodes());
+
+		int[] iterations = new int[1];
+		for (Element<N> element : wto.getElements())
+			stabilize(element, startingPoints, implementation, result, toProcess, iterations);
+
+		recordMetrics(start, iterations[0]);
+		return result;
+	}
+
+	/**
+	 * Records the cost of a fixpoint execution into {@link PerformanceMetrics},
+	 * both globally and for the target graph. The time of fixpoints computed
+	 * while this one was running (e.g., the ones of the cfgs invoked by the
+	 * target one) is also accounted for in the one of this fixpoint.
+	 * 
+	 * @param start      the starting time of the fixpoint, as returned by
+	 *                       {@link PerformanceMetrics#start()}
+	 * @param iterations the number of nodes processed by the fixpoint
+	 */
+	private void recordMetrics(long start, int iterations) {
+		if (!PerformanceMetrics.isEnabled())
+			return;
+		PerformanceMetrics.stop("fixpoint.time", start);
+		PerformanceMetrics.stop(PerformanceMetrics.key("fixpoint.time", graph), start);
+		PerformanceMetrics.increment("fixpoint.runs");
+		PerformanceMetrics.increment(PerformanceMetrics.key("fixpoint.runs", graph));
+		PerformanceMetrics.add("fixpoint.iterations", iterations);
+		PerformanceMetrics.add(PerformanceMetrics.key("fixpoint.iterations", graph), iterations);
+	}
+
+	private boolean stabilize(Element<N> element,
+			Map<N, T> startingPoints,
+			FixpointImplementation<N, E, T> implementation,
+			Map<N, T> result,
+			Set<N> toProcess,
+			int[] iterations)
+			throws FixpointException {
+		N head = element.getHead();
+		if (!graph.containsNode(head))
+			throw new FixpointException("'" + head + "' is not part of '" + graph + "'");
+
+		if (!element.isComponent())
+			return visit(head, startingPoints, implementation, result, toProcess, iterations);
+
+		boolean changed = false, first = true;
+		while (true) {
+			boolean updated = visit(head, startingPoints, implementation, result, toProcess, iterations);
+			changed |= updated;
+			// the body only depends on the head and on elements that precede
+			// the component: if the head did not change after a full
+			// iteration, the whole component is stable
+			if (!first && !updated)
+				break;
+
+			for (Element<N> inner : element.getBody())
+				changed |= stabilize(inner, startingPoints, implementation, result, toProcess, iterations);
+			first = false;
+		}
+
+		return changed;
+	}
+
+	private boolean visit(N current,
+			Map<N, T> startingPoints,
+			FixpointImplementation<N, E, T> implementation,
+			Map<N, T> result,
+			Set<N> toProcess,
+			int[] iterations)
+			throws FixpointException {
+		T entrystate = getEntryState(current, startingPoints.get(current), implementation, result);
+		if (entrystate == null)
+			// none of the predecessors has been reached yet
+			return false;
+
+		iterations[0]++;
+
+		return process(current, entrystate, implementation, result, toProcess) != null;
+	}
+
+	/**
+	 * Processes a node, computing its exit state starting from the given entry
+	 * state and joining it with the existing approximation, if any. The result
+	 * is then updated if the new approximation is not considered equal to the
+	 * older one.
+	 * 
+	 * @param current        the node to process
+	 * @param entrystate     the entry state for {@code current}
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 * @param result         the current approximations for each node
+	 * @param toProcess      the nodes that still have to be processed at least
+	 *                           once, or {@code null} if the fixpoint does not
+	 *                           force full evaluation
+	 * 
+	 * @return the node whose approximation was updated, whose followers must
+	 *             thus be processed again, or {@code null} if no update
+	 *             happened
+	 * 
+	 * @throws FixpointException if something goes wrong during the computation
+	 */
+	protected N process(N current,
+			T entrystate,
+			FixpointImplementation<N, E, T> implementation,
+			Map<N, T> result,
+			Set<N> toProcess)
+			throws FixpointException {
+		T newApprox;
+		try {
+			newApprox = implementation.semantics(current, entrystate);
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "computing semantics", current, graph), e);
+		}
+
+		T oldApprox = result.get(current);
+		if (oldApprox != null)
 			try {
-				newApprox = implementation.semantics(current, entrystate);
+				newApprox = implementation.operation(current, newApprox, oldApprox);
 			} catch (Exception e) {
-				throw new FixpointException(format(ERROR, "computing semantics", current, graph), e);
+				throw new FixpointException(format(ERROR, "joining states", current, graph), e);
 			}
 
-			T oldApprox = result.get(current);
-			if (oldApprox != null)
-				try {
-					newApprox = implementation.operation(current, newApprox, oldApprox);
-				} catch (Exception e) {
-					throw new FixpointException(format(ERROR, "joining states", current, graph), e);
-				}
-			try {
-				// we go on if we were asked to analyze all nodes at least once
-				if ((forceFullEvaluation && toProcess.remove(current))
-						// or if this is the first time we analyze this node
-						|| oldApprox == null
-						// or if we got a result that should not be considered
-						// equal
-						|| !implementation.equality(current, newApprox, oldApprox)) {
-					result.put(current, newApprox);
-					for (N instr : graph.followersOf(current))
-						ws.push(instr);
-				}
-			} catch (Exception e) {
-				throw new FixpointException(format(ERROR, "updating result", current, graph), e);
+		try {
+			// we go on if we were asked to analyze all nodes at least once
+			if ((forceFullEvaluation && toProcess.remove(current))
+					// or if this is the first time we analyze this node
+					|| oldApprox == null
+					// or if we got a result that should not be considered
+					// equal
+					|| !implementation.equality(current, newApprox, oldApprox)) {
+				result.put(current, newApprox);
+				return current;
 			}
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "updating result", current, graph), e);
 		}
 
-		return result;
+		return null;
 	}
 
 	/**
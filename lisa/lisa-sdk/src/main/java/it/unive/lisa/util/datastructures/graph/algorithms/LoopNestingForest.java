@@ -0,0 +1,321 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The loop-nesting forest of a graph, containing its natural loops. An edge
+ * from {@code n} to {@code h} is a back-edge if {@code h} dominates {@code n}
+ * (see {@link DominatorTree}): in that case, {@code h} is the header of a
+ * loop, {@code n} is one of its latches, and the body of the loop is made of
+ * {@code h} and of all the nodes that can reach a latch without passing
+ * through {@code h}. Loops sharing the same header are merged. The loops of
+ * the graph form a forest, where the parent of a loop is the innermost loop
+ * containing its header.<br>
+ * <br>
+ * The forest is built through a single backward visit for each header,
+ * processing headers from the innermost to the outermost and collapsing
+ * inner loops that have already been discovered into their headers, so that
+ * each node is assigned to its innermost loop only once. Retreating edges
+ * whose destination does not dominate their source (that is, edges forming
+ * irreducible cycles) do not identify any loop. Only nodes reachable from the
+ * roots used to build the dominator tree are part of the forest.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the nodes of the graph
+ */
+public class LoopNestingForest<N> {
+
+	private static final int NONE = -1;
+
+	private final DominatorTree<N> dominators;
+
+	/**
+	 * For each node, the index of the header of the innermost loop containing
+	 * it, or {@link #NONE}. Headers are mapped to themselves.
+	 */
+	private final int[] loops;
+
+	/**
+	 * For each header, the index of the header of the loop containing it, or
+	 * {@link #NONE}.
+	 */
+	private final int[] parents;
+
+	/**
+	 * For each header, the indexes of its latches.
+	 */
+	private final int[][] latches;
+
+	private final BitSet headers;
+
+	private LoopNestingForest(DominatorTree<N> dominators, int[] loops, int[] parents, int[][] latches,
+			BitSet headers) {
+		this.dominators = dominators;
+		this.loops = loops;
+		this.parents = parents;
+		this.latches = latches;
+		this.headers = headers;
+	}
+
+	/**
+	 * Builds the loop-nesting forest of the given graph, using its
+	 * entrypoints as roots.
+	 *
+	 * @param <G>   the type of the graph
+	 * @param <N>   the type of the {@link Node}s in the graph
+	 * @param <E>   the type of the {@link Edge}s in the graph
+	 * @param graph the graph
+	 *
+	 * @return the forest
+	 */
+	public static <G extends Graph<G, N, E>,
+			N extends Node<G, N, E>,
+			E extends Edge<G, N, E>> LoopNestingForest<N> of(G graph) {
+		return of(DominatorTree.of(graph), graph::followersOf, graph::predecessorsOf);
+	}
+
+	/**
+	 * Builds the loop-nesting forest of the nodes contained in the given
+	 * dominator tree.
+	 *
+	 * @param <N>          the type of the nodes
+	 * @param dominators   the dominator tree of the graph
+	 * @param successors   the function yielding the successors of each node
+	 * @param predecessors the function yielding the predecessors of each node
+	 *
+	 * @return the forest
+	 */
+	public static <N> LoopNestingForest<N> of(DominatorTree<N> dominators,
+			Function<N, ? extends Collection<N>> successors,
+			Function<N, ? extends Collection<N>> predecessors) {
+		ReversePostorder<N> order = dominators.getOrder();
+		int size = order.size();
+
+		int[][] latches = new int[size][];
+		BitSet headers = new BitSet(size);
+		for (int n = 0; n < size; n++)
+			for (N succ : successors.apply(order.get(n))) {
+				int h = order.indexOf(succ);
+				if (h >= 0 && dominators.dominates(h, n)) {
+					headers.set(h);
+					int[] current = latches[h];
+					if (current == null)
+						latches[h] = new int[] { n };
+					else {
+						current = Arrays.copyOf(current, current.length + 1);
+						current[current.length - 1] = n;
+						latches[h] = current;
+					}
+				}
+			}
+
+		int[] loops = new int[size];
+		int[] parents = new int[size];
+		Arrays.fill(loops, NONE);
+		Arrays.fill(parents, NONE);
+		int[] stack = new int[size];
+		// inner headers are dominated by outer ones, and thus come after them
+		// in the reverse postorder
+		for (int h = headers.previousSetBit(size - 1); h >= 0; h = headers.previousSetBit(h - 1)) {
+			loops[h] = h;
+			int top = 0;
+			for (int latch : latches[h])
+				stack[top++] = latch;
+
+			while (top > 0) {
+				int node = outermost(loops, parents, stack[--top]);
+				if (node == h || !dominators.dominates(h, node))
+					continue;
+
+				if (loops[node] == NONE)
+					loops[node] = h;
+				else
+					// the header of an inner loop
+					parents[node] = h;
+
+				for (N pred : predecessors.apply(order.get(node))) {
+					int p = order.indexOf(pred);
+					if (p >= 0) {
+						if (top == stack.length)
+							stack = Arrays.copyOf(stack, stack.length * 2);
+						stack[top++] = p;
+					}
+				}
+			}
+		}
+
+		return new LoopNestingForest<>(dominators, loops, parents, latches, headers);
+	}
+
+	private static int outermost(int[] loops, int[] parents, int node) {
+		int header = loops[node];
+		if (header == NONE)
+			return node;
+		while (parents[header] != NONE)
+			header = parents[header];
+		return header;
+	}
+
+	/**
+	 * Yields the dominator tree used to build this forest.
+	 *
+	 * @return the dominator tree
+	 */
+	public DominatorTree<N> getDominatorTree() {
+		return dominators;
+	}
+
+	/**
+	 * Yields the headers of all the loops of this forest, sorted by their
+	 * index in the reverse postorder of the graph (that is, outer loops come
+	 * before the ones they contain).
+	 *
+	 * @return the headers
+	 */
+	public List<N> getHeaders() {
+		List<N> result = new ArrayList<>(headers.cardinality());
+		for (int h = headers.nextSetBit(0); h >= 0; h = headers.nextSetBit(h + 1))
+			result.add(dominators.getOrder().get(h));
+		return result;
+	}
+
+	/**
+	 * Yields whether or not the given node is the header of a loop.
+	 *
+	 * @param node the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isHeader(N node) {
+		int idx = dominators.getOrder().indexOf(node);
+		return idx >= 0 && headers.get(idx);
+	}
+
+	/**
+	 * Yields the latches of the loop with the given header, that is, the
+	 * sources of its back-edges.
+	 *
+	 * @param header the header of the loop
+	 *
+	 * @return the latches, or an empty collection if {@code header} is not
+	 *             the header of a loop
+	 */
+	public Collection<N> getLatches(N header) {
+		int idx = dominators.getOrder().indexOf(header);
+		if (idx < 0 || !headers.get(idx))
+			return Collections.emptyList();
+		List<N> result = new ArrayList<>(latches[idx].length);
+		for (int latch : latches[idx])
+			result.add(dominators.getOrder().get(latch));
+		return result;
+	}
+
+	/**
+	 * Yields the header of the innermost loop containing the given node. If
+	 * the node is itself a header, the node is returned.
+	 *
+	 * @param node the node
+	 *
+	 * @return the header of the innermost loop, or {@code null} if the node is
+	 *             not contained in any loop
+	 */
+	public N getInnermostLoop(N node) {
+		int idx = dominators.getOrder().indexOf(node);
+		if (idx < 0 || loops[idx] == NONE)
+			return null;
+		return dominators.getOrder().get(loops[idx]);
+	}
+
+	/**
+	 * Yields the header of the loop that contains the loop with the given
+	 * header.
+	 *
+	 * @param header the header of the loop
+	 *
+	 * @return the header of the parent loop, or {@code null} if the loop is
+	 *             not nested into another one (or if {@code header} is not
+	 *             the header of a loop)
+	 */
+	public N getParent(N header) {
+		int idx = dominators.getOrder().indexOf(header);
+		if (idx < 0 || parents[idx] == NONE)
+			return null;
+		return dominators.getOrder().get(parents[idx]);
+	}
+
+	/**
+	 * Yields the number of loops containing the given node.
+	 *
+	 * @param node the node
+	 *
+	 * @return the nesting depth of the node
+	 */
+	public int getDepth(N node) {
+		int idx = dominators.getOrder().indexOf(node);
+		if (idx < 0)
+			return 0;
+		int depth = 0;
+		for (int h = loops[idx]; h != NONE; h = parents[h])
+			depth++;
+		return depth;
+	}
+
+	/**
+	 * Yields whether or not the loop with the given header contains the given
+	 * node, either directly or through a nested loop.
+	 *
+	 * @param header the header of the loop
+	 * @param node   the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean contains(N header, N node) {
+		ReversePostorder<N> order = dominators.getOrder();
+		int h = order.indexOf(header);
+		int n = order.indexOf(node);
+		if (h < 0 || n < 0 || !headers.get(h))
+			return false;
+		for (int l = loops[n]; l != NONE; l = parents[l])
+			if (l == h)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Yields the body of the loop with the given header, including the header
+	 * itself and the bodies of all nested loops.
+	 *
+	 * @param header the header of the loop
+	 *
+	 * @return the body of the loop, or an empty set if {@code header} is not
+	 *             the header of a loop
+	 */
+	public Set<N> getBody(N header) {
+		Set<N> result = new HashSet<>();
+		ReversePostorder<N> order = dominators.getOrder();
+		int h = order.indexOf(header);
+		if (h < 0 || !headers.get(h))
+			return result;
+		// the body is dominated by the header, and thus follows it in the
+		// reverse postorder
+		for (int n = h; n < loops.length; n++)
+			for (int l = loops[n]; l != NONE; l = parents[l])
+				if (l == h) {
+					result.add(order.get(n));
+					break;
+				}
+		return result;
+	}
+}
@@ -0,0 +1,158 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The reverse postorder of the nodes of a graph, that assigns a dense index to
+ * each node. In the reverse postorder, each node comes before all of its
+ * successors, except for the ones reached through back edges: processing the
+ * nodes by increasing index thus lets each join see the contributions of all
+ * its (forward) predecessors before being processed.<br>
+ * <br>
+ * The ordering is built starting from a sequence of roots and a function
+ * yielding the successors of each node. Each root that has not been reached
+ * from the previous ones starts a new visit, whose nodes are placed after the
+ * ones of all previous visits. Only nodes reachable from the roots are part of
+ * the ordering.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the nodes being ordered
+ */
+public class ReversePostorder<N> {
+
+	private final List<N> nodes;
+
+	private final Map<N, Integer> indexes;
+
+	private ReversePostorder(List<N> nodes) {
+		this.nodes = Collections.unmodifiableList(nodes);
+		this.indexes = new HashMap<>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++)
+			indexes.put(nodes.get(i), i);
+	}
+
+	/**
+	 * Yields the nodes that are part of this ordering, sorted by their index.
+	 *
+	 * @return the nodes of this ordering
+	 */
+	public List<N> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Yields the number of nodes that are part of this ordering.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Yields the index of the given node in this ordering.
+	 *
+	 * @param node the node
+	 *
+	 * @return the index of the node, or {@code -1} if the node is not part of
+	 *             this ordering
+	 */
+	public int indexOf(N node) {
+		Integer idx = indexes.get(node);
+		return idx == null ? -1 : idx;
+	}
+
+	/**
+	 * Yields the node having the given index in this ordering.
+	 *
+	 * @param index the index
+	 *
+	 * @return the node
+	 *
+	 * @throws IndexOutOfBoundsException if no node has the given index
+	 */
+	public N get(int index) {
+		return nodes.get(index);
+	}
+
+	@Override
+	public String toString() {
+		return nodes.toString();
+	}
+
+	/**
+	 * Builds the reverse postorder of the given graph, using its entrypoints
+	 * as roots.
+	 *
+	 * @param <G>   the type of the graph
+	 * @param <N>   the type of the {@link Node}s in the graph
+	 * @param <E>   the type of the {@link Edge}s in the graph
+	 * @param graph the graph
+	 *
+	 * @return the ordering
+	 */
+	public static <G extends Graph<G, N, E>,
+			N extends Node<G, N, E>,
+			E extends Edge<G, N, E>> ReversePostorder<N> of(G graph) {
+		return of(graph.getEntrypoints(), graph::followersOf);
+	}
+
+	/**
+	 * Builds the reverse postorder of the nodes reachable from the given
+	 * roots, following the given successor function.
+	 *
+	 * @param <N>        the type of the nodes
+	 * @param roots      the nodes where the visits start, in order
+	 * @param successors the function yielding the successors of each node
+	 *
+	 * @return the ordering
+	 */
+	public static <N> ReversePostorder<N> of(Iterable<N> roots,
+			Function<N, ? extends Collection<N>> successors) {
+		Set<N> visited = new HashSet<>();
+		List<N> result = new ArrayList<>();
+		for (N root : roots) {
+			if (visited.contains(root))
+				continue;
+
+			// iterative depth-first visit, to avoid overflowing the stack on
+			// long chains of statements
+			LinkedList<N> postorder = new LinkedList<>();
+			LinkedList<N> stack = new LinkedList<>();
+			LinkedList<Iterator<N>> pending = new LinkedList<>();
+			visited.add(root);
+			stack.push(root);
+			pending.push(successors.apply(root).iterator());
+			while (!stack.isEmpty()) {
+				Iterator<N> it = pending.peek();
+				if (it.hasNext()) {
+					N succ = it.next();
+					if (visited.add(succ)) {
+						stack.push(succ);
+						pending.push(successors.apply(succ).iterator());
+					}
+				} else {
+					pending.pop();
+					// prepending reverses the postorder of this visit
+					postorder.addFirst(stack.pop());
+				}
+			}
+			result.addAll(postorder);
+		}
+		return new ReversePostorder<>(result);
+	}
+}
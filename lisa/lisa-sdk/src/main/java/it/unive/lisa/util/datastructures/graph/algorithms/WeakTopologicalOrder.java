@@ -0,0 +1,336 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.collections.workset.LIFOWorkingSet;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A weak topological ordering of the nodes of a graph, computed through
+ * Bourdoncle's algorithm. A weak topological ordering is a hierarchical
+ * ordering of the nodes where strongly connected parts of the graph are grouped
+ * into (possibly nested) components, each identified by a head. Iterating over
+ * the ordering recursively, stabilizing each component before moving to the
+ * next element, yields a chaotic iteration strategy where inner loops are
+ * stabilized before outer ones, and where the heads of the components are the
+ * only nodes where widening needs to be applied to ensure termination.<br>
+ * <br>
+ * The ordering is built starting from a set of roots and a function yielding
+ * the successors of each node, so that it can be computed both on plain graphs
+ * (see {@link #of(Graph)}) and on derived structures (e.g., basic blocks).
+ * Only nodes reachable from the roots are part of the ordering.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the nodes being ordered
+ *
+ * @see <a href="https://doi.org/10.1007/BFb0039704">F. Bourdoncle, Efficient
+ *          chaotic iteration strategies with widenings</a>
+ */
+public class WeakTopologicalOrder<N> {
+
+	private final List<Element<N>> elements;
+
+	private final Set<N> heads;
+
+	private final Set<N> nodes;
+
+	private WeakTopologicalOrder(List<Element<N>> elements, Set<N> heads, Set<N> nodes) {
+		this.elements = Collections.unmodifiableList(elements);
+		this.heads = Collections.unmodifiableSet(heads);
+		this.nodes = Collections.unmodifiableSet(nodes);
+	}
+
+	/**
+	 * Yields the top-level elements of this ordering, in the order they should
+	 * be visited.
+	 *
+	 * @return the elements of this ordering
+	 */
+	public List<Element<N>> getElements() {
+		return elements;
+	}
+
+	/**
+	 * Yields the heads of all the components of this ordering, at any nesting
+	 * level.
+	 *
+	 * @return the heads of the components
+	 */
+	public Set<N> getHeads() {
+		return heads;
+	}
+
+	/**
+	 * Yields all the nodes that are part of this ordering, that is, the nodes
+	 * that are reachable from the roots used to build it.
+	 *
+	 * @return the nodes of this ordering
+	 */
+	public Set<N> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Yields whether or not the given node is part of this ordering.
+	 *
+	 * @param node the node
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean contains(N node) {
+		return nodes.contains(node);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder res = new StringBuilder();
+		for (Element<N> el : elements) {
+			if (res.length() > 0)
+				res.append(" ");
+			res.append(el);
+		}
+		return res.toString();
+	}
+
+	/**
+	 * Builds the weak topological ordering of the given graph, using its
+	 * entrypoints as roots.
+	 *
+	 * @param <G>   the type of the graph
+	 * @param <N>   the type of the {@link Node}s in the graph
+	 * @param <E>   the type of the {@link Edge}s in the graph
+	 * @param graph the graph
+	 *
+	 * @return the ordering
+	 */
+	public static <G extends Graph<G, N, E>,
+			N extends Node<G, N, E>,
+			E extends Edge<G, N, E>> WeakTopologicalOrder<N> of(G graph) {
+		return of(graph.getEntrypoints(), graph::followersOf);
+	}
+
+	/**
+	 * Builds the weak topological ordering of the nodes reachable from the
+	 * given roots, following the given successor function.
+	 *
+	 * @param <N>        the type of the nodes
+	 * @param roots      the nodes where the visit starts
+	 * @param successors the function yielding the successors of each node
+	 *
+	 * @return the ordering
+	 */
+	public static <N> WeakTopologicalOrder<N> of(Collection<N> roots,
+			Function<N, ? extends Collection<N>> successors) {
+		return new Builder<>(successors).build(roots);
+	}
+
+	/**
+	 * An element of a {@link WeakTopologicalOrder}, that is either a single
+	 * node or a component with a head and a (possibly nested) body.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of the nodes being ordered
+	 */
+	public static final class Element<N> {
+
+		private final N head;
+
+		private final List<Element<N>> body;
+
+		private Element(N head, List<Element<N>> body) {
+			this.head = head;
+			this.body = body == null ? null : Collections.unmodifiableList(body);
+		}
+
+		/**
+		 * Yields the head of this element, that is, the node itself if this is
+		 * not a component.
+		 *
+		 * @return the head
+		 */
+		public N getHead() {
+			return head;
+		}
+
+		/**
+		 * Yields whether or not this element is a component.
+		 *
+		 * @return {@code true} if that condition holds
+		 */
+		public boolean isComponent() {
+			return body != null;
+		}
+
+		/**
+		 * Yields the elements contained in the body of this component, in the
+		 * order they should be visited. If this element is not a component,
+		 * this method returns an empty list.
+		 *
+		 * @return the body of the component
+		 */
+		public List<Element<N>> getBody() {
+			return body == null ? Collections.emptyList() : body;
+		}
+
+		@Override
+		public String toString() {
+			if (body == null)
+				return String.valueOf(head);
+
+			StringBuilder res = new StringBuilder("(").append(head);
+			for (Element<N> el : body)
+				res.append(" ").append(el);
+			return res.append(")").toString();
+		}
+	}
+
+	private static final class Builder<N> {
+
+		private final Function<N, ? extends Collection<N>> successors;
+
+		private final Map<N, Integer> dfn;
+
+		private final WorkingSet<N> stack;
+
+		private final Set<N> heads;
+
+		private int num;
+
+		private Builder(Function<N, ? extends Collection<N>> successors) {
+			this.successors = successors;
+			this.dfn = new HashMap<>();
+			this.stack = LIFOWorkingSet.mk();
+			this.heads = new HashSet<>();
+			this.num = 0;
+		}
+
+		private WeakTopologicalOrder<N> build(Collection<N> roots) {
+			LinkedList<Element<N>> partition = new LinkedList<>();
+			// roots are visited in reverse order since elements are prepended
+			// to the partition: this ensures that the ordering follows the
+			// iteration order of the given collection
+			LinkedList<N> reversed = new LinkedList<>();
+			roots.forEach(reversed::addFirst);
+			for (N root : reversed)
+				if (dfn(root) == 0)
+					visit(root, partition);
+			return new WeakTopologicalOrder<>(partition, heads, new HashSet<>(dfn.keySet()));
+		}
+
+		private int dfn(N node) {
+			return dfn.getOrDefault(node, 0);
+		}
+
+		/**
+		 * Bourdoncle's visit, where the mutual recursion between the visit of a
+		 * node and the one of the component it heads is unrolled on an
+		 * explicit stack of frames, so that long chains of nodes do not
+		 * exhaust the call stack.
+		 */
+		private void visit(N root, LinkedList<Element<N>> partition) {
+			Deque<Frame<N>> frames = new ArrayDeque<>();
+			frames.push(enter(root, partition));
+			while (!frames.isEmpty()) {
+				Frame<N> frame = frames.peek();
+				if (frame.successors.hasNext()) {
+					N succ = frame.successors.next();
+					if (dfn(succ) == 0)
+						frames.push(enter(succ, frame.body == null ? frame.partition : frame.body));
+					else if (frame.body == null)
+						frame.update(dfn(succ));
+					continue;
+				}
+
+				frames.pop();
+				if (frame.body != null)
+					// the component has been fully visited
+					frame.partition.addFirst(new Element<>(frame.vertex, frame.body));
+				else if (frame.head == dfn(frame.vertex)) {
+					dfn.put(frame.vertex, Integer.MAX_VALUE);
+					N element = stack.pop();
+					if (frame.loop) {
+						while (element != frame.vertex) {
+							// resetting the number of the nodes in the
+							// component will cause them to be visited again
+							dfn.put(element, 0);
+							element = stack.pop();
+						}
+						heads.add(frame.vertex);
+						// the visit completes once the component does
+						frames.push(new Frame<>(frame, successors.apply(frame.vertex)));
+						continue;
+					}
+					frame.partition.addFirst(new Element<>(frame.vertex, null));
+				}
+
+				Frame<N> parent = frames.peek();
+				if (parent != null && parent.body == null)
+					parent.update(frame.head);
+			}
+		}
+
+		private Frame<N> enter(N vertex, LinkedList<Element<N>> partition) {
+			stack.push(vertex);
+			dfn.put(vertex, ++num);
+			return new Frame<>(vertex, num, partition, successors.apply(vertex));
+		}
+	}
+
+	/**
+	 * A frame of the visit performed by a {@link Builder}, that is either the
+	 * visit of a node (if {@link #body} is {@code null}) or the one of the
+	 * component headed by {@link #vertex}.
+	 */
+	private static final class Frame<N> {
+
+		private final N vertex;
+
+		private final Iterator<N> successors;
+
+		private final LinkedList<Element<N>> partition;
+
+		private final LinkedList<Element<N>> body;
+
+		private int head;
+
+		private boolean loop;
+
+		private Frame(N vertex, int head, LinkedList<Element<N>> partition, Collection<N> successors) {
+			this.vertex = vertex;
+			this.head = head;
+			this.partition = partition;
+			this.successors = successors.iterator();
+			this.body = null;
+		}
+
+		private Frame(Frame<N> visit, Collection<N> successors) {
+			this.vertex = visit.vertex;
+			this.head = visit.head;
+			this.partition = visit.partition;
+			this.successors = successors.iterator();
+			this.body = new LinkedList<>();
+		}
+
+		private void update(int min) {
+			if (min <= head) {
+				head = min;
+				loop = true;
+			}
+		}
+	}
+}
@@ -4,6 +4,8 @@ import it.unive.lisa.program.ProgramValidationException;
 import it.unive.lisa.util.collections.CollectionUtilities.SortedSetCollector;
 import it.unive.lisa.util.datastructures.graph.Edge;
 import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -14,12 +16,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
@@ -45,6 +49,12 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	private final List<N> nodes;
 
+	/**
+	 * The position of each node inside {@link #nodes}, used as dense integer
+	 * identifier of the node.
+	 */
+	private final Map<N, Integer> positions;
+
 	/**
 	 * The list of indexes of the nodes that are cutoff points for sequential
 	 * execution, meaning that its follower in {@link #nodes} is not a follower
@@ -75,6 +85,14 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	private final boolean computeOffsets;
 
+	/**
+	 * A compact, read-only representation of the edges of this list, built by
+	 * {@link #freeze()} and discarded by every modification of this list. When
+	 * available, it is used to answer queries about the edges of a node
+	 * without re-computing them.
+	 */
+	private volatile Frozen<G, N, E> frozen;
+
 	/**
 	 * Builds a new list. Offsets of nodes added to this list will be set
 	 * automatically.
@@ -100,7 +118,8 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public NodeList(E sequentialSingleton, boolean computeOffsets) {
 		this.sequentialSingleton = sequentialSingleton;
-		nodes = new LinkedList<>();
+		nodes = new ArrayList<>();
+		positions = new HashMap<>();
 		cutoff = new HashSet<>();
 		extraEdges = new TreeMap<>();
 		nextOffset = 0;
@@ -114,13 +133,16 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public NodeList(NodeList<G, N, E> other) {
 		sequentialSingleton = other.sequentialSingleton;
-		nodes = new LinkedList<>(other.nodes);
+		nodes = new ArrayList<>(other.nodes);
+		positions = new HashMap<>(other.positions);
 		cutoff = new HashSet<>(other.cutoff);
 		extraEdges = new TreeMap<>();
 		for (Entry<N, NodeEdges<G, N, E>> entry : other.extraEdges.entrySet())
 			extraEdges.put(entry.getKey(), new NodeEdges<>(entry.getValue()));
 		nextOffset = other.nextOffset;
 		computeOffsets = other.computeOffsets;
+		// frozen representations are immutable, and can thus be shared
+		frozen = other.frozen;
 	}
 
 	/**
@@ -139,10 +161,12 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 			// already in the graph
 			return;
 
+		frozen = null;
 		int size = nodes.size();
 		if (size != 0)
 			cutoff.add(size - 1);
 		nodes.add(node);
+		positions.put(node, size);
 		if (computeOffsets)
 			nextOffset = node.setOffset(nextOffset) + 1;
 	}
@@ -159,7 +183,8 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		if (!containsNode(node))
 			return;
 
-		int target = nodes.indexOf(node);
+		frozen = null;
+		int target = indexOf(node);
 		NodeEdges<G, N, E> edges = extraEdges.get(node);
 		if (edges != null) {
 			Set<E> union = new HashSet<>(edges.ingoing);
@@ -168,7 +193,10 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 			cutoff.remove(target);
 		}
 
-		nodes.remove(node);
+		nodes.remove(target);
+		positions.remove(node);
+		for (int i = target; i < nodes.size(); i++)
+			positions.put(nodes.get(i), i);
 		// need to shift all successive cutoff back by one
 		List<Integer> interesting = cutoff.stream().filter(i -> i >= target).sorted().collect(Collectors.toList());
 		cutoff.removeAll(interesting);
@@ -223,14 +251,15 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 *                                           this list
 	 */
 	public void addEdge(E e) {
-		int src = nodes.indexOf(e.getSource());
+		int src = indexOf(e.getSource());
 		if (src == -1)
 			throw new UnsupportedOperationException("The source node is not in the graph");
 
-		int dest = nodes.indexOf(e.getDestination());
+		int dest = indexOf(e.getDestination());
 		if (dest == -1)
 			throw new UnsupportedOperationException("The destination node is not in the graph");
 
+		frozen = null;
 		if (e.isUnconditional() && src == dest - 1)
 			// just remove the cutoff
 			cutoff.remove(src);
@@ -246,11 +275,12 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @param e the edge to remove
 	 */
 	public void removeEdge(E e) {
-		int src = nodes.indexOf(e.getSource());
-		int dest = nodes.indexOf(e.getDestination());
+		int src = indexOf(e.getSource());
+		int dest = indexOf(e.getDestination());
 		if (src == -1 || dest == -1)
 			return;
 
+		frozen = null;
 		if (e.isUnconditional() && src == dest - 1)
 			// just add the cutoff
 			cutoff.add(src);
@@ -283,8 +313,8 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 *             {@code null}
 	 */
 	public final E getEdgeConnecting(N source, N destination) {
-		int src = nodes.indexOf(source);
-		int dest = nodes.indexOf(destination);
+		int src = indexOf(source);
+		int dest = indexOf(destination);
 		if (src == -1 || dest == -1)
 			return null;
 
@@ -312,8 +342,8 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return the edges connecting {@code source} to {@code destination}
 	 */
 	public Collection<E> getEdgesConnecting(N source, N destination) {
-		int src = nodes.indexOf(source);
-		int dest = nodes.indexOf(destination);
+		int src = indexOf(source);
+		int dest = indexOf(destination);
 		if (src == -1 || dest == -1)
 			return Collections.emptySet();
 
@@ -338,19 +368,15 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return the collection of ingoing edges
 	 */
 	public final Collection<E> getIngoingEdges(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			return Collections.emptySet();
 
-		SortedSet<E> result = new TreeSet<>();
-		if (src != 0 && !cutoff.contains(src - 1))
-			result.add(sequentialSingleton.newInstance(nodes.get(src - 1), node));
-
-		NodeEdges<G, N, E> edges = extraEdges.get(node);
-		if (edges != null)
-			result.addAll(edges.ingoing);
+		Frozen<G, N, E> frozen = this.frozen;
+		if (frozen != null)
+			return frozen.ingoing.get(src);
 
-		return result.isEmpty() ? Collections.emptySet() : result;
+		return computeIngoingEdges(src, node);
 	}
 
 	/**
@@ -361,10 +387,30 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return the collection of outgoing edges
 	 */
 	public final Collection<E> getOutgoingEdges(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			return Collections.emptySet();
 
+		Frozen<G, N, E> frozen = this.frozen;
+		if (frozen != null)
+			return frozen.outgoing.get(src);
+
+		return computeOutgoingEdges(src, node);
+	}
+
+	private Collection<E> computeIngoingEdges(int src, N node) {
+		SortedSet<E> result = new TreeSet<>();
+		if (src != 0 && !cutoff.contains(src - 1))
+			result.add(sequentialSingleton.newInstance(nodes.get(src - 1), node));
+
+		NodeEdges<G, N, E> edges = extraEdges.get(node);
+		if (edges != null)
+			result.addAll(edges.ingoing);
+
+		return result.isEmpty() ? Collections.emptySet() : result;
+	}
+
+	private Collection<E> computeOutgoingEdges(int src, N node) {
 		SortedSet<E> result = new TreeSet<>();
 		if (src != nodes.size() - 1 && !cutoff.contains(src))
 			result.add(sequentialSingleton.newInstance(node, nodes.get(src + 1)));
@@ -399,24 +445,22 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * 
 	 * @param node the node
 	 * 
-	 * @return the collection of followers
+	 * @return the collection of followers, that is always a {@link Set}
+	 *             and that is unmodifiable if this list is frozen (see
+	 *             {@link #freeze()})
 	 * 
 	 * @throws IllegalArgumentException if the node is not in the graph
 	 */
 	public final Collection<N> followersOf(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			throw new IllegalArgumentException("'" + node + "' is not in the graph");
 
-		SortedSet<N> result = new TreeSet<>();
-		if (src != nodes.size() - 1 && !cutoff.contains(src))
-			result.add(nodes.get(src + 1));
+		Frozen<G, N, E> frozen = this.frozen;
+		if (frozen != null)
+			return frozen.followers.get(src);
 
-		NodeEdges<G, N, E> edges = extraEdges.get(node);
-		if (edges != null)
-			result.addAll(edges.outgoing.stream().map(Edge::getDestination).collect(Collectors.toSet()));
-
-		return result.isEmpty() ? Collections.emptySet() : result;
+		return computeFollowers(src, node);
 	}
 
 	/**
@@ -426,15 +470,37 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * 
 	 * @param node the node
 	 * 
-	 * @return the collection of predecessors
+	 * @return the collection of predecessors, that is always a {@link Set}
+	 *             and that is unmodifiable if this list is frozen (see
+	 *             {@link #freeze()})
 	 * 
 	 * @throws IllegalArgumentException if the node is not in the graph
 	 */
 	public final Collection<N> predecessorsOf(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			throw new IllegalArgumentException("'" + node + "' is not in the graph");
 
+		Frozen<G, N, E> frozen = this.frozen;
+		if (frozen != null)
+			return frozen.predecessors.get(src);
+
+		return computePredecessors(src, node);
+	}
+
+	private Collection<N> computeFollowers(int src, N node) {
+		SortedSet<N> result = new TreeSet<>();
+		if (src != nodes.size() - 1 && !cutoff.contains(src))
+			result.add(nodes.get(src + 1));
+
+		NodeEdges<G, N, E> edges = extraEdges.get(node);
+		if (edges != null)
+			result.addAll(edges.outgoing.stream().map(Edge::getDestination).collect(Collectors.toSet()));
+
+		return result.isEmpty() ? Collections.emptySet() : result;
+	}
+
+	private Collection<N> computePredecessors(int src, N node) {
 		SortedSet<N> result = new TreeSet<>();
 		if (src != 0 && !cutoff.contains(src - 1))
 			result.add(nodes.get(src - 1));
@@ -446,6 +512,61 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		return result.isEmpty() ? Collections.emptySet() : result;
 	}
 
+	/**
+	 * Yields the dense integer identifier of the given node, that is, its
+	 * position inside this list.
+	 * 
+	 * @param node the node
+	 * 
+	 * @return the identifier of {@code node}, or {@code -1} if the node is not
+	 *             in this list
+	 */
+	public int indexOf(N node) {
+		Frozen<G, N, E> frozen = this.frozen;
+		if (frozen != null) {
+			// the nodes passed to queries are usually the ones stored in the
+			// list: looking them up by identity avoids hashing and comparing
+			// their structure
+			Integer id = frozen.ids.get(node);
+			if (id != null)
+				return id;
+		}
+
+		Integer pos = positions.get(node);
+		return pos == null ? -1 : pos;
+	}
+
+	/**
+	 * Freezes this list, building a compact representation of its edges that
+	 * is then used to answer {@link #getIngoingEdges(CodeNode)},
+	 * {@link #getOutgoingEdges(CodeNode)}, {@link #followersOf(CodeNode)} and
+	 * {@link #predecessorsOf(CodeNode)} without re-computing the result at
+	 * each invocation. Collections returned by these methods become
+	 * unmodifiable views that are shared among invocations, but they are
+	 * still {@link Set}s, as the ones returned by a list that is not frozen.
+	 * Lookups of nodes that are the same instances stored in the list also
+	 * skip {@link Object#hashCode()} and {@link Object#equals(Object)}.
+	 * Freezing is meant to happen once the list has been fully
+	 * built (e.g., after its validation), but modifications are still allowed
+	 * afterwards: any change to the list discards the frozen representation,
+	 * that can be built again by invoking this method.
+	 */
+	public void freeze() {
+		if (frozen == null)
+			frozen = new Frozen<>(this);
+	}
+
+	/**
+	 * Yields whether or not this list is currently frozen, that is, if
+	 * {@link #freeze()} has been invoked and no modification happened since
+	 * then.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isFrozen() {
+		return frozen != null;
+	}
+
 	/**
 	 * Simplifies this list, removing all the given nodes and rewriting the edge
 	 * set accordingly. This method will throw an
@@ -479,8 +600,9 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 
 		for (N t : targets) {
 			boolean entry = entrypoints.contains(t);
-			Collection<E> ingoing = getIngoingEdges(t);
-			Collection<E> outgoing = getOutgoingEdges(t);
+			int idx = indexOf(t);
+			Collection<E> ingoing = idx == -1 ? Collections.emptySet() : computeIngoingEdges(idx, t);
+			Collection<E> outgoing = idx == -1 ? Collections.emptySet() : computeOutgoingEdges(idx, t);
 
 			if (ingoing.isEmpty() && !outgoing.isEmpty())
 				// this is a entry node
@@ -538,7 +660,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return {@code true} if the node is in this list
 	 */
 	public boolean containsNode(N node) {
-		return nodes.contains(node);
+		return positions.containsKey(node);
 	}
 
 	/**
@@ -549,8 +671,8 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return {@code true} if the edge is in this list
 	 */
 	public boolean containsEdge(E edge) {
-		int src = nodes.indexOf(edge.getSource());
-		int dest = nodes.indexOf(edge.getDestination());
+		int src = indexOf(edge.getSource());
+		int dest = indexOf(edge.getDestination());
 		if (src == -1 || dest == -1)
 			return false;
 
@@ -571,6 +693,40 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		return getNodes().iterator();
 	}
 
+	/**
+	 * Yields a hash of the contents of this list. Differently from
+	 * {@link #hashCode()}, that relies on the {@link Object#hashCode()} of the
+	 * nodes, each node contributes to the returned value through
+	 * {@code nodeHash}, that can thus inspect its contents. Edges contribute
+	 * through their class and the positions of their endpoints inside this
+	 * list. Two lists with the same nodes (according to {@code nodeHash}),
+	 * added in the same order and connected in the same way, thus have the
+	 * same structural hash, even if they are built by different parsings of the
+	 * same code.
+	 *
+	 * @param nodeHash the function computing the hash of a single node
+	 *
+	 * @return the structural hash of this list
+	 */
+	public long structuralHash(ToLongFunction<N> nodeHash) {
+		final long prime = 1099511628211L;
+		Map<N, Integer> positions = new HashMap<>();
+		long result = nodes.size();
+		for (N node : nodes) {
+			positions.put(node, positions.size());
+			result = prime * result + nodeHash.applyAsLong(node);
+		}
+
+		// edges are sorted, so their order does not depend on how they are
+		// stored
+		for (E edge : getEdges()) {
+			result = prime * result + edge.getClass().getName().hashCode();
+			result = prime * result + positions.get(edge.getSource());
+			result = prime * result + positions.get(edge.getDestination());
+		}
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -781,13 +937,13 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 				continue;
 
 			for (E in : edges.ingoing)
-				validateEdge(nodes, in);
+				validateEdge(in);
 
 			for (E out : edges.outgoing)
-				validateEdge(nodes, out);
+				validateEdge(out);
 
 			// no deadcode
-			int idx = nodes.indexOf(node);
+			int idx = positions.get(node);
 			if (edges.ingoing.isEmpty()
 					&& (idx == 0 || cutoff.contains(idx - 1))
 					&& !entrypoints.contains(node))
@@ -796,15 +952,153 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 		}
 	}
 
-	private void validateEdge(Collection<N> nodes, E edge) throws ProgramValidationException {
-		if (!nodes.contains(edge.getSource()))
+	private void validateEdge(E edge) throws ProgramValidationException {
+		if (!containsNode(edge.getSource()))
 			throw new ProgramValidationException("Invalid edge: '" + edge
 					+ "' originates in a node that is not part of the graph");
-		else if (!nodes.contains(edge.getDestination()))
+		else if (!containsNode(edge.getDestination()))
 			throw new ProgramValidationException("Invalid edge: '" + edge
 					+ "' reaches a node that is not part of the graph");
 	}
 
+	/**
+	 * A compact, read-only representation of the edges of a {@link NodeList}.
+	 * Nodes are identified by their position in the list, and the sorted
+	 * ingoing edges, outgoing edges, predecessors and followers of each node
+	 * are stored in contiguous arrays, delimited by the offsets of each node
+	 * (akin to a compressed sparse row matrix).
+	 * 
+	 * @param <G> the type of the {@link CodeGraph}s the list can be used in
+	 * @param <N> the type of the {@link CodeNode}s in the list
+	 * @param <E> the type of the {@link CodeEdge}s in the list
+	 */
+	private static final class Frozen<G extends CodeGraph<G, N, E>,
+			N extends CodeNode<G, N, E>,
+			E extends CodeEdge<G, N, E>> {
+
+		private final Adjacency<E> ingoing;
+
+		private final Adjacency<E> outgoing;
+
+		private final Adjacency<N> predecessors;
+
+		private final Adjacency<N> followers;
+
+		private final Map<N, Integer> ids;
+
+		private Frozen(NodeList<G, N, E> list) {
+			int size = list.nodes.size();
+			ids = new IdentityHashMap<>(size);
+			List<Collection<E>> ins = new ArrayList<>(size), outs = new ArrayList<>(size);
+			List<Collection<N>> preds = new ArrayList<>(size), follows = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				N node = list.nodes.get(i);
+				ids.put(node, i);
+				ins.add(list.computeIngoingEdges(i, node));
+				outs.add(list.computeOutgoingEdges(i, node));
+				preds.add(list.computePredecessors(i, node));
+				follows.add(list.computeFollowers(i, node));
+			}
+			ingoing = new Adjacency<>(ins);
+			outgoing = new Adjacency<>(outs);
+			predecessors = new Adjacency<>(preds);
+			followers = new Adjacency<>(follows);
+		}
+	}
+
+	/**
+	 * A compressed sparse row representation of a relation between dense
+	 * integer identifiers and elements. The read-only view of each row is
+	 * built once, together with the representation.
+	 * 
+	 * @param <T> the type of the elements
+	 */
+	private static final class Adjacency<T> {
+
+		private final int[] offsets;
+
+		private final Object[] elements;
+
+		private final List<Collection<T>> rows;
+
+		private Adjacency(List<? extends Collection<?>> rows) {
+			offsets = new int[rows.size() + 1];
+			int total = 0;
+			for (int i = 0; i < rows.size(); i++) {
+				offsets[i] = total;
+				total += rows.get(i).size();
+			}
+			offsets[rows.size()] = total;
+
+			elements = new Object[total];
+			int pos = 0;
+			for (Collection<?> row : rows)
+				for (Object element : row)
+					elements[pos++] = element;
+
+			this.rows = new ArrayList<>(rows.size());
+			for (int i = 0; i < rows.size(); i++)
+				if (offsets[i] == offsets[i + 1])
+					this.rows.add(Collections.emptySet());
+				else
+					this.rows.add(new Row(offsets[i], offsets[i + 1]));
+		}
+
+		private Collection<T> get(int id) {
+			return rows.get(id);
+		}
+
+		/**
+		 * The elements of a single row, exposed as an unmodifiable set. Rows
+		 * are built from sets, so their elements are already distinct.
+		 */
+		private final class Row extends AbstractSet<T> {
+
+			private final int from;
+
+			private final int to;
+
+			private Row(int from, int to) {
+				this.from = from;
+				this.to = to;
+			}
+
+			@Override
+			public Iterator<T> iterator() {
+				return new Iterator<>() {
+
+					private int next = from;
+
+					@Override
+					public boolean hasNext() {
+						return next < to;
+					}
+
+					@Override
+					@SuppressWarnings("unchecked")
+					public T next() {
+						if (next >= to)
+							throw new NoSuchElementException();
+						return (T) elements[next++];
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				for (int i = from; i < to; i++)
+					if (elements[i] == o || elements[i].equals(o))
+						return true;
+				return false;
+			}
+
+			@Override
+			public int size() {
+				return to - from;
+			}
+		}
+	}
+
 	/**
 	 * Utility class for representing the edges tied to a node, split into two
 	 * sets: ingoing and outgoing.
@@ -1,9 +1,13 @@
 package it.unive.lisa.util.file;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
@@ -13,6 +17,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
@@ -25,10 +30,27 @@ import org.apache.commons.io.IOUtils;
  */
 public class FileManager {
 
+	/**
+	 * The extension appended to the names of files compressed with gzip.
+	 */
+	public static final String GZIP_EXTENSION = ".gz";
+
+	/**
+	 * The name of the result store (see {@link ResultStoreWriter}) where json
+	 * files are packed, if this manager has been configured to do so.
+	 */
+	public static final String RESULT_STORE_NAME = "results.lisa";
+
 	private final File workdir;
 
 	private final Collection<String> createdFiles = new TreeSet<>();
 
+	private final boolean compressJson;
+
+	private final boolean packJson;
+
+	private ResultStoreWriter store;
+
 	/**
 	 * Builds a new manager that will produce files in the given
 	 * {@code workdir}.
@@ -37,7 +59,47 @@ public class FileManager {
 	 *                    this manager
 	 */
 	public FileManager(String workdir) {
+		this(workdir, false);
+	}
+
+	/**
+	 * Builds a new manager that will produce files in the given
+	 * {@code workdir}.
+	 * 
+	 * @param workdir      the path to the directory where files will be
+	 *                         created by this manager
+	 * @param compressJson whether or not files created through
+	 *                         {@link #mkJsonFile(String, WriteAction)} should
+	 *                         be compressed with gzip
+	 */
+	public FileManager(String workdir, boolean compressJson) {
+		this(workdir, compressJson, false);
+	}
+
+	/**
+	 * Builds a new manager that will produce files in the given
+	 * {@code workdir}. If {@code packJson} is {@code true}, files created
+	 * through {@link #mkJsonFile(String, WriteAction)} are not created on the
+	 * file system, and are instead added as entries of a single result store
+	 * named
+	 * {@link #RESULT_STORE_NAME}, using their path relative to the workdir as
+	 * name. Packed files are never compressed, and they are still reported by
+	 * {@link #createdFiles()}. The store must be finalized through
+	 * {@link #closeResultStore()} once all files have been created.
+	 * 
+	 * @param workdir      the path to the directory where files will be
+	 *                         created by this manager
+	 * @param compressJson whether or not files created through
+	 *                         {@link #mkJsonFile(String, WriteAction)} should
+	 *                         be compressed with gzip
+	 * @param packJson     whether or not files created through
+	 *                         {@link #mkJsonFile(String, WriteAction)} should
+	 *                         be packed in a result store
+	 */
+	public FileManager(String workdir, boolean compressJson, boolean packJson) {
 		this.workdir = Paths.get(workdir).toFile();
+		this.compressJson = compressJson;
+		this.packJson = packJson;
 	}
 
 	/**
@@ -107,7 +169,11 @@ public class FileManager {
 	 * might cause problems in the file name. The given name will be joined with
 	 * the workdir used to initialize this file manager, thus raising an
 	 * exception if {@code name} is absolute. {@code filler} will then be used
-	 * to write to the writer.
+	 * to write to the writer. If this manager has been configured to compress
+	 * json files, the content of the file is compressed with gzip and
+	 * {@link #GZIP_EXTENSION} is also appended to its name. If this manager has
+	 * been configured to pack json files, the file is instead added to the
+	 * result store (see {@link #FileManager(String, boolean, boolean)}).
 	 * 
 	 * @param name   the name of the file to create
 	 * @param filler the callback to write to the file
@@ -116,7 +182,12 @@ public class FileManager {
 	 */
 
 	public void mkJsonFile(String name, WriteAction filler) throws IOException {
-		mkOutputFile(cleanupCFGName(name) + ".json", false, filler);
+		if (packJson)
+			packOutputFile(cleanupCFGName(name) + ".json", filler);
+		else if (compressJson)
+			mkOutputFile(null, cleanupCFGName(name) + ".json" + GZIP_EXTENSION, false, true, filler);
+		else
+			mkOutputFile(cleanupCFGName(name) + ".json", false, filler);
 	}
 
 	/**
@@ -209,22 +280,73 @@ public class FileManager {
 	 *                         the file
 	 */
 	public void mkOutputFile(String path, String name, boolean bom, WriteAction filler) throws IOException {
+		mkOutputFile(path, name, bom, false, filler);
+	}
+
+	private void mkOutputFile(String path, String name, boolean bom, boolean gzip, WriteAction filler)
+			throws IOException {
 		File parent = workdir;
 		if (path != null)
 			parent = new File(workdir, cleanFileName(path, true));
 		File file = new File(parent, cleanFileName(name, false));
 
-		if (!parent.exists() && !parent.mkdirs())
+		// the directory might be concurrently created by another thread
+		if (!parent.exists() && !parent.mkdirs() && !parent.isDirectory())
 			throw new IOException("Unable to create directory structure for " + file);
 
-		createdFiles.add(FilenameUtils.separatorsToUnix(workdir.toPath().relativize(file.toPath()).toString()));
-		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8.newEncoder())) {
+		synchronized (createdFiles) {
+			createdFiles.add(FilenameUtils.separatorsToUnix(workdir.toPath().relativize(file.toPath()).toString()));
+		}
+		OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));
+		if (gzip)
+			stream = new GZIPOutputStream(stream);
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8.newEncoder()))) {
 			if (bom)
 				writer.write('\ufeff');
 			filler.perform(writer);
 		}
 	}
 
+	private void packOutputFile(String fileName, WriteAction filler) throws IOException {
+		File file = new File(workdir, cleanFileName(fileName, false));
+		String name = FilenameUtils.separatorsToUnix(workdir.toPath().relativize(file.toPath()).toString());
+		synchronized (createdFiles) {
+			createdFiles.add(name);
+		}
+
+		// the content is produced outside of the store's lock, so that
+		// multiple files can be filled concurrently
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		try (Writer writer = new BufferedWriter(
+				new OutputStreamWriter(content, StandardCharsets.UTF_8.newEncoder()))) {
+			filler.perform(writer);
+		}
+		resultStore().put(name, content.toByteArray());
+	}
+
+	private synchronized ResultStoreWriter resultStore() throws IOException {
+		if (store == null) {
+			if (!workdir.exists() && !workdir.mkdirs() && !workdir.isDirectory())
+				throw new IOException("Unable to create directory " + workdir);
+			store = new ResultStoreWriter(new File(workdir, RESULT_STORE_NAME));
+		}
+		return store;
+	}
+
+	/**
+	 * Finalizes the result store where json files have been packed, writing
+	 * its index. This method has no effect if this manager has not been
+	 * configured to pack json files, or if no json file has been created.
+	 * After this method is invoked, no more json files can be created by this
+	 * manager.
+	 * 
+	 * @throws IOException if an error happens while writing the store
+	 */
+	public synchronized void closeResultStore() throws IOException {
+		if (store != null)
+			store.close();
+	}
+
 	private final static int[] illegalChars = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19,
 			20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 34, 42, 47, 58, 60, 62, 63, 92, 124 };
 
@@ -0,0 +1,187 @@
+package it.unive.lisa.util.file;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A reader of the result stores produced by {@link ResultStoreWriter}. The
+ * index of the store is read when the reader is created, while the content of
+ * each entry is memory-mapped only when the entry is opened. Entries can be
+ * opened concurrently.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class ResultStoreReader implements Closeable {
+
+	private final File file;
+
+	private final FileChannel channel;
+
+	private final Map<String, long[]> index;
+
+	/**
+	 * Builds a reader for the store contained in the given file.
+	 *
+	 * @param file the file containing the store
+	 *
+	 * @throws IOException if the file cannot be read, or if it does not
+	 *                         contain a (closed) store
+	 */
+	public ResultStoreReader(File file) throws IOException {
+		this.file = file;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			this.index = readIndex();
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private Map<String, long[]> readIndex() throws IOException {
+		long size = channel.size();
+		if (size < 2 * Integer.BYTES + ResultStoreWriter.TRAILER_SIZE || !hasHeader(channel))
+			throw new IOException(file + " is not a result store");
+
+		ByteBuffer trailer = ByteBuffer.allocate(ResultStoreWriter.TRAILER_SIZE);
+		readFully(trailer, size - ResultStoreWriter.TRAILER_SIZE);
+		long start = trailer.getLong(0);
+		if (trailer.getInt(Long.BYTES) != ResultStoreWriter.MAGIC)
+			throw new IOException(file + " is not a complete result store");
+
+		ByteBuffer raw = channel.map(MapMode.READ_ONLY, start, size - ResultStoreWriter.TRAILER_SIZE - start);
+		Map<String, long[]> result = new LinkedHashMap<>();
+		try (DataInputStream in = new DataInputStream(new ByteBufferInputStream(raw))) {
+			int entries = in.readInt();
+			for (int i = 0; i < entries; i++) {
+				String name = in.readUTF();
+				long offset = in.readLong();
+				int length = in.readInt();
+				result.put(name, new long[] { offset, length });
+			}
+		}
+		return result;
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("Unexpected end of " + file);
+	}
+
+	private static boolean hasHeader(FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+		while (header.hasRemaining())
+			if (channel.read(header, header.position()) < 0)
+				return false;
+		return header.getInt(0) == ResultStoreWriter.MAGIC && header.getInt(Integer.BYTES) == ResultStoreWriter.VERSION;
+	}
+
+	/**
+	 * Yields whether or not the given file contains a result store.
+	 *
+	 * @param file the file to check
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public static boolean isStore(File file) {
+		if (!file.isFile())
+			return false;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return hasHeader(channel);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Yields the names of the entries in the store, in the order they were
+	 * first added.
+	 *
+	 * @return the names of the entries
+	 */
+	public Set<String> getEntries() {
+		return Collections.unmodifiableSet(index.keySet());
+	}
+
+	/**
+	 * Yields whether or not the store contains an entry with the given name.
+	 *
+	 * @param name the name of the entry
+	 *
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean contains(String name) {
+		return index.containsKey(name);
+	}
+
+	/**
+	 * Opens a buffered, UTF-8 reader for the content of the entry with the
+	 * given name.
+	 *
+	 * @param name the name of the entry
+	 *
+	 * @return the reader
+	 *
+	 * @throws IOException if the store does not contain the entry, or if it
+	 *                         cannot be read
+	 */
+	public Reader open(String name) throws IOException {
+		long[] position = index.get(name);
+		if (position == null)
+			throw new FileNotFoundException("'" + name + "' is not part of " + file);
+		ByteBuffer content = channel.map(MapMode.READ_ONLY, position[0], position[1]);
+		return new BufferedReader(new InputStreamReader(new ByteBufferInputStream(content), StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			int read = Math.min(len, buffer.remaining());
+			buffer.get(b, off, read);
+			return read;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
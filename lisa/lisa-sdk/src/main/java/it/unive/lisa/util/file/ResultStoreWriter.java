@@ -0,0 +1,116 @@
+package it.unive.lisa.util.file;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A writer of result stores, that is, single binary files containing a
+ * collection of named entries. Entries are appended to the store as they are
+ * added, and an index mapping each name to the position of its entry is
+ * written at the end of the file when the store is closed. If an entry with
+ * the same name is added more than once, the index will only refer to the
+ * last one. A store whose writer has not been closed cannot be read.<br>
+ * <br>
+ * The layout of a store is the following (all numbers are big-endian):
+ * <ol>
+ * <li>a header, made of {@link #MAGIC} and {@link #VERSION} as integers;</li>
+ * <li>the content of each entry, back to back;</li>
+ * <li>the index, made of the number of entries as an integer followed, for
+ * each entry, by its name in modified UTF-8 (as written by
+ * {@link DataOutputStream#writeUTF(String)}), its offset as a long and its
+ * length as an integer;</li>
+ * <li>a trailer, made of the offset of the index as a long and of
+ * {@link #MAGIC} as an integer.</li>
+ * </ol>
+ * Stores can be read through {@link ResultStoreReader}. Entries can be added
+ * concurrently.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class ResultStoreWriter {
+
+	/**
+	 * The magic number that opens and closes each store.
+	 */
+	static final int MAGIC = 0x4C695341;
+
+	/**
+	 * The version of the layout of the store.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The size, in bytes, of the trailer of the store.
+	 */
+	static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+
+	private final DataOutputStream out;
+
+	private final Map<String, long[]> index;
+
+	private long position;
+
+	private boolean closed;
+
+	/**
+	 * Builds a writer that creates a new store in the given file, overwriting
+	 * it if it already exists.
+	 *
+	 * @param file the file where the store should be created
+	 *
+	 * @throws IOException if the file cannot be created
+	 */
+	public ResultStoreWriter(File file) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		this.index = new LinkedHashMap<>();
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		this.position = out.size();
+	}
+
+	/**
+	 * Appends a new entry to the store.
+	 *
+	 * @param name    the name of the entry
+	 * @param content the content of the entry
+	 *
+	 * @throws IOException if an error happens while writing
+	 */
+	public synchronized void put(String name, byte[] content) throws IOException {
+		if (closed)
+			throw new IOException("The store has already been closed");
+		out.write(content);
+		index.put(name, new long[] { position, content.length });
+		position += content.length;
+	}
+
+	/**
+	 * Writes the index of the store and closes it. Invoking this method more
+	 * than once has no effect.
+	 *
+	 * @throws IOException if an error happens while writing
+	 */
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			out.writeInt(index.size());
+			for (Entry<String, long[]> entry : index.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeLong(entry.getValue()[0]);
+				out.writeInt((int) entry.getValue()[1]);
+			}
+			out.writeLong(position);
+			out.writeInt(MAGIC);
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package it.unive.lisa.util.numeric;
 
+import java.io.Serializable;
 import java.util.Iterator;
 
 /**
@@ -7,7 +8,7 @@ import java.util.Iterator;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class IntInterval implements Iterable<Long>, Comparable<IntInterval> {
+public class IntInterval implements Iterable<Long>, Comparable<IntInterval>, Serializable {
 
 	/**
 	 * The interval {@code [-Inf, +Inf]}.
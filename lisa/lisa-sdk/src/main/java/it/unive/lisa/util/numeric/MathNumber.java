@@ -1,6 +1,7 @@
 package it.unive.lisa.util.numeric;
 
 import it.unive.lisa.util.collections.CollectionUtilities;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
@@ -10,7 +11,7 @@ import java.math.RoundingMode;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class MathNumber implements Comparable<MathNumber> {
+public class MathNumber implements Comparable<MathNumber>, Serializable {
 
 	/**
 	 * The constant for plus infinity.
@@ -7,8 +7,11 @@ import static org.junit.Assert.assertTrue;
 import it.unive.lisa.TestCallGraph;
 import it.unive.lisa.TestLanguageFeatures;
 import it.unive.lisa.TestTypeSystem;
+import it.unive.lisa.analysis.symbols.NameSymbol;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
 import it.unive.lisa.program.Application;
+import it.unive.lisa.program.ClassUnit;
+import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.ProgramValidationException;
 import it.unive.lisa.program.SourceCodeLocation;
@@ -23,14 +26,18 @@ import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.cfg.statement.call.Call.CallType;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.program.language.hierarchytraversal.HierarcyTraversalStrategy;
 import it.unive.lisa.type.BooleanType;
 import it.unive.lisa.type.StringType;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeSystem;
+import it.unive.lisa.type.UnitType;
 import it.unive.lisa.type.Untyped;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.Test;
 
 public class BaseCallGraphTest {
@@ -69,6 +76,176 @@ public class BaseCallGraphTest {
 		}
 	}
 
+	private final class UnitTypeImpl implements UnitType {
+
+		private final CompilationUnit unit;
+
+		private UnitTypeImpl(CompilationUnit unit) {
+			this.unit = unit;
+		}
+
+		@Override
+		public CompilationUnit getUnit() {
+			return unit;
+		}
+
+		@Override
+		public Type commonSupertype(Type other) {
+			return other == this ? this : Untyped.INSTANCE;
+		}
+
+		@Override
+		public boolean canBeAssignedTo(Type other) {
+			// receivers are not checked against the defining unit
+			return other instanceof UnitTypeImpl;
+		}
+
+		@Override
+		public Set<Type> allInstances(TypeSystem types) {
+			return Collections.singleton(this);
+		}
+	}
+
+	private static CFG mkCFG(Program p, String name, int line) {
+		CFG cfg = new CFG(new CodeMemberDescriptor(new SourceCodeLocation("fake", line, 0), p, false, name));
+		cfg.addNode(new Ret(cfg, new SourceCodeLocation("fake", line, 1)), true);
+		return cfg;
+	}
+
+	private static void mkBody(CFG caller, UnresolvedCall... calls) {
+		Ret ret = new Ret(caller, new SourceCodeLocation("fake", calls.length + 1, 0));
+		caller.addNode(ret);
+		for (int i = 0; i < calls.length; i++)
+			caller.addNode(calls[i], i == 0);
+		for (int i = 0; i < calls.length; i++)
+			caller.addEdge(new SequentialEdge(calls[i], i == calls.length - 1 ? ret : calls[i + 1]));
+	}
+
+	private static UnresolvedCall mkStaticCall(Program p, String target) {
+		CFG caller = new CFG(new CodeMemberDescriptor(new SourceCodeLocation("fake", 0, 0), p, false, "caller"));
+		UnresolvedCall call = new UnresolvedCall(caller, new SourceCodeLocation("fake", 1, 0), CallType.STATIC,
+				p.getName(), target);
+		mkBody(caller, call);
+		p.addCodeMember(caller);
+		return call;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Set<Type>[] noTypes(int length) {
+		return (Set<Type>[]) new Set<?>[length];
+	}
+
+	private static Collection<CodeMember> targetsOf(CallGraph cg, UnresolvedCall call, SymbolAliasing aliasing)
+			throws CallResolutionException {
+		Call resolved = cg.resolve(call, noTypes(call.getParameters().length), aliasing);
+		return resolved instanceof CFGCall ? ((CFGCall) resolved).getTargets() : Collections.emptyList();
+	}
+
+	@Test
+	public void testAliasedTarget()
+			throws CallResolutionException, ProgramValidationException, CallGraphConstructionException {
+		CallGraph cg = new TestCallGraph();
+		Program p = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		UnresolvedCall call = mkStaticCall(p, "alias");
+		CFG target = mkCFG(p, "target", 2);
+		p.addCodeMember(target);
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		cg.init(new Application(p));
+
+		SymbolAliasing aliasing = new SymbolAliasing().putState(new NameSymbol("target"), new NameSymbol("alias"));
+		assertEquals(List.of(target), List.copyOf(targetsOf(cg, call, aliasing)));
+	}
+
+	@Test
+	public void testOverriddenNameMatching()
+			throws CallResolutionException, ProgramValidationException, CallGraphConstructionException {
+		CallGraph cg = new TestCallGraph() {
+			@Override
+			public boolean matchCodeMemberName(UnresolvedCall call, String qualifier, String name) {
+				return name.equalsIgnoreCase(call.getTargetName());
+			}
+		};
+		Program p = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		UnresolvedCall call = mkStaticCall(p, "TARGET");
+		CFG target = mkCFG(p, "target", 2);
+		p.addCodeMember(target);
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		cg.init(new Application(p));
+
+		assertEquals(List.of(target), List.copyOf(targetsOf(cg, call, new SymbolAliasing())));
+	}
+
+	@Test
+	public void testPossibleTargets() throws ProgramValidationException, CallGraphConstructionException {
+		CallGraph cg = new TestCallGraph();
+		Program p = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		UnresolvedCall call = mkStaticCall(p, "target");
+		CFG target = mkCFG(p, "target", 2);
+		p.addCodeMember(target);
+		p.addCodeMember(mkCFG(p, "other", 3));
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		cg.init(new Application(p));
+
+		// no runtime type is needed to over-approximate the targets
+		assertEquals(List.of(target), List.copyOf(cg.getPossibleTargets(call)));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCallDependentTraversal()
+			throws CallResolutionException, ProgramValidationException, CallGraphConstructionException {
+		CallGraph cg = new TestCallGraph();
+		// calls on the first line visit the starting unit, while the
+		// others visit the units of the whole program
+		HierarcyTraversalStrategy strategy = (st, start) -> ((SourceCodeLocation) st.getLocation()).getLine() == 1
+				? List.of(start)
+				: st.getProgram().getUnits().stream()
+						.filter(CompilationUnit.class::isInstance)
+						.map(CompilationUnit.class::cast)
+						.filter(u -> u != start)
+						.collect(Collectors.toList());
+		Program p = new Program(new TestLanguageFeatures() {
+			@Override
+			public HierarcyTraversalStrategy getTraversalStrategy() {
+				return strategy;
+			}
+		}, new TestTypeSystem());
+
+		ClassUnit first = new ClassUnit(new SourceCodeLocation("first", 0, 0), p, "First", false);
+		ClassUnit second = new ClassUnit(new SourceCodeLocation("second", 0, 0), p, "Second", false);
+		UnitType firstType = new UnitTypeImpl(first);
+		UnitType secondType = new UnitTypeImpl(second);
+		CFG firstFoo = new CFG(new CodeMemberDescriptor(new SourceCodeLocation("first", 1, 0), first, true, "foo",
+				new Parameter(new SourceCodeLocation("first", 1, 1), "this", firstType)));
+		firstFoo.addNode(new Ret(firstFoo, new SourceCodeLocation("first", 2, 0)), true);
+		CFG secondFoo = new CFG(new CodeMemberDescriptor(new SourceCodeLocation("second", 1, 0), second, true,
+				"foo", new Parameter(new SourceCodeLocation("second", 1, 1), "this", secondType)));
+		secondFoo.addNode(new Ret(secondFoo, new SourceCodeLocation("second", 2, 0)), true);
+		first.addInstanceCodeMember(firstFoo);
+		second.addInstanceCodeMember(secondFoo);
+
+		CFG caller = new CFG(new CodeMemberDescriptor(new SourceCodeLocation("fake", 0, 0), p, false, "caller"));
+		UnresolvedCall call1 = new UnresolvedCall(caller, new SourceCodeLocation("fake", 1, 0), CallType.INSTANCE,
+				"", "foo", new VariableRef(caller, new SourceCodeLocation("fake", 1, 1), "x", firstType));
+		UnresolvedCall call2 = new UnresolvedCall(caller, new SourceCodeLocation("fake", 2, 0), CallType.INSTANCE,
+				"", "foo", new VariableRef(caller, new SourceCodeLocation("fake", 2, 1), "x", firstType));
+		mkBody(caller, call1, call2);
+
+		p.addUnit(first);
+		p.addUnit(second);
+		p.addCodeMember(caller);
+		p.getFeatures().getProgramValidationLogic().validateAndFinalize(p);
+		cg.init(new Application(p));
+
+		Set<Type>[] types = noTypes(1);
+		types[0] = Collections.singleton(firstType);
+		CFGCall resolved = (CFGCall) cg.resolve(call1, types, new SymbolAliasing());
+		assertEquals(List.of(firstFoo), List.copyOf(resolved.getTargets()));
+		// the units visited for the second call must not be the cached ones
+		resolved = (CFGCall) cg.resolve(call2, types, new SymbolAliasing());
+		assertEquals(List.of(secondFoo), List.copyOf(resolved.getTargets()));
+	}
+
 	/**
 	 * @see <a href="https://github.com/lisa-analyzer/lisa/issues/145">#145</a>
 	 */
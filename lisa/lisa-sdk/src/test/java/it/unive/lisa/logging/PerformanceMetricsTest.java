@@ -0,0 +1,46 @@
+package it.unive.lisa.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import org.junit.After;
+import org.junit.Test;
+
+public class PerformanceMetricsTest {
+
+	@After
+	public void disable() {
+		PerformanceMetrics.setEnabled(false);
+	}
+
+	@Test
+	public void testDisabledMetricsAreNotCollected() {
+		PerformanceMetrics.setEnabled(false);
+		PerformanceMetrics.increment("counter");
+		PerformanceMetrics.stop("timer", PerformanceMetrics.start());
+		assertEquals(0, PerformanceMetrics.start());
+		assertEquals(0, PerformanceMetrics.getCounter("counter"));
+		assertTrue(PerformanceMetrics.snapshot().isEmpty());
+	}
+
+	@Test
+	public void testEnabledMetricsAreCollected() {
+		PerformanceMetrics.setEnabled(true);
+		PerformanceMetrics.increment("counter");
+		PerformanceMetrics.add("counter", 4);
+		PerformanceMetrics.add(PerformanceMetrics.key("counter", "foo"), 2);
+		PerformanceMetrics.stop("timer", PerformanceMetrics.start());
+
+		Map<String, String> snapshot = PerformanceMetrics.snapshot();
+		assertEquals(3, snapshot.size());
+		assertEquals("5", snapshot.get("counter"));
+		assertEquals("2", snapshot.get("counter[foo]"));
+		assertTrue(snapshot.get("timer").matches("\\d+\\.\\d{3}"));
+
+		// enabling the collection again starts from scratch
+		PerformanceMetrics.setEnabled(true);
+		assertEquals(0, PerformanceMetrics.getCounter("counter"));
+		assertTrue(PerformanceMetrics.snapshot().isEmpty());
+	}
+}
@@ -0,0 +1,73 @@
+package it.unive.lisa.program.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.TestLanguageFeatures;
+import it.unive.lisa.TestTypeSystem;
+import it.unive.lisa.program.ClassUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.controlFlow.ControlFlowExtractor;
+import it.unive.lisa.program.cfg.controlFlow.ControlFlowStructure;
+import it.unive.lisa.program.cfg.controlFlow.Loop;
+import it.unive.lisa.program.cfg.edge.FalseEdge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.edge.TrueEdge;
+import it.unive.lisa.program.cfg.statement.Assignment;
+import it.unive.lisa.program.cfg.statement.Return;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class CFGMetadataTest {
+
+	private static final ClassUnit unit = new ClassUnit(new SourceCodeLocation("unknown", 0, 0),
+			new Program(new TestLanguageFeatures(), new TestTypeSystem()),
+			"Testing", false);
+
+	@Test
+	public void testLoopMetadata() throws ProgramValidationException {
+		SourceCodeLocation unknown = new SourceCodeLocation("unknown", 0, 0);
+		CFG cfg = new CFG(new CodeMemberDescriptor(unknown, unit, false, "loop"));
+		VariableRef constant = new VariableRef(cfg, unknown, "a");
+		VariableRef condition = new VariableRef(cfg, unknown, "b");
+		Assignment a1 = new Assignment(cfg, unknown,
+				new VariableRef(cfg, unknown, "l"), constant);
+		Assignment a2 = new Assignment(cfg, unknown,
+				new VariableRef(cfg, unknown, "r"), constant);
+		Return ret = new Return(cfg, unknown, new VariableRef(cfg, unknown, "x"));
+		cfg.addNode(condition, true);
+		cfg.addNode(a1);
+		cfg.addNode(a2);
+		cfg.addNode(ret);
+		cfg.addEdge(new TrueEdge(condition, a1));
+		cfg.addEdge(new SequentialEdge(a1, condition));
+		cfg.addEdge(new FalseEdge(condition, a2));
+		cfg.addEdge(new SequentialEdge(a2, ret));
+		VariableTableEntry l = new VariableTableEntry(unknown, 0, a1, a1, "l");
+		cfg.getDescriptor().addVariable(l);
+		cfg.extractControlFlowStructures(new ControlFlowExtractor());
+
+		CFGMetadata md = cfg.getMetadata();
+		ControlFlowStructure loop = cfg.getControlFlowStructures().iterator().next();
+		assertTrue(loop + " does not represent a loop", loop instanceof Loop);
+		assertEquals("Wrong widening points", Set.of(condition), md.getWideningPoints());
+		assertSame("Wrong structure for the guard", loop, md.getStructureOf(condition));
+		assertNull("Structure for a non-guard", md.getStructureOf(a1));
+		assertEquals("Wrong structures containing the body", List.of(loop), md.getStructuresContaining(a1));
+		assertTrue("Structures containing the follower", md.getStructuresContaining(a2).isEmpty());
+		assertEquals("Wrong scope ends", List.of(l), md.getScopesEndingAt(a1));
+		assertTrue("Wrong scope ends", md.getScopesEndingAt(a2).isEmpty());
+		assertEquals("Wrong ordering", condition, md.getReversePostorder().get(0));
+
+		assertNotSame("Metadata cached before validation", md, cfg.getMetadata());
+		cfg.validate();
+		assertSame("Metadata not cached after validation", cfg.getMetadata(), cfg.getMetadata());
+	}
+}
@@ -0,0 +1,89 @@
+package it.unive.lisa.program.cfg.fixpoints;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.TestLanguageFeatures;
+import it.unive.lisa.TestTypeSystem;
+import it.unive.lisa.program.CodeUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMemberDescriptor;
+import it.unive.lisa.program.cfg.edge.FalseEdge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.edge.TrueEdge;
+import it.unive.lisa.program.cfg.statement.Ret;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import java.util.List;
+import org.junit.Test;
+
+public class ReversePostorderWorkingSetTest {
+
+	private static CFG cfg(String name) {
+		Program program = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		CodeUnit unit = new CodeUnit(SyntheticLocation.INSTANCE, program, "unit");
+		return new CFG(new CodeMemberDescriptor(SyntheticLocation.INSTANCE, unit, false, name));
+	}
+
+	@Test
+	public void testPriorityOrder() throws AnalysisSetupException {
+		CFG graph = cfg("foo");
+		Statement source = new VariableRef(graph, SyntheticLocation.INSTANCE, "x");
+		Statement left = new VariableRef(graph, SyntheticLocation.INSTANCE, "y");
+		Statement right = new VariableRef(graph, SyntheticLocation.INSTANCE, "z");
+		Statement join = new VariableRef(graph, SyntheticLocation.INSTANCE, "w");
+		Statement end = new Ret(graph, SyntheticLocation.INSTANCE);
+		graph.addNode(source, true);
+		graph.addNode(left);
+		graph.addNode(right);
+		graph.addNode(join);
+		graph.addNode(end);
+		graph.addEdge(new TrueEdge(source, left));
+		graph.addEdge(new FalseEdge(source, right));
+		graph.addEdge(new SequentialEdge(left, join));
+		graph.addEdge(new SequentialEdge(right, join));
+		graph.addEdge(new SequentialEdge(join, end));
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		WorkingSet<Statement> ws = WorkingSet.of((Class) ReversePostorderWorkingSet.class);
+		assertTrue("The working set is not empty at the beginning", ws.isEmpty());
+
+		ws.push(end);
+		ws.push(join);
+		ws.push(join);
+		ws.push(left);
+		assertEquals("Duplicates have not been suppressed", 3, ws.size());
+		assertSame("peek() did not return the first element in reverse postorder", left, ws.peek());
+		assertSame("pop() did not return the first element in reverse postorder", left, ws.pop());
+
+		ws.push(right);
+		ws.push(source);
+		assertEquals("Wrong contents", List.of(source, right, join, end), ws.getContents());
+		assertSame("Wrong element popped", source, ws.pop());
+		assertSame("Wrong element popped", right, ws.pop());
+		assertSame("Wrong element popped", join, ws.pop());
+		ws.push(join);
+		assertSame("Wrong element popped", join, ws.pop());
+		assertSame("Wrong element popped", end, ws.pop());
+		assertTrue("The working set is not empty at the end", ws.isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentCfgs() {
+		CFG first = cfg("foo");
+		Statement x = new VariableRef(first, SyntheticLocation.INSTANCE, "x");
+		first.addNode(x, true);
+		CFG second = cfg("bar");
+		Statement y = new VariableRef(second, SyntheticLocation.INSTANCE, "y");
+		second.addNode(y, true);
+
+		ReversePostorderWorkingSet ws = ReversePostorderWorkingSet.mk();
+		ws.push(x);
+		ws.push(y);
+	}
+}
@@ -0,0 +1,60 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class HashConsingTest {
+
+	@Test
+	public void testTableReturnsCanonicalInstances() {
+		HashConsTable<List<Integer>> table = new HashConsTable<>();
+		List<Integer> first = new ArrayList<>(List.of(1, 2, 3));
+		List<Integer> second = new ArrayList<>(List.of(1, 2, 3));
+		List<Integer> other = new ArrayList<>(List.of(4));
+		assertSame(first, table.intern(first));
+		assertSame(first, table.intern(second));
+		assertSame(other, table.intern(other));
+		assertEquals(2, table.size());
+		table.clear();
+		assertSame(second, table.intern(second));
+	}
+
+	@Test
+	public void testGlobalInterningIsOptIn() {
+		String first = new String("value");
+		String second = new String("value");
+		assertSame(second, HashConsing.intern(second));
+		try {
+			HashConsing.setEnabled(true);
+			assertSame(first, HashConsing.intern(first));
+			assertSame(first, HashConsing.intern(second));
+		} finally {
+			HashConsing.setEnabled(false);
+		}
+		assertSame(second, HashConsing.intern(second));
+	}
+
+	@Test
+	public void testNestedEnablingKeepsTables() {
+		String first = new String("nested");
+		String second = new String("nested");
+		try {
+			HashConsing.setEnabled(true);
+			HashConsing.setEnabled(true);
+			assertSame(first, HashConsing.intern(first));
+			HashConsing.setEnabled(false);
+			assertTrue("Hash-consing disabled while still in use", HashConsing.isEnabled());
+			assertSame(first, HashConsing.intern(second));
+		} finally {
+			HashConsing.setEnabled(false);
+		}
+		assertFalse("Hash-consing still enabled after the last user", HashConsing.isEnabled());
+		assertSame(second, HashConsing.intern(second));
+	}
+}
@@ -0,0 +1,174 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+	/**
+	 * Key with a configurable hash code, used to force collisions.
+	 */
+	private static class Key {
+		private final int id;
+		private final int hash;
+
+		private Key(int id, int hash) {
+			this.id = id;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "k" + id;
+		}
+	}
+
+	@Test
+	public void testRandomOperationsAgainstHashMap() {
+		Random random = new Random(42);
+		Map<Object, Integer> expected = new HashMap<>();
+		PersistentHashMap<Object, Integer> actual = new PersistentHashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			// few distinct hashes to exercise collision nodes as well
+			Object key = random.nextBoolean() ? Integer.valueOf(random.nextInt(2000))
+					: new Key(random.nextInt(300), random.nextInt(40));
+			if (random.nextInt(3) == 0)
+				assertEquals("Wrong value removed for " + key, expected.remove(key), actual.remove(key));
+			else {
+				int value = random.nextInt();
+				assertEquals("Wrong previous value for " + key, expected.put(key, value), actual.put(key, value));
+			}
+			assertEquals("Wrong size", expected.size(), actual.size());
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		for (Entry<Object, Integer> e : expected.entrySet())
+			assertEquals(e.getValue(), actual.get(e.getKey()));
+	}
+
+	@Test
+	public void testNullKeysAndValues() {
+		PersistentHashMap<String, String> map = new PersistentHashMap<>();
+		map.put(null, "a");
+		map.put("b", null);
+		assertTrue(map.containsKey(null));
+		assertTrue(map.containsKey("b"));
+		assertFalse(map.containsKey("c"));
+		assertEquals("a", map.get(null));
+		assertNull(map.get("b"));
+		assertEquals(2, map.size());
+		assertEquals("a", map.remove(null));
+		assertFalse(map.containsKey(null));
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		PersistentHashMap<Integer, Integer> original = new PersistentHashMap<>();
+		for (int i = 0; i < 1000; i++)
+			original.put(i, i);
+
+		PersistentHashMap<Integer, Integer> copy = new PersistentHashMap<>(original);
+		assertTrue(copy.sharesStructureWith(original));
+		assertEquals(original, copy);
+
+		copy.put(5, -5);
+		copy.remove(7);
+		copy.put(2000, 2000);
+		original.put(10, -10);
+
+		assertEquals(Integer.valueOf(5), original.get(5));
+		assertEquals(Integer.valueOf(7), original.get(7));
+		assertFalse(original.containsKey(2000));
+		assertEquals(Integer.valueOf(-10), original.get(10));
+		assertEquals(1000, original.size());
+
+		assertEquals(Integer.valueOf(-5), copy.get(5));
+		assertFalse(copy.containsKey(7));
+		assertEquals(Integer.valueOf(2000), copy.get(2000));
+		assertEquals(Integer.valueOf(10), copy.get(10));
+		assertEquals(1000, copy.size());
+	}
+
+	@Test
+	public void testUnsharedKeys() {
+		PersistentHashMap<Object, Integer> original = new PersistentHashMap<>();
+		for (int i = 0; i < 1000; i++)
+			original.put(i, i);
+		for (int i = 0; i < 10; i++)
+			original.put(new Key(i, 7), i);
+
+		PersistentHashMap<Object, Integer> copy = new PersistentHashMap<>(original);
+		Set<Object> unshared = new HashSet<>();
+		copy.unsharedKeys(original, unshared::add);
+		assertTrue(unshared.isEmpty());
+
+		copy.put(5, -5);
+		copy.put(new Key(3, 7), -3);
+		copy.put(5000, 5000);
+		copy.remove(8);
+
+		// all the keys whose mapping differs must be reported
+		unshared.clear();
+		copy.unsharedKeys(original, unshared::add);
+		assertTrue(unshared.contains(5));
+		assertTrue(unshared.contains(new Key(3, 7)));
+		assertTrue(unshared.contains(5000));
+		assertFalse(unshared.contains(8));
+		// and shared subtrees must not be visited
+		assertTrue("Too many keys reported: " + unshared.size(), unshared.size() < 200);
+
+		unshared.clear();
+		original.unsharedKeys(copy, unshared::add);
+		assertTrue(unshared.contains(5));
+		assertTrue(unshared.contains(new Key(3, 7)));
+		assertTrue(unshared.contains(8));
+		assertFalse(unshared.contains(5000));
+	}
+
+	@Test
+	public void testIteratorIsNotAffectedByModifications() {
+		PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+		for (int i = 0; i < 100; i++)
+			map.put(i, i);
+
+		int count = 0;
+		for (Iterator<Entry<Integer, Integer>> it = map.entrySet().iterator(); it.hasNext();) {
+			Entry<Integer, Integer> e = it.next();
+			assertEquals(e.getKey(), e.getValue());
+			map.put(e.getKey() + 1000, 0);
+			if (e.getKey() % 2 == 0)
+				it.remove();
+			count++;
+		}
+
+		assertEquals(100, count);
+		assertEquals(150, map.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i % 2 != 0, map.containsKey(i));
+			assertTrue(map.containsKey(i + 1000));
+		}
+	}
+}
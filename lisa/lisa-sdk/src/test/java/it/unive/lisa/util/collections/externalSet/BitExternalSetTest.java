@@ -303,6 +303,8 @@ public class BitExternalSetTest {
 		verify((s, es) -> s.stream().allMatch(es::contains), Pair.of(set1, eset1), Pair.of(set2, eset2));
 		verify((s, es) -> s.isEmpty() == es.isEmpty(), Pair.of(set1, eset1), Pair.of(set2, eset2));
 		verify((s, es) -> s.size() == es.size(), Pair.of(set1, eset1), Pair.of(set2, eset2));
+		verify((s, es) -> s.hashCode() == es.hashCode(), Pair.of(set1, eset1), Pair.of(set2, eset2));
+		assertTrue(eset1.containsAll(eset1.intersection(eset2)));
 
 		Set<String> tmp = new HashSet<>(set1);
 		tmp.addAll(set2);
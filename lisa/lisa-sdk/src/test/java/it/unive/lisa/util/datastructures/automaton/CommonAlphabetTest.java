@@ -31,10 +31,10 @@ public class CommonAlphabetTest {
 		st2[0] = new State(0, true, false);
 		st2[1] = new State(1, false, false);
 		st2[2] = new State(2, false, true);
-		Collections.addAll(states, st);
+		Collections.addAll(states2, st2);
 
-		delta.add(new Transition<>(st2[0], st2[1], new TestSymbol("a")));
-		delta.add(new Transition<>(st2[1], st2[2], new TestSymbol("c")));
+		delta2.add(new Transition<>(st2[0], st2[1], new TestSymbol("a")));
+		delta2.add(new Transition<>(st2[1], st2[2], new TestSymbol("c")));
 
 		TestAutomaton a2 = new TestAutomaton(states2, delta2);
 
@@ -70,10 +70,10 @@ public class CommonAlphabetTest {
 		st2[0] = new State(0, true, false);
 		st2[1] = new State(1, false, false);
 		st2[2] = new State(2, false, true);
-		Collections.addAll(states, st);
+		Collections.addAll(states2, st2);
 
-		delta.add(new Transition<>(st2[0], st2[1], new TestSymbol("a")));
-		delta.add(new Transition<>(st2[1], st2[2], new TestSymbol("c")));
+		delta2.add(new Transition<>(st2[0], st2[1], new TestSymbol("a")));
+		delta2.add(new Transition<>(st2[1], st2[2], new TestSymbol("c")));
 
 		// ac
 		TestAutomaton a2 = new TestAutomaton(states2, delta2);
@@ -0,0 +1,70 @@
+package it.unive.lisa.util.datastructures.automaton;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.junit.Test;
+
+public class TransitionSetTest {
+
+	private static final State Q0 = new State(0, true, false);
+	private static final State Q1 = new State(1, false, false);
+	private static final State Q2 = new State(2, false, true);
+
+	private static final Transition<TestSymbol> A = new Transition<>(Q0, Q1, new TestSymbol("a"));
+	private static final Transition<TestSymbol> B = new Transition<>(Q1, Q2, new TestSymbol("b"));
+	private static final Transition<TestSymbol> C = new Transition<>(Q0, Q2, new TestSymbol("c"));
+
+	@SafeVarargs
+	private static SortedSet<Transition<TestSymbol>> setOf(Transition<TestSymbol>... ts) {
+		return new TreeSet<>(Set.of(ts));
+	}
+
+	@Test
+	public void testIndexesFollowAdditions() {
+		TransitionSet<TestSymbol> set = new TransitionSet<>(setOf(A, B));
+		set.add(C);
+		assertEquals(setOf(A, B, C), set);
+		assertEquals(setOf(A, C), set.getOutgoingTransitionsFrom(Q0));
+		assertEquals(setOf(B), set.getOutgoingTransitionsFrom(Q1));
+		assertTrue(set.getOutgoingTransitionsFrom(Q2).isEmpty());
+		assertTrue(set.getIngoingTransitionsTo(Q0).isEmpty());
+		assertEquals(setOf(B, C), set.getIngoingTransitionsTo(Q2));
+	}
+
+	@Test
+	public void testIndexesFollowRemovals() {
+		TransitionSet<TestSymbol> set = new TransitionSet<>(setOf(A, B, C));
+		set.removeAll(setOf(C));
+		assertEquals(setOf(A), set.getOutgoingTransitionsFrom(Q0));
+		assertEquals(setOf(B), set.getIngoingTransitionsTo(Q2));
+
+		for (Iterator<Transition<TestSymbol>> it = set.iterator(); it.hasNext();)
+			if (it.next().equals(B))
+				it.remove();
+		assertEquals(setOf(A), set);
+		assertTrue(set.getOutgoingTransitionsFrom(Q1).isEmpty());
+		assertTrue(set.getIngoingTransitionsTo(Q2).isEmpty());
+
+		set.clear();
+		assertTrue(set.getOutgoingTransitionsFrom(Q0).isEmpty());
+		assertTrue(set.getIngoingTransitionsTo(Q1).isEmpty());
+	}
+
+	@Test
+	public void testStatesWithSameIdAreDistinguished() {
+		State other = new State(0, false, true);
+		TransitionSet<TestSymbol> set = new TransitionSet<>(setOf(A));
+		assertTrue(set.getOutgoingTransitionsFrom(other).isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testLookupsAreReadOnly() {
+		TransitionSet<TestSymbol> set = new TransitionSet<>(setOf(A, C));
+		set.getOutgoingTransitionsFrom(Q0).remove(A);
+	}
+}
@@ -0,0 +1,55 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class ReachabilityIndexTest {
+
+	@Test
+	public void testClosureFollowsAdditions() {
+		ReachabilityIndex<String> index = new ReachabilityIndex<>();
+		index.addEdge("a", "b");
+		index.addEdge("c", "d");
+		assertFalse(index.isReachable("a", "d"));
+
+		// joining the two chains must propagate to all ancestors
+		index.addEdge("b", "c");
+		assertTrue(index.isReachable("a", "d"));
+		assertFalse(index.isReachable("d", "a"));
+		assertFalse(index.isReachable("a", "a"));
+		assertFalse(index.isReachable("a", "unknown"));
+		assertEquals(Set.of("b", "c", "d"), index.getDescendants(List.of("a")));
+		assertEquals(Set.of("a", "b"), index.getAncestors(List.of("c")));
+		assertEquals(Set.of("c", "d"), index.getDescendants(List.of("b", "c")));
+		assertTrue(index.getNonTrivialComponents().isEmpty());
+	}
+
+	@Test
+	public void testComponents() {
+		ReachabilityIndex<String> index = new ReachabilityIndex<>();
+		index.addEdge("a", "b");
+		index.addEdge("b", "c");
+		index.addEdge("c", "b");
+		index.addEdge("c", "d");
+		index.addEdge("d", "d");
+		assertTrue(index.isReachable("b", "b"));
+		assertFalse(index.isReachable("a", "a"));
+
+		Collection<Collection<String>> components = index.getNonTrivialComponents();
+		assertEquals(Set.of(Set.of("b", "c"), Set.of("d")), components);
+
+		// closing the outer cycle merges everything
+		index.addEdge("d", "a");
+		assertEquals(Set.of(Set.of("a", "b", "c", "d")), index.getNonTrivialComponents());
+
+		index.clear();
+		assertFalse(index.isReachable("a", "b"));
+		assertTrue(index.getNonTrivialComponents().isEmpty());
+	}
+}
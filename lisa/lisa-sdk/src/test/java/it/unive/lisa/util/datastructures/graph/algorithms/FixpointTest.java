@@ -178,6 +178,52 @@ public class FixpointTest {
 				res);
 	}
 
+	@Test
+	public void testNestedCyclesWithWeakTopologicalOrder() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode outer = new TestNode(2);
+		TestNode inner = new TestNode(3);
+		TestNode body = new TestNode(4);
+		TestNode latch = new TestNode(5);
+		TestNode end = new TestNode(6);
+		graph.addNode(source, true);
+		graph.addNode(outer);
+		graph.addNode(inner);
+		graph.addNode(body);
+		graph.addNode(latch);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, outer));
+		graph.addEdge(new TestEdge(outer, inner));
+		graph.addEdge(new TestEdge(inner, body));
+		graph.addEdge(new TestEdge(body, inner));
+		graph.addEdge(new TestEdge(inner, latch));
+		graph.addEdge(new TestEdge(latch, outer));
+		graph.addEdge(new TestEdge(outer, end));
+
+		Map<TestNode, Set<TestNode>> res = null;
+		try {
+			res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph, false).fixpoint(
+					Map.of(source, Set.of()),
+					WeakTopologicalOrder.of(graph),
+					new FixpointTester());
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+
+		Set<TestNode> loop = Set.of(source, outer, inner, body, latch);
+		assertNotNull("Fixpoint failed", res);
+		assertEquals("Fixpoint returned wrong result",
+				Map.of(source, Set.of(source),
+						outer, loop,
+						inner, loop,
+						body, loop,
+						latch, loop,
+						end, Set.of(source, outer, inner, body, latch, end)),
+				res);
+	}
+
 	private static class ExceptionalTester implements FixpointImplementation<TestNode, TestEdge, Set<TestNode>> {
 
 		private final int type;
@@ -0,0 +1,116 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class LoopNestingForestTest {
+
+	@Test
+	public void testDominatorTree() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode left = new TestNode(2);
+		TestNode right = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode other = new TestNode(5);
+		TestNode unreachable = new TestNode(6);
+		graph.addNode(source, true);
+		graph.addNode(left);
+		graph.addNode(right);
+		graph.addNode(join);
+		graph.addNode(other, true);
+		graph.addNode(unreachable);
+		graph.addEdge(new TestEdge(source, left));
+		graph.addEdge(new TestEdge(source, right));
+		graph.addEdge(new TestEdge(left, join));
+		graph.addEdge(new TestEdge(right, join));
+		graph.addEdge(new TestEdge(other, right));
+		graph.addEdge(new TestEdge(unreachable, join));
+
+		DominatorTree<TestNode> tree = DominatorTree.of(graph);
+		assertEquals("Wrong immediate dominator", source, tree.getImmediateDominator(left));
+		assertNull("Join has a dominator", tree.getImmediateDominator(join));
+		assertNull("Right branch has a dominator", tree.getImmediateDominator(right));
+		assertNull("Root has a dominator", tree.getImmediateDominator(other));
+		assertTrue("Dominance is not reflexive", tree.dominates(join, join));
+		assertTrue("Wrong dominance", tree.dominates(source, left));
+		assertFalse("Wrong dominance", tree.dominates(left, join));
+		assertFalse("Wrong dominance", tree.dominates(other, right));
+		assertFalse("Unreachable node in the tree", tree.contains(unreachable));
+		assertEquals("Wrong dominators", Set.of(source, left), tree.getDominators(left));
+	}
+
+	@Test
+	public void testNestedLoops() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode outer = new TestNode(2);
+		TestNode inner = new TestNode(3);
+		TestNode body = new TestNode(4);
+		TestNode latch = new TestNode(5);
+		TestNode self = new TestNode(6);
+		TestNode end = new TestNode(7);
+		graph.addNode(source, true);
+		graph.addNode(outer);
+		graph.addNode(inner);
+		graph.addNode(body);
+		graph.addNode(latch);
+		graph.addNode(self);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, outer));
+		graph.addEdge(new TestEdge(outer, inner));
+		graph.addEdge(new TestEdge(inner, body));
+		graph.addEdge(new TestEdge(body, inner));
+		graph.addEdge(new TestEdge(inner, latch));
+		graph.addEdge(new TestEdge(latch, outer));
+		graph.addEdge(new TestEdge(outer, self));
+		graph.addEdge(new TestEdge(self, self));
+		graph.addEdge(new TestEdge(self, end));
+
+		LoopNestingForest<TestNode> loops = LoopNestingForest.of(graph);
+		List<TestNode> headers = loops.getHeaders();
+		assertEquals("Wrong headers", Set.of(outer, inner, self), Set.copyOf(headers));
+		assertTrue("Inner loop before outer loop", headers.indexOf(outer) < headers.indexOf(inner));
+		assertEquals("Wrong outer body", Set.of(outer, inner, body, latch), loops.getBody(outer));
+		assertEquals("Wrong inner body", Set.of(inner, body), loops.getBody(inner));
+		assertEquals("Wrong self loop body", Set.of(self), loops.getBody(self));
+		assertEquals("Wrong latches", List.of(latch), loops.getLatches(outer));
+		assertEquals("Wrong parent", outer, loops.getParent(inner));
+		assertNull("Outer loop has a parent", loops.getParent(outer));
+		assertNull("Self loop has a parent", loops.getParent(self));
+		assertEquals("Wrong innermost loop", inner, loops.getInnermostLoop(body));
+		assertEquals("Wrong innermost loop", outer, loops.getInnermostLoop(latch));
+		assertNull("Node outside loops has a loop", loops.getInnermostLoop(end));
+		assertEquals("Wrong depth", 2, loops.getDepth(body));
+		assertEquals("Wrong depth", 0, loops.getDepth(source));
+		assertTrue("Nested node not contained", loops.contains(outer, body));
+		assertFalse("Outer node contained", loops.contains(inner, latch));
+	}
+
+	@Test
+	public void testIrreducibleCycle() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode first = new TestNode(2);
+		TestNode second = new TestNode(3);
+		graph.addNode(source, true);
+		graph.addNode(first);
+		graph.addNode(second);
+		graph.addEdge(new TestEdge(source, first));
+		graph.addEdge(new TestEdge(source, second));
+		graph.addEdge(new TestEdge(first, second));
+		graph.addEdge(new TestEdge(second, first));
+
+		LoopNestingForest<TestNode> loops = LoopNestingForest.of(graph);
+		assertTrue("Irreducible cycle identified as a loop", loops.getHeaders().isEmpty());
+	}
+}
@@ -0,0 +1,70 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import java.util.List;
+import org.junit.Test;
+
+public class ReversePostorderTest {
+
+	@Test
+	public void testBranchingGraph() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode left = new TestNode(2);
+		TestNode right = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode end = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(left);
+		graph.addNode(right);
+		graph.addNode(join);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, left));
+		graph.addEdge(new TestEdge(source, right));
+		graph.addEdge(new TestEdge(left, join));
+		graph.addEdge(new TestEdge(right, join));
+		graph.addEdge(new TestEdge(join, end));
+
+		ReversePostorder<TestNode> rpo = ReversePostorder.of(graph);
+		assertEquals("Wrong size", 5, rpo.size());
+		assertEquals("Wrong first node", source, rpo.get(0));
+		assertTrue("Join before left branch", rpo.indexOf(left) < rpo.indexOf(join));
+		assertTrue("Join before right branch", rpo.indexOf(right) < rpo.indexOf(join));
+		assertEquals("Wrong last node", end, rpo.get(4));
+	}
+
+	@Test
+	public void testCyclicGraph() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode guard = new TestNode(2);
+		TestNode body = new TestNode(3);
+		TestNode end = new TestNode(4);
+		TestNode unreachable = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(guard);
+		graph.addNode(body);
+		graph.addNode(end);
+		graph.addNode(unreachable);
+		graph.addEdge(new TestEdge(source, guard));
+		graph.addEdge(new TestEdge(guard, body));
+		graph.addEdge(new TestEdge(body, guard));
+		graph.addEdge(new TestEdge(guard, end));
+		graph.addEdge(new TestEdge(unreachable, end));
+
+		ReversePostorder<TestNode> rpo = ReversePostorder.of(graph);
+		assertEquals("Wrong size", 4, rpo.size());
+		assertEquals("Unreachable node in the ordering", -1, rpo.indexOf(unreachable));
+		assertEquals("Wrong prefix", List.of(source, guard), rpo.getNodes().subList(0, 2));
+		assertTrue("Back edge target after its source", rpo.indexOf(guard) < rpo.indexOf(body));
+
+		rpo = ReversePostorder.of(List.of(source, unreachable), graph::followersOf);
+		assertEquals("Wrong size", 5, rpo.size());
+		assertEquals("Unreachable node not at the end", unreachable, rpo.get(4));
+	}
+}
@@ -0,0 +1,109 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Element;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class WeakTopologicalOrderTest {
+
+	@Test
+	public void testLinearGraph() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode middle = new TestNode(2);
+		TestNode end = new TestNode(3);
+		graph.addNode(source, true);
+		graph.addNode(middle);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, middle));
+		graph.addEdge(new TestEdge(middle, end));
+
+		WeakTopologicalOrder<TestNode> wto = WeakTopologicalOrder.of(graph);
+		assertEquals("Wrong ordering", "1 2 3", wto.toString());
+		assertTrue("Wrong heads", wto.getHeads().isEmpty());
+		assertEquals("Wrong nodes", Set.of(source, middle, end), wto.getNodes());
+	}
+
+	@Test
+	public void testNestedCycles() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode outer = new TestNode(2);
+		TestNode inner = new TestNode(3);
+		TestNode body = new TestNode(4);
+		TestNode latch = new TestNode(5);
+		TestNode end = new TestNode(6);
+		TestNode unreachable = new TestNode(7);
+		graph.addNode(source, true);
+		graph.addNode(outer);
+		graph.addNode(inner);
+		graph.addNode(body);
+		graph.addNode(latch);
+		graph.addNode(end);
+		graph.addNode(unreachable);
+		graph.addEdge(new TestEdge(source, outer));
+		graph.addEdge(new TestEdge(outer, inner));
+		graph.addEdge(new TestEdge(inner, body));
+		graph.addEdge(new TestEdge(body, inner));
+		graph.addEdge(new TestEdge(inner, latch));
+		graph.addEdge(new TestEdge(latch, outer));
+		graph.addEdge(new TestEdge(outer, end));
+		graph.addEdge(new TestEdge(unreachable, end));
+
+		WeakTopologicalOrder<TestNode> wto = WeakTopologicalOrder.of(graph);
+		assertEquals("Wrong heads", Set.of(outer, inner), wto.getHeads());
+		assertFalse("Unreachable node in the ordering", wto.contains(unreachable));
+
+		List<Element<TestNode>> elements = wto.getElements();
+		assertEquals("Wrong number of elements", 3, elements.size());
+		assertEquals("Wrong first element", source, elements.get(0).getHead());
+		assertFalse("First element is a component", elements.get(0).isComponent());
+		assertTrue("Outer loop is not a component", elements.get(1).isComponent());
+		assertEquals("Wrong outer head", outer, elements.get(1).getHead());
+		assertEquals("Wrong last element", end, elements.get(2).getHead());
+
+		List<Element<TestNode>> outerBody = elements.get(1).getBody();
+		assertEquals("Wrong outer body size", 2, outerBody.size());
+		assertTrue("Inner loop is not a component", outerBody.get(0).isComponent());
+		assertEquals("Wrong inner head", inner, outerBody.get(0).getHead());
+		assertEquals("Wrong inner body", List.of(body),
+				List.of(outerBody.get(0).getBody().get(0).getHead()));
+		assertEquals("Wrong latch", latch, outerBody.get(1).getHead());
+	}
+
+	@Test
+	public void testLongChainInsideCycle() {
+		// deep enough to overflow the call stack with a recursive visit
+		int length = 100_000;
+		TestGraph graph = new TestGraph();
+		TestNode[] nodes = new TestNode[length];
+		for (int i = 0; i < length; i++) {
+			nodes[i] = new TestNode(i);
+			graph.addNode(nodes[i], i == 0);
+		}
+		for (int i = 0; i < length - 1; i++)
+			graph.addEdge(new TestEdge(nodes[i], nodes[i + 1]));
+		graph.addEdge(new TestEdge(nodes[length - 1], nodes[1]));
+
+		WeakTopologicalOrder<TestNode> wto = WeakTopologicalOrder.of(graph);
+		assertEquals("Wrong heads", Set.of(nodes[1]), wto.getHeads());
+		assertEquals("Wrong number of nodes", length, wto.getNodes().size());
+
+		List<Element<TestNode>> elements = wto.getElements();
+		assertEquals("Wrong number of elements", 2, elements.size());
+		assertEquals("Wrong first element", nodes[0], elements.get(0).getHead());
+		assertTrue("The cycle is not a component", elements.get(1).isComponent());
+		List<Element<TestNode>> body = elements.get(1).getBody();
+		assertEquals("Wrong body size", length - 2, body.size());
+		for (int i = 0; i < body.size(); i++)
+			assertEquals("Wrong body element", nodes[i + 2], body.get(i).getHead());
+	}
+}
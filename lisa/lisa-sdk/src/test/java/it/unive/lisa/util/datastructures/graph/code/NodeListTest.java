@@ -4,6 +4,7 @@ import static org.apache.commons.collections4.CollectionUtils.isEqualCollection;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.util.datastructures.graph.Edge;
@@ -176,6 +177,42 @@ public class NodeListTest {
 		verify(adj, nodes, edges, matrix, entries, exits);
 	}
 
+	@Test
+	public void testFrozenStructure() {
+		Collection<TestCodeNode> nodes = new HashSet<>();
+		Collection<TestCodeEdge> edges = new HashSet<>();
+		Collection<TestCodeNode> entries = new HashSet<>();
+		Collection<TestCodeNode> exits = new HashSet<>();
+		NodeList<TestCodeGraph, TestCodeNode, TestCodeEdge> matrix = new NodeList<>(new TestCodeEdge(null, null));
+		Map<TestCodeNode, Collection<TestCodeNode>> adj = populate(matrix, nodes, edges, entries, exits);
+		matrix.freeze();
+		verify(adj, nodes, edges, matrix, entries, exits, "after freezing");
+		assertTrue("queries discarded the frozen representation", matrix.isFrozen());
+		for (TestCodeNode node : nodes) {
+			assertTrue("frozen followers are not a set", matrix.followersOf(node) instanceof Set);
+			assertTrue("frozen predecessors are not a set", matrix.predecessorsOf(node) instanceof Set);
+			assertSame("frozen followers are rebuilt at each query", matrix.followersOf(node),
+					matrix.followersOf(node));
+			assertEquals("lookup by an equal node differs from lookup by the same node",
+					matrix.indexOf(node), matrix.indexOf(new TestCodeNode(Integer.parseInt(node.toString()))));
+		}
+
+		// modifications must discard the frozen representation
+		TestCodeNode source = nodes.iterator().next();
+		TestCodeNode added = new TestCodeNode(nodes.size() * 2 + 1);
+		matrix.addNode(added);
+		assertFalse("adding a node did not discard the frozen representation", matrix.isFrozen());
+		matrix.freeze();
+		matrix.addEdge(new TestCodeEdge(source, added));
+		assertFalse("adding an edge did not discard the frozen representation", matrix.isFrozen());
+		matrix.freeze();
+		assertTrue(matrix.followersOf(source).contains(added));
+		assertTrue(matrix.predecessorsOf(added).contains(source));
+		matrix.removeNode(added);
+		assertFalse("removing a node did not discard the frozen representation", matrix.isFrozen());
+		verify(adj, nodes, edges, matrix, entries, exits, "after modifying a frozen list");
+	}
+
 	@Test
 	public void testMerge() {
 		Collection<TestCodeNode> nodes1 = new HashSet<>();
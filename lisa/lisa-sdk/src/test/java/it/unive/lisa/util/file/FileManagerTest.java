@@ -1,10 +1,17 @@
 package it.unive.lisa.util.file;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import it.unive.lisa.outputs.json.JsonUtilities;
+import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -189,4 +196,60 @@ public class FileManagerTest {
 		assertEquals("FileManager did not track the created file", manager.createdFiles().iterator().next(),
 				file.getName());
 	}
+
+	@Test
+	public void testCompressedJsonFile() throws IOException {
+		FileManager manager = new FileManager(TESTDIR, true);
+		SerializableGraph graph = new SerializableGraph("foo", "bar", new TreeSet<>(), new TreeSet<>(),
+				new TreeSet<>());
+		manager.mkJsonFile("foo bar", graph::dump);
+
+		File file = new File(new File(TESTDIR), "foo_bar.json.gz");
+		if (!file.exists())
+			fail("The file has not been created");
+
+		assertEquals("FileManager did not track the created file", manager.createdFiles().iterator().next(),
+				file.getName());
+		try (Reader reader = JsonUtilities.reader(file)) {
+			assertEquals("The compressed graph is different", graph, SerializableGraph.readGraph(reader));
+		}
+	}
+
+	@Test
+	public void testPackedJsonFiles() throws IOException {
+		FileManager manager = new FileManager(TESTDIR, true, true);
+		SerializableGraph first = new SerializableGraph("foo", "bar", new TreeSet<>(), new TreeSet<>(),
+				new TreeSet<>());
+		SerializableGraph second = new SerializableGraph("bar", null, new TreeSet<>(), new TreeSet<>(),
+				new TreeSet<>());
+		manager.mkJsonFile("foo bar", first::dump);
+		manager.mkJsonFile("bar", second::dump);
+		manager.mkDotFile("foo", writer -> writer.write("digraph {}"));
+		manager.mkOutputFile("report.json", writer -> writer.write("{}"));
+		manager.closeResultStore();
+
+		File dir = new File(TESTDIR);
+		if (new File(dir, "foo_bar.json").exists() || new File(dir, "foo_bar.json.gz").exists())
+			fail("Packed files should not be created on the file system");
+		if (!new File(dir, "foo.dot").exists())
+			fail("Files that are not json should not be packed");
+		if (!new File(dir, "report.json").exists())
+			fail("Files not created as json graphs should not be packed");
+
+		File store = new File(dir, FileManager.RESULT_STORE_NAME);
+		assertTrue("The result store has not been created", ResultStoreReader.isStore(store));
+		assertEquals("FileManager did not track the packed files",
+				new TreeSet<>(List.of("bar.json", "foo.dot", "foo_bar.json", "report.json")),
+				manager.createdFiles());
+		try (ResultStoreReader reader = new ResultStoreReader(store)) {
+			assertEquals("The store contains unexpected entries", List.of("foo_bar.json", "bar.json"),
+					new ArrayList<>(reader.getEntries()));
+			try (Reader r = reader.open("foo_bar.json")) {
+				assertEquals("The first packed graph is different", first, SerializableGraph.readGraph(r));
+			}
+			try (Reader r = reader.open("bar.json")) {
+				assertEquals("The second packed graph is different", second, SerializableGraph.readGraph(r));
+			}
+		}
+	}
 }